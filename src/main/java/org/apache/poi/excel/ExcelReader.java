@@ -0,0 +1,514 @@
+package org.apache.poi.excel;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.apache.poi.excel.annotation.ExcelCell;
+import org.apache.poi.excel.annotation.ExcelSheet;
+import org.apache.poi.excel.model.DelimitedFormat;
+import org.apache.poi.excel.model.SheetSchema;
+import org.apache.poi.excel.model.WorkbookRows;
+import org.apache.poi.excel.processor.index.RangeReader;
+import org.apache.poi.excel.processor.index.RowIndex;
+import org.apache.poi.excel.processor.index.RowIndexBuilder;
+import org.apache.poi.excel.processor.parser.ChunkQueue;
+import org.apache.poi.excel.processor.parser.DelimitedConverter;
+import org.apache.poi.excel.processor.parser.RowIterator;
+import org.apache.poi.excel.processor.parser.RowMapper;
+import org.apache.poi.excel.processor.parser.SheetJob;
+import org.apache.poi.excel.processor.parser.SharedStringsFile;
+import org.apache.poi.excel.processor.parser.SheetParser;
+import org.apache.poi.excel.processor.parser.WorkbookParser;
+import org.apache.poi.excel.processor.writer.DelimitedWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The reverse of the {@link ExcelWriter}. Reads the rows of an xlsx file back
+ * into POJO objects, using the same {@link ExcelCell} and {@link ExcelSheet}
+ * annotations. <br>
+ * <br>
+ * The sheet XML is streamed, never loaded as a whole, so a sheet of any size is
+ * read in constant memory. Only the shared strings of the workbook are held.
+ * The columns are matched to the fields by their headers, and the columns that
+ * no field maps to are skipped without being decoded. <br>
+ * <br>
+ * <b>Usage:</b>
+ * <ol>
+ * <li>All the rows at once.
+ *
+ * <pre>
+ * {@code
+ * List<Employee> employees = ExcelReader.read(file, Employee.class);
+ * }
+ * </pre>
+ *
+ * </li>
+ * <li>Rows <b>pulled lazily</b>, say to load a huge upload into a database.
+ *
+ * <pre>
+ * {@code
+ * try (Stream<Employee> employees = new ExcelReader().stream(file, Employee.class)) {
+ *     employees.forEach(repository::save);
+ * }
+ * }
+ * </pre>
+ *
+ * </li>
+ * <li>Workbooks with <b>many sheets</b> of the same class, read in parallel.
+ *
+ * <pre>
+ * {@code
+ * ExcelReader reader = new ExcelReader();
+ * reader.setParallelism(4);
+ * try (Stream<Trade> trades = reader.streamMerged(file, Trade.class)) {
+ *     trades.forEach(reconciler::check);
+ * }
+ * }
+ * </pre>
+ *
+ * </li>
+ * <li>A <b>page of rows</b> far down a huge sheet. The first call indexes the
+ * file, the rest skip straight to their rows.
+ *
+ * <pre>
+ * {@code
+ * List<Trade> page = new ExcelReader().readRange(file, Trade.class, 900000, 100);
+ * }
+ * </pre>
+ *
+ * </li>
+ * <li>A workbook turned into <b>CSV</b>, no POJOs needed.
+ *
+ * <pre>
+ * {@code
+ * List<File> files = new ExcelReader().convert(file, DelimitedFormat.CSV, pathToDir);
+ * }
+ * </pre>
+ *
+ * </li>
+ * </ol>
+ * The sheet read is the one named as the class would be written, else the
+ * first one. The class needs a constructor without any arguments, it may be
+ * private. <br>
+ * <br>
+ * An instance holds no per-read state, so it can be used by any number of
+ * threads at once.
+ *
+ * @author ssp5zone
+ * @see ExcelWriter
+ * @see ExcelCell
+ */
+public class ExcelReader {
+	private final static Logger log = LoggerFactory.getLogger(ExcelReader.class);
+
+	/**
+	 * The instance backing the static calls.
+	 */
+	private final static ExcelReader defaultReader = new ExcelReader();
+
+	/**
+	 * The chunks of rows a sheet is read ahead by
+	 */
+	private final static int QUEUED_CHUNKS = 4;
+
+	/**
+	 * How long a close waits for the workers to stop
+	 */
+	private final static int STOP_SECONDS = 10;
+
+	/**
+	 * The memory bound of the shared strings kept at hand by a conversion
+	 */
+	private final static long SHARED_STRINGS_CACHE = 8 * 1024 * 1024;
+
+	/**
+	 * How many sheets may be read at the same time
+	 */
+	private int parallelism = 1;
+
+	/**
+	 * Rows between two restart points of an index
+	 */
+	private int indexBlockRows = 1000;
+
+	/**
+	 * Reads all the rows of the sheet into a list.
+	 *
+	 * @param file The xlsx file
+	 * @param type The POJO class of the rows
+	 * @param <T>  The POJO class of the rows
+	 * @return The rows, empty if none of the columns of the class are found
+	 * @throws IOException If the file could not be read
+	 */
+	public static <T> List<T> read(File file, Class<T> type) throws IOException {
+		try (Stream<T> rows = defaultReader.stream(file, type)) {
+			return rows.collect(Collectors.toList());
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * Reads the rows of the sheet lazily, one as each is asked for. Close the
+	 * stream once done. <br>
+	 * <br>
+	 * Errors while reading the rows are thrown as an
+	 * {@link UncheckedIOException}.
+	 *
+	 * @param file The xlsx file
+	 * @param type The POJO class of the rows
+	 * @param <T>  The POJO class of the rows
+	 * @return The rows, empty if none of the columns of the class are found
+	 * @throws IOException If the file could not be opened
+	 */
+	public <T> Stream<T> stream(File file, Class<T> type) throws IOException {
+		return stream(new WorkbookParser(file), type);
+	}
+
+	/**
+	 * Same as {@link ExcelReader#stream(File, Class)} for an upload or any other
+	 * stream. It is first copied to a temp file, as an xlsx can not be read
+	 * without jumping around in it. The passed stream is not closed.
+	 *
+	 * @param in   The xlsx content
+	 * @param type The POJO class of the rows
+	 * @param <T>  The POJO class of the rows
+	 * @return The rows, empty if none of the columns of the class are found
+	 * @throws IOException If the stream could not be read
+	 */
+	public <T> Stream<T> stream(InputStream in, Class<T> type) throws IOException {
+		return stream(WorkbookParser.of(in), type);
+	}
+
+	private <T> Stream<T> stream(WorkbookParser workbook, Class<T> type) throws IOException {
+		RowIterator<T> rows;
+		try {
+			SheetParser parser = workbook.openSheet(SheetSchema.of(type).getName());
+			try {
+				rows = new RowIterator<T>(parser, RowMapper.of(parser, type));
+			} catch (IOException | RuntimeException e) {
+				parser.close();
+				throw e;
+			}
+		} catch (IOException | RuntimeException e) {
+			workbook.close();
+			throw e;
+		}
+		return toStream(rows).onClose(() -> {
+			close(rows);
+			workbook.close();
+		});
+	}
+
+	/**
+	 * Reads every sheet of the workbook into the same class, one stream per
+	 * sheet. The sheets are read on upto {@link #getParallelism()} worker
+	 * threads, in the order of the tabs, while the caller consumes them. The rows
+	 * of each sheet keep their order. <br>
+	 * <br>
+	 * Sheets without the columns of the class have no rows.
+	 *
+	 * @param file The xlsx file
+	 * @param type The POJO class of the rows
+	 * @param <T>  The POJO class of the rows
+	 * @return The rows of each sheet, to be closed once done
+	 * @throws IOException If the file could not be opened
+	 */
+	public <T> WorkbookRows<T> streamSheets(File file, Class<T> type) throws IOException {
+		WorkbookParser workbook = new WorkbookParser(file);
+		Map<String, InputStream> sheets = openSheets(workbook);
+		IntFunction<String> sharedStrings = getSharedStrings(workbook, sheets);
+
+		Map<String, Stream<T>> rows = new LinkedHashMap<String, Stream<T>>();
+		List<SheetJob<T>> jobs = new ArrayList<SheetJob<T>>();
+		sheets.forEach((name, in) -> {
+			SheetJob<T> job = new SheetJob<T>(name, in, sharedStrings, type,
+					new ChunkQueue<T>(1, QUEUED_CHUNKS));
+			jobs.add(job);
+			rows.put(name, toStream(job.iterator()).onClose(job::cancel));
+		});
+		ExecutorService pool = submit(jobs);
+		return new WorkbookRows<T>(rows, () -> close(workbook, jobs, pool));
+	}
+
+	/**
+	 * Reads every sheet of the workbook into the same class, all in one stream.
+	 * The sheets are read on upto {@link #getParallelism()} worker threads and
+	 * their rows come in as they are read, in no particular order. The fastest
+	 * way through a large workbook. <br>
+	 * <br>
+	 * Sheets without the columns of the class are skipped. Close the stream once
+	 * done.
+	 *
+	 * @param file The xlsx file
+	 * @param type The POJO class of the rows
+	 * @param <T>  The POJO class of the rows
+	 * @return The rows of all the sheets
+	 * @throws IOException If the file could not be opened
+	 */
+	public <T> Stream<T> streamMerged(File file, Class<T> type) throws IOException {
+		WorkbookParser workbook = new WorkbookParser(file);
+		Map<String, InputStream> sheets = openSheets(workbook);
+		if (sheets.isEmpty()) {
+			workbook.close();
+			return Stream.empty();
+		}
+		IntFunction<String> sharedStrings = getSharedStrings(workbook, sheets);
+
+		ChunkQueue<T> queue = new ChunkQueue<T>(sheets.size(), QUEUED_CHUNKS * Math.min(parallelism, sheets.size()));
+		List<SheetJob<T>> jobs = new ArrayList<SheetJob<T>>();
+		sheets.forEach((name, in) -> jobs.add(new SheetJob<T>(name, in, sharedStrings, type, queue)));
+		ExecutorService pool = submit(jobs);
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(queue, Spliterator.NONNULL), false)
+				.onClose(() -> close(workbook, jobs, pool));
+	}
+
+	/**
+	 * Reads a range of rows of the sheet, without parsing the rows before it.
+	 * <br>
+	 * <br>
+	 * The {@link RowIndex} saved next to the file is used to skip to the range.
+	 * If there is none, or the file has changed since, the file is indexed
+	 * first, which takes about as long as reading it once. Each later range is
+	 * read in about the time it takes to read {@link #getIndexBlockRows()} rows,
+	 * wherever it is in the sheet.
+	 *
+	 * @param file  The xlsx file
+	 * @param type  The POJO class of the rows
+	 * @param from  0 based position of the first row to read, counted from the
+	 *              row after the header
+	 * @param count The number of rows to read
+	 * @param <T>   The POJO class of the rows
+	 * @return The rows in the range, less if the sheet ends before or some of
+	 *         them are blank. Empty if none of the columns of the class are found.
+	 * @throws IOException If the file could not be read
+	 */
+	public <T> List<T> readRange(File file, Class<T> type, int from, int count) throws IOException {
+		RowIndex index = new RowIndexBuilder(indexBlockRows).load(file);
+		try (WorkbookParser workbook = new WorkbookParser(file)) {
+			return RangeReader.read(workbook, index, type, from, count);
+		}
+	}
+
+	/**
+	 * Indexes the file for {@link #readRange(File, Class, int, int)}, say right
+	 * after it is exported, so that no reader has to wait for it. The index is
+	 * saved next to the file.
+	 *
+	 * @param file The xlsx file
+	 * @throws IOException If the file could not be read or the index saved
+	 */
+	public void index(File file) throws IOException {
+		new RowIndexBuilder(indexBlockRows).build(file).write(RowIndex.fileOf(file));
+	}
+
+	/**
+	 * Writes the rows of a sheet as delimited text, straight from the sheet XML.
+	 * <br>
+	 * <br>
+	 * Nothing grows with the size of the workbook. The shared strings are
+	 * spooled to a temp file and only the recently used ones are held, so even a
+	 * workbook of a few GBs is converted in a small heap. The numbers and dates
+	 * are written the way the sheet shows them, in the format of their
+	 * {@link org.apache.poi.excel.model.ExcelCellType}.
+	 *
+	 * @param file   The xlsx file
+	 * @param sheet  The sheet name, matched ignoring the case. The first sheet if
+	 *               there is no such sheet.
+	 * @param format CSV or TSV
+	 * @param out    Where the text goes, flushed but not closed
+	 * @throws IOException If the file could not be read or the text written
+	 */
+	public void convert(File file, String sheet, DelimitedFormat format, Writer out) throws IOException {
+		try (WorkbookParser workbook = new WorkbookParser(file);
+				SharedStringsFile sharedStrings = SharedStringsFile.of(workbook.openSharedStrings(),
+						SHARED_STRINGS_CACHE)) {
+			convert(workbook, sharedStrings, workbook.findSheet(sheet), format, out);
+		}
+	}
+
+	/**
+	 * Writes every sheet of the workbook as delimited text, one file per sheet
+	 * named after it, say {@code Employees.csv}. Existing files are replaced.
+	 *
+	 * @param file      The xlsx file
+	 * @param format    CSV or TSV
+	 * @param directory Where the files go
+	 * @return The files, in the order of the tabs
+	 * @throws IOException If the file could not be read or the text written
+	 * @see #convert(File, String, DelimitedFormat, Writer)
+	 */
+	public List<File> convert(File file, DelimitedFormat format, String directory) throws IOException {
+		List<File> files = new ArrayList<File>();
+		try (WorkbookParser workbook = new WorkbookParser(file);
+				SharedStringsFile sharedStrings = SharedStringsFile.of(workbook.openSharedStrings(),
+						SHARED_STRINGS_CACHE)) {
+			Map<String, InputStream> sheets = workbook.openSheets();
+			for (InputStream sheet : sheets.values()) {
+				sheet.close();
+			}
+			for (String name : sheets.keySet()) {
+				File target = Paths.get(directory, format.toFileName(name)).toFile();
+				try (Writer out = new OutputStreamWriter(new FileOutputStream(target), StandardCharsets.UTF_8)) {
+					convert(workbook, sharedStrings, name, format, out);
+				}
+				files.add(target);
+			}
+		}
+		return files;
+	}
+
+	private static void convert(WorkbookParser workbook, SharedStringsFile sharedStrings, String sheet,
+			DelimitedFormat format, Writer out) throws IOException {
+		DelimitedWriter writer = new DelimitedWriter(out, format);
+		try (SheetParser parser = new SheetParser(workbook.openSheetData(sheet), sharedStrings)) {
+			new DelimitedConverter(workbook.getStyles()).convert(parser, writer);
+		}
+		writer.flush();
+	}
+
+	private static Map<String, InputStream> openSheets(WorkbookParser workbook) throws IOException {
+		try {
+			return workbook.openSheets();
+		} catch (IOException | RuntimeException e) {
+			workbook.close();
+			throw e;
+		}
+	}
+
+	private static IntFunction<String> getSharedStrings(WorkbookParser workbook, Map<String, InputStream> sheets)
+			throws IOException {
+		try {
+			return workbook.getSharedStrings();
+		} catch (IOException | RuntimeException e) {
+			for (InputStream sheet : sheets.values()) {
+				sheet.close();
+			}
+			workbook.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Starts the jobs in the passed order on a pool of their own. The threads are
+	 * daemons, so a stream that is never closed does not hold up the JVM.
+	 */
+	private <T> ExecutorService submit(List<SheetJob<T>> jobs) {
+		AtomicInteger count = new AtomicInteger();
+		ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, jobs.size())),
+				runnable -> {
+					Thread thread = new Thread(runnable, "excel-reader-" + count.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+		jobs.forEach(pool::execute);
+		// Runs the submitted jobs, then lets the threads go
+		pool.shutdown();
+		return pool;
+	}
+
+	private static <T> Stream<T> toStream(Iterator<T> rows) {
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(rows, Spliterator.ORDERED | Spliterator.NONNULL),
+				false);
+	}
+
+	/**
+	 * Stops the jobs and releases the workbook once the workers have let go of
+	 * it.
+	 */
+	private static <T> void close(WorkbookParser workbook, List<SheetJob<T>> jobs, ExecutorService pool) {
+		jobs.forEach(SheetJob::cancel);
+		try {
+			if (!pool.awaitTermination(STOP_SECONDS, TimeUnit.SECONDS)) {
+				log.warn("The sheets are still being read after " + STOP_SECONDS + " seconds. Closing anyway.");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		workbook.close();
+	}
+
+	private static void close(RowIterator<?> rows) {
+		try {
+			rows.close();
+		} catch (IOException e) {
+			log.warn("Unable to close the sheet due to: " + e);
+		}
+	}
+
+	/**
+	 * The number of sheets read at the same time by
+	 * {@link #streamSheets(File, Class)} and {@link #streamMerged(File, Class)}.
+	 * Defaults to 1, i.e. one sheet after the other on a worker thread.
+	 *
+	 * @return The parallelism level
+	 */
+	public int getParallelism() {
+		return this.parallelism;
+	}
+
+	/**
+	 * Read upto this many sheets at the same time, each on its own thread. Useful
+	 * for workbooks with many large sheets, as decoding a sheet is bound by the
+	 * CPU. <br>
+	 * <br>
+	 * Configure this before sharing the instance between threads.
+	 *
+	 * @param parallelism The parallelism level, 1 to read sheets one by one.
+	 */
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Parallelism must be at-least 1, got: " + parallelism);
+		}
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * The rows between two restart points of the indexes built by this reader.
+	 * Defaults to 1000.
+	 *
+	 * @return The rows per block
+	 */
+	public int getIndexBlockRows() {
+		return this.indexBlockRows;
+	}
+
+	/**
+	 * Sets how many rows apart the restart points of an index are. Fewer rows
+	 * make a range faster to get to, at the cost of a larger index. An index
+	 * that is already saved is used as is. <br>
+	 * <br>
+	 * Configure this before sharing the instance between threads.
+	 *
+	 * @param indexBlockRows The rows per block, at-least 1
+	 */
+	public void setIndexBlockRows(int indexBlockRows) {
+		if (indexBlockRows < 1) {
+			throw new IllegalArgumentException("Index block rows must be at-least 1, got: " + indexBlockRows);
+		}
+		this.indexBlockRows = indexBlockRows;
+	}
+}
@@ -1,41 +1,52 @@
 package org.apache.poi.excel;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.lang.reflect.Field;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
-import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.function.BiConsumer;
-import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-import org.apache.commons.lang.StringUtils;
 import org.apache.poi.excel.annotation.ExcelCell;
 import org.apache.poi.excel.annotation.ExcelSheet;
+import org.apache.poi.excel.model.CellError;
+import org.apache.poi.excel.model.ColumnSchema;
+import org.apache.poi.excel.model.ConditionSchema;
+import org.apache.poi.excel.model.DelimitedFormat;
+import org.apache.poi.excel.model.ErrorLimitException;
+import org.apache.poi.excel.model.ErrorPolicy;
+import org.apache.poi.excel.model.ErrorReport;
+import org.apache.poi.excel.model.ExcelCellType;
+import org.apache.poi.excel.model.ExcelEngine;
 import org.apache.poi.excel.model.SheetContainer;
+import org.apache.poi.excel.model.SheetErrors;
+import org.apache.poi.excel.model.SheetSchema;
+import org.apache.poi.excel.model.SheetSource;
 import org.apache.poi.excel.model.WorkbookContainer;
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.CellStyle;
-import org.apache.poi.ss.usermodel.Font;
-import org.apache.poi.ss.usermodel.IndexedColors;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.ss.util.CellRangeAddress;
-import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.excel.model.WriteHandle;
+import org.apache.poi.excel.processor.writer.engine.CellCursor;
+import org.apache.poi.excel.processor.writer.engine.DelimitedWorkbookEngine;
+import org.apache.poi.excel.processor.writer.engine.SheetEngine;
+import org.apache.poi.excel.processor.writer.engine.TemplateWorkbookEngine;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import freemarker.template.utility.StringUtil;
-
 /**
  * An Excel Utility that automatically converts any {@link List} of POJO objects
  * to an Excel file. <br>
@@ -100,6 +111,49 @@ import freemarker.template.utility.StringUtil;
  * </pre>
  * 
  * </li>
+ * <li>Excel file from rows that are <b>pulled lazily</b>, say from a database
+ * cursor.
+ * 
+ * <pre>
+ * {@code
+ * Stream<Employee> employees;
+ * ...
+ * File file = ExcelWriter.write(pathToDir, filename, Employee.class, employees);
+ * }
+ * </pre>
+ * 
+ * </li>
+ * <li>Excel <b>streamed</b> to a response, without any file on the disk.
+ * 
+ * <pre>
+ * {@code
+ * List<Employee> empList;
+ * ...
+ * ExcelWriter.write(response.getOutputStream(), empList);
+ * }
+ * </pre>
+ * 
+ * </li>
+ * <li>Rows streamed into a <b>template</b>, below its logo and title.
+ * 
+ * <pre>
+ * {@code
+ * new ExcelWriter().writeTemplate(brandedXlsx, "Employees", 5, out, SheetSource.of(empList));
+ * }
+ * </pre>
+ * 
+ * </li>
+ * <li>The same sheets as <b>CSV</b> files, one per sheet.
+ * 
+ * <pre>
+ * {@code
+ * ExcelWriter writer = new ExcelWriter();
+ * writer.setEngine(ExcelEngine.CSV);
+ * List<File> files = writer.writeFiles(pathToDir, SheetSource.of(empList));
+ * }
+ * </pre>
+ * 
+ * </li>
  * </ol>
  * <h1>NOTE:</h1>This utility automatically creates a backup file which has a
  * retention period of 60 days. <br>
@@ -110,6 +164,17 @@ import freemarker.template.utility.StringUtil;
  * <li>Passing a custom path during each function call :
  * {@link ExcelWriter#write(String, String, List...)}</li>
  * </ol>
+ * The static calls are thin wrappers over a shared instance. An instance holds
+ * no per-export state, every call builds its own workbook, so a single
+ * {@link ExcelWriter} can be used by any number of threads at once. An instance
+ * can also be configured, say to write many sheets in parallel
+ * {@link ExcelWriter#setParallelism(int)}.
+ * <pre>
+ * {@code
+ * ExcelWriter writer = new ExcelWriter();
+ * File file = writer.writeFile(pathToDir, filename, dcHeros, marvelHeros);
+ * }
+ * </pre>
  * For more details of how the data is formatted, refer {@link ExcelSheet}.
  * 
  * @author ssp5zone
@@ -120,9 +185,54 @@ public class ExcelWriter {
 	private final static Logger log = LoggerFactory.getLogger(ExcelWriter.class);
 
 	/**
-	 * Initialize the file storage directory
+	 * The instance backing the static calls.
+	 */
+	private final static ExcelWriter defaultWriter = new ExcelWriter();
+
+	/**
+	 * How many sheets may be written at the same time
+	 */
+	private int parallelism = 1;
+
+	/**
+	 * The engine that produces the file
+	 */
+	private ExcelEngine engine = ExcelEngine.AUTO;
+
+	/**
+	 * The cells upto which the AUTO engine holds the workbook in memory
+	 */
+	private long autoCellLimit = 20_000;
+
+	/**
+	 * The memory bound of the shared strings lookup, 0 when disabled
 	 */
-	private static WorkbookContainer workbookContainer;
+	private long sharedStringsLimit = 0;
+
+	/**
+	 * The bytes of rows held in memory, 0 for a fixed window of rows
+	 */
+	private long memoryBudget = 0;
+
+	/**
+	 * Whether the temp files of the streamed rows are gzipped
+	 */
+	private boolean compressTempFiles = false;
+
+	/**
+	 * What to do with a cell that could not be written
+	 */
+	private ErrorPolicy errorPolicy = ErrorPolicy.BLANK;
+
+	/**
+	 * The failed cells a sheet may have before the write gives up
+	 */
+	private long errorThreshold = 0;
+
+	/**
+	 * The failed cells of a sheet kept along with their cause
+	 */
+	private int errorSamples = 10;
 
 	/**
 	 * Creates an Excel Workbook based on the data. Each list of data passed is
@@ -138,49 +248,713 @@ public class ExcelWriter {
 	 */
 	@SafeVarargs
 	public static <T> File write(String path, String fileName, List<? extends T>... data) {
-		List<List<?>> filteredData = Arrays.asList(data).stream().filter(nonEmptyData).collect(Collectors.toList());
+		SheetSource<?>[] sources = toSources(data);
+		return defaultWriter.writeFile(path, fileName, sources);
+	}
+
+	/**
+	 * Creates an Excel Workbook with a single sheet whose rows are pulled lazily
+	 * from the passed iterator. Only the rows that are yet to be flushed to the disk
+	 * are held in memory.
+	 * 
+	 * @param path     The path where the file is to be stored.
+	 * @param fileName The name of the generated file.
+	 * @param type     The POJO class of the rows.
+	 * @param data     The rows of the sheet.
+	 * @param <T>      The datatype returned by the iterator.
+	 * @return The generated Excel file.
+	 */
+	public static <T> File write(String path, String fileName, Class<T> type, Iterator<? extends T> data) {
+		return defaultWriter.writeFile(path, fileName, SheetSource.of(type, data));
+	}
+
+	/**
+	 * Same as {@link ExcelWriter#write(String, String, Class, Iterator)} for an
+	 * {@link Iterable}.
+	 * 
+	 * @param path     The path where the file is to be stored.
+	 * @param fileName The name of the generated file.
+	 * @param type     The POJO class of the rows.
+	 * @param data     The rows of the sheet.
+	 * @param <T>      The datatype contained by the iterable.
+	 * @return The generated Excel file.
+	 */
+	public static <T> File write(String path, String fileName, Class<T> type, Iterable<? extends T> data) {
+		return defaultWriter.writeFile(path, fileName, SheetSource.of(type, data));
+	}
+
+	/**
+	 * Same as {@link ExcelWriter#write(String, String, Class, Iterator)} for a
+	 * {@link Stream}. The stream is not closed.
+	 * 
+	 * @param path     The path where the file is to be stored.
+	 * @param fileName The name of the generated file.
+	 * @param type     The POJO class of the rows.
+	 * @param data     The rows of the sheet.
+	 * @param <T>      The datatype contained by the stream.
+	 * @return The generated Excel file.
+	 */
+	public static <T> File write(String path, String fileName, Class<T> type, Stream<? extends T> data) {
+		return defaultWriter.writeFile(path, fileName, SheetSource.of(type, data));
+	}
+
+	/**
+	 * Same as {@link ExcelWriter#write(String, String, List...)} but runs on this
+	 * instance. Each call works on its own workbook, so concurrent calls do not
+	 * block each other.
+	 * 
+	 * @param fileName The name of the generated file.
+	 * @param path     The path where the file is to be stored.
+	 * @param data     A list of Plain old java objects. Each list passed gets
+	 *                 converted to its own sheet.
+	 * @param <T>      The datatype contained by the list.
+	 * @return The generated Excel file.
+	 */
+	@SafeVarargs
+	public final <T> File writeFile(String path, String fileName, List<? extends T>... data) {
+		SheetSource<?>[] sources = toSources(data);
+		return writeFile(path, fileName, sources);
+	}
+
+	/**
+	 * Creates an Excel Workbook where each source passed is converted to it's own
+	 * sheet. The rows are pulled lazily, so sources backed by a cursor or a file
+	 * are never fully materialized.
+	 * 
+	 * @param path     The path where the file is to be stored.
+	 * @param fileName The name of the generated file.
+	 * @param sources  The rows of each sheet. Sources without any row are skipped.
+	 * @return The generated Excel file.
+	 */
+	public File writeFile(String path, String fileName, SheetSource<?>... sources) {
+		return writeFile(path, fileName, new WriteHandle(), sources);
+	}
+
+	/**
+	 * Same as {@link ExcelWriter#writeFile(String, String, SheetSource...)},
+	 * observed and controlled through the passed handle.
+	 * 
+	 * @param path     The path where the file is to be stored.
+	 * @param fileName The name of the generated file.
+	 * @param handle   Reports the progress and the cells that could not be
+	 *                 written, and stops the write when cancelled or past its
+	 *                 deadline. Good for this one write only.
+	 * @param sources  The rows of each sheet. Sources without any row are skipped.
+	 * @return The generated Excel file.
+	 * @throws CancellationException If the write was stopped. The file is deleted.
+	 * @throws ErrorLimitException   If a sheet had too many cells that could not
+	 *                               be written. The file is deleted.
+	 */
+	public File writeFile(String path, String fileName, WriteHandle handle, SheetSource<?>... sources) {
+		List<SheetSource<?>> filteredData = filter(sources);
 		// If there is no data in any sheet, do not process further
 		if (filteredData.size() > 0) {
-			// This is important to ensure that we multiple Threads do not call this
-			// at-once.
-			// The context switching happening here is heavy and may cause the whole system
-			// to lag.
-			synchronized (ExcelWriter.class) {
-				// Reset the workbook
-				ExcelWriter.initWorkBook();
+			// Write to actual location
+			return writeToFile(filteredData, path, fileName, handle);
+		}
+		return null;
+	}
+
+	/**
+	 * Same as {@link ExcelWriter#write(String, String, List...)} but streams the
+	 * workbook into the passed {@link OutputStream} instead of a file. Useful to
+	 * send the excel straight to a servlet response or a socket.
+	 * 
+	 * @param out  Where the workbook is written. It is flushed but not closed.
+	 * @param data A list of Plain old java objects. Each list passed gets converted
+	 *             to its own sheet.
+	 * @param <T>  The datatype contained by the list.
+	 * @return false if there was no data to write.
+	 * @throws IOException If the stream could not be written to.
+	 */
+	@SafeVarargs
+	public static <T> boolean write(OutputStream out, List<? extends T>... data) throws IOException {
+		SheetSource<?>[] sources = toSources(data);
+		return defaultWriter.writeStream(out, sources);
+	}
+
+	/**
+	 * Streams an Excel Workbook into the passed {@link OutputStream}. Each source
+	 * passed is converted to it's own sheet. No intermediate file is created for
+	 * the final workbook.
+	 * 
+	 * @param out     Where the workbook is written. It is flushed but not closed.
+	 * @param sources The rows of each sheet. Sources without any row are skipped.
+	 * @return false if there was no data to write.
+	 * @throws IOException If the stream could not be written to.
+	 */
+	public boolean writeStream(OutputStream out, SheetSource<?>... sources) throws IOException {
+		return writeStream(out, new WriteHandle(), sources);
+	}
+
+	/**
+	 * Same as {@link ExcelWriter#writeStream(OutputStream, SheetSource...)},
+	 * observed and controlled through the passed handle. Say, cancelled once the
+	 * client that asked for the workbook has gone away.
+	 * 
+	 * @param out     Where the workbook is written. It is flushed but not closed.
+	 * @param handle  Reports the progress and the cells that could not be
+	 *                written, and stops the write when cancelled or past its
+	 *                deadline. Good for this one write only.
+	 * @param sources The rows of each sheet. Sources without any row are skipped.
+	 * @return false if there was no data to write.
+	 * @throws IOException           If the stream could not be written to.
+	 * @throws CancellationException If the write was stopped. What reached the
+	 *                               stream by then is not a workbook.
+	 */
+	public boolean writeStream(OutputStream out, WriteHandle handle, SheetSource<?>... sources) throws IOException {
+		List<SheetSource<?>> filteredData = filter(sources);
+		if (filteredData.size() > 0) {
+			writeWorkbook(filteredData, out, handle);
+			out.flush();
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Same as {@link ExcelWriter#writeStream(OutputStream, SheetSource...)} for a
+	 * {@link WritableByteChannel}.
+	 * 
+	 * @param channel Where the workbook is written. It is not closed.
+	 * @param sources The rows of each sheet. Sources without any row are skipped.
+	 * @return false if there was no data to write.
+	 * @throws IOException If the channel could not be written to.
+	 */
+	public boolean writeChannel(WritableByteChannel channel, SheetSource<?>... sources) throws IOException {
+		return writeChannel(channel, new WriteHandle(), sources);
+	}
+
+	/**
+	 * Same as {@link ExcelWriter#writeChannel(WritableByteChannel, SheetSource...)},
+	 * observed and controlled through the passed handle.
+	 * 
+	 * @param channel Where the workbook is written. It is not closed.
+	 * @param handle  Reports the progress and the cells that could not be
+	 *                written, and stops the write when cancelled or past its
+	 *                deadline. Good for this one write only.
+	 * @param sources The rows of each sheet. Sources without any row are skipped.
+	 * @return false if there was no data to write.
+	 * @throws IOException           If the channel could not be written to.
+	 * @throws CancellationException If the write was stopped. What reached the
+	 *                               channel by then is not a workbook.
+	 */
+	public boolean writeChannel(WritableByteChannel channel, WriteHandle handle, SheetSource<?>... sources)
+			throws IOException {
+		// The channel stream is not buffered, while the zip writes in small chunks
+		return writeStream(new BufferedOutputStream(Channels.newOutputStream(channel)), handle, sources);
+	}
+
+	/**
+	 * Writes each source as a delimited text file of its own, named after its
+	 * sheet, rather than a workbook. Needs the {@link ExcelEngine#CSV} or
+	 * {@link ExcelEngine#TSV} engine, which otherwise write a zip of the same
+	 * files.
+	 * 
+	 * @param path    The directory where the files are stored. Files of the same
+	 *                name are replaced.
+	 * @param sources The rows of each sheet. Sources without any row are skipped.
+	 * @return The files written, in the order of the sources. Empty if there was
+	 *         no data to write.
+	 * @throws IOException           If a file could not be written.
+	 * @throws IllegalStateException If the engine does not write delimited text.
+	 */
+	public List<File> writeFiles(String path, SheetSource<?>... sources) throws IOException {
+		return writeFiles(path, new WriteHandle(), sources);
+	}
+
+	/**
+	 * Same as {@link ExcelWriter#writeFiles(String, SheetSource...)}, observed and
+	 * controlled through the passed handle.
+	 * 
+	 * @param path    The directory where the files are stored. Files of the same
+	 *                name are replaced.
+	 * @param handle  Reports the progress and the cells that could not be
+	 *                written, and stops the write when cancelled or past its
+	 *                deadline. Good for this one write only.
+	 * @param sources The rows of each sheet. Sources without any row are skipped.
+	 * @return The files written, in the order of the sources. Empty if there was
+	 *         no data to write.
+	 * @throws IOException           If a file could not be written.
+	 * @throws IllegalStateException If the engine does not write delimited text.
+	 */
+	public List<File> writeFiles(String path, WriteHandle handle, SheetSource<?>... sources) throws IOException {
+		DelimitedFormat format = this.engine.getDelimitedFormat();
+		if (format == null) {
+			throw new IllegalStateException("A file per sheet needs the CSV or TSV engine, not " + this.engine);
+		}
+		List<SheetSource<?>> filteredData = filter(sources);
+		if (filteredData.isEmpty()) {
+			return new ArrayList<File>();
+		}
+		DelimitedWorkbookEngine files = new DelimitedWorkbookEngine(Paths.get(path).toFile(), format);
+		WorkbookContainer workbookContainer = new WorkbookContainer(files);
+		workbookContainer.setHandle(handle);
+		writeWorkbook(filteredData, workbookContainer);
+		return files.getFiles();
+	}
+
+	/**
+	 * Streams a copy of an existing workbook, with the rows of the source written
+	 * into one of its sheets. Logos, formatting and other sheets of the template
+	 * are kept as they are. <br>
+	 * <br>
+	 * Only the filled sheet and the styles are rewritten, every other part is
+	 * copied through without being parsed. The column headers go at the first row
+	 * and the rows below them. Rows of the template from the first row on are
+	 * dropped. The engine of this writer plays no part, nor do the heading and the
+	 * conditions.
+	 * 
+	 * @param template  The xlsx to fill, left unchanged.
+	 * @param sheetName The sheet to fill, matched ignoring the case.
+	 * @param firstRow  The 0 based row of the column headers.
+	 * @param out       Where the workbook is written. It is flushed but not
+	 *                  closed.
+	 * @param source    The rows of the sheet.
+	 * @return false if there was no data to write.
+	 * @throws IOException If the template could not be read, has no such sheet,
+	 *                     or the stream could not be written to.
+	 */
+	public boolean writeTemplate(File template, String sheetName, int firstRow, OutputStream out,
+			SheetSource<?> source) throws IOException {
+		return writeTemplate(template, sheetName, firstRow, out, new WriteHandle(), source);
+	}
+
+	/**
+	 * Same as
+	 * {@link ExcelWriter#writeTemplate(File, String, int, OutputStream, SheetSource)},
+	 * observed and controlled through the passed handle.
+	 * 
+	 * @param template  The xlsx to fill, left unchanged.
+	 * @param sheetName The sheet to fill, matched ignoring the case.
+	 * @param firstRow  The 0 based row of the column headers.
+	 * @param out       Where the workbook is written. It is flushed but not
+	 *                  closed.
+	 * @param handle    Reports the progress and the cells that could not be
+	 *                  written, and stops the write when cancelled or past its
+	 *                  deadline. Good for this one write only.
+	 * @param source    The rows of the sheet.
+	 * @return false if there was no data to write.
+	 * @throws IOException If the template could not be read, has no such sheet,
+	 *                     or the stream could not be written to.
+	 */
+	public boolean writeTemplate(File template, String sheetName, int firstRow, OutputStream out,
+			WriteHandle handle, SheetSource<?> source) throws IOException {
+		if (firstRow < 0) {
+			throw new IllegalArgumentException("The first row cannot be negative");
+		}
+		if (!nonEmptyData.test(source)) {
+			return false;
+		}
+		WorkbookContainer workbookContainer = new WorkbookContainer(
+				new TemplateWorkbookEngine(template, sheetName, firstRow, handle.track(out)));
+		workbookContainer.setHandle(handle);
+		handle.setErrorReport(newErrorReport());
+		try {
+			SheetContainer sheetContainer = newSheet(workbookContainer, source);
+			sheetContainer.setFirstRow(firstRow);
+			fillSheet.apply(sheetContainer);
+			workbookContainer.getEngine().finish();
+			handle.notifyProgress();
+		} finally {
+			workbookContainer.getEngine().close();
+		}
+		out.flush();
+		return true;
+	}
+
+	/**
+	 * Typed upfront, as older compilers cannot pick the overload for a generic
+	 * array built inline.
+	 * 
+	 * @param data The rows of each sheet.
+	 * @return A source per list
+	 */
+	private static SheetSource<?>[] toSources(List<?>... data) {
+		SheetSource<?>[] sources = new SheetSource<?>[data.length];
+		for (int i = 0; i < data.length; i++) {
+			sources[i] = SheetSource.of(data[i]);
+		}
+		return sources;
+	}
+
+	/**
+	 * @param sources The rows of each sheet.
+	 * @return Only the sources that have at-least one row
+	 */
+	private static List<SheetSource<?>> filter(SheetSource<?>... sources) {
+		return Arrays.asList(sources).stream().filter(nonEmptyData).collect(Collectors.toList());
+	}
+
+	/**
+	 * Builds a new Workbook with one sheet per source and writes it into the passed
+	 * stream. Depending on the engine, parts of the workbook may reach the stream
+	 * while the sheets are still being written.
+	 * 
+	 * @param sources The rows of each sheet, none of them empty.
+	 * @param out     Where the workbook is written. It is not closed.
+	 * @param handle  Observes and controls the write.
+	 * @throws IOException If the stream could not be written to.
+	 */
+	private void writeWorkbook(List<SheetSource<?>> sources, OutputStream out, WriteHandle handle)
+			throws IOException {
+		// A fresh workbook for this call only
+		WorkbookContainer workbookContainer = new WorkbookContainer(this, chooseEngine(sources), handle.track(out));
+		workbookContainer.setHandle(handle);
+		writeWorkbook(sources, workbookContainer);
+	}
+
+	/**
+	 * Writes one sheet per source through the engine of the passed workbook, and
+	 * completes it.
+	 * 
+	 * @param sources           The rows of each sheet, none of them empty.
+	 * @param workbookContainer The fresh workbook, closed once done.
+	 * @throws IOException If the workbook could not be written.
+	 */
+	private void writeWorkbook(List<SheetSource<?>> sources, WorkbookContainer workbookContainer) throws IOException {
+		workbookContainer.getHandle().setErrorReport(newErrorReport());
+		try {
+			// The rows of a sheet do not depend on any other sheet
+			if (this.parallelism > 1 && sources.size() > 1 && workbookContainer.getEngine().isParallel()) {
+				// Sheets, fonts and styles belong to the workbook and are not thread safe. So
+				// the sheets are created one by one, which also keeps them in the passed order.
+				List<SheetContainer> sheetContainers = sources.stream()
+						.map(source -> prepareSheet.apply(newSheet(workbookContainer, source)))
+						.collect(Collectors.toList());
+
+				ForkJoinPool pool = new ForkJoinPool(Math.min(this.parallelism, sheetContainers.size()));
+				try {
+					List<ForkJoinTask<SheetContainer>> tasks = sheetContainers.stream()
+							.map(sheetContainer -> pool.submit(() -> writeData.apply(sheetContainer)))
+							.collect(Collectors.toList());
+					// All of them are waited for, as the workbook is closed on a failure
+					RuntimeException failure = null;
+					for (ForkJoinTask<SheetContainer> task : tasks) {
+						try {
+							task.join();
+						} catch (RuntimeException e) {
+							failure = failure == null ? e : failure;
+						}
+					}
+					if (failure != null) {
+						throw failure;
+					}
+				} finally {
+					pool.shutdown();
+				}
 
+				sheetContainers.forEach(finishSheet::apply);
+			} else {
 				// Process each sheet one by one
-				filteredData.forEach(list -> {
-					createSheet.andThen(generateName).andThen(giveHeading).andThen(addColumns).andThen(writeData)
-							.andThen(autoSizeColumns).andThen(freezePane).andThen(attachFilters).apply(list);
-				});
+				sources.forEach(source -> prepareSheet.andThen(writeData).andThen(finishSheet)
+						.apply(newSheet(workbookContainer, source)));
+			}
+
+			workbookContainer.getEngine().finish();
+			workbookContainer.getHandle().notifyProgress();
+		} finally {
+			// Also gets rid of the temp files of a write that was stopped
+			workbookContainer.getEngine().close();
+		}
+	}
 
-				// Write to actual location
-				return writeToFile(path, fileName);
+	/**
+	 * @param sources The rows of each sheet.
+	 * @return The engine of this writer, or for {@link ExcelEngine#AUTO} the one
+	 *         that fits the size of the sources
+	 */
+	private ExcelEngine chooseEngine(List<SheetSource<?>> sources) {
+		if (this.engine != ExcelEngine.AUTO) {
+			return this.engine;
+		}
+		if (this.memoryBudget > 0 || this.compressTempFiles) {
+			// Asked for settings of the streamed rows, which the full workbook has not
+			return ExcelEngine.SXSSF;
+		}
+		long cells = 0;
+		for (SheetSource<?> source : sources) {
+			if (source.getSize() < 0) {
+				// Could be any size, only streaming is safe
+				return ExcelEngine.SXSSF;
+			}
+			cells += source.getSize() * SheetSchema.of(source.getType()).getColumns().size();
+			if (cells > this.autoCellLimit) {
+				return ExcelEngine.SXSSF;
 			}
 		}
-		return null;
+		return ExcelEngine.XSSF;
+	}
+
+	private static SheetContainer newSheet(WorkbookContainer workbookContainer, SheetSource<?> source) {
+		SheetContainer sheetContainer = new SheetContainer(workbookContainer);
+		sheetContainer.setSource(source);
+		return sheetContainer;
+	}
+
+	/**
+	 * The number of sheets whose rows are written at the same time. Defaults to 1,
+	 * i.e. one sheet after the other on the calling thread.
+	 * 
+	 * @return The parallelism level
+	 */
+	public int getParallelism() {
+		return this.parallelism;
+	}
+
+	/**
+	 * Write the rows of upto this many sheets at the same time, each on its own
+	 * thread. The sheets still appear in the order they were passed in. Useful
+	 * only for workbooks with many large sheets. <br>
+	 * <br>
+	 * Configure this before sharing the instance between threads.
+	 * 
+	 * @param parallelism The parallelism level, 1 to write sheets one by one.
+	 */
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Parallelism must be at-least 1, got: " + parallelism);
+		}
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * The engine that produces the file. Defaults to {@link ExcelEngine#AUTO}.
+	 * 
+	 * @return The engine
+	 */
+	public ExcelEngine getEngine() {
+		return this.engine;
+	}
+
+	/**
+	 * Choose the engine that produces the file, in place of the one picked by the
+	 * size of the data. {@link ExcelEngine#NATIVE} skips POI's object model
+	 * entirely and is much faster for bulk exports. <br>
+	 * <br>
+	 * Configure this before sharing the instance between threads.
+	 * 
+	 * @param engine The engine
+	 */
+	public void setEngine(ExcelEngine engine) {
+		if (engine == null) {
+			throw new IllegalArgumentException("The engine cannot be null");
+		}
+		this.engine = engine;
+	}
+
+	/**
+	 * The cells, rows times columns of all the sheets, upto which the
+	 * {@link ExcelEngine#AUTO} engine holds the workbook in memory. Defaults to
+	 * 20,000.
+	 * 
+	 * @return The limit in cells
+	 */
+	public long getAutoCellLimit() {
+		return this.autoCellLimit;
+	}
+
+	/**
+	 * Move the point where the {@link ExcelEngine#AUTO} engine switches from the
+	 * full {@link ExcelEngine#XSSF} workbook, whose columns fit their cells, to the
+	 * streamed {@link ExcelEngine#SXSSF} one. The full workbook takes in the order
+	 * of a kilobyte of heap per cell, and its columns are sized cell by cell. <br>
+	 * <br>
+	 * Sources whose size is not known, see {@link SheetSource#withSize(long)},
+	 * are always streamed, as is everything once a memory budget or compressed
+	 * temp files are asked for. Configure this before sharing the instance
+	 * between threads.
+	 * 
+	 * @param autoCellLimit The limit in cells, 0 to always stream
+	 */
+	public void setAutoCellLimit(long autoCellLimit) {
+		if (autoCellLimit < 0) {
+			throw new IllegalArgumentException("The auto cell limit cannot be negative, got: " + autoCellLimit);
+		}
+		this.autoCellLimit = autoCellLimit;
+	}
+
+	/**
+	 * The memory bound of the shared strings lookup, in bytes. 0, the default,
+	 * means all texts are written inline in their cells.
+	 * 
+	 * @return The bound in bytes
+	 */
+	public long getSharedStringsLimit() {
+		return this.sharedStringsLimit;
+	}
+
+	/**
+	 * Write repeated texts once, in a shared strings table, and let the cells
+	 * refer to them. Makes for much smaller files when columns like status or
+	 * country codes repeat the same few values. <br>
+	 * <br>
+	 * The lookup of the texts seen so far is kept within the passed bound, the
+	 * least recently used ones are forgotten beyond it. Columns whose texts turn
+	 * out to be mostly distinct are written inline anyway. <br>
+	 * <br>
+	 * Only the {@link ExcelEngine#NATIVE} engine supports this, the others ignore
+	 * it. Configure this before sharing the instance between threads.
+	 * 
+	 * @param sharedStringsLimit The bound in bytes, 0 to disable
+	 */
+	public void setSharedStringsLimit(long sharedStringsLimit) {
+		if (sharedStringsLimit < 0) {
+			throw new IllegalArgumentException("The shared strings limit cannot be negative, got: " + sharedStringsLimit);
+		}
+		this.sharedStringsLimit = sharedStringsLimit;
+	}
+
+	/**
+	 * The bytes of rows held in memory by a workbook being written. 0, the
+	 * default, means each sheet holds its last 500 rows.
+	 * 
+	 * @return The budget in bytes
+	 */
+	public long getMemoryBudget() {
+		return this.memoryBudget;
+	}
+
+	/**
+	 * Hold rows in memory upto an estimated size, rather than a fixed count, before
+	 * they are moved to temp files. Wide rows then get a short window and narrow
+	 * ones a long one. The budget is shared by all the sheets of the workbook, the
+	 * sheet that crosses it flushes its rows early. <br>
+	 * <br>
+	 * The size is estimated from the cells written, and is a rough measure. Only
+	 * the {@link ExcelEngine#SXSSF} engine holds rows, the others ignore it. With
+	 * a budget the {@link ExcelEngine#AUTO} engine always streams. Configure this
+	 * before sharing the instance between threads.
+	 * 
+	 * @param memoryBudget The budget in bytes, 0 for the fixed window
+	 */
+	public void setMemoryBudget(long memoryBudget) {
+		if (memoryBudget < 0) {
+			throw new IllegalArgumentException("The memory budget cannot be negative, got: " + memoryBudget);
+		}
+		this.memoryBudget = memoryBudget;
+	}
+
+	/**
+	 * Whether the temp files of the streamed rows are gzipped. Defaults to false.
+	 * 
+	 * @return true if compressed
+	 */
+	public boolean isCompressTempFiles() {
+		return this.compressTempFiles;
+	}
+
+	/**
+	 * Gzip the temp files the streamed rows are moved to. Costs some CPU, but
+	 * writes a fraction of the bytes to disk. Worth it when the disk is slow or
+	 * short on space. <br>
+	 * <br>
+	 * Only the {@link ExcelEngine#SXSSF} engine uses temp files for rows, the
+	 * others ignore it. When compressed the {@link ExcelEngine#AUTO} engine always
+	 * streams. Configure this before sharing the instance between threads.
+	 * 
+	 * @param compressTempFiles true to compress
+	 */
+	public void setCompressTempFiles(boolean compressTempFiles) {
+		this.compressTempFiles = compressTempFiles;
+	}
+
+	/**
+	 * What is done with a cell that could not be written. Defaults to
+	 * {@link ErrorPolicy#BLANK}.
+	 * 
+	 * @return The error policy
+	 */
+	public ErrorPolicy getErrorPolicy() {
+		return this.errorPolicy;
+	}
+
+	/**
+	 * What to do with a cell whose value could not be written, say a text that is
+	 * no number in a numeric column. The failure is counted either way, see
+	 * {@link WriteHandle#getErrorReport()}. <br>
+	 * <br>
+	 * Configure this before sharing the instance between threads.
+	 * 
+	 * @param errorPolicy The error policy
+	 */
+	public void setErrorPolicy(ErrorPolicy errorPolicy) {
+		if (errorPolicy == null) {
+			throw new IllegalArgumentException("The error policy cannot be null");
+		}
+		this.errorPolicy = errorPolicy;
+	}
+
+	/**
+	 * The failed cells a sheet may have under {@link ErrorPolicy#FAIL}. Defaults
+	 * to 0.
+	 * 
+	 * @return The error threshold
+	 */
+	public long getErrorThreshold() {
+		return this.errorThreshold;
+	}
+
+	/**
+	 * Under {@link ErrorPolicy#FAIL}, the write throws an
+	 * {@link ErrorLimitException} as soon as a sheet has more failed cells than
+	 * this. 0 gives up on the first one. <br>
+	 * <br>
+	 * Configure this before sharing the instance between threads.
+	 * 
+	 * @param errorThreshold The error threshold
+	 */
+	public void setErrorThreshold(long errorThreshold) {
+		if (errorThreshold < 0) {
+			throw new IllegalArgumentException("The error threshold cannot be negative, got: " + errorThreshold);
+		}
+		this.errorThreshold = errorThreshold;
+	}
+
+	/**
+	 * The failed cells of each sheet kept in the report along with their cause.
+	 * Defaults to 10.
+	 * 
+	 * @return The number of samples
+	 */
+	public int getErrorSamples() {
+		return this.errorSamples;
+	}
+
+	/**
+	 * Keep this many of the failed cells of each sheet along with their row,
+	 * column and cause. The others are only counted. <br>
+	 * <br>
+	 * Configure this before sharing the instance between threads.
+	 * 
+	 * @param errorSamples The number of samples, 0 to only count
+	 */
+	public void setErrorSamples(int errorSamples) {
+		if (errorSamples < 0) {
+			throw new IllegalArgumentException("The error samples cannot be negative, got: " + errorSamples);
+		}
+		this.errorSamples = errorSamples;
 	}
 
 	/**
-	 * Initializes a new WorkBook.
+	 * @return A fresh report for a write about to start, in the settings of this
+	 *         writer
 	 */
-	private static void initWorkBook() {
-		ExcelWriter.workbookContainer = new WorkbookContainer();
+	private ErrorReport newErrorReport() {
+		return new ErrorReport(this.errorPolicy, this.errorThreshold, this.errorSamples);
 	}
 
 	/**
-	 * A simple predicate to check for a non-empty list object
+	 * A simple predicate to check for a source that has at-least one row
 	 */
-	private static Predicate<List<?>> nonEmptyData = data -> data != null && data.size() > 0;
+	private final static Predicate<SheetSource<?>> nonEmptyData = source -> source != null
+			&& source.getRows().hasNext();
 
 	/**
 	 * A function that creates a new sheet from the existing workbook.
 	 */
-	private static Function<List<?>, SheetContainer> createSheet = (List<?> data) -> {
-		SheetContainer sheetContainer = new SheetContainer();
-		sheetContainer.setSheet(workbookContainer.getWorkbook().createSheet());
-		sheetContainer.setData(data);
+	private final static Function<SheetContainer, SheetContainer> createSheet = (SheetContainer sheetContainer) -> {
+		sheetContainer.setSheet(sheetContainer.getWorkbookContainer().getEngine().createSheet());
 		return sheetContainer;
 	};
 
@@ -188,36 +962,23 @@ public class ExcelWriter {
 	 * Generate a Sheet Name based on the Excel annotations -> ExcelSheet.sheetName
 	 * If no annotation or a name is found, just use the Class Name as is.
 	 */
-	private static Function<SheetContainer, SheetContainer> generateName = (SheetContainer sheetContainer) -> {
-		Workbook workbook = workbookContainer.getWorkbook();
-		Sheet sheet = sheetContainer.getSheet();
-
-		String sheetName = "";
+	private final static Function<SheetContainer, SheetContainer> generateName = (SheetContainer sheetContainer) -> {
+		SheetEngine sheet = sheetContainer.getSheet();
+		SheetSchema schema = sheetContainer.getSchema();
 
 		try {
-			// We have already filtered out stuff where that data size !> 0. So NPE wont
-			// occur here.
-			Class<?> _class = sheetContainer.getData().get(0).getClass();
+			// Annotated name, else the Class Name
+			String sheetName = schema.getName();
 
-			// See if the good people added an Excel Sheet annotation
-			if (_class.isAnnotationPresent(ExcelSheet.class)) {
-				// And by any chance gave it a name
-				sheetName = _class.getAnnotation(ExcelSheet.class).name();
+			// Also get the heading for future use
+			sheetContainer.setHeading(schema.getHeading());
 
-				// Also get the heading for future use
-				sheetContainer.setHeading(_class.getAnnotation(ExcelSheet.class).heading());
-			}
-			// If there are no annotations or no one bothered to give a sheet name, just use
-			// the Class Name
-			if (sheetName.equals("")) {
-				sheetName = parseCamelCase(_class.getSimpleName());
-			}
 			// If some genius has used an Anonymous class, then just use the index.
 			if (sheetName.equals("")) {
-				sheetName = "Sheet - ".concat(String.valueOf((workbook.getSheetIndex(sheet))));
+				sheetName = "Sheet - ".concat(String.valueOf(sheet.getIndex()));
 			}
 
-			workbook.setSheetName(workbook.getSheetIndex(sheet), sheetName);
+			sheet.setName(sheetName);
 
 		} catch (Exception e2) {
 			log.error("Was unable to give sheet its name", e2);
@@ -230,46 +991,13 @@ public class ExcelWriter {
 	 * Add a simple 2 line description of Line 1 : What this sheet is? (Sheet's
 	 * Name) Line 2 : When was this generated? (Current Time)
 	 */
-	private static Function<SheetContainer, SheetContainer> giveHeading = (SheetContainer sheetContainer) -> {
-		Sheet sheet = sheetContainer.getSheet();
+	private final static Function<SheetContainer, SheetContainer> giveHeading = (SheetContainer sheetContainer) -> {
+		SheetEngine sheet = sheetContainer.getSheet();
 		String heading = sheetContainer.getHeading();
 
 		if (!heading.equals("")) {
 			try {
-				// Line 1
-				sheet.createRow(0).createCell(0).setCellValue(heading);
-
-				// Add some styling to the header
-				Workbook wb = workbookContainer.getWorkbook();
-
-				Font font = wb.createFont();
-				font.setBold(true);
-				font.setColor(IndexedColors.DARK_BLUE.getIndex());
-				font.setFontHeightInPoints((short) (heading.length() < 16 ? 18 : 16));
-
-				CellStyle style = wb.createCellStyle();
-				style.setFont(font);
-
-				sheet.getRow(0).getCell(0).setCellStyle(style);
-
-				// Line 2
-				sheet.createRow(1).createCell(0).setCellValue("Generated on: " + Calendar.getInstance().getTime());
-
-				// Merge cells to make them look decent.
-				sheet.addMergedRegion(new CellRangeAddress(0, // first row (0-based)
-						0, // last row (0-based)
-						0, // first column (0-based)
-						5 // last column (0-based)
-				));
-				sheet.addMergedRegion(new CellRangeAddress(1, // first row (0-based)
-						1, // last row (0-based)
-						0, // first column (0-based)
-						5 // last column (0-based)
-				));
-
-				// A spacer row
-				sheet.createRow(2).createCell(0);
-
+				sheet.writeHeading(heading, "Generated on: " + Calendar.getInstance().getTime());
 			} catch (Exception e3) {
 				log.error("Was unable to create sheet's header", e3);
 			}
@@ -279,152 +1007,110 @@ public class ExcelWriter {
 	};
 
 	/**
-	 * Add Header Columns by either using the ExcelCell Annotations or just by
-	 * parsing the pojo fields. !!IMPORTANT!! If even 1 @ExcelCell annotation is
-	 * found, it would then keep only those fields that are annotated
+	 * Add Header Columns from the compiled schema of the POJO class. See
+	 * {@link SheetSchema} for how the columns are picked and ordered.
 	 */
-	private static Function<SheetContainer, SheetContainer> addColumns = (SheetContainer sheetContainer) -> {
-		Sheet sheet = sheetContainer.getSheet();
-		List<?> data = sheetContainer.getData();
-
-		int rowIndex = sheetContainer.getHeading().equals("") ? 0 : 3;
+	private final static Function<SheetContainer, SheetContainer> addColumns = (SheetContainer sheetContainer) -> {
+		SheetEngine sheet = sheetContainer.getSheet();
 
-		// Create a new row after the Heading (give +1 blank space)
-		Row row = sheet.createRow(rowIndex);
+		int rowIndex = sheetContainer.getFirstRow() + (sheetContainer.getHeading().equals("") ? 0 : 3);
 
 		try {
-			// Get the POJO class of the listed data
-			Class<?> _class = data.get(0).getClass();
-
-			// Get all fields (public, protected, anything)
-			Field fields[] = _class.getDeclaredFields();
-
-			// Filter out those fields that have Excel Cell annotations
-			List<Field> annotatedFields = Arrays.asList(fields).stream().filter((Field field) -> {
-				field.setAccessible(true);
-				return field.isAnnotationPresent(ExcelCell.class);
-			}).collect(Collectors.toList());
-
-			// Get a function that writes the columns
-			BiConsumer<Cell, String> columnWriter = workbookContainer.getWriterFactory().getColumnWriter();
-
-			// 0 based column index
-			AtomicInteger columnIndex = new AtomicInteger();
+			List<String> headers = sheetContainer.getSchema().getColumns().stream().map(ColumnSchema::getHeader)
+					.collect(Collectors.toList());
 
-			// A custom stub that can be recursively executed
-			Consumer<String> addColumn = (String header) -> {
-				// Add the header column
-				Cell cell = row.createCell(columnIndex.get());
-				columnWriter.accept(cell, header);
+			// Add the header columns
+			sheet.writeColumns(rowIndex, headers);
+			sheetContainer.setColumnCount(headers.size());
 
-				// Set min width to make the column accessible
-				sheet.setColumnWidth(columnIndex.getAndIncrement(), ((header.length() + 3) * 256) + 200);
-			};
-
-			// If at-least 1 annotation is present
-			if (annotatedFields.size() > 0) {
-				// Process only the fields that have annotations
-				annotatedFields.forEach((Field field) -> {
-
-					// Check if the header name is present in the annotation
-					String header = field.getAnnotation(ExcelCell.class).header();
-
-					// If not, use the object name itself
-					if (header.equals("")) {
-						header = parseCamelCase(field.getName());
-					}
+			// The formats, fonts and fills of the columns, if any were asked for
+			int[][] styles = sheetContainer.getSchema().getStyles();
+			if (styles != null) {
+				sheet.setColumnStyles(styles);
+			}
 
-					// Add the column
-					addColumn.accept(header);
-				});
-			} else {
-				// Process Everything
-				/**
-				 * The following code looks redundant and is somewhat same as above But creating
-				 * a common code would increase a couple of "if" checks which is degrading if
-				 * the data size is more.
-				 */
-				Arrays.asList(fields).forEach(field -> {
-					// As annotation is not present, use the object name itself
-					String header = parseCamelCase(field.getName());
-
-					// Add the column
-					addColumn.accept(header);
-				});
+			// Set min width to make the column accessible
+			for (int columnIndex = 0; columnIndex < headers.size(); columnIndex++) {
+				sheet.setColumnWidth(columnIndex, ((headers.get(columnIndex).length() + 3) * 256) + 200);
 			}
 
 		} catch (Exception e4) {
-			log.error("Was Unable to add columns to sheet: " + sheet.getSheetName(), e4);
+			log.error("Was Unable to add columns to sheet: " + sheet.getName(), e4);
 		}
 		return sheetContainer;
 	};
 
 	/**
-	 * The one responsible for writing actual data each cell.
+	 * The one responsible for writing actual data each cell. A cell that cannot be
+	 * written is only counted, the sheet logs a summary once done.
 	 */
-	private static Function<SheetContainer, SheetContainer> writeData = (SheetContainer sheetContainer) -> {
-		Sheet sheet = sheetContainer.getSheet();
-		List<?> dataList = sheetContainer.getData();
+	private final static Function<SheetContainer, SheetContainer> writeData = (SheetContainer sheetContainer) -> {
+		SheetEngine sheet = sheetContainer.getSheet();
+		Iterator<?> dataIterator = sheetContainer.getData();
+		List<ColumnSchema> columns = sheetContainer.getSchema().getColumns();
+		SheetErrors errors = sheetContainer.getWorkbookContainer().getErrorReport().addSheet(sheet.getName(),
+				columns.stream().map(ColumnSchema::getHeader).collect(Collectors.toList()));
+		WriteHandle handle = sheetContainer.getWorkbookContainer().getHandle();
 		try {
-			// Get the POJO class of the listed data
-			Class<?> _class = dataList.get(0).getClass();
-
-			// Get all fields (public, protected, anything)
-			Field fields[] = _class.getDeclaredFields();
-
-			// Filter out those fields that have Excel Cell annotations
-			List<Field> fieldList = Arrays.asList(fields).stream().filter((Field field) -> {
-				field.setAccessible(true);
-				return field.isAnnotationPresent(ExcelCell.class);
-			}).collect(Collectors.toList());
-
-			// If no annotations are present
-			// then use all the fields
-			if (fieldList.size() == 0) {
-				fieldList = Arrays.asList(fields);
-			}
+			handle.check();
 
-			// Create a local map of how each field should be effectively written.
-			Map<Field, BiConsumer<Cell, Object>> fieldWriter = new HashMap<Field, BiConsumer<Cell, Object>>();
-			fieldList.forEach(field -> {
-				// Create a dynamic function that knows how to write this specific "type"
-				// of column in the Excel based on the annotations or its data type.
-				BiConsumer<Cell, Object> cellWriter = workbookContainer.getWriterFactory()
-						.getAnnotatedFieldWriter(field);
-				fieldWriter.put(field, cellWriter);
-			});
+			// The writer of each column, compiled once per class. A flat array so that the
+			// row loop below does nothing but call them.
+			BiConsumer<CellCursor, Object>[] writers = sheetContainer.getSchema().getWriters();
+			int columnCount = writers.length;
+			ExcelCellType[] types = columns.stream().map(ColumnSchema::getType).toArray(ExcelCellType[]::new);
+			boolean blank = errors.getPolicy() != ErrorPolicy.SKIP;
 
 			// Shift rows down to accommodate for the heading and the column headers
-			int shiftIndex = sheetContainer.getHeading().equals("") ? 1 : 4;
+			int shiftIndex = sheetContainer.getFirstRow() + (sheetContainer.getHeading().equals("") ? 1 : 4);
 
-			// Write data to each cell.
-			for (int rowNum = 0; rowNum < dataList.size(); rowNum++) {
+			// Write data to each cell. The rows are pulled one by one and let go as soon
+			// as they are written, so that the whole data never needs to be on the heap.
+			for (int rowNum = 0; dataIterator.hasNext(); rowNum++) {
 				// + 3 as Row0 and Row1 are filled with the heading. Row2 is a spacer.
-				Row row = sheet.createRow(rowNum + shiftIndex);
+				CellCursor cursor = sheet.startRow(rowNum + shiftIndex);
 
 				// Get whatever the field holds from the object
-				Object data = dataList.get(rowNum);
-
-				for (int colNum = 0; colNum < fieldList.size(); colNum++) {
-					// Get the current field
-					Field field = fieldList.get(colNum);
+				Object data = dataIterator.next();
+				sheetContainer.setRowCount(rowNum + 1);
 
+				for (int colNum = 0; colNum < columnCount; colNum++) {
 					try {
-						// Create a new cell
-						Cell cell = row.createCell(colNum);
+						// Move to the cell
+						cursor.setColumn(colNum);
 
 						// write the data
-						fieldWriter.get(field).accept(cell, data);
+						writers[colNum].accept(cursor, data);
 
+					} catch (UncheckedIOException ex) {
+						// The sheet itself can no longer be written, no cell would be
+						throw ex;
 					} catch (Exception ex) {
-						log.warn("Unable to write data to row: " + (rowNum + 1) + " cell: " + (colNum + 1)
-								+ " of sheet: " + sheet.getSheetName(), ex);
+						// No logging or strings here, a bad column may fail on every row
+						errors.record(rowNum + shiftIndex, colNum, ex);
+						if (blank) {
+							cursor.setBlank(types[colNum]);
+						}
 					}
 				}
+				sheet.endRow();
+
+				// Checked in batches, so that a stopped write stops within a few rows
+				if ((rowNum + 1) % WriteHandle.BATCH_SIZE == 0) {
+					handle.addRows(WriteHandle.BATCH_SIZE);
+				}
 			}
+			handle.addRows(sheetContainer.getRowCount() % WriteHandle.BATCH_SIZE);
 
+		} catch (ErrorLimitException | CancellationException e) {
+			throw e;
 		} catch (Exception e) {
-			log.error("Was Unable to write data to sheet: " + sheet.getSheetName(), e);
+			log.error("Was Unable to write data to sheet: " + sheet.getName(), e);
+		}
+		if (errors.getErrorCount() > 0) {
+			// Once per sheet, with the stack trace of the first cell only
+			CellError first = errors.getSamples().isEmpty() ? null : errors.getSamples().get(0);
+			log.warn(errors + (first == null ? "" : ", first at " + first), first == null ? null : first.getCause());
 		}
 		return sheetContainer;
 	};
@@ -433,66 +1119,102 @@ public class ExcelWriter {
 	 * Resizes all the columns to ensure that all the data becomes visible.
 	 * !!DANGER!! : Very slow. Avoid using this.
 	 */
-	private static Function<SheetContainer, SheetContainer> autoSizeColumns = (SheetContainer sheetContainer) -> {
-		Sheet sheet = sheetContainer.getSheet();
-
-		// In case of SXSSFSheet, the row tracking is limited and hence cannot be used
-		// to auto-size
-		if (!(sheet instanceof SXSSFSheet)) {
-			for (int column = 0; column < sheetContainer.getData().size(); column++) {
-				sheet.autoSizeColumn(column, false);
-			}
-		}
-
+	private final static Function<SheetContainer, SheetContainer> autoSizeColumns = (SheetContainer sheetContainer) -> {
+		sheetContainer.getSheet().autoSizeColumns(sheetContainer.getSchema().getColumns().size());
 		return sheetContainer;
 	};
 
 	/**
 	 * Freeze first 4 rows if a heading is present, else only 1 row
 	 */
-	private static Function<SheetContainer, SheetContainer> freezePane = (SheetContainer sheetContainer) -> {
-		Sheet sheet = sheetContainer.getSheet();
-		int frozenRows = sheetContainer.getHeading().equals("") ? 1 : 4;
-		sheet.createFreezePane(0, frozenRows);
+	private final static Function<SheetContainer, SheetContainer> freezePane = (SheetContainer sheetContainer) -> {
+		int frozenRows = sheetContainer.getFirstRow() + (sheetContainer.getHeading().equals("") ? 1 : 4);
+		sheetContainer.getSheet().freezeRows(frozenRows);
 		return sheetContainer;
 	};
 
 	/**
 	 * Add filters to the column header row
 	 */
-	private static Function<SheetContainer, SheetContainer> attachFilters = (SheetContainer sheetContainer) -> {
-		Sheet sheet = sheetContainer.getSheet();
-
+	private final static Function<SheetContainer, SheetContainer> attachFilters = (SheetContainer sheetContainer) -> {
 		// Get the row in which filter is to be applied
-		int filterRow = sheetContainer.getHeading().equals("") ? 0 : 3;
+		int filterRow = sheetContainer.getFirstRow() + (sheetContainer.getHeading().equals("") ? 0 : 3);
+
+		// Filter upto the last column
+		sheetContainer.getSheet().setAutoFilter(filterRow, sheetContainer.getColumnCount() - 1);
+
+		return sheetContainer;
+	};
 
-		// Get the last column upto which the filters are to be applied.
-		int lastColumn = sheet.getRow(sheet.getLastRowNum()).getLastCellNum() - 1;
+	/**
+	 * Add the conditions of the columns over the rows written
+	 */
+	private final static Function<SheetContainer, SheetContainer> attachConditions = (
+			SheetContainer sheetContainer) -> {
+		SheetEngine sheet = sheetContainer.getSheet();
+		if (sheetContainer.getRowCount() == 0) {
+			return sheetContainer;
+		}
 
-		sheet.setAutoFilter(new CellRangeAddress(filterRow, // 1st row
-				filterRow, // Last row
-				0, // 1st cell
-				lastColumn // Last cell
-		));
+		// The rows right below the column headers
+		int firstRow = sheetContainer.getFirstRow() + (sheetContainer.getHeading().equals("") ? 1 : 4);
+		int lastRow = firstRow + sheetContainer.getRowCount() - 1;
 
+		for (ConditionSchema condition : sheetContainer.getSchema().getConditions()) {
+			try {
+				sheet.addCondition(firstRow, lastRow, condition);
+			} catch (Exception e) {
+				log.error("Was unable to add the condition " + condition + " to sheet: " + sheet.getName(), e);
+			}
+		}
 		return sheetContainer;
 	};
 
 	/**
-	 * This writes the current Workbook to an actual location.
+	 * Marks the sheet as complete, no more writes to it after this.
+	 */
+	private final static Function<SheetContainer, SheetContainer> closeSheet = (SheetContainer sheetContainer) -> {
+		sheetContainer.getSheet().finish();
+		return sheetContainer;
+	};
+
+	/**
+	 * Everything that comes before the rows. The freeze pane is set upfront, as
+	 * streaming engines need it before the first row.
+	 */
+	private final static Function<SheetContainer, SheetContainer> prepareSheet = createSheet.andThen(generateName)
+			.andThen(giveHeading).andThen(addColumns).andThen(freezePane);
+
+	/**
+	 * Everything that comes after the rows.
+	 */
+	private final static Function<SheetContainer, SheetContainer> finishSheet = autoSizeColumns.andThen(attachFilters)
+			.andThen(attachConditions).andThen(closeSheet);
+
+	/**
+	 * Only the columns and the rows, the template has everything else.
+	 */
+	private final static Function<SheetContainer, SheetContainer> fillSheet = createSheet.andThen(addColumns)
+			.andThen(writeData).andThen(closeSheet);
+
+	/**
+	 * This writes a new Workbook to an actual location.
 	 * 
-	 * @param fullPath
+	 * @param sources The rows of each sheet
+	 * @param path
+	 * @param fileName
+	 * @param handle   Observes and controls the write
 	 * @return The generated file.
 	 */
-	private static File writeToFile(String path, String fileName) {
+	private File writeToFile(List<SheetSource<?>> sources, String path, String fileName, WriteHandle handle) {
 		FileOutputStream fos = null;
-		Workbook workbook = null;
+		File file = null;
 		try {
 			String fullPath = Paths.get(path, fileName).toString();
 			if (fullPath == null || fullPath.equals("")) {
 				return null;
 			}
-			File file = new File(fullPath);
+			file = new File(fullPath);
 
 			// Over-ride if the same filename exists.
 			if (file.exists()) {
@@ -505,21 +1227,23 @@ public class ExcelWriter {
 				fullPath = fullPath.concat(".xlsx");
 			}
 			fos = new FileOutputStream(file);
-			workbook = workbookContainer.getWorkbook();
-			workbook.write(fos);
+			OutputStream out = new BufferedOutputStream(fos);
+			writeWorkbook(sources, out, handle);
+			out.flush();
 			return file;
+		} catch (CancellationException | ErrorLimitException e) {
+			// Closed first, else it cannot be deleted on some platforms
+			try {
+				fos.close();
+			} catch (IOException e1) {
+				log.warn("Unable to close the file stream due to: " + e1);
+			}
+			file.delete();
+			throw e;
 		} catch (Exception e) {
 			log.error("Write to workbook failed : " + e.getMessage());
 			return null;
 		} finally {
-			if (workbook != null) {
-				try {
-					workbook.close();
-				} catch (IOException e) {
-					log.warn("Unable to close the workbook due to: " + e);
-					log.info("The above exception is not fatal. Will try to continue");
-				}
-			}
 			if (fos != null) {
 				try {
 					fos.close();
@@ -531,19 +1255,4 @@ public class ExcelWriter {
 		}
 	}
 
-	/**
-	 * As the name suggests, it converts a "camelCasedString" to a human readable
-	 * non-"Camel Cased String".
-	 * 
-	 * @param camelCaseString
-	 * @return Simple Readable String
-	 */
-	private static String parseCamelCase(String camelCaseString) {
-		if (camelCaseString == null) {
-			return "";
-		} else {
-			return StringUtil.capitalize(String.join(" ", StringUtils.splitByCharacterTypeCamelCase(camelCaseString)));
-		}
-	}
-
-}
\ No newline at end of file
+}
@@ -7,6 +7,7 @@ import java.lang.annotation.Target;
 
 import org.apache.poi.excel.ExcelWriter;
 import org.apache.poi.excel.model.ExcelCellType;
+import org.apache.poi.ss.usermodel.IndexedColors;
 
 /**
  * An annotation that can be added to a Class Attribute to provide a custom
@@ -38,6 +39,8 @@ import org.apache.poi.excel.model.ExcelCellType;
  * Camel case parsed property name.
  * <li>The cell type is based on the <b>type</b> property if passed else the
  * object's own type.</li>
+ * <li>The <b>format</b>, <b>font</b> and <b>fill</b> of the cells are the
+ * ones passed, else the ones of the cell type.</li>
  * </ul>
  * </ol>
  *
@@ -79,4 +82,47 @@ public @interface ExcelCell {
 	 * @see ExcelCellType
 	 */
 	public ExcelCellType type() default ExcelCellType.DEFAULT;
+
+	/**
+	 * A number or date format of its own, say {@code "#,##0.000"} or
+	 * {@code "dd-mmm-yy"}, in place of the one of the {@link #type()}. <br>
+	 * <br>
+	 * If skipped, the format of the type is used.
+	 * 
+	 * @return String
+	 */
+	public String format() default "";
+
+	/**
+	 * Write the cells of this column in bold.
+	 * 
+	 * @return boolean
+	 */
+	public boolean bold() default false;
+
+	/**
+	 * Write the cells of this column in italics.
+	 * 
+	 * @return boolean
+	 */
+	public boolean italic() default false;
+
+	/**
+	 * The font color of the cells of this column. <br>
+	 * <br>
+	 * If skipped, the default font color is used.
+	 * 
+	 * @return IndexedColors
+	 */
+	public IndexedColors color() default IndexedColors.AUTOMATIC;
+
+	/**
+	 * The background color of the cells of this column. <br>
+	 * <br>
+	 * If skipped, the cells have no background. Columns that look the same share
+	 * their cell styles, however many there are.
+	 * 
+	 * @return IndexedColors
+	 */
+	public IndexedColors fill() default IndexedColors.AUTOMATIC;
 }
@@ -0,0 +1,99 @@
+package org.apache.poi.excel.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.apache.poi.excel.ExcelWriter;
+import org.apache.poi.excel.model.ExcelConditionType;
+import org.apache.poi.ss.usermodel.IndexedColors;
+
+/**
+ * An annotation that highlights the cells of a column whose values meet a rule,
+ * say the negative balances or the overdue dates, when using the
+ * {@link ExcelWriter} utility. <br>
+ * <br>
+ * Add it to a class attribute, as many times as there are rules. Or list it in
+ * {@link ExcelSheet#conditions()} with the {@link #column()} it applies to.
+ * <br>
+ * <br>
+ * The rule is written once per sheet as a conditional format over all the rows
+ * of the column. No cell is styled on its own, so the rows cost nothing more to
+ * write, and Excel keeps the highlighting right as the values get edited. Plain
+ * text output has no place for it and leaves it out.
+ *
+ * @author ssp5zone
+ * @see ExcelConditionType
+ * @see ExcelCell
+ * @see ExcelSheet
+ */
+@Target({ ElementType.FIELD })
+@Retention(RetentionPolicy.RUNTIME)
+@Repeatable(ExcelConditions.class)
+public @interface ExcelCondition {
+
+	/**
+	 * The rule the cells are highlighted by.
+	 * 
+	 * @return ExcelConditionType
+	 * @see ExcelConditionType
+	 */
+	public ExcelConditionType type();
+
+	/**
+	 * What the cells are compared with. A number, a quoted text like
+	 * {@code "\"Closed\""} or a formula like {@code "TODAY()"}. <br>
+	 * <br>
+	 * For {@link ExcelConditionType#TOP} and {@link ExcelConditionType#BOTTOM},
+	 * the number of cells to highlight.
+	 * 
+	 * @return String
+	 */
+	public String value();
+
+	/**
+	 * The other end of the range of {@link ExcelConditionType#BETWEEN} and
+	 * {@link ExcelConditionType#NOT_BETWEEN}. Unused otherwise.
+	 * 
+	 * @return String
+	 */
+	public String to() default "";
+
+	/**
+	 * The attribute name or the header of the column to highlight. Only needed
+	 * when listed in {@link ExcelSheet#conditions()}.
+	 * 
+	 * @return String
+	 */
+	public String column() default "";
+
+	/**
+	 * Show the matching cells in bold.
+	 * 
+	 * @return boolean
+	 */
+	public boolean bold() default false;
+
+	/**
+	 * Show the matching cells in italics.
+	 * 
+	 * @return boolean
+	 */
+	public boolean italic() default false;
+
+	/**
+	 * The font color of the matching cells.
+	 * 
+	 * @return IndexedColors
+	 */
+	public IndexedColors color() default IndexedColors.AUTOMATIC;
+
+	/**
+	 * The background color of the matching cells.
+	 * 
+	 * @return IndexedColors
+	 */
+	public IndexedColors fill() default IndexedColors.AUTOMATIC;
+}
@@ -0,0 +1,22 @@
+package org.apache.poi.excel.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Holds the {@link ExcelCondition}s repeated on a single attribute. Not to be
+ * used directly, just repeat the {@link ExcelCondition}.
+ *
+ * @author ssp5zone
+ */
+@Target({ ElementType.FIELD })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ExcelConditions {
+
+	/**
+	 * @return The repeated conditions
+	 */
+	public ExcelCondition[] value();
+}
@@ -19,6 +19,7 @@ import org.apache.poi.excel.ExcelWriter;
  * @author parihsau
  * @see ExcelWriter
  * @see ExcelCell
+ * @see ExcelCondition
  */
 @Target({ ElementType.TYPE })
 @Retention(RetentionPolicy.RUNTIME)
@@ -40,4 +41,15 @@ public @interface ExcelSheet {
 	 * @return The header printed in the Sheet
 	 */
 	public String heading() default "";
+
+	/**
+	 * Rules that highlight the cells of the named columns, see
+	 * {@link ExcelCondition}. <br>
+	 * <br>
+	 * Same as adding them to the attributes, for when the rules of a sheet are
+	 * better kept together.
+	 * 
+	 * @return The conditions of the sheet
+	 */
+	public ExcelCondition[] conditions() default {};
 }
@@ -0,0 +1,65 @@
+package org.apache.poi.excel.model;
+
+import org.apache.poi.ss.util.CellReference;
+
+/**
+ * One of the cells that could not be written, as sampled by the
+ * {@link ErrorReport}.
+ *
+ * @author ssp5zone
+ */
+public final class CellError {
+	private final String sheet;
+	private final int row;
+	private final int column;
+	private final String header;
+	private final Exception cause;
+
+	CellError(String sheet, int row, int column, String header, Exception cause) {
+		this.sheet = sheet;
+		this.row = row;
+		this.column = column;
+		this.header = header;
+		this.cause = cause;
+	}
+
+	/**
+	 * @return The name of the sheet
+	 */
+	public String getSheet() {
+		return this.sheet;
+	}
+
+	/**
+	 * @return The 0 based row of the cell in the sheet
+	 */
+	public int getRow() {
+		return this.row;
+	}
+
+	/**
+	 * @return The 0 based column of the cell
+	 */
+	public int getColumn() {
+		return this.column;
+	}
+
+	/**
+	 * @return The column name
+	 */
+	public String getHeader() {
+		return this.header;
+	}
+
+	/**
+	 * @return Why the cell could not be written
+	 */
+	public Exception getCause() {
+		return this.cause;
+	}
+
+	@Override
+	public String toString() {
+		return new CellReference(sheet, row, column, false, false).formatAsString() + " (" + header + "): " + cause;
+	}
+}
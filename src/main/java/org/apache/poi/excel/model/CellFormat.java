@@ -0,0 +1,130 @@
+package org.apache.poi.excel.model;
+
+import org.apache.poi.excel.annotation.ExcelCell;
+import org.apache.poi.ss.usermodel.IndexedColors;
+
+/**
+ * The look of a cell beyond its {@link ExcelCellType}: the number format, the
+ * font and the fill, as asked for by an {@link ExcelCell}. <br>
+ * <br>
+ * Immutable. Two formats with the same attributes are equal, which is what
+ * lets the {@link StylePool} share one cell style between them.
+ *
+ * @author ssp5zone
+ */
+public final class CellFormat {
+	private final String format;
+	private final boolean bold;
+	private final boolean italic;
+	private final IndexedColors color;
+	private final IndexedColors fill;
+
+	/**
+	 * @param format The number or date format, empty for none
+	 * @param bold   Whether the font is bold
+	 * @param italic Whether the font is italic
+	 * @param color  The font color, {@link IndexedColors#AUTOMATIC} for the
+	 *               default
+	 * @param fill   The background color, {@link IndexedColors#AUTOMATIC} for
+	 *               none
+	 */
+	public CellFormat(String format, boolean bold, boolean italic, IndexedColors color, IndexedColors fill) {
+		this.format = format == null ? "" : format;
+		this.bold = bold;
+		this.italic = italic;
+		this.color = color == null ? IndexedColors.AUTOMATIC : color;
+		this.fill = fill == null ? IndexedColors.AUTOMATIC : fill;
+	}
+
+	/**
+	 * @param cell An annotation
+	 * @return The format it asks for, null if it asks for none
+	 */
+	public static CellFormat of(ExcelCell cell) {
+		CellFormat format = new CellFormat(cell.format(), cell.bold(), cell.italic(), cell.color(), cell.fill());
+		return format.isPlain() ? null : format;
+	}
+
+	/**
+	 * @param format The number or date format
+	 * @return The same look with the passed format
+	 */
+	public CellFormat withFormat(String format) {
+		return new CellFormat(format, bold, italic, color, fill);
+	}
+
+	/**
+	 * @return The number or date format, empty for none
+	 */
+	public String getFormat() {
+		return this.format;
+	}
+
+	public boolean isBold() {
+		return this.bold;
+	}
+
+	public boolean isItalic() {
+		return this.italic;
+	}
+
+	/**
+	 * @return The font color, {@link IndexedColors#AUTOMATIC} for the default
+	 */
+	public IndexedColors getColor() {
+		return this.color;
+	}
+
+	/**
+	 * @return The background color, {@link IndexedColors#AUTOMATIC} for none
+	 */
+	public IndexedColors getFill() {
+		return this.fill;
+	}
+
+	/**
+	 * @return true if the font differs from the default one
+	 */
+	public boolean hasFont() {
+		return bold || italic || color != IndexedColors.AUTOMATIC;
+	}
+
+	/**
+	 * @return true if the cell has a background
+	 */
+	public boolean hasFill() {
+		return fill != IndexedColors.AUTOMATIC;
+	}
+
+	private boolean isPlain() {
+		return format.equals("") && !hasFont() && !hasFill();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof CellFormat)) {
+			return false;
+		}
+		CellFormat other = (CellFormat) obj;
+		return format.equals(other.format) && bold == other.bold && italic == other.italic && color == other.color
+				&& fill == other.fill;
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = format.hashCode();
+		hash = 31 * hash + (bold ? 1 : 0);
+		hash = 31 * hash + (italic ? 1 : 0);
+		hash = 31 * hash + color.hashCode();
+		return 31 * hash + fill.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return "'" + format + "'" + (bold ? " bold" : "") + (italic ? " italic" : "")
+				+ (color != IndexedColors.AUTOMATIC ? " " + color : "") + (hasFill() ? " on " + fill : "");
+	}
+}
@@ -0,0 +1,54 @@
+package org.apache.poi.excel.model;
+
+/**
+ * Thrown by a cell writer for a value it cannot write, say a text that is no
+ * number in a numeric column, for the write to count in its
+ * {@link ErrorReport}. <br>
+ * <br>
+ * It carries no stack trace, and the message is only built when asked for, so
+ * that a column failing on every row costs no more than this object per
+ * cell.
+ *
+ * @author ssp5zone
+ * @see ErrorPolicy
+ */
+public class CellValueException extends IllegalArgumentException {
+	private static final long serialVersionUID = 1L;
+
+	private final String reason;
+	private final transient Object value;
+
+	/**
+	 * @param reason Why the value could not be written
+	 * @param value  The value
+	 */
+	public CellValueException(String reason, Object value) {
+		this.reason = reason;
+		this.value = value;
+	}
+
+	/**
+	 * @return Why the value could not be written
+	 */
+	public String getReason() {
+		return this.reason;
+	}
+
+	/**
+	 * @return The value that could not be written
+	 */
+	public Object getValue() {
+		return this.value;
+	}
+
+	@Override
+	public String getMessage() {
+		return reason + ": '" + value + "'";
+	}
+
+	@Override
+	public synchronized Throwable fillInStackTrace() {
+		// The cell, as in the report, tells where it failed
+		return this;
+	}
+}
@@ -0,0 +1,76 @@
+package org.apache.poi.excel.model;
+
+import java.lang.reflect.Field;
+import java.util.function.BiConsumer;
+
+import org.apache.poi.excel.annotation.ExcelCell;
+import org.apache.poi.excel.processor.writer.engine.CellCursor;
+
+/**
+ * The compiled, immutable description of one column of a {@link SheetSchema}.
+ *
+ * @author ssp5zone
+ */
+public final class ColumnSchema {
+	private final Field field;
+	private final String header;
+	private final int index;
+	private final ExcelCellType type;
+	private final BiConsumer<CellCursor, Object> writer;
+	private final int[] styles;
+
+	ColumnSchema(Field field, String header, int index, ExcelCellType type, BiConsumer<CellCursor, Object> writer,
+			int[] styles) {
+		this.field = field;
+		this.header = header;
+		this.index = index;
+		this.type = type;
+		this.writer = writer;
+		this.styles = styles;
+	}
+
+	/**
+	 * @return The POJO field this column is read from, already accessible
+	 */
+	public Field getField() {
+		return this.field;
+	}
+
+	/**
+	 * @return The column name
+	 */
+	public String getHeader() {
+		return this.header;
+	}
+
+	/**
+	 * @return The {@link ExcelCell#index()} asked for, 0 if none
+	 */
+	public int getIndex() {
+		return this.index;
+	}
+
+	/**
+	 * @return The {@link ExcelCell#type()} asked for, {@link ExcelCellType#DEFAULT}
+	 *         if none
+	 */
+	public ExcelCellType getType() {
+		return this.type;
+	}
+
+	/**
+	 * @return The writer that puts this column's value of a row into a cell
+	 */
+	public BiConsumer<CellCursor, Object> getWriter() {
+		return this.writer;
+	}
+
+	/**
+	 * @return The {@link StylePool} ids of the styles of this column, by
+	 *         {@link StylePool#slotOf(ExcelCellType)}. Null if the column only has
+	 *         the styles of its types.
+	 */
+	public int[] getStyles() {
+		return this.styles == null ? null : this.styles.clone();
+	}
+}
@@ -0,0 +1,73 @@
+package org.apache.poi.excel.model;
+
+import org.apache.poi.excel.annotation.ExcelCondition;
+
+/**
+ * The compiled, immutable description of one {@link ExcelCondition} of a
+ * {@link SheetSchema}.
+ *
+ * @author ssp5zone
+ */
+public final class ConditionSchema {
+	private final int column;
+	private final ExcelConditionType type;
+	private final String value;
+	private final String to;
+	private final CellFormat look;
+
+	ConditionSchema(int column, ExcelConditionType type, String value, String to, CellFormat look) {
+		this.column = column;
+		this.type = type;
+		this.value = value;
+		this.to = to;
+		this.look = look;
+	}
+
+	/**
+	 * @return The 0 based column to highlight
+	 */
+	public int getColumn() {
+		return this.column;
+	}
+
+	/**
+	 * @return The rule
+	 */
+	public ExcelConditionType getType() {
+		return this.type;
+	}
+
+	/**
+	 * @return The formula the cells are compared with, without any leading
+	 *         '='. For the ranked types, the number of cells.
+	 */
+	public String getValue() {
+		return this.value;
+	}
+
+	/**
+	 * @return The formula of the other end of a range, null for the other types
+	 */
+	public String getTo() {
+		return this.to;
+	}
+
+	/**
+	 * @return The rank of a ranked type
+	 */
+	public int getRank() {
+		return Integer.parseInt(this.value);
+	}
+
+	/**
+	 * @return The font and fill of the matching cells, with no number format
+	 */
+	public CellFormat getLook() {
+		return this.look;
+	}
+
+	@Override
+	public String toString() {
+		return type + " " + value + (to == null ? "" : " to " + to) + " on column " + column + " as " + look;
+	}
+}
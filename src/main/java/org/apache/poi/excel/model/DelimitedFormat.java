@@ -0,0 +1,53 @@
+package org.apache.poi.excel.model;
+
+/**
+ * The plain text formats a sheet can be turned into, one line per row. <br>
+ * <br>
+ * Fields are quoted as RFC 4180 says, only when they hold the delimiter, a
+ * quote or a line break, and lines end with CRLF.
+ *
+ * @author ssp5zone
+ */
+public enum DelimitedFormat {
+
+	/**
+	 * Comma separated values
+	 */
+	CSV(',', "csv"),
+
+	/**
+	 * Tab separated values
+	 */
+	TSV('\t', "tsv");
+
+	private final char delimiter;
+	private final String extension;
+
+	DelimitedFormat(char delimiter, String extension) {
+		this.delimiter = delimiter;
+		this.extension = extension;
+	}
+
+	/**
+	 * @return The character between two fields
+	 */
+	public char getDelimiter() {
+		return this.delimiter;
+	}
+
+	/**
+	 * @return The file extension, without the dot
+	 */
+	public String getExtension() {
+		return this.extension;
+	}
+
+	/**
+	 * @param sheetName The name of a sheet
+	 * @return The name of its file, say {@code Employees.csv}
+	 */
+	public String toFileName(String sheetName) {
+		// Sheet names can not have most of what file names can not, but a few
+		return sheetName.replaceAll("[\\\\/:*?\"<>|]", "_") + "." + extension;
+	}
+}
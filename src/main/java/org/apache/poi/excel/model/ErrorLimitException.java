@@ -0,0 +1,27 @@
+package org.apache.poi.excel.model;
+
+/**
+ * Thrown by a write under {@link ErrorPolicy#FAIL}, once a sheet has more cells
+ * that could not be written than the threshold. Nothing more is written, and
+ * whatever was written so far is not to be used.
+ *
+ * @author ssp5zone
+ */
+public class ErrorLimitException extends IllegalStateException {
+	private static final long serialVersionUID = 1L;
+
+	private final transient SheetErrors errors;
+
+	public ErrorLimitException(SheetErrors errors) {
+		super(errors + (errors.getSamples().isEmpty() ? "" : ", first at " + errors.getSamples().get(0)),
+				errors.getSamples().isEmpty() ? null : errors.getSamples().get(0).getCause());
+		this.errors = errors;
+	}
+
+	/**
+	 * @return The errors of the sheet that went over the threshold
+	 */
+	public SheetErrors getErrors() {
+		return this.errors;
+	}
+}
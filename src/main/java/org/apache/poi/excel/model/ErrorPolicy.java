@@ -0,0 +1,33 @@
+package org.apache.poi.excel.model;
+
+import org.apache.poi.excel.ExcelWriter;
+
+/**
+ * What the {@link ExcelWriter} does with a cell whose value could not be
+ * written, say a text that is no number in a column of a numeric type. <br>
+ * <br>
+ * Whatever the policy, the failure is counted in the {@link ErrorReport} of the
+ * write, see {@link WriteHandle#getErrorReport()}.
+ *
+ * @author ssp5zone
+ * @see ExcelWriter#setErrorPolicy(ErrorPolicy)
+ */
+public enum ErrorPolicy {
+
+	/**
+	 * Leave the cell out, as if the row had no value for it.
+	 */
+	SKIP,
+
+	/**
+	 * Write the cell blank, in the style of its column. The default.
+	 */
+	BLANK,
+
+	/**
+	 * Write the cell blank, but give up on the whole write once a sheet has more
+	 * failed cells than the threshold, see
+	 * {@link ExcelWriter#setErrorThreshold(long)}.
+	 */
+	FAIL
+}
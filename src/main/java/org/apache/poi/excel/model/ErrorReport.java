@@ -0,0 +1,82 @@
+package org.apache.poi.excel.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.poi.excel.ExcelWriter;
+
+/**
+ * The cells that could not be written by one write of the
+ * {@link ExcelWriter}, per sheet. <br>
+ * <br>
+ * Sheets written in parallel each count their own, see {@link SheetErrors}.
+ *
+ * @author ssp5zone
+ * @see WriteHandle#getErrorReport()
+ */
+public final class ErrorReport {
+	private final ErrorPolicy policy;
+	private final long threshold;
+	private final int sampleLimit;
+	private final List<SheetErrors> sheets = new ArrayList<SheetErrors>();
+
+	/**
+	 * @param policy      What to do with the cells that fail
+	 * @param threshold   The failed cells a sheet may have under
+	 *                    {@link ErrorPolicy#FAIL}
+	 * @param sampleLimit The failed cells of a sheet to keep along with their
+	 *                    cause
+	 */
+	public ErrorReport(ErrorPolicy policy, long threshold, int sampleLimit) {
+		this.policy = policy;
+		this.threshold = threshold;
+		this.sampleLimit = sampleLimit;
+	}
+
+	/**
+	 * @param sheet   The name of the sheet
+	 * @param headers The column names
+	 * @return The errors of a new sheet, to count its failed cells
+	 */
+	public synchronized SheetErrors addSheet(String sheet, List<String> headers) {
+		SheetErrors errors = new SheetErrors(sheet, headers, policy, threshold, sampleLimit);
+		sheets.add(errors);
+		return errors;
+	}
+
+	/**
+	 * @return The errors of each sheet written, in the order they were started
+	 */
+	public synchronized List<SheetErrors> getSheets() {
+		return Collections.unmodifiableList(new ArrayList<SheetErrors>(this.sheets));
+	}
+
+	/**
+	 * @return The cells of all the sheets that could not be written
+	 */
+	public synchronized long getErrorCount() {
+		return sheets.stream().mapToLong(SheetErrors::getErrorCount).sum();
+	}
+
+	/**
+	 * @return true if every cell was written
+	 */
+	public boolean isClean() {
+		return getErrorCount() == 0;
+	}
+
+	@Override
+	public synchronized String toString() {
+		if (isClean()) {
+			return "All cells written";
+		}
+		StringBuilder summary = new StringBuilder();
+		for (SheetErrors sheet : sheets) {
+			if (sheet.getErrorCount() > 0) {
+				summary.append(summary.length() == 0 ? "" : "; ").append(sheet);
+			}
+		}
+		return summary.toString();
+	}
+}
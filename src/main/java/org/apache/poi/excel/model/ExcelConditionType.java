@@ -0,0 +1,104 @@
+package org.apache.poi.excel.model;
+
+import org.apache.poi.excel.annotation.ExcelCondition;
+import org.apache.poi.ss.usermodel.ComparisonOperator;
+
+/**
+ * An enum listing the rules an {@link ExcelCondition} can highlight the cells
+ * of a column by. <br>
+ * <br>
+ * The comparisons are against the {@link ExcelCondition#value()}, the ranges
+ * from it {@link ExcelCondition#to()}. The ranked ones take the number of cells
+ * to highlight as the value.
+ *
+ * @author ssp5zone
+ * @see ExcelCondition
+ */
+public enum ExcelConditionType {
+
+	/**
+	 * Greater than the value
+	 */
+	GREATER_THAN("greaterThan", ComparisonOperator.GT),
+
+	/**
+	 * Greater than or equal to the value
+	 */
+	GREATER_OR_EQUAL("greaterThanOrEqual", ComparisonOperator.GE),
+
+	/**
+	 * Less than the value, say negative balances with a value of 0
+	 */
+	LESS_THAN("lessThan", ComparisonOperator.LT),
+
+	/**
+	 * Less than or equal to the value
+	 */
+	LESS_OR_EQUAL("lessThanOrEqual", ComparisonOperator.LE),
+
+	/**
+	 * Equal to the value
+	 */
+	EQUAL("equal", ComparisonOperator.EQUAL),
+
+	/**
+	 * Not equal to the value
+	 */
+	NOT_EQUAL("notEqual", ComparisonOperator.NOT_EQUAL),
+
+	/**
+	 * From the value to the other value, both included
+	 */
+	BETWEEN("between", ComparisonOperator.BETWEEN),
+
+	/**
+	 * Outside of the value and the other value
+	 */
+	NOT_BETWEEN("notBetween", ComparisonOperator.NOT_BETWEEN),
+
+	/**
+	 * The largest few cells of the column, as many as the value
+	 */
+	TOP(null, ComparisonOperator.NO_COMPARISON),
+
+	/**
+	 * The smallest few cells of the column, as many as the value
+	 */
+	BOTTOM(null, ComparisonOperator.NO_COMPARISON);
+
+	private final String operator;
+	private final byte comparison;
+
+	ExcelConditionType(String operator, byte comparison) {
+		this.operator = operator;
+		this.comparison = comparison;
+	}
+
+	/**
+	 * @return The operator as named in the sheet XML, null for the ranked types
+	 */
+	public String getOperator() {
+		return this.operator;
+	}
+
+	/**
+	 * @return The {@link ComparisonOperator} of the type
+	 */
+	public byte getComparison() {
+		return this.comparison;
+	}
+
+	/**
+	 * @return true if the cells are picked by their rank rather than compared
+	 */
+	public boolean isRanked() {
+		return this == TOP || this == BOTTOM;
+	}
+
+	/**
+	 * @return true if the type needs both ends of a range
+	 */
+	public boolean isRange() {
+		return this == BETWEEN || this == NOT_BETWEEN;
+	}
+}
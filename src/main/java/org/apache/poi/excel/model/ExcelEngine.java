@@ -0,0 +1,70 @@
+package org.apache.poi.excel.model;
+
+import org.apache.poi.excel.ExcelWriter;
+
+/**
+ * The engines the {@link ExcelWriter} utility can use to produce a workbook.
+ *
+ * @author ssp5zone
+ * @see ExcelWriter#setEngine(ExcelEngine)
+ */
+public enum ExcelEngine {
+
+	/**
+	 * {@link #XSSF} for a small workbook, {@link #SXSSF} for any other. The size
+	 * is that of the rows times the columns of all the sheets, as known from the
+	 * sources. A source of unknown size is taken as large, and so is any workbook
+	 * of a writer with a memory budget or compressed temp files. See
+	 * {@link ExcelWriter#setAutoCellLimit(long)} for the crossover point.
+	 */
+	AUTO,
+
+	/**
+	 * Apache POI's streaming workbook. Keeps a window of rows in memory and
+	 * flushes the rest to temp files.
+	 */
+	SXSSF,
+
+	/**
+	 * Apache POI's full workbook, held in memory till it is written. The columns
+	 * are sized to fit their cells. Only for small workbooks, and the sheets are
+	 * always written one by one.
+	 */
+	XSSF,
+
+	/**
+	 * Writes the sheet XML straight into the zip stream, without any POI row or
+	 * cell objects. Much faster and lighter for bulk exports, but limited to what
+	 * this utility itself writes.
+	 */
+	NATIVE,
+
+	/**
+	 * Not a workbook, but a zip of one RFC 4180 CSV file per sheet. The headers
+	 * and the cell type formats are the same, there is no heading or styling.
+	 * Much faster than any xlsx, for consumers that never open Excel. See
+	 * {@link ExcelWriter#writeFiles(String, SheetSource...)} for a file per sheet
+	 * without the zip.
+	 */
+	CSV,
+
+	/**
+	 * Same as {@link #CSV} with tabs in place of the commas.
+	 */
+	TSV;
+
+	/**
+	 * @return The text format of the engine, null for the ones that write a
+	 *         workbook
+	 */
+	public DelimitedFormat getDelimitedFormat() {
+		switch (this) {
+		case CSV:
+			return DelimitedFormat.CSV;
+		case TSV:
+			return DelimitedFormat.TSV;
+		default:
+			return null;
+		}
+	}
+}
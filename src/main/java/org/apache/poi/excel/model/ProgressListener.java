@@ -0,0 +1,21 @@
+package org.apache.poi.excel.model;
+
+/**
+ * Told how far a write has got, see
+ * {@link WriteHandle#setProgressListener(ProgressListener)}. <br>
+ * <br>
+ * Called from the threads writing the sheets, so it should be quick and not
+ * assume any one thread.
+ *
+ * @author ssp5zone
+ */
+@FunctionalInterface
+public interface ProgressListener {
+
+	/**
+	 * @param rowsWritten  The rows written so far, across all the sheets
+	 * @param bytesWritten The bytes of the workbook written out so far. Some
+	 *                     engines write most of them only after the last row.
+	 */
+	void onProgress(long rowsWritten, long bytesWritten);
+}
@@ -1,8 +1,8 @@
 package org.apache.poi.excel.model;
 
-import java.util.List;
+import java.util.Iterator;
 
-import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.excel.processor.writer.engine.SheetEngine;
 
 /**
  * A simple POJO that holds sheet level data.
@@ -10,30 +10,95 @@ import org.apache.poi.ss.usermodel.Sheet;
  * @author ssp5zone
  */
 public class SheetContainer {
-	private Sheet sheet;
-	private List<?> data;
+	private final WorkbookContainer workbookContainer;
+	private SheetEngine sheet;
+	private SheetSchema schema;
+	private Iterator<?> data;
+	private int rowCount;
+	private int columnCount;
 	private String heading = "";
+	private int firstRow;
 
-	public void setSheet(Sheet sheet) {
+	public SheetContainer(WorkbookContainer workbookContainer) {
+		this.workbookContainer = workbookContainer;
+	}
+
+	public void setSheet(SheetEngine sheet) {
 		this.sheet = sheet;
 	}
 
-	public void setData(List<?> data) {
-		this.data = data;
+	public void setSource(SheetSource<?> source) {
+		this.schema = SheetSchema.of(source.getType());
+		this.data = source.getRows();
+	}
+
+	public void setRowCount(int rowCount) {
+		this.rowCount = rowCount;
+	}
+
+	public void setColumnCount(int columnCount) {
+		this.columnCount = columnCount;
 	}
 
 	public void setHeading(String heading) {
 		this.heading = heading;
 	}
 
-	public Sheet getSheet() {
+	/**
+	 * @param firstRow The row the sheet starts at, 0 unless something else is
+	 *                 above it
+	 */
+	public void setFirstRow(int firstRow) {
+		this.firstRow = firstRow;
+	}
+
+	public WorkbookContainer getWorkbookContainer() {
+		return this.workbookContainer;
+	}
+
+	public SheetEngine getSheet() {
 		return this.sheet;
 	}
 
-	public List<?> getData() {
+	/**
+	 * @return The POJO class of the rows in this sheet
+	 */
+	public Class<?> getType() {
+		return this.schema.getType();
+	}
+
+	/**
+	 * @return The compiled schema of the POJO class
+	 */
+	public SheetSchema getSchema() {
+		return this.schema;
+	}
+
+	/**
+	 * @return The rows yet to be written. Can be iterated only once.
+	 */
+	public Iterator<?> getData() {
 		return this.data;
 	}
 
+	/**
+	 * @return The number of data rows written so far
+	 */
+	public int getRowCount() {
+		return this.rowCount;
+	}
+
+	/**
+	 * @return The number of columns in this sheet
+	 */
+	public int getColumnCount() {
+		return this.columnCount;
+	}
+
+	public int getFirstRow() {
+		return this.firstRow;
+	}
+
 	public String getHeading() {
 		return this.heading;
 	}
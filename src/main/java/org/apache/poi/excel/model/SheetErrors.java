@@ -0,0 +1,108 @@
+package org.apache.poi.excel.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The cells of one sheet that could not be written, counted per column. Only
+ * the first few are kept along with their cause. <br>
+ * <br>
+ * Counting a failure builds no strings and logs nothing. The cell writers
+ * report bad values through a {@link CellValueException}, which has no stack
+ * trace, so a column failing on every row costs next to nothing. Written by the
+ * one thread writing the sheet.
+ *
+ * @author ssp5zone
+ * @see ErrorReport
+ */
+public final class SheetErrors {
+	private final String sheet;
+	private final List<String> headers;
+	private final long[] counts;
+	private final ErrorPolicy policy;
+	private final long threshold;
+	private final int sampleLimit;
+	private final List<CellError> samples = new ArrayList<CellError>();
+	private long total;
+
+	SheetErrors(String sheet, List<String> headers, ErrorPolicy policy, long threshold, int sampleLimit) {
+		this.sheet = sheet;
+		this.headers = headers;
+		this.counts = new long[headers.size()];
+		this.policy = policy;
+		this.threshold = threshold;
+		this.sampleLimit = sampleLimit;
+	}
+
+	/**
+	 * Counts a cell that could not be written.
+	 * 
+	 * @param row    0 based row of the cell in the sheet
+	 * @param column 0 based column of the cell
+	 * @param cause  Why it could not be written
+	 * @throws ErrorLimitException If the policy is {@link ErrorPolicy#FAIL} and the
+	 *                             sheet is now over the threshold
+	 */
+	public void record(int row, int column, Exception cause) {
+		counts[column]++;
+		total++;
+		if (samples.size() < sampleLimit) {
+			samples.add(new CellError(sheet, row, column, headers.get(column), cause));
+		}
+		if (policy == ErrorPolicy.FAIL && total > threshold) {
+			throw new ErrorLimitException(this);
+		}
+	}
+
+	/**
+	 * @return What to do with the cells that failed
+	 */
+	public ErrorPolicy getPolicy() {
+		return this.policy;
+	}
+
+	/**
+	 * @return The name of the sheet
+	 */
+	public String getSheet() {
+		return this.sheet;
+	}
+
+	/**
+	 * @return The cells of the sheet that could not be written
+	 */
+	public long getErrorCount() {
+		return this.total;
+	}
+
+	/**
+	 * @param column 0 based column
+	 * @return The cells of the column that could not be written
+	 */
+	public long getErrorCount(int column) {
+		return this.counts[column];
+	}
+
+	/**
+	 * @return The first cells that could not be written, in the order they
+	 *         failed
+	 */
+	public List<CellError> getSamples() {
+		return Collections.unmodifiableList(this.samples);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder summary = new StringBuilder();
+		summary.append(total).append(" cells of ").append(sheet).append(" could not be written");
+		String separator = ": ";
+		for (int column = 0; column < counts.length; column++) {
+			if (counts[column] > 0) {
+				summary.append(separator).append(counts[column]).append(" of ").append(headers.get(column));
+				separator = ", ";
+			}
+		}
+		return summary.toString();
+	}
+}
@@ -0,0 +1,333 @@
+package org.apache.poi.excel.model;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.poi.excel.annotation.ExcelCell;
+import org.apache.poi.excel.annotation.ExcelCondition;
+import org.apache.poi.excel.annotation.ExcelSheet;
+import org.apache.poi.excel.processor.writer.CellWriterFactory;
+import org.apache.poi.excel.processor.writer.RowWriter;
+import org.apache.poi.excel.processor.writer.engine.CellCursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import freemarker.template.utility.StringUtil;
+
+/**
+ * Everything the {@link ExcelCell}, {@link ExcelCondition} and
+ * {@link ExcelSheet} annotations of a POJO class say about its sheet: name,
+ * heading, the ordered columns along with their writers, and the conditions
+ * that highlight them. <br>
+ * <br>
+ * A schema is compiled only once per class and cached, so exporting the same
+ * class again does no reflection at all. It is immutable and safe to share
+ * between threads. <br>
+ * <br>
+ * If a {@link RowWriter} was generated for the class at build time, its columns
+ * are written by it instead of the reflective writers.
+ *
+ * @author ssp5zone
+ */
+public final class SheetSchema {
+	private final static Logger log = LoggerFactory.getLogger(SheetSchema.class);
+
+	private static final ClassValue<SheetSchema> schemas = new ClassValue<SheetSchema>() {
+		@Override
+		protected SheetSchema computeValue(Class<?> type) {
+			return new SheetSchema(type);
+		}
+	};
+
+	private final Class<?> type;
+	private final String name;
+	private final String heading;
+	private final List<ColumnSchema> columns;
+	private final BiConsumer<CellCursor, Object>[] writers;
+	private final int[][] styles;
+	private final List<ConditionSchema> conditions;
+
+	/**
+	 * @param type The POJO class
+	 * @return The compiled schema of the class
+	 */
+	public static SheetSchema of(Class<?> type) {
+		return schemas.get(type);
+	}
+
+	private SheetSchema(Class<?> type) {
+		this.type = type;
+
+		String sheetName = "";
+		String sheetHeading = "";
+		// See if the good people added an Excel Sheet annotation
+		if (type.isAnnotationPresent(ExcelSheet.class)) {
+			// And by any chance gave it a name
+			sheetName = type.getAnnotation(ExcelSheet.class).name();
+			sheetHeading = type.getAnnotation(ExcelSheet.class).heading();
+		}
+		// If there are no annotations or no one bothered to give a sheet name, just use
+		// the Class Name
+		if (sheetName.equals("")) {
+			sheetName = parseCamelCase(type.getSimpleName());
+		}
+		this.name = sheetName;
+		this.heading = sheetHeading;
+		this.columns = Collections.unmodifiableList(compileColumns(type));
+		this.writers = toWriters(this.columns);
+		this.styles = toStyles(this.columns);
+		this.conditions = Collections.unmodifiableList(compileConditions(type, this.columns));
+	}
+
+	/**
+	 * !!IMPORTANT!! If even 1 @ExcelCell annotation is found, it would then keep
+	 * only those fields that are annotated, ordered by their index.
+	 */
+	private static List<ColumnSchema> compileColumns(Class<?> type) {
+		// Get all fields (public, protected, anything)
+		Field fields[] = type.getDeclaredFields();
+
+		// Filter out those fields that have Excel Cell annotations
+		List<Field> fieldList = Arrays.asList(fields).stream().filter((Field field) -> {
+			field.setAccessible(true);
+			return field.isAnnotationPresent(ExcelCell.class);
+		}).collect(Collectors.toList());
+
+		// If no annotations are present
+		// then use all the fields
+		if (fieldList.size() == 0) {
+			fieldList = Arrays.asList(fields);
+		}
+
+		// The sort is stable, so columns without an index keep the declaration order
+		fieldList = new ArrayList<Field>(fieldList);
+		fieldList.sort(Comparator.comparingInt((Field field) -> field.isAnnotationPresent(ExcelCell.class)
+				? field.getAnnotation(ExcelCell.class).index()
+				: 0));
+
+		RowWriter<Object> rowWriter = findRowWriter(type, fieldList);
+		CellWriterFactory writerFactory = new CellWriterFactory();
+		List<ColumnSchema> columns = new ArrayList<ColumnSchema>();
+		for (int i = 0; i < fieldList.size(); i++) {
+			Field field = fieldList.get(i);
+			ExcelCell cell = field.getAnnotation(ExcelCell.class);
+
+			// Check if the header name is present in the annotation, if not, use the object
+			// name itself
+			String header = cell == null ? "" : cell.header();
+			if (header.equals("")) {
+				header = parseCamelCase(field.getName());
+			}
+
+			// A dynamic function that knows how to write this specific "type" of column in
+			// the Excel based on the annotations or its data type. The generated one if
+			// there is any.
+			final int column = i;
+			BiConsumer<CellCursor, Object> writer = rowWriter == null ? writerFactory.getAnnotatedFieldWriter(field)
+					: (CellCursor cursor, Object row) -> rowWriter.write(cursor, row, column);
+			// The custom look, if any, as styles shared by all the columns that look alike
+			CellFormat format = cell == null ? null : CellFormat.of(cell);
+			columns.add(new ColumnSchema(field, header, cell == null ? 0 : cell.index(),
+					cell == null ? ExcelCellType.DEFAULT : cell.type(), writer,
+					format == null ? null : StylePool.resolve(format)));
+		}
+		return columns;
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static BiConsumer<CellCursor, Object>[] toWriters(List<ColumnSchema> columns) {
+		BiConsumer<CellCursor, Object>[] writers = new BiConsumer[columns.size()];
+		for (int i = 0; i < writers.length; i++) {
+			writers[i] = columns.get(i).getWriter();
+		}
+		return writers;
+	}
+
+	/**
+	 * @return The style ids of each column, null if no column has a look of its
+	 *         own
+	 */
+	private static int[][] toStyles(List<ColumnSchema> columns) {
+		if (columns.stream().allMatch(column -> column.getStyles() == null)) {
+			return null;
+		}
+		int[][] styles = new int[columns.size()][];
+		for (int i = 0; i < styles.length; i++) {
+			styles[i] = columns.get(i).getStyles();
+		}
+		return styles;
+	}
+
+	/**
+	 * The conditions of the columns in their order, then the ones of the sheet.
+	 * The ones that make no sense are logged and skipped.
+	 */
+	private static List<ConditionSchema> compileConditions(Class<?> type, List<ColumnSchema> columns) {
+		List<ConditionSchema> conditions = new ArrayList<ConditionSchema>();
+		for (int i = 0; i < columns.size(); i++) {
+			for (ExcelCondition condition : columns.get(i).getField().getAnnotationsByType(ExcelCondition.class)) {
+				addCondition(conditions, type, condition, i);
+			}
+		}
+		if (type.isAnnotationPresent(ExcelSheet.class)) {
+			for (ExcelCondition condition : type.getAnnotation(ExcelSheet.class).conditions()) {
+				int column = findColumn(columns, condition.column());
+				if (column < 0) {
+					log.warn("Skipping a condition of {} as it has no column named '{}'", type.getName(),
+							condition.column());
+				} else {
+					addCondition(conditions, type, condition, column);
+				}
+			}
+		}
+		return conditions;
+	}
+
+	/**
+	 * @return The index of the column of the attribute name or header, -1 if none
+	 */
+	private static int findColumn(List<ColumnSchema> columns, String name) {
+		for (int i = 0; i < columns.size(); i++) {
+			if (columns.get(i).getField().getName().equals(name) || columns.get(i).getHeader().equals(name)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static void addCondition(List<ConditionSchema> conditions, Class<?> type, ExcelCondition condition,
+			int column) {
+		ExcelConditionType rule = condition.type();
+		String value = toFormula(condition.value());
+		String to = rule.isRange() ? toFormula(condition.to()) : null;
+		CellFormat look = new CellFormat("", condition.bold(), condition.italic(), condition.color(),
+				condition.fill());
+		String problem = null;
+		if (value.equals("") || (to != null && to.equals(""))) {
+			problem = "has no value to compare with";
+		} else if (rule.isRanked() && !value.matches("[1-9][0-9]{0,8}")) {
+			problem = "needs a number of cells as its value";
+		} else if (!look.hasFont() && !look.hasFill()) {
+			problem = "highlights nothing";
+		}
+		if (problem != null) {
+			log.warn("Skipping the {} condition on column {} of {} as it {}", rule, column + 1, type.getName(),
+					problem);
+			return;
+		}
+		conditions.add(new ConditionSchema(column, rule, value, to, look));
+	}
+
+	/**
+	 * @return The value as written in the sheet XML, without a leading '='
+	 */
+	private static String toFormula(String value) {
+		String formula = value.trim();
+		return formula.startsWith("=") ? formula.substring(1).trim() : formula;
+	}
+
+	/**
+	 * Looks up the {@link RowWriter} generated for the class at build time, if
+	 * any.
+	 * 
+	 * @return The writer, or null if there is none or it does not match the
+	 *         fields anymore
+	 */
+	@SuppressWarnings("unchecked")
+	private static RowWriter<Object> findRowWriter(Class<?> type, List<Field> fields) {
+		if (type.getClassLoader() == null) {
+			return null;
+		}
+		RowWriter<Object> rowWriter;
+		try {
+			rowWriter = (RowWriter<Object>) Class.forName(type.getName() + RowWriter.SUFFIX, true, type.getClassLoader())
+					.getDeclaredConstructor().newInstance();
+		} catch (ClassNotFoundException e) {
+			return null;
+		} catch (ReflectiveOperationException | ClassCastException | LinkageError e) {
+			log.warn("Unable to load the generated row writer of " + type.getName() + ". Using reflection instead.", e);
+			return null;
+		}
+		List<String> names = fields.stream().map(Field::getName).collect(Collectors.toList());
+		if (!names.equals(Arrays.asList(rowWriter.getColumns()))) {
+			log.warn("The generated row writer of " + type.getName() + " is stale. Using reflection instead.");
+			return null;
+		}
+		return rowWriter;
+	}
+
+	/**
+	 * @return The POJO class
+	 */
+	public Class<?> getType() {
+		return this.type;
+	}
+
+	/**
+	 * @return The sheet name, never null but may be empty for anonymous classes
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * @return The heading, empty if none
+	 */
+	public String getHeading() {
+		return this.heading;
+	}
+
+	/**
+	 * @return The columns, in the order they appear in the sheet
+	 */
+	public List<ColumnSchema> getColumns() {
+		return this.columns;
+	}
+
+	/**
+	 * @return The writers of the columns, indexed by column. A fresh copy, for the
+	 *         hot loop of a single sheet.
+	 */
+	public BiConsumer<CellCursor, Object>[] getWriters() {
+		return this.writers.clone();
+	}
+
+	/**
+	 * @return The {@link StylePool} ids of the styles of each column, see
+	 *         {@link ColumnSchema#getStyles()}. Null if no column has a format,
+	 *         font or fill of its own. Shared, not to be modified.
+	 */
+	public int[][] getStyles() {
+		return this.styles;
+	}
+
+	/**
+	 * @return The conditions that highlight the cells of the columns, in the
+	 *         order Excel gives them priority
+	 */
+	public List<ConditionSchema> getConditions() {
+		return this.conditions;
+	}
+
+	/**
+	 * As the name suggests, it converts a "camelCasedString" to a human readable
+	 * non-"Camel Cased String".
+	 * 
+	 * @param camelCaseString
+	 * @return Simple Readable String
+	 */
+	public static String parseCamelCase(String camelCaseString) {
+		if (camelCaseString == null) {
+			return "";
+		} else {
+			return StringUtil.capitalize(String.join(" ", StringUtils.splitByCharacterTypeCamelCase(camelCaseString)));
+		}
+	}
+}
@@ -0,0 +1,121 @@
+package org.apache.poi.excel.model;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.apache.poi.excel.ExcelWriter;
+
+/**
+ * The rows of one sheet along with the POJO class they are made of. <br>
+ * <br>
+ * The rows are pulled one at a time while the sheet is written and are not
+ * held on to afterwards. So an {@link Iterator} or a {@link Stream} backed by a
+ * database cursor or a file never needs to be fully loaded on the heap. A
+ * source can be consumed only once. <br>
+ * <br>
+ * The number of rows is known for a list or any other collection. For the
+ * others it can be passed as an estimate, which lets the writer pick a fitting
+ * engine.
+ *
+ * @author ssp5zone
+ * @see ExcelWriter
+ */
+public class SheetSource<T> {
+	private final Class<? extends T> type;
+	private final Iterator<? extends T> rows;
+
+	// -1 when not known
+	private final long size;
+
+	private SheetSource(Class<? extends T> type, Iterator<? extends T> rows, long size) {
+		this.type = type;
+		this.rows = rows;
+		this.size = size;
+	}
+
+	/**
+	 * A sheet made of an already materialized list. The POJO class is that of the
+	 * first element.
+	 * 
+	 * @param <T>  The datatype contained by the list.
+	 * @param rows The rows of the sheet
+	 * @return The sheet source, or null if there is no data in the list
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> SheetSource<T> of(List<? extends T> rows) {
+		if (rows == null || rows.size() == 0) {
+			return null;
+		}
+		return new SheetSource<T>((Class<? extends T>) rows.get(0).getClass(), rows.iterator(), rows.size());
+	}
+
+	/**
+	 * A sheet whose rows are pulled lazily from the passed iterator.
+	 * 
+	 * @param <T>  The datatype returned by the iterator.
+	 * @param type The POJO class that decides the columns
+	 * @param rows The rows of the sheet
+	 * @return The sheet source
+	 */
+	public static <T> SheetSource<T> of(Class<? extends T> type, Iterator<? extends T> rows) {
+		return new SheetSource<T>(type, rows, -1);
+	}
+
+	/**
+	 * A sheet whose rows are pulled lazily from the passed iterable.
+	 * 
+	 * @param <T>  The datatype contained by the iterable.
+	 * @param type The POJO class that decides the columns
+	 * @param rows The rows of the sheet
+	 * @return The sheet source
+	 */
+	public static <T> SheetSource<T> of(Class<? extends T> type, Iterable<? extends T> rows) {
+		return new SheetSource<T>(type, rows.iterator(),
+				rows instanceof Collection ? ((Collection<? extends T>) rows).size() : -1);
+	}
+
+	/**
+	 * A sheet whose rows are pulled lazily from the passed stream. The stream is
+	 * not closed, that is left to the caller.
+	 * 
+	 * @param <T>  The datatype contained by the stream.
+	 * @param type The POJO class that decides the columns
+	 * @param rows The rows of the sheet
+	 * @return The sheet source
+	 */
+	public static <T> SheetSource<T> of(Class<? extends T> type, Stream<? extends T> rows) {
+		return new SheetSource<T>(type, rows.iterator(), -1);
+	}
+
+	/**
+	 * The same rows, with an estimate of how many there are. Say, the count of a
+	 * query whose cursor the rows are pulled from. Only used to pick the engine,
+	 * the rows written are whatever the source has.
+	 * 
+	 * @param size The estimated number of rows
+	 * @return A source in place of this one
+	 */
+	public SheetSource<T> withSize(long size) {
+		if (size < 0) {
+			throw new IllegalArgumentException("The size cannot be negative, got: " + size);
+		}
+		return new SheetSource<T>(type, rows, size);
+	}
+
+	public Class<? extends T> getType() {
+		return this.type;
+	}
+
+	public Iterator<? extends T> getRows() {
+		return this.rows;
+	}
+
+	/**
+	 * @return The known or estimated number of rows, -1 if not known
+	 */
+	public long getSize() {
+		return this.size;
+	}
+}
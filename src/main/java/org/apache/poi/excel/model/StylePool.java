@@ -0,0 +1,84 @@
+package org.apache.poi.excel.model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Interns the {@link CellFormat}s of all the compiled schemas, giving each
+ * distinct one a small id. <br>
+ * <br>
+ * The formats are resolved while the {@link SheetSchema} is compiled, so a
+ * column holds the ids of its styles up front, one per {@link ExcelCellType}
+ * its cells may be written with. An engine then creates one cell style per id
+ * it meets, and looks it up by the id in the row loop. However many cells, or
+ * columns or classes, ask for the same look, the workbook holds it only once.
+ * <br>
+ * <br>
+ * Thread safe. Ids are never reused or dropped.
+ *
+ * @author ssp5zone
+ */
+public final class StylePool {
+
+	/**
+	 * The number of style slots of a column, one per {@link ExcelCellType} and
+	 * one for texts written without any type
+	 */
+	public static final int SLOTS = ExcelCellType.values().length + 1;
+
+	private static final Map<CellFormat, Integer> ids = new HashMap<CellFormat, Integer>();
+
+	// Copied on write, so lookups need no lock
+	private static volatile CellFormat[] formats = new CellFormat[0];
+
+	private StylePool() {
+	}
+
+	/**
+	 * @param format A format
+	 * @return The id of the format, the same for every equal format
+	 */
+	public static synchronized int intern(CellFormat format) {
+		Integer id = ids.get(format);
+		if (id == null) {
+			id = formats.length;
+			CellFormat[] grown = Arrays.copyOf(formats, id + 1);
+			grown[id] = format;
+			formats = grown;
+			ids.put(format, id);
+		}
+		return id;
+	}
+
+	/**
+	 * @param id An id given by {@link #intern(CellFormat)}
+	 * @return Its format
+	 */
+	public static CellFormat get(int id) {
+		return formats[id];
+	}
+
+	/**
+	 * @param type The type a cell is written with, null for none
+	 * @return The slot of the type in the style ids of a column
+	 */
+	public static int slotOf(ExcelCellType type) {
+		return type == null ? SLOTS - 1 : type.ordinal();
+	}
+
+	/**
+	 * @param format The look asked for by a column
+	 * @return The ids of the styles of the column, by the slot of the type its
+	 *         cells are written with. A format of its own wins over the one of
+	 *         the type.
+	 */
+	static int[] resolve(CellFormat format) {
+		int[] styles = new int[SLOTS];
+		for (ExcelCellType type : ExcelCellType.values()) {
+			styles[slotOf(type)] = intern(format.getFormat().equals("") ? format.withFormat(type.getFormat()) : format);
+		}
+		styles[slotOf(null)] = intern(format);
+		return styles;
+	}
+}
@@ -1,13 +1,12 @@
 package org.apache.poi.excel.model;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.io.OutputStream;
 
 import org.apache.poi.excel.ExcelWriter;
-import org.apache.poi.excel.processor.writer.CellWriterFactory;
-import org.apache.poi.ss.usermodel.CellStyle;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.excel.processor.writer.engine.DelimitedWorkbookEngine;
+import org.apache.poi.excel.processor.writer.engine.NativeWorkbookEngine;
+import org.apache.poi.excel.processor.writer.engine.PoiWorkbookEngine;
+import org.apache.poi.excel.processor.writer.engine.WorkbookEngine;
 
 /**
  * A simple POJO that contains information of each excel workbook (file).
@@ -17,43 +16,72 @@ import org.apache.poi.xssf.streaming.SXSSFWorkbook;
  */
 public class WorkbookContainer {
 
-	private Workbook workbook;
+	private final WorkbookEngine engine;
 
-	private Map<ExcelCellType, CellStyle> styles;
+	private WriteHandle handle = new WriteHandle();
 
-	private CellWriterFactory writerFactory;
-
-	public WorkbookContainer() {
-		// SXSSFWorkbook is whooping 300 times faster!!!!!!!!!!!!!!
-		// !!!DANGER!!!: SXSSFWorkbook has short term memory loss. It can now remember
-		// only 500 row at a time. You also cant use formula's
-		// Be careful with SXSSFWorkbook
-		this.workbook = new SXSSFWorkbook(500);
+	/**
+	 * @param settings The writer, whose engine and its settings are used
+	 * @param out      Where the workbook gets written
+	 */
+	public WorkbookContainer(ExcelWriter settings, OutputStream out) {
+		this(settings, settings.getEngine(), out);
+	}
 
-		// Initialize all the available styles we have defined in the ExcelCellStyle
-		// enum
-		this.initStyles();
+	/**
+	 * @param settings The writer, whose settings are used
+	 * @param engine   The engine chosen for this workbook, {@link ExcelEngine#AUTO}
+	 *                 is taken as {@link ExcelEngine#SXSSF}
+	 * @param out      Where the workbook gets written
+	 */
+	public WorkbookContainer(ExcelWriter settings, ExcelEngine engine, OutputStream out) {
+		switch (engine) {
+		case CSV:
+		case TSV:
+			this.engine = new DelimitedWorkbookEngine(out, engine.getDelimitedFormat());
+			break;
+		case NATIVE:
+			this.engine = new NativeWorkbookEngine(out, settings.getSharedStringsLimit());
+			break;
+		case XSSF:
+			this.engine = PoiWorkbookEngine.inMemory(out);
+			break;
+		case SXSSF:
+		case AUTO:
+		default:
+			this.engine = new PoiWorkbookEngine(out, settings.getMemoryBudget(), settings.isCompressTempFiles());
+			break;
+		}
+	}
 
-		// Initialize the common writer for this workbook
-		this.writerFactory = new CellWriterFactory(this);
+	/**
+	 * @param engine An engine set up by the caller, say one that writes a file
+	 *               per sheet
+	 */
+	public WorkbookContainer(WorkbookEngine engine) {
+		this.engine = engine;
 	}
 
-	private void initStyles() {
-		this.styles = new HashMap<ExcelCellType, CellStyle>();
-		for (ExcelCellType type : ExcelCellType.values()) {
-			this.styles.put(type, type.getCellStyle(workbook));
-		}
+	public WorkbookEngine getEngine() {
+		return this.engine;
 	}
 
-	public Workbook getWorkbook() {
-		return this.workbook;
+	/**
+	 * @return Where the sheets count the cells that could not be written, that of
+	 *         the handle
+	 */
+	public ErrorReport getErrorReport() {
+		return this.handle.getErrorReport();
 	}
 
-	public CellStyle getStyle(ExcelCellType type) {
-		return this.styles.get(type);
+	/**
+	 * @return Observes and controls the write of this workbook
+	 */
+	public WriteHandle getHandle() {
+		return this.handle;
 	}
 
-	public CellWriterFactory getWriterFactory() {
-		return this.writerFactory;
+	public void setHandle(WriteHandle handle) {
+		this.handle = handle;
 	}
 }
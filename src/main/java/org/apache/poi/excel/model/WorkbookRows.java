@@ -0,0 +1,54 @@
+package org.apache.poi.excel.model;
+
+import java.io.Closeable;
+import java.util.Collections;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.apache.poi.excel.ExcelReader;
+
+/**
+ * The rows of every sheet of a workbook being read, one ordered stream per
+ * sheet. <br>
+ * <br>
+ * The sheets are read ahead in parallel, so their streams may be consumed in
+ * any order or from different threads. Close this once done, it closes all the
+ * streams and releases the file.
+ *
+ * @author ssp5zone
+ * @see ExcelReader#streamSheets(java.io.File, Class)
+ */
+public class WorkbookRows<T> implements Closeable {
+	private final Map<String, Stream<T>> sheets;
+	private final Runnable onClose;
+
+	/**
+	 * @param sheets  The rows by sheet name, in the order of the tabs
+	 * @param onClose Releases everything held for the read
+	 */
+	public WorkbookRows(Map<String, Stream<T>> sheets, Runnable onClose) {
+		this.sheets = Collections.unmodifiableMap(sheets);
+		this.onClose = onClose;
+	}
+
+	/**
+	 * @return The rows by sheet name, in the order of the tabs. Sheets without
+	 *         the columns of the class have no rows.
+	 */
+	public Map<String, Stream<T>> getSheets() {
+		return this.sheets;
+	}
+
+	/**
+	 * @param name The sheet name
+	 * @return The rows of the sheet, null if there is no such sheet
+	 */
+	public Stream<T> getSheet(String name) {
+		return this.sheets.get(name);
+	}
+
+	@Override
+	public void close() {
+		onClose.run();
+	}
+}
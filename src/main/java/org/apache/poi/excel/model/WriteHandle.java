@@ -0,0 +1,219 @@
+package org.apache.poi.excel.model;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.poi.excel.ExcelWriter;
+
+/**
+ * Observes and controls a single write of the {@link ExcelWriter}: reports
+ * its progress, and stops it when cancelled or past its deadline. <br>
+ * <br>
+ * Once the write has started, the handle also carries its
+ * {@link ErrorReport}, which is complete when the write returns. <br>
+ * <br>
+ * The write checks the handle between batches of rows and as the workbook is
+ * written out. A stopped write throws a {@link CancellationException}, after
+ * deleting its temp files and, if writing a file, the file itself. <br>
+ * <br>
+ * Thread safe, {@link #cancel()} is meant to be called from any thread. A
+ * handle is good for one write only.
+ *
+ * @author ssp5zone
+ * @see ExcelWriter#writeStream(OutputStream, WriteHandle, SheetSource...)
+ */
+public class WriteHandle {
+
+	/**
+	 * The rows written between two checks of the handle
+	 */
+	public static final int BATCH_SIZE = 256;
+
+	private volatile boolean cancelled;
+
+	// System.nanoTime() based, only if hasDeadline
+	private volatile long deadline;
+	private volatile boolean hasDeadline;
+
+	private volatile ProgressListener progressListener;
+	private volatile long progressInterval = 10000;
+	// Output is reported at least this often too, as some engines write it all at
+	// the end
+	private volatile long progressBytes = 1 << 20;
+
+	private final AtomicLong rows = new AtomicLong();
+	private final AtomicLong bytes = new AtomicLong();
+
+	private volatile ErrorReport errorReport;
+
+	/**
+	 * Stops the write at its next check. Has no effect once it is done.
+	 */
+	public void cancel() {
+		this.cancelled = true;
+	}
+
+	/**
+	 * @return true if {@link #cancel()} was called
+	 */
+	public boolean isCancelled() {
+		return this.cancelled;
+	}
+
+	/**
+	 * Stops the write if it is not done within the passed time from now.
+	 * 
+	 * @param timeout The time the write may take
+	 * @param unit    The unit of the timeout
+	 */
+	public void setDeadline(long timeout, TimeUnit unit) {
+		if (timeout < 0) {
+			throw new IllegalArgumentException("The timeout cannot be negative, got: " + timeout);
+		}
+		this.deadline = System.nanoTime() + unit.toNanos(timeout);
+		this.hasDeadline = true;
+	}
+
+	/**
+	 * @return true if the deadline has passed
+	 */
+	public boolean isExpired() {
+		return hasDeadline && System.nanoTime() - deadline > 0;
+	}
+
+	/**
+	 * @param progressListener Told of the progress, null for none
+	 */
+	public void setProgressListener(ProgressListener progressListener) {
+		this.progressListener = progressListener;
+	}
+
+	/**
+	 * The listener is told of the progress every this many rows, and once the
+	 * write is done. Defaults to 10000.
+	 * 
+	 * @param rows The rows between two calls of the listener
+	 */
+	public void setProgressInterval(long rows) {
+		if (rows < 1) {
+			throw new IllegalArgumentException("The progress interval must be at-least 1, got: " + rows);
+		}
+		this.progressInterval = rows;
+	}
+
+	/**
+	 * The listener is also told of the progress every this many bytes written
+	 * out, as some engines write the whole workbook at the end. Defaults to 1
+	 * MB.
+	 * 
+	 * @param bytes The bytes between two calls of the listener
+	 */
+	public void setProgressBytes(long bytes) {
+		if (bytes < 1) {
+			throw new IllegalArgumentException("The progress bytes must be at-least 1, got: " + bytes);
+		}
+		this.progressBytes = bytes;
+	}
+
+	/**
+	 * @return The rows written so far, across all the sheets
+	 */
+	public long getRowsWritten() {
+		return this.rows.get();
+	}
+
+	/**
+	 * @return The bytes of the workbook written out so far
+	 */
+	public long getBytesWritten() {
+		return this.bytes.get();
+	}
+
+	/**
+	 * The cells that could not be written, counted per sheet and column. Kept
+	 * after the write is stopped or gives up too, for the sheets it got to.
+	 * 
+	 * @return The error report, null if the write has not started yet
+	 */
+	public ErrorReport getErrorReport() {
+		return this.errorReport;
+	}
+
+	/**
+	 * @param errorReport Where the write counts its failed cells, set as it starts
+	 */
+	public void setErrorReport(ErrorReport errorReport) {
+		this.errorReport = errorReport;
+	}
+
+	/**
+	 * @throws CancellationException If the write is to stop
+	 */
+	public void check() {
+		if (cancelled) {
+			throw new CancellationException("The write was cancelled");
+		}
+		if (isExpired()) {
+			throw new CancellationException("The write is past its deadline");
+		}
+	}
+
+	/**
+	 * Counts the rows just written and checks the handle.
+	 * 
+	 * @param count The rows written since the last call
+	 * @throws CancellationException If the write is to stop
+	 */
+	public void addRows(long count) {
+		long total = rows.addAndGet(count);
+		long interval = progressInterval;
+		if (total / interval != (total - count) / interval) {
+			notifyProgress();
+		}
+		check();
+	}
+
+	/**
+	 * Tells the listener of the progress, if there is one.
+	 */
+	public void notifyProgress() {
+		ProgressListener listener = this.progressListener;
+		if (listener != null) {
+			listener.onProgress(rows.get(), bytes.get());
+		}
+	}
+
+	/**
+	 * @param out Where the workbook is written
+	 * @return The same stream, counting the bytes and checking the handle as they
+	 *         are written
+	 */
+	public OutputStream track(OutputStream out) {
+		return new FilterOutputStream(out) {
+			@Override
+			public void write(int b) throws IOException {
+				out.write(b);
+				addBytes(1);
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				out.write(b, off, len);
+				addBytes(len);
+			}
+		};
+	}
+
+	private void addBytes(long count) {
+		long total = bytes.addAndGet(count);
+		long interval = progressBytes;
+		if (total / interval != (total - count) / interval) {
+			notifyProgress();
+		}
+		check();
+	}
+}
@@ -0,0 +1,320 @@
+package org.apache.poi.excel.processor.generator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+import org.apache.poi.excel.annotation.ExcelCell;
+import org.apache.poi.excel.annotation.ExcelSheet;
+import org.apache.poi.excel.model.ExcelCellType;
+import org.apache.poi.excel.processor.writer.CellWriterFactory;
+import org.apache.poi.excel.processor.writer.RowWriter;
+import org.apache.poi.excel.utility.DateParser;
+
+/**
+ * An optional annotation processor that generates a {@link RowWriter} for
+ * every class annotated with {@link ExcelSheet} or having {@link ExcelCell}
+ * fields. <br>
+ * <br>
+ * The generated writer reads the fields (or their getters) directly and picks
+ * the cell conversion at compile time, so the export does no reflection at
+ * all. The conversions are the same as those of the {@link CellWriterFactory}.
+ * <br>
+ * <br>
+ * It is not registered as a service. Enable it explicitly, say with the
+ * <code>annotationProcessors</code> of the maven-compiler-plugin. A class with
+ * a private field that has no getter is skipped with a note and keeps using the
+ * reflective writers.
+ *
+ * @author ssp5zone
+ * @see RowWriter
+ */
+@SupportedAnnotationTypes({ "org.apache.poi.excel.annotation.ExcelSheet",
+		"org.apache.poi.excel.annotation.ExcelCell" })
+public class RowWriterProcessor extends AbstractProcessor {
+
+	private static final String CELL_TYPE = ExcelCellType.class.getCanonicalName();
+	private static final String GENERATED = "org.apache.poi.excel.processor.writer.atomic.GeneratedCellWriter";
+	private static final String PARSER = DateParser.class.getName();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		Set<TypeElement> types = new LinkedHashSet<TypeElement>();
+		for (Element element : roundEnv.getElementsAnnotatedWith(ExcelSheet.class)) {
+			if (element.getKind() == ElementKind.CLASS) {
+				types.add((TypeElement) element);
+			}
+		}
+		for (Element element : roundEnv.getElementsAnnotatedWith(ExcelCell.class)) {
+			if (element.getEnclosingElement().getKind() == ElementKind.CLASS) {
+				types.add((TypeElement) element.getEnclosingElement());
+			}
+		}
+		for (TypeElement type : types) {
+			generate(type);
+		}
+		return false;
+	}
+
+	private void generate(TypeElement type) {
+		if (!isReachable(type)) {
+			note(type, "is not reachable from its package, no row writer generated");
+			return;
+		}
+
+		// Same selection and ordering as the SheetSchema
+		List<VariableElement> fields = new ArrayList<VariableElement>();
+		for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+			if (field.getAnnotation(ExcelCell.class) != null) {
+				fields.add(field);
+			}
+		}
+		if (fields.isEmpty()) {
+			fields.addAll(ElementFilter.fieldsIn(type.getEnclosedElements()));
+		}
+		fields.sort(Comparator.comparingInt(RowWriterProcessor::indexOf));
+
+		String typeName = processingEnv.getTypeUtils().erasure(type.asType()).toString();
+		List<String> cases = new ArrayList<String>();
+		List<String> members = new ArrayList<String>();
+		for (VariableElement field : fields) {
+			String access = accessOf(type, typeName, field);
+			if (access == null) {
+				note(type, "has the private field '" + field.getSimpleName()
+						+ "' without a getter, no row writer generated");
+				return;
+			}
+			cases.add(statementOf(field, access, members));
+		}
+
+		PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+		String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+		String simpleName = (pkg.isUnnamed() ? binaryName
+				: binaryName.substring(pkg.getQualifiedName().length() + 1)) + RowWriter.SUFFIX;
+
+		StringBuilder source = new StringBuilder();
+		if (!pkg.isUnnamed()) {
+			source.append("package ").append(pkg.getQualifiedName()).append(";\n\n");
+		}
+		source.append("/**\n * Generated by ").append(getClass().getName()).append(" for {@link ")
+				.append(typeName).append("}. Do not edit.\n */\n");
+		source.append("public final class ").append(simpleName).append(" implements ")
+				.append(RowWriter.class.getName()).append("<").append(typeName).append("> {\n\n");
+		source.append("\tprivate static final String[] COLUMNS = { ");
+		for (int i = 0; i < fields.size(); i++) {
+			source.append(i == 0 ? "" : ", ").append('"').append(fields.get(i).getSimpleName()).append('"');
+		}
+		source.append(" };\n\n");
+		for (String member : members) {
+			source.append("\t").append(member).append("\n\n");
+		}
+		source.append("\t@Override\n\tpublic String[] getColumns() {\n\t\treturn COLUMNS.clone();\n\t}\n\n");
+		source.append("\t@Override\n\tpublic void write(").append(CellWriterFactory.class.getPackage().getName())
+				.append(".engine.CellCursor cursor, ").append(typeName).append(" row, int column) {\n");
+		source.append("\t\tswitch (column) {\n");
+		for (int i = 0; i < cases.size(); i++) {
+			source.append("\t\tcase ").append(i).append(": {\n\t\t\t").append(cases.get(i))
+					.append("\n\t\t\tbreak;\n\t\t}\n");
+		}
+		source.append("\t\tdefault:\n\t\t\tthrow new IndexOutOfBoundsException(\"Column: \" + column);\n");
+		source.append("\t\t}\n\t}\n}\n");
+
+		String qualifiedName = pkg.isUnnamed() ? simpleName : pkg.getQualifiedName() + "." + simpleName;
+		try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, type).openWriter()) {
+			writer.write(source.toString());
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+					"Unable to generate " + qualifiedName + ": " + e.getMessage(), type);
+		}
+	}
+
+	private static int indexOf(VariableElement field) {
+		ExcelCell cell = field.getAnnotation(ExcelCell.class);
+		return cell == null ? 0 : cell.index();
+	}
+
+	/**
+	 * A generated class sits in the package of the POJO, so anything but private
+	 * is visible to it.
+	 */
+	private static boolean isReachable(TypeElement type) {
+		for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+			TypeElement current = (TypeElement) element;
+			if (current.getModifiers().contains(Modifier.PRIVATE)
+					|| current.getNestingKind() == NestingKind.LOCAL
+					|| current.getNestingKind() == NestingKind.ANONYMOUS
+					|| (current != type && current.getNestingKind() == NestingKind.MEMBER
+							&& !current.getModifiers().contains(Modifier.STATIC))) {
+				return false;
+			}
+		}
+		// An inner (non static) class can not be named without its outer instance
+		return type.getNestingKind() != NestingKind.MEMBER || type.getModifiers().contains(Modifier.STATIC);
+	}
+
+	/**
+	 * @return The expression reading the field of <code>row</code>, or null if it
+	 *         can not be read without reflection
+	 */
+	private String accessOf(TypeElement type, String typeName, VariableElement field) {
+		String name = field.getSimpleName().toString();
+		boolean isStatic = field.getModifiers().contains(Modifier.STATIC);
+		if (!field.getModifiers().contains(Modifier.PRIVATE)) {
+			return (isStatic ? typeName : "row") + "." + name;
+		}
+		String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+		for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+			String methodName = method.getSimpleName().toString();
+			boolean named = methodName.equals("get" + capitalized)
+					|| (methodName.equals("is" + capitalized) && field.asType().getKind() == TypeKind.BOOLEAN);
+			if (named && method.getParameters().isEmpty() && !method.getModifiers().contains(Modifier.PRIVATE)
+					&& method.getModifiers().contains(Modifier.STATIC) == isStatic
+					&& processingEnv.getTypeUtils().isSameType(method.getReturnType(), field.asType())) {
+				return (isStatic ? typeName : "row") + "." + methodName + "()";
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * The generated counterpart of
+	 * {@link CellWriterFactory#getAnnotatedFieldWriter(java.lang.reflect.Field)}.
+	 */
+	private String statementOf(VariableElement field, String access, List<String> members) {
+		TypeMirror fieldType = processingEnv.getTypeUtils().erasure(field.asType());
+		String declared = fieldType.toString();
+		String value = declared + " value = " + access + ";\n\t\t\t";
+		ExcelCell cell = field.getAnnotation(ExcelCell.class);
+		ExcelCellType type = cell == null ? ExcelCellType.DEFAULT : cell.type();
+		String cellType = CELL_TYPE + "." + type.name();
+
+		switch (type) {
+		case GENERAL:
+			return value + "cursor.setString(" + (fieldType.getKind().isPrimitive() ? "String.valueOf(value)"
+					: "value == null ? \"\" : value.toString()") + ", " + cellType + ");";
+		case INTEGER:
+		case DECIMAL:
+		case PRECISE:
+		case CURRENCY:
+		case PERCENT:
+			switch (fieldType.getKind()) {
+			case INT:
+			case LONG:
+			case FLOAT:
+			case DOUBLE:
+			case SHORT:
+			case BYTE:
+				return value + GENERATED + ".writeNumeric(cursor, value, " + cellType + ");";
+			default:
+				return value + GENERATED + ".writeNumeric(cursor, (Object) value, " + cellType + ");";
+			}
+		case DATE:
+		case DATETIME:
+			switch (declared) {
+			case "java.util.Date":
+			case "java.time.LocalDate":
+			case "java.time.LocalDateTime":
+			case "java.time.OffsetDateTime":
+			case "java.time.ZonedDateTime":
+			case "java.time.Instant":
+				return value + GENERATED + ".writeDate(cursor, value, " + cellType + ");";
+			default:
+				// Anything else, sub classes included, is parsed from its text. With a
+				// parser per column that learns the format of the column.
+				String parser = "parser" + members.size();
+				members.add("private final " + PARSER + " " + parser + " = new " + PARSER + "();");
+				return value + GENERATED + ".writeDate(cursor, " + parser + ", (Object) value, " + cellType + ");";
+			}
+		default:
+			return value + genericStatementOf(fieldType, declared);
+		}
+	}
+
+	/**
+	 * The generated counterpart of
+	 * {@link CellWriterFactory#getGenericFieldWriter(java.lang.reflect.Field)}.
+	 * Wrappers that are null are written as their primitive default, as there.
+	 */
+	private static String genericStatementOf(TypeMirror fieldType, String declared) {
+		String integer = CELL_TYPE + "." + ExcelCellType.INTEGER.name();
+		switch (fieldType.getKind()) {
+		case INT:
+		case SHORT:
+		case LONG:
+		case BYTE:
+			return "cursor.setNumber(value, " + integer + ");";
+		case DOUBLE:
+			return "cursor.setNumber(value, " + CELL_TYPE + ".PRECISE);";
+		case FLOAT:
+			return "cursor.setNumber(value, " + CELL_TYPE + ".DECIMAL);";
+		case CHAR:
+			return "cursor.setString(String.valueOf(value), null);";
+		case BOOLEAN:
+			return "cursor.setBoolean(value);";
+		default:
+			break;
+		}
+		switch (declared) {
+		case "java.lang.Integer":
+		case "java.lang.Short":
+		case "java.lang.Long":
+		case "java.lang.Byte":
+			return "cursor.setNumber(value == null ? 0 : value, " + integer + ");";
+		case "java.lang.Double":
+			return "cursor.setNumber(value == null ? 0 : value, " + CELL_TYPE + ".PRECISE);";
+		case "java.lang.Float":
+			return "cursor.setNumber(value == null ? 0 : value, " + CELL_TYPE + ".DECIMAL);";
+		case "java.lang.Character":
+			return "cursor.setString(String.valueOf(value == null ? ' ' : value), null);";
+		case "java.lang.Boolean":
+			return "cursor.setBoolean(value != null && value);";
+		case "java.util.Date":
+			return "cursor.setDate(value, " + CELL_TYPE + ".DATE);";
+		case "java.util.Calendar":
+			return "cursor.setDate(value == null ? null : value.getTime(), " + CELL_TYPE + ".DATETIME);";
+		case "java.time.LocalDate":
+			return GENERATED + ".writeDate(cursor, value, " + CELL_TYPE + ".DATE);";
+		case "java.time.LocalDateTime":
+		case "java.time.OffsetDateTime":
+		case "java.time.ZonedDateTime":
+		case "java.time.Instant":
+			return GENERATED + ".writeDate(cursor, value, " + CELL_TYPE + ".DATETIME);";
+		case "java.sql.Date":
+			return "cursor.setDate(value == null ? null : new java.util.Date(value.getTime()), " + CELL_TYPE
+					+ ".DATE);";
+		default:
+			return "if (value != null) {\n\t\t\t\tcursor.setString(value.toString(), null);\n\t\t\t}";
+		}
+	}
+
+	private void note(TypeElement type, String message) {
+		processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+				type.getQualifiedName() + " " + message + ". It would use the reflective writers.", type);
+	}
+}
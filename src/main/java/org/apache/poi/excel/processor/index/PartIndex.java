@@ -0,0 +1,155 @@
+package org.apache.poi.excel.processor.index;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * The restart points of one XML part of a workbook, a sheet or the shared
+ * strings. <br>
+ * <br>
+ * Every N-th row, or N-th string, is a restart point. It is kept as the
+ * index of the row or string and the byte offset of its tag in the inflated
+ * part. Along with the opening tags of the part, its prolog, that is enough
+ * to start reading the part at the point as if it were a whole document.
+ *
+ * @author ssp5zone
+ */
+public class PartIndex {
+	private final String prolog;
+	private int[] keys;
+	private long[] offsets;
+	private int size;
+
+	/**
+	 * @param prolog The opening tags of the part, upto its first restart point
+	 */
+	PartIndex(String prolog) {
+		this(prolog, new int[16], new long[16], 0);
+	}
+
+	private PartIndex(String prolog, int[] keys, long[] offsets, int size) {
+		this.prolog = prolog;
+		this.keys = keys;
+		this.offsets = offsets;
+		this.size = size;
+	}
+
+	/**
+	 * @param key    0 based index of the row or string at the point
+	 * @param offset Offset of its tag in the inflated part
+	 */
+	void add(int key, long offset) {
+		if (size == keys.length) {
+			keys = Arrays.copyOf(keys, size * 2);
+			offsets = Arrays.copyOf(offsets, size * 2);
+		}
+		keys[size] = key;
+		offsets[size] = offset;
+		size++;
+	}
+
+	/**
+	 * @return The opening tags of the part, say the worksheet and sheetData
+	 *         tags of a sheet
+	 */
+	public String getProlog() {
+		return this.prolog;
+	}
+
+	/**
+	 * @return The number of restart points, 0 for an empty part
+	 */
+	public int getSize() {
+		return this.size;
+	}
+
+	/**
+	 * @param point The restart point
+	 * @return 0 based index of the row or string it starts at
+	 */
+	public int getKey(int point) {
+		return this.keys[point];
+	}
+
+	/**
+	 * @param point The restart point
+	 * @return The offset to skip to in the inflated part
+	 */
+	public long getOffset(int point) {
+		return this.offsets[point];
+	}
+
+	/**
+	 * @param key 0 based index of a row or string
+	 * @return The last restart point at or before it, 0 if it comes before all,
+	 *         -1 if the part is empty
+	 */
+	public int find(int key) {
+		int point = Arrays.binarySearch(keys, 0, size, key);
+		if (point >= 0) {
+			return point;
+		}
+		// The one before where it would be inserted
+		return Math.max(-point - 2, size == 0 ? -1 : 0);
+	}
+
+	/**
+	 * Skips the part to a restart point. The bytes before it are still inflated,
+	 * as a zip entry can only be read from its start, but are not parsed.
+	 *
+	 * @param part  The part, from its start. Closed along with the returned
+	 *              stream.
+	 * @param point The restart point
+	 * @return The part from the point on, behind its prolog, a well formed
+	 *         document
+	 * @throws IOException If the part could not be read or ends too early
+	 */
+	public InputStream openAt(InputStream part, int point) throws IOException {
+		long remaining = offsets[point];
+		try {
+			while (remaining > 0) {
+				long skipped = part.skip(remaining);
+				if (skipped <= 0) {
+					// skip() may give up early, read() tells if it is the end
+					if (part.read() < 0) {
+						throw new EOFException("The part ends before the restart point at " + offsets[point]);
+					}
+					skipped = 1;
+				}
+				remaining -= skipped;
+			}
+		} catch (IOException | RuntimeException e) {
+			part.close();
+			throw e;
+		}
+		return new SequenceInputStream(new ByteArrayInputStream(prolog.getBytes(StandardCharsets.UTF_8)), part);
+	}
+
+	void write(DataOutput out) throws IOException {
+		out.writeUTF(prolog);
+		out.writeInt(size);
+		for (int i = 0; i < size; i++) {
+			out.writeInt(keys[i]);
+			out.writeLong(offsets[i]);
+		}
+	}
+
+	static PartIndex read(DataInput in) throws IOException {
+		String prolog = in.readUTF();
+		int size = in.readInt();
+		int[] keys = new int[size];
+		long[] offsets = new long[size];
+		for (int i = 0; i < size; i++) {
+			keys[i] = in.readInt();
+			offsets[i] = in.readLong();
+		}
+		return new PartIndex(prolog, keys, offsets, size);
+	}
+}
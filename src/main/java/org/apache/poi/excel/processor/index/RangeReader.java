@@ -0,0 +1,89 @@
+package org.apache.poi.excel.processor.index;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import org.apache.poi.excel.model.SheetSchema;
+import org.apache.poi.excel.processor.parser.RowMapper;
+import org.apache.poi.excel.processor.parser.SheetParser;
+import org.apache.poi.excel.processor.parser.WorkbookParser;
+
+/**
+ * Reads a range of rows of a sheet into POJOs, using the {@link RowIndex} of
+ * the file to skip straight to them. <br>
+ * <br>
+ * Only the header rows and the block of rows that holds the range are parsed,
+ * along with the blocks of shared strings they refer to. The rest of the sheet
+ * is only inflated.
+ *
+ * @author ssp5zone
+ */
+public class RangeReader {
+
+	/**
+	 * @param <T>      The POJO class of the rows
+	 * @param workbook The xlsx file, opened
+	 * @param index    Its index
+	 * @param type     The POJO class of the rows
+	 * @param from     0 based position of the first row to read, counted from
+	 *                 the row after the header
+	 * @param count    The number of rows to read
+	 * @return The rows in the range, less if the sheet ends before or some of
+	 *         them are blank. Empty if none of the columns of the class are found.
+	 * @throws IOException If the file could not be read or is not the one indexed
+	 */
+	public static <T> List<T> read(WorkbookParser workbook, RowIndex index, Class<T> type, int from, int count)
+			throws IOException {
+		if (from < 0 || count < 0) {
+			throw new IllegalArgumentException("The range must not be negative, got: " + from + ", " + count);
+		}
+		String name = workbook.findSheet(SheetSchema.of(type).getName());
+		PartIndex sheet = index.getSheet(name);
+		if (sheet == null) {
+			throw new IOException("The sheet " + name + " is not in the index. Is it of another file?");
+		}
+		if (sheet.getSize() == 0 || count == 0) {
+			return Collections.emptyList();
+		}
+		IntFunction<String> sharedStrings = index.getSharedStrings() == null ? i -> null
+				: new SharedStringBlocks(workbook, index.getSharedStrings());
+
+		SheetParser parser = new SheetParser(workbook.openSheetData(name), sharedStrings);
+		try {
+			RowMapper<T> mapper = RowMapper.of(parser, type);
+			if (mapper == null) {
+				return Collections.emptyList();
+			}
+			// In int, as the sheet is no longer than that
+			long first = (long) mapper.getHeaderRow() + 1 + from;
+			long last = first + count - 1;
+			if (first > Integer.MAX_VALUE) {
+				return Collections.emptyList();
+			}
+			int point = sheet.find((int) first);
+			if (sheet.getKey(point) > parser.getRowIndex()) {
+				// Jump ahead, else the range is close enough to read on
+				parser.close();
+				InputStream in = sheet.openAt(workbook.openSheetData(name), point);
+				parser = new SheetParser(in, sharedStrings, sheet.getKey(point));
+			}
+
+			List<T> rows = new ArrayList<T>(Math.min(count, 1024));
+			while (parser.nextRow() && parser.getRowIndex() <= last) {
+				if (parser.getRowIndex() >= first) {
+					T row = mapper.map(parser);
+					if (row != null) {
+						rows.add(row);
+					}
+				}
+			}
+			return rows;
+		} finally {
+			parser.close();
+		}
+	}
+}
@@ -0,0 +1,165 @@
+package org.apache.poi.excel.processor.index;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The restart points of the sheets and the shared strings of an xlsx file.
+ * <br>
+ * <br>
+ * It is saved next to the file it indexes, with the {@link #SUFFIX} added to
+ * its name, and is of use only as long as that file is not changed.
+ *
+ * @author ssp5zone
+ * @see RowIndexBuilder
+ */
+public class RowIndex {
+
+	/**
+	 * Added to the name of the xlsx file for the name of its index
+	 */
+	public final static String SUFFIX = ".idx";
+
+	private final static int MAGIC = 0x50455849;
+	private final static int VERSION = 1;
+
+	private final long length;
+	private final long modified;
+	private final int blockRows;
+	private final PartIndex sharedStrings;
+	private final Map<String, PartIndex> sheets;
+
+	/**
+	 * @param length        Length of the indexed file
+	 * @param modified      Last modified time of the indexed file
+	 * @param blockRows     Rows, or strings, between two restart points
+	 * @param sharedStrings Restart points of the shared strings, null if there
+	 *                      are none
+	 * @param sheets        Restart points of the sheets by their name, in the
+	 *                      order of the tabs
+	 */
+	RowIndex(long length, long modified, int blockRows, PartIndex sharedStrings, Map<String, PartIndex> sheets) {
+		this.length = length;
+		this.modified = modified;
+		this.blockRows = blockRows;
+		this.sharedStrings = sharedStrings;
+		this.sheets = Collections.unmodifiableMap(sheets);
+	}
+
+	/**
+	 * @param file An xlsx file
+	 * @return Where its index is saved
+	 */
+	public static File fileOf(File file) {
+		return new File(file.getPath() + SUFFIX);
+	}
+
+	/**
+	 * @param file An xlsx file
+	 * @return true if this is the index of the file as it is now
+	 */
+	public boolean isOf(File file) {
+		return file.length() == length && file.lastModified() == modified;
+	}
+
+	/**
+	 * @return Rows, or strings, between two restart points
+	 */
+	public int getBlockRows() {
+		return this.blockRows;
+	}
+
+	/**
+	 * @return Restart points of the shared strings, null if there are none
+	 */
+	public PartIndex getSharedStrings() {
+		return this.sharedStrings;
+	}
+
+	/**
+	 * @param name The exact sheet name
+	 * @return Restart points of the sheet, null if there is no such sheet
+	 */
+	public PartIndex getSheet(String name) {
+		return this.sheets.get(name);
+	}
+
+	/**
+	 * @return Restart points of the sheets by their name, in the order of the tabs
+	 */
+	public Map<String, PartIndex> getSheets() {
+		return this.sheets;
+	}
+
+	/**
+	 * Saves the index. It is first written aside and then moved in place, so a
+	 * reader never sees half of it.
+	 *
+	 * @param file Where to save it
+	 * @throws IOException If it could not be written
+	 */
+	public void write(File file) throws IOException {
+		Path target = file.toPath();
+		Path temp = Files.createTempFile(target.toAbsolutePath().getParent(), file.getName(), ".tmp");
+		try {
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeLong(length);
+				out.writeLong(modified);
+				out.writeInt(blockRows);
+				out.writeBoolean(sharedStrings != null);
+				if (sharedStrings != null) {
+					sharedStrings.write(out);
+				}
+				out.writeInt(sheets.size());
+				for (Map.Entry<String, PartIndex> sheet : sheets.entrySet()) {
+					out.writeUTF(sheet.getKey());
+					sheet.getValue().write(out);
+				}
+			}
+			try {
+				Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	/**
+	 * @param file A saved index
+	 * @return The index
+	 * @throws IOException If it could not be read or is not an index of this
+	 *                     version
+	 */
+	public static RowIndex read(File file) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				throw new IOException("The file " + file + " is not a row index of this version");
+			}
+			long length = in.readLong();
+			long modified = in.readLong();
+			int blockRows = in.readInt();
+			PartIndex sharedStrings = in.readBoolean() ? PartIndex.read(in) : null;
+			int count = in.readInt();
+			Map<String, PartIndex> sheets = new LinkedHashMap<String, PartIndex>();
+			for (int i = 0; i < count; i++) {
+				sheets.put(in.readUTF(), PartIndex.read(in));
+			}
+			return new RowIndex(length, modified, blockRows, sharedStrings, sheets);
+		}
+	}
+}
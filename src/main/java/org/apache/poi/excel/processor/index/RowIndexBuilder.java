@@ -0,0 +1,168 @@
+package org.apache.poi.excel.processor.index;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.poi.excel.processor.parser.WorkbookParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Scans the sheets and the shared strings of an xlsx file for their restart
+ * points. <br>
+ * <br>
+ * The scan is a single pass over each part that only looks at the tags, so it
+ * costs about as much as inflating the file. It is done once, after which a
+ * range of rows anywhere in the file is read in the time it takes to read a
+ * block of them.
+ *
+ * @author ssp5zone
+ * @see RowIndex
+ */
+public class RowIndexBuilder {
+	private final static Logger log = LoggerFactory.getLogger(RowIndexBuilder.class);
+
+	private final int blockRows;
+
+	/**
+	 * @param blockRows Rows, or strings, between two restart points
+	 */
+	public RowIndexBuilder(int blockRows) {
+		if (blockRows < 1) {
+			throw new IllegalArgumentException("Block rows must be at-least 1, got: " + blockRows);
+		}
+		this.blockRows = blockRows;
+	}
+
+	/**
+	 * The saved index of the file, if it is still of the file as it is now. Else
+	 * one is built and saved next to the file. If it could not be saved, say the
+	 * folder is read only, it is still returned.
+	 *
+	 * @param file The xlsx file
+	 * @return Its index
+	 * @throws IOException If the file could not be read
+	 */
+	public RowIndex load(File file) throws IOException {
+		File indexFile = RowIndex.fileOf(file);
+		if (indexFile.isFile()) {
+			try {
+				RowIndex index = RowIndex.read(indexFile);
+				if (index.isOf(file)) {
+					return index;
+				}
+				log.info("The file " + file + " has changed since it was indexed. Indexing it again.");
+			} catch (IOException e) {
+				log.warn("Unable to read the index " + indexFile + " due to: " + e + ". Indexing the file again.");
+			}
+		}
+		RowIndex index = build(file);
+		try {
+			index.write(indexFile);
+		} catch (IOException e) {
+			log.warn("Unable to save the index " + indexFile + " due to: " + e
+					+ ". It would be built again on the next read.");
+		}
+		return index;
+	}
+
+	/**
+	 * @param file The xlsx file
+	 * @return Its index, not saved
+	 * @throws IOException If the file could not be read
+	 */
+	public RowIndex build(File file) throws IOException {
+		// Taken before the scan, so a change during it makes the index stale
+		long length = file.length();
+		long modified = file.lastModified();
+		try (WorkbookParser workbook = new WorkbookParser(file)) {
+			PartIndex sharedStrings = null;
+			InputStream strings = workbook.openSharedStrings();
+			if (strings != null) {
+				try (InputStream in = strings) {
+					sharedStrings = scanSharedStrings(in);
+				}
+			}
+			Map<String, PartIndex> sheets = new LinkedHashMap<String, PartIndex>();
+			for (Map.Entry<String, InputStream> sheet : workbook.openSheets().entrySet()) {
+				try (InputStream in = sheet.getValue()) {
+					sheets.put(sheet.getKey(), scanSheet(in));
+				}
+			}
+			return new RowIndex(length, modified, blockRows, sharedStrings, sheets);
+		}
+	}
+
+	/**
+	 * A restart point at every N-th row element of the sheet data.
+	 */
+	PartIndex scanSheet(InputStream in) throws IOException {
+		TagScanner scanner = new TagScanner(in);
+		String worksheet = null;
+		PartIndex part = null;
+		int row = -1;
+		int rows = 0;
+		while (scanner.next(part == null)) {
+			if (scanner.isEnd()) {
+				if (part != null && scanner.is("sheetData")) {
+					break;
+				}
+			} else if (part == null) {
+				if (scanner.is("worksheet")) {
+					scanner.readAttributes();
+					worksheet = scanner.getTag();
+				} else if (scanner.is("sheetData")) {
+					String attributes = scanner.readAttributes();
+					part = new PartIndex((worksheet == null ? "" : worksheet) + scanner.getTag());
+					if (attributes.endsWith("/")) {
+						// No rows at all
+						return part;
+					}
+				}
+			} else if (scanner.is("row")) {
+				String reference = TagScanner.getAttribute(scanner.readAttributes(), "r");
+				// Counted the same way as the SheetParser does
+				row = reference == null ? row + 1 : Integer.parseInt(reference) - 1;
+				if (rows++ % blockRows == 0) {
+					part.add(row, scanner.getOffset());
+				}
+			}
+		}
+		if (part == null) {
+			throw new IOException("The sheet has no sheetData");
+		}
+		return part;
+	}
+
+	/**
+	 * A restart point at every N-th string item.
+	 */
+	PartIndex scanSharedStrings(InputStream in) throws IOException {
+		TagScanner scanner = new TagScanner(in);
+		PartIndex part = null;
+		int strings = 0;
+		while (scanner.next(part == null)) {
+			if (scanner.isEnd()) {
+				continue;
+			}
+			if (part == null) {
+				if (scanner.is("sst")) {
+					String attributes = scanner.readAttributes();
+					part = new PartIndex(scanner.getTag());
+					if (attributes.endsWith("/")) {
+						return part;
+					}
+				}
+			} else if (scanner.is("si")) {
+				if (strings % blockRows == 0) {
+					part.add(strings, scanner.getOffset());
+				}
+				strings++;
+			}
+		}
+		return part;
+	}
+}
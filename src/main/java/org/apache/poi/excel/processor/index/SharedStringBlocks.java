@@ -0,0 +1,83 @@
+package org.apache.poi.excel.processor.index;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import org.apache.poi.excel.processor.parser.SharedStringsParser;
+import org.apache.poi.excel.processor.parser.WorkbookParser;
+
+/**
+ * The shared strings of a workbook, read a block at a time as the cells ask
+ * for them. <br>
+ * <br>
+ * A range of rows far down a sheet refers to only a few of the strings, that
+ * are mostly close to each other. So rather than the whole table, only the
+ * blocks between the restart points that hold them are read. <br>
+ * <br>
+ * Not thread safe, it belongs to the thread reading its range.
+ *
+ * @author ssp5zone
+ */
+class SharedStringBlocks implements IntFunction<String> {
+
+	private final WorkbookParser workbook;
+	private final PartIndex part;
+	private final Map<Integer, List<String>> blocks = new HashMap<Integer, List<String>>();
+
+	/**
+	 * @param workbook The workbook to read the strings from
+	 * @param part     Restart points of its shared strings
+	 */
+	SharedStringBlocks(WorkbookParser workbook, PartIndex part) {
+		this.workbook = workbook;
+		this.part = part;
+	}
+
+	/**
+	 * @return The string, null if there is no such string
+	 * @throws UncheckedIOException If the strings could not be read
+	 */
+	@Override
+	public String apply(int index) {
+		int point = part.find(index);
+		if (point < 0) {
+			return null;
+		}
+		List<String> block = blocks.get(point);
+		if (block == null) {
+			try {
+				block = read(point);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			blocks.put(point, block);
+		}
+		int offset = index - part.getKey(point);
+		return offset < block.size() ? block.get(offset) : null;
+	}
+
+	/**
+	 * Reads the strings from the restart point upto the next one.
+	 */
+	private List<String> read(int point) throws IOException {
+		int count = point + 1 < part.getSize() ? part.getKey(point + 1) - part.getKey(point) : Integer.MAX_VALUE;
+		List<String> strings = new ArrayList<String>();
+		InputStream data = workbook.openSharedStrings();
+		if (data == null) {
+			return strings;
+		}
+		try (SharedStringsParser parser = new SharedStringsParser(part.openAt(data, point))) {
+			String text;
+			while (strings.size() < count && (text = parser.next()) != null) {
+				strings.add(text);
+			}
+		}
+		return strings;
+	}
+}
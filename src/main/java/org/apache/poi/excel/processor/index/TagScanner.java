@@ -0,0 +1,228 @@
+package org.apache.poi.excel.processor.index;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A bare bones scanner of the tags of an XML part, that knows the byte offset
+ * of each tag. <br>
+ * <br>
+ * StAX and SAX read ahead, so they can not tell where in the stream an element
+ * starts. This reads the bytes as they are, with no validation, which is all
+ * the well formed parts of an xlsx need.
+ *
+ * @author ssp5zone
+ */
+public class TagScanner {
+	private final InputStream in;
+	private final byte[] buffer = new byte[64 * 1024];
+	private int position;
+	private int limit;
+
+	// The offset of buffer[0] in the stream
+	private long base;
+
+	private long tagOffset;
+	private final StringBuilder name = new StringBuilder();
+	private final StringBuilder tag = new StringBuilder();
+	private boolean endTag;
+	private boolean keepTag;
+
+	// The byte after the tag name, till the attributes are read
+	private int last;
+
+	public TagScanner(InputStream in) {
+		this.in = in;
+	}
+
+	private int read() throws IOException {
+		if (position == limit) {
+			base += limit;
+			position = 0;
+			limit = in.read(buffer);
+			if (limit <= 0) {
+				limit = 0;
+				return -1;
+			}
+		}
+		return buffer[position++] & 0xFF;
+	}
+
+	/**
+	 * Moves to the next start or end tag. Comments, declarations and text are
+	 * skipped.
+	 *
+	 * @param keep Whether to keep the whole text of the tag, see {@link #getTag()}
+	 * @return false at the end of the stream
+	 * @throws IOException If the stream could not be read
+	 */
+	public boolean next(boolean keep) throws IOException {
+		int b;
+		while ((b = read()) != -1) {
+			if (b != '<') {
+				continue;
+			}
+			this.tagOffset = base + position - 1;
+			b = read();
+			if (b == '?' || b == '!') {
+				// Declarations and comments, of no interest
+				skipTo('>');
+				continue;
+			}
+			this.endTag = b == '/';
+			if (endTag) {
+				b = read();
+			}
+			this.keepTag = keep;
+			name.setLength(0);
+			tag.setLength(0);
+			if (keep) {
+				tag.append(endTag ? "</" : "<");
+			}
+			while (b != -1 && b != ' ' && b != '>' && b != '/' && b != '\t' && b != '\r' && b != '\n') {
+				if (b == ':') {
+					// The local name only
+					name.setLength(0);
+				} else {
+					name.append((char) b);
+				}
+				if (keep) {
+					tag.append((char) b);
+				}
+				b = read();
+			}
+			this.last = b;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Reads the attributes of the tag, upto its end.
+	 *
+	 * @return The attributes as text, say {@code r="1" spans="1:3"}, ending with a
+	 *         / if the tag closes itself
+	 * @throws IOException If the stream could not be read
+	 */
+	public String readAttributes() throws IOException {
+		int b = last;
+		int quote = 0;
+		ByteText text = new ByteText();
+		// A > within a quoted value does not end the tag
+		while (b != -1 && (b != '>' || quote != 0)) {
+			if (quote == 0 && (b == '"' || b == '\'')) {
+				quote = b;
+			} else if (b == quote) {
+				quote = 0;
+			}
+			text.append(b);
+			b = read();
+		}
+		last = '>';
+		String attributes = text.toString();
+		if (keepTag) {
+			tag.append(attributes).append('>');
+		}
+		return attributes;
+	}
+
+	/**
+	 * @param local A local name
+	 * @return true if the tag has that name
+	 */
+	public boolean is(String local) {
+		if (name.length() != local.length()) {
+			return false;
+		}
+		for (int i = 0; i < local.length(); i++) {
+			if (name.charAt(i) != local.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return true for an end tag
+	 */
+	public boolean isEnd() {
+		return this.endTag;
+	}
+
+	/**
+	 * @return The offset of the tag's {@code <} in the stream
+	 */
+	public long getOffset() {
+		return this.tagOffset;
+	}
+
+	/**
+	 * @return The offset right after the tag's {@code >}, once its attributes
+	 *         are read
+	 */
+	public long getEnd() {
+		return this.base + this.position;
+	}
+
+	/**
+	 * @return The whole tag, as written. Only if kept and once its attributes
+	 *         are read.
+	 */
+	public String getTag() {
+		return this.tag.toString();
+	}
+
+	private void skipTo(int end) throws IOException {
+		int b;
+		while ((b = read()) != -1 && b != end) {
+			// Nothing to keep
+		}
+	}
+
+	/**
+	 * @param attributes The attributes of a tag
+	 * @param attribute  The name of one
+	 * @return Its value, null if not there
+	 */
+	public static String getAttribute(String attributes, String attribute) {
+		int from = 0;
+		while (true) {
+			int at = attributes.indexOf(attribute, from);
+			if (at < 0) {
+				return null;
+			}
+			int equals = at + attribute.length();
+			// Whole names only, r is not the r of spans
+			boolean starts = at == 0 || Character.isWhitespace(attributes.charAt(at - 1));
+			if (starts && equals < attributes.length() && attributes.charAt(equals) == '=') {
+				char quote = attributes.charAt(equals + 1);
+				int end = attributes.indexOf(quote, equals + 2);
+				return attributes.substring(equals + 2, end);
+			}
+			from = at + 1;
+		}
+	}
+
+	/**
+	 * UTF-8 bytes collected into a string.
+	 */
+	private static class ByteText {
+		private byte[] bytes = new byte[64];
+		private int length;
+
+		void append(int b) {
+			if (length == bytes.length) {
+				byte[] grown = new byte[length * 2];
+				System.arraycopy(bytes, 0, grown, 0, length);
+				bytes = grown;
+			}
+			bytes[length++] = (byte) b;
+		}
+
+		@Override
+		public String toString() {
+			return new String(bytes, 0, length, StandardCharsets.UTF_8);
+		}
+	}
+}
@@ -0,0 +1,24 @@
+package org.apache.poi.excel.processor.parser;
+
+/**
+ * Receives the cells of a row from a {@link SheetParser}. <br>
+ * <br>
+ * Only the columns it accepts are decoded, the rest are skipped without even
+ * reading their text.
+ *
+ * @author ssp5zone
+ */
+public interface CellHandler {
+
+	/**
+	 * @param column 0 based column index
+	 * @return true if the cell of this column is wanted
+	 */
+	boolean accepts(int column);
+
+	/**
+	 * @param column 0 based column index
+	 * @param cell   The cell, reused for the next one
+	 */
+	void cell(int column, RawCell cell);
+}
@@ -0,0 +1,228 @@
+package org.apache.poi.excel.processor.parser;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.apache.poi.excel.ExcelReader;
+import org.apache.poi.excel.model.ColumnSchema;
+import org.apache.poi.excel.model.ExcelCellType;
+import org.apache.poi.excel.processor.writer.CellWriterFactory;
+import org.apache.poi.excel.utility.DateParser;
+import org.apache.poi.excel.utility.DateUtil;
+import org.apache.poi.ss.util.NumberToTextConverter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Creates parsers that read individual cells back into the fields of a POJO,
+ * the reverse of the {@link CellWriterFactory}. As with the writers, the
+ * decision is made once per column, based on the data type of the field and
+ * its {@link ExcelCellType}. <br>
+ * <br>
+ * Blank cells leave the field as it was. Cells that can not be converted are
+ * logged and left out too. <br>
+ * <br>
+ * Local class, to be used internally.
+ *
+ * @author ssp5zone
+ * @see ExcelReader
+ */
+public class CellParserFactory {
+	private final static Logger log = LoggerFactory.getLogger(CellParserFactory.class);
+
+	/**
+	 * Generates a small cell parser block for a column.
+	 *
+	 * @param column The column whose field is to be filled
+	 * @return A lambda taking the row object and its cell. Null if the field can
+	 *         not be set or is of a type that can not be read.
+	 */
+	public BiConsumer<Object, RawCell> getFieldParser(ColumnSchema column) {
+		Field field = column.getField();
+		FieldSetter setter = new FieldSetter(field);
+		if (!setter.isSettable()) {
+			return null;
+		}
+		Function<RawCell, Object> converter = getConverter(field.getType(), column.getType());
+		if (converter == null) {
+			log.info("The field " + field.getName() + " of type " + field.getType().getName()
+					+ " can not be read from a cell. It would be skipped.");
+			return null;
+		}
+		return (Object row, RawCell cell) -> {
+			if (cell.isBlank()) {
+				return;
+			}
+			Object value;
+			try {
+				value = converter.apply(cell);
+			} catch (RuntimeException e) {
+				log.warn("Unable to read {} into the field {}. The error was: {}", cell, field.getName(), e.toString());
+				return;
+			}
+			if (value != null) {
+				setter.set(row, value);
+			}
+		};
+	}
+
+	/**
+	 * @return A function converting a non blank cell into the exact class of the
+	 *         field, boxed for primitives
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static Function<RawCell, Object> getConverter(Class<?> fieldClass, ExcelCellType type) {
+		if (fieldClass == Integer.class || fieldClass == int.class) {
+			return cell -> (int) cell.getNumber();
+		} else if (fieldClass == Short.class || fieldClass == short.class) {
+			return cell -> (short) cell.getNumber();
+		} else if (fieldClass == Long.class || fieldClass == long.class) {
+			return CellParserFactory::toLong;
+		} else if (fieldClass == Double.class || fieldClass == double.class) {
+			return cell -> cell.getNumber();
+		} else if (fieldClass == Float.class || fieldClass == float.class) {
+			return cell -> (float) cell.getNumber();
+		} else if (fieldClass == Byte.class || fieldClass == byte.class) {
+			return cell -> (byte) cell.getNumber();
+		} else if (fieldClass == Character.class || fieldClass == char.class) {
+			return cell -> toText(cell, type).charAt(0);
+		} else if (fieldClass == Boolean.class || fieldClass == boolean.class) {
+			return CellParserFactory::toBoolean;
+		} else if (fieldClass == BigDecimal.class) {
+			return cell -> new BigDecimal(cell.isNumber() ? toText(cell, type) : cell.getText().trim());
+		} else if (fieldClass == BigInteger.class) {
+			return cell -> new BigDecimal(cell.isNumber() ? toText(cell, type) : cell.getText().trim())
+					.toBigInteger();
+		} else if (fieldClass.isEnum()) {
+			return cell -> Enum.valueOf((Class<Enum>) fieldClass, cell.getText().trim());
+		} else if (fieldClass == Date.class) {
+			return instantConverter(Date::from);
+		} else if (fieldClass == java.sql.Date.class) {
+			return instantConverter(instant -> new java.sql.Date(instant.toEpochMilli()));
+		} else if (fieldClass == Calendar.class) {
+			return instantConverter(instant -> {
+				Calendar calendar = Calendar.getInstance();
+				calendar.setTime(Date.from(instant));
+				return calendar;
+			});
+		} else if (fieldClass == Instant.class) {
+			return instantConverter(instant -> instant);
+		} else if (fieldClass == OffsetDateTime.class) {
+			return instantConverter(instant -> instant.atZone(ZoneId.systemDefault()).toOffsetDateTime());
+		} else if (fieldClass == ZonedDateTime.class) {
+			return instantConverter(instant -> instant.atZone(ZoneId.systemDefault()));
+		} else if (fieldClass == LocalDateTime.class) {
+			return localConverter(dateTime -> dateTime);
+		} else if (fieldClass == LocalDate.class) {
+			return localConverter(LocalDateTime::toLocalDate);
+		} else if (fieldClass.isAssignableFrom(String.class)) {
+			return cell -> toText(cell, type);
+		}
+		return null;
+	}
+
+	/**
+	 * @param from Makes the field's value out of the date, never called with null
+	 * @return A converter for the types that are an instant in time. Each gets its
+	 *         own parser, to learn the format of its column.
+	 */
+	private static Function<RawCell, Object> instantConverter(Function<Instant, Object> from) {
+		DateParser parser = new DateParser();
+		return cell -> {
+			Instant instant = toInstant(cell, parser);
+			return instant == null ? null : from.apply(instant);
+		};
+	}
+
+	/**
+	 * Same as {@link #instantConverter(Function)} for the local types.
+	 */
+	private static Function<RawCell, Object> localConverter(Function<LocalDateTime, Object> from) {
+		DateParser parser = new DateParser();
+		return cell -> {
+			LocalDateTime dateTime = toLocalDateTime(cell, parser);
+			return dateTime == null ? null : from.apply(dateTime);
+		};
+	}
+
+	/**
+	 * Whole numbers are parsed as is, so that longs beyond 2^53 keep their digits.
+	 */
+	private static Object toLong(RawCell cell) {
+		String text = cell.getText().trim();
+		try {
+			return Long.parseLong(text);
+		} catch (NumberFormatException e) {
+			return (long) cell.getNumber();
+		}
+	}
+
+	private static Object toBoolean(RawCell cell) {
+		String text = cell.getText().trim();
+		return "1".equals(text) || "true".equalsIgnoreCase(text);
+	}
+
+	/**
+	 * The text of a cell. Numbers are written the way Excel shows them in the
+	 * General format, and dates of the date types in ISO. Texts were parsed as
+	 * dates of {@link DateUtil#getZone()}, so they are given back in that zone.
+	 */
+	private static String toText(RawCell cell, ExcelCellType type) {
+		if (cell.getKind() == RawCell.Kind.NUMBER) {
+			if (type == ExcelCellType.DATE || type == ExcelCellType.DATETIME) {
+				LocalDateTime dateTime = DateUtil.toLocalDateTime(cell.getNumber());
+				if (dateTime != null) {
+					dateTime = dateTime.atZone(ZoneId.systemDefault()).withZoneSameInstant(DateUtil.getZone())
+							.toLocalDateTime();
+					return type == ExcelCellType.DATE ? dateTime.toLocalDate().format(DateTimeFormatter.ISO_LOCAL_DATE)
+							: dateTime.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+				}
+			}
+			return NumberToTextConverter.toText(cell.getNumber());
+		} else if (cell.getKind() == RawCell.Kind.BOOLEAN) {
+			return String.valueOf("1".equals(cell.getText()));
+		}
+		return cell.getText();
+	}
+
+	/**
+	 * Dates are numbers, the date of the wall clock. Texts are parsed with the
+	 * formats known to {@link DateParser}.
+	 *
+	 * @return The date and time, null if it could not be read
+	 */
+	private static LocalDateTime toLocalDateTime(RawCell cell, DateParser parser) {
+		if (cell.isNumber()) {
+			return DateUtil.toLocalDateTime(cell.getNumber());
+		}
+		Date date = parser.parse(cell.getText());
+		return date == null ? null : LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+	}
+
+	/**
+	 * Same as {@link #toLocalDateTime(RawCell, DateParser)}, the wall clock being
+	 * that of the JVM. This is how POI writes a java.util.Date.
+	 *
+	 * @return The instant, null if it could not be read
+	 */
+	private static Instant toInstant(RawCell cell, DateParser parser) {
+		if (cell.isNumber()) {
+			LocalDateTime dateTime = DateUtil.toLocalDateTime(cell.getNumber());
+			return dateTime == null ? null : dateTime.atZone(ZoneId.systemDefault()).toInstant();
+		}
+		Date date = parser.parse(cell.getText());
+		return date == null ? null : date.toInstant();
+	}
+}
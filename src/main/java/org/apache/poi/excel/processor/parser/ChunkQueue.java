@@ -0,0 +1,147 @@
+package org.apache.poi.excel.processor.parser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands the rows read by worker threads over to the reading thread, a chunk of
+ * rows at a time. <br>
+ * <br>
+ * The queue is bounded, so the workers wait for the reader once they are a few
+ * chunks ahead and memory stays flat. Rows of a single worker come out in the
+ * order they were put in, rows of several workers interleave.
+ *
+ * @author ssp5zone
+ */
+public class ChunkQueue<T> implements Iterator<T>, Closeable {
+
+	/**
+	 * The rows a worker reads before handing them over
+	 */
+	public final static int CHUNK_ROWS = 1024;
+
+	// Marks the end, after the last worker is done
+	private final static List<Object> END = Collections.emptyList();
+
+	private final BlockingQueue<Object> chunks;
+	private final AtomicInteger workers;
+
+	private volatile boolean closed;
+	private Iterator<T> chunk = Collections.emptyIterator();
+	private boolean ended;
+
+	/**
+	 * @param workers The number of workers putting rows, each calls
+	 *                {@link #done()} once
+	 * @param size    The number of chunks held, at-least 1
+	 */
+	public ChunkQueue(int workers, int size) {
+		this.chunks = new ArrayBlockingQueue<Object>(size);
+		this.workers = new AtomicInteger(workers);
+	}
+
+	/**
+	 * Waits for room and queues the rows. Nothing is queued once closed.
+	 *
+	 * @param rows The next rows
+	 */
+	public void put(List<T> rows) {
+		offer(rows);
+	}
+
+	/**
+	 * Passes the failure of a worker on to the reader.
+	 *
+	 * @param e The failure
+	 */
+	public void fail(Throwable e) {
+		offer(e);
+	}
+
+	/**
+	 * Marks a worker as done. Once all are, the reader sees the end.
+	 */
+	public void done() {
+		if (workers.decrementAndGet() == 0) {
+			offer(END);
+		}
+	}
+
+	/**
+	 * @return true once the reader is not interested in more rows
+	 */
+	public boolean isClosed() {
+		return this.closed;
+	}
+
+	private void offer(Object item) {
+		try {
+			while (!closed && !chunks.offer(item, 100, TimeUnit.MILLISECONDS)) {
+				// Till there is room, or no one is reading anymore
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public boolean hasNext() {
+		while (!chunk.hasNext() && !ended) {
+			Object item;
+			try {
+				item = chunks.take();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new UncheckedIOException(new IOException("Interrupted while waiting for the rows", e));
+			}
+			if (item == END) {
+				ended = true;
+			} else if (item instanceof Throwable) {
+				ended = true;
+				throw rethrow((Throwable) item);
+			} else {
+				chunk = ((List<T>) item).iterator();
+			}
+		}
+		return chunk.hasNext();
+	}
+
+	private static RuntimeException rethrow(Throwable e) {
+		if (e instanceof Error) {
+			throw (Error) e;
+		} else if (e instanceof RuntimeException) {
+			return (RuntimeException) e;
+		} else if (e instanceof IOException) {
+			return new UncheckedIOException((IOException) e);
+		}
+		return new IllegalStateException(e);
+	}
+
+	@Override
+	public T next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		return chunk.next();
+	}
+
+	/**
+	 * Stops taking rows. The workers waiting for room give up.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		ended = true;
+		chunks.clear();
+	}
+}
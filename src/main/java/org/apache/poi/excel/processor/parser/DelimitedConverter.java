@@ -0,0 +1,132 @@
+package org.apache.poi.excel.processor.parser;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Locale;
+
+import org.apache.poi.excel.model.ExcelCellType;
+import org.apache.poi.excel.processor.writer.DelimitedWriter;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.NumberToTextConverter;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+
+/**
+ * Turns the rows of a sheet into delimited text as they are parsed, with no
+ * POJOs or POI cells in between. <br>
+ * <br>
+ * Numbers and dates are written the way the sheet shows them, through the
+ * number format of their cell style. So the columns of an {@link ExcelCellType}
+ * come out in its format, with the same decimals, the same date pattern and so
+ * on. Numbers in the General format are written in full. <br>
+ * <br>
+ * The rows keep their position, a blank row is an empty line, and the cells
+ * theirs, a blank cell an empty field. <br>
+ * <br>
+ * Not thread safe, a converter belongs to the thread converting its sheet.
+ *
+ * @author ssp5zone
+ */
+public class DelimitedConverter implements CellHandler {
+
+	// Formats are US style, like the ExcelCellType ones
+	private final DataFormatter formatter = new DataFormatter(Locale.US);
+	private final StylesTable styles;
+
+	// By the style index, filled as the styles are first used
+	private String[] formats = new String[0];
+	private short[] formatIndexes = new short[0];
+
+	private DelimitedWriter out;
+	private int nextColumn;
+
+	/**
+	 * @param styles The cell styles of the workbook, null if it has none
+	 */
+	public DelimitedConverter(StylesTable styles) {
+		this.styles = styles;
+	}
+
+	/**
+	 * Writes every row of the sheet.
+	 *
+	 * @param parser The parser of the sheet, at its start
+	 * @param out    Where the rows go, not closed
+	 * @throws IOException If the sheet could not be read or the text written
+	 */
+	public void convert(SheetParser parser, DelimitedWriter out) throws IOException {
+		this.out = out;
+		int nextRow = 0;
+		while (parser.nextRow()) {
+			for (; nextRow < parser.getRowIndex(); nextRow++) {
+				out.endRecord();
+			}
+			nextColumn = 0;
+			parser.readCells(this);
+			out.endRecord();
+			nextRow = parser.getRowIndex() + 1;
+		}
+		this.out = null;
+	}
+
+	@Override
+	public boolean accepts(int column) {
+		return true;
+	}
+
+	@Override
+	public void cell(int column, RawCell cell) {
+		try {
+			out.skip(column - nextColumn).field(format(cell));
+			nextColumn = column + 1;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * @param cell A cell
+	 * @return Its text as the sheet shows it, null for a blank cell
+	 */
+	String format(RawCell cell) {
+		if (cell.isBlank()) {
+			return null;
+		}
+		switch (cell.getKind()) {
+		case NUMBER:
+			String format = getFormat(cell.getStyle());
+			double value = cell.getNumber();
+			if (format == null) {
+				return NumberToTextConverter.toText(value);
+			}
+			return formatter.formatRawCellContents(value, formatIndexes[cell.getStyle()], format);
+		case BOOLEAN:
+			return "1".equals(cell.getText()) || "true".equalsIgnoreCase(cell.getText()) ? "TRUE" : "FALSE";
+		default:
+			return cell.getText();
+		}
+	}
+
+	/**
+	 * @return The number format of the style, null for General
+	 */
+	private String getFormat(int style) {
+		if (styles == null || style < 0 || style >= styles.getNumCellStyles()) {
+			return null;
+		}
+		if (style >= formats.length) {
+			int length = Math.max(style + 1, formats.length * 2);
+			formats = Arrays.copyOf(formats, length);
+			formatIndexes = Arrays.copyOf(formatIndexes, length);
+		}
+		if (formats[style] == null) {
+			XSSFCellStyle cellStyle = styles.getStyleAt(style);
+			String format = cellStyle == null ? null : cellStyle.getDataFormatString();
+			formats[style] = format == null || format.isEmpty() || "General".equalsIgnoreCase(format) ? ""
+					: format;
+			formatIndexes[style] = cellStyle == null ? 0 : cellStyle.getDataFormat();
+		}
+		return formats[style].isEmpty() ? null : formats[style];
+	}
+}
@@ -0,0 +1,74 @@
+package org.apache.poi.excel.processor.parser;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+import org.apache.poi.excel.processor.reader.FieldReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The counterpart of {@link FieldReader}, to fill the objects read back from
+ * an excel. <br>
+ * <br>
+ * The field is resolved once into a {@link MethodHandle}. Sets are then plain
+ * {@code invokeExact} calls, with no access checks. Static and final fields
+ * are never set.
+ *
+ * @author ssp5zone
+ */
+public class FieldSetter {
+	private final static Logger log = LoggerFactory.getLogger(FieldSetter.class);
+	private final Field field;
+
+	// (Object, Object) -> void, unboxing into primitive fields. Null if the field
+	// can not be set.
+	private final MethodHandle setter;
+
+	public FieldSetter(Field field) {
+		this.field = field;
+		this.setter = unreflect(field);
+	}
+
+	private static MethodHandle unreflect(Field field) {
+		if (Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers())) {
+			return null;
+		}
+		try {
+			field.setAccessible(true);
+			return MethodHandles.lookup().unreflectSetter(field)
+					.asType(MethodType.methodType(void.class, Object.class, Object.class));
+		} catch (IllegalAccessException | RuntimeException e) {
+			log.warn("Unable to access the field " + field + ". It would not be read. The error was: ", e);
+			return null;
+		}
+	}
+
+	/**
+	 * @return false for static, final or inaccessible fields
+	 */
+	public boolean isSettable() {
+		return this.setter != null;
+	}
+
+	/**
+	 * Sets the field of the object. Failures are logged and the field is left as
+	 * it was.
+	 *
+	 * @param obj   The object
+	 * @param value The value, boxed as the exact wrapper of a primitive field
+	 */
+	public void set(Object obj, Object value) {
+		try {
+			setter.invokeExact(obj, value);
+		} catch (Throwable e) {
+			if (e instanceof Error) {
+				throw (Error) e;
+			}
+			log.warn("Unable to set the field " + field.getName() + " of the read excel object. The error was: ", e);
+		}
+	}
+}
@@ -0,0 +1,85 @@
+package org.apache.poi.excel.processor.parser;
+
+/**
+ * The value of one cell, as found in the sheet XML. Shared and inline strings
+ * are already resolved to their text. <br>
+ * <br>
+ * The same instance is reused for every cell of a sheet, so copy what you need
+ * before the next cell is read. <br>
+ * <br>
+ * Local class, to be used internally.
+ *
+ * @author ssp5zone
+ * @see SheetParser
+ */
+public final class RawCell {
+
+	/**
+	 * What the text of the cell is
+	 */
+	public enum Kind {
+		NUMBER, STRING, BOOLEAN, ERROR
+	}
+
+	private Kind kind;
+	private String text;
+	private int style;
+
+	void set(Kind kind, String text, int style) {
+		this.kind = kind;
+		this.text = text;
+		this.style = style;
+	}
+
+	/**
+	 * @return What the text of the cell is
+	 */
+	public Kind getKind() {
+		return this.kind;
+	}
+
+	/**
+	 * @return The text of the cell. Numbers and booleans as written in the file,
+	 *         say "1.5" or "1". Null if blank.
+	 */
+	public String getText() {
+		return this.text;
+	}
+
+	/**
+	 * @return The index of the cell's style in the workbook, 0 if none
+	 */
+	public int getStyle() {
+		return this.style;
+	}
+
+	/**
+	 * @return true if the cell has no value, or an empty text
+	 */
+	public boolean isBlank() {
+		return this.text == null || this.text.isEmpty();
+	}
+
+	/**
+	 * @return true if the cell holds a number, dates included
+	 */
+	public boolean isNumber() {
+		return this.kind == Kind.NUMBER;
+	}
+
+	/**
+	 * @return The number in the cell, the parsed text if it is not a number cell
+	 * @throws NumberFormatException If the text is not a number
+	 */
+	public double getNumber() {
+		if (this.kind == Kind.BOOLEAN) {
+			return "1".equals(this.text) ? 1 : 0;
+		}
+		return Double.parseDouble(this.kind == Kind.NUMBER ? this.text : this.text.trim());
+	}
+
+	@Override
+	public String toString() {
+		return this.kind + ":" + this.text;
+	}
+}
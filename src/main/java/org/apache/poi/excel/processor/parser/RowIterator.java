@@ -0,0 +1,69 @@
+package org.apache.poi.excel.processor.parser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The POJOs of a sheet, read one row at a time as they are asked for. Rows
+ * without a value in any of the columns read are skipped. <br>
+ * <br>
+ * Close it to release the sheet, even if not read till the end.
+ *
+ * @author ssp5zone
+ */
+public class RowIterator<T> implements Iterator<T>, Closeable {
+	private final SheetParser parser;
+	private final RowMapper<T> mapper;
+
+	private T next;
+	private boolean done;
+
+	/**
+	 * @param parser The parser of the sheet, after its header row
+	 * @param mapper The mapper of the header row, null if there are no rows to
+	 *               read
+	 */
+	public RowIterator(SheetParser parser, RowMapper<T> mapper) {
+		this.parser = parser;
+		this.mapper = mapper;
+		this.done = mapper == null;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (next == null && !done) {
+			try {
+				while (parser.nextRow()) {
+					next = mapper.map(parser);
+					if (next != null) {
+						return true;
+					}
+				}
+				done = true;
+			} catch (IOException e) {
+				done = true;
+				throw new UncheckedIOException(e);
+			}
+		}
+		return next != null;
+	}
+
+	@Override
+	public T next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		T row = next;
+		next = null;
+		return row;
+	}
+
+	@Override
+	public void close() throws IOException {
+		done = true;
+		parser.close();
+	}
+}
@@ -0,0 +1,204 @@
+package org.apache.poi.excel.processor.parser;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+
+import org.apache.poi.excel.model.ColumnSchema;
+import org.apache.poi.excel.model.SheetSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fills a new POJO from the cells of each row. <br>
+ * <br>
+ * The columns are matched to the fields by their headers, the same headers
+ * the {@link SheetSchema} gives them when writing. So the columns may be in
+ * any order, and columns of the sheet that no field maps to are never
+ * decoded. <br>
+ * <br>
+ * Not thread safe, a mapper belongs to the thread reading its sheet.
+ *
+ * @author ssp5zone
+ */
+public class RowMapper<T> implements CellHandler {
+	private final static Logger log = LoggerFactory.getLogger(RowMapper.class);
+
+	/**
+	 * How far down the sheet the header row is looked for
+	 */
+	private final static int HEADER_ROWS = 10;
+
+	private final Class<T> type;
+
+	// () -> Object
+	private final MethodHandle constructor;
+
+	// Indexed by the column of the sheet, null for the columns not read
+	private final BiConsumer<Object, RawCell>[] parsers;
+
+	private final int headerRow;
+
+	private Object row;
+	private boolean filled;
+
+	private RowMapper(Class<T> type, MethodHandle constructor, BiConsumer<Object, RawCell>[] parsers, int headerRow) {
+		this.type = type;
+		this.constructor = constructor;
+		this.parsers = parsers;
+		this.headerRow = headerRow;
+	}
+
+	/**
+	 * Reads the sheet upto its header row and maps its columns to the fields of
+	 * the class.
+	 *
+	 * @param <T>    The POJO class
+	 * @param parser The parser of the sheet, at its start. Left after the header
+	 *               row.
+	 * @param type   The POJO class
+	 * @return The mapper, or null if the class can not be created or none of its
+	 *         headers are in the sheet
+	 * @throws IOException If the sheet could not be read
+	 */
+	public static <T> RowMapper<T> of(SheetParser parser, Class<T> type) throws IOException {
+		MethodHandle constructor = findConstructor(type);
+		if (constructor == null) {
+			return null;
+		}
+		Map<String, ColumnSchema> columns = new HashMap<String, ColumnSchema>();
+		for (ColumnSchema column : SheetSchema.of(type).getColumns()) {
+			columns.put(normalize(column.getHeader()), column);
+		}
+
+		// The heading and spacer rows come before, so the first row with any of the
+		// headers is the one
+		HeaderCollector headers = new HeaderCollector();
+		while (parser.getRowIndex() < HEADER_ROWS && parser.nextRow()) {
+			headers.texts.clear();
+			parser.readCells(headers);
+			if (headers.texts.values().stream().map(RowMapper::normalize).anyMatch(columns::containsKey)) {
+				return new RowMapper<T>(type, constructor, toParsers(headers.texts, columns), parser.getRowIndex());
+			}
+		}
+		log.warn("None of the columns of " + type.getName() + " were found in the sheet.");
+		return null;
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static BiConsumer<Object, RawCell>[] toParsers(TreeMap<Integer, String> headers,
+			Map<String, ColumnSchema> columns) {
+		CellParserFactory parserFactory = new CellParserFactory();
+		BiConsumer<Object, RawCell>[] parsers = new BiConsumer[headers.lastKey() + 1];
+		headers.forEach((column, header) -> {
+			ColumnSchema schema = columns.remove(normalize(header));
+			if (schema != null) {
+				parsers[column] = parserFactory.getFieldParser(schema);
+			}
+		});
+		if (!columns.isEmpty()) {
+			log.info("The columns " + columns.keySet() + " are not in the sheet. They would be left as is.");
+		}
+		return parsers;
+	}
+
+	private static MethodHandle findConstructor(Class<?> type) {
+		try {
+			Constructor<?> constructor = type.getDeclaredConstructor();
+			constructor.setAccessible(true);
+			return MethodHandles.lookup().unreflectConstructor(constructor)
+					.asType(MethodType.methodType(Object.class));
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			log.error("Unable to read the rows of " + type.getName()
+					+ ". It needs a constructor without any arguments. The error was: " + e);
+			return null;
+		}
+	}
+
+	/**
+	 * Headers are matched ignoring the case and the surrounding spaces.
+	 */
+	private static String normalize(String header) {
+		return header.trim().toLowerCase();
+	}
+
+	/**
+	 * @return The POJO class
+	 */
+	public Class<T> getType() {
+		return this.type;
+	}
+
+	/**
+	 * @return 0 based index of the header row. The data follows it.
+	 */
+	public int getHeaderRow() {
+		return this.headerRow;
+	}
+
+	/**
+	 * Reads the current row of the parser into a new object.
+	 *
+	 * @param parser The parser, on a data row
+	 * @return The object, null if the row has no value in any of the columns read
+	 * @throws IOException If the sheet could not be read
+	 */
+	@SuppressWarnings("unchecked")
+	public T map(SheetParser parser) throws IOException {
+		this.row = newRow();
+		this.filled = false;
+		parser.readCells(this);
+		Object mapped = this.row;
+		this.row = null;
+		return filled ? (T) mapped : null;
+	}
+
+	private Object newRow() {
+		try {
+			return (Object) constructor.invokeExact();
+		} catch (Throwable e) {
+			if (e instanceof Error) {
+				throw (Error) e;
+			}
+			throw new IllegalStateException("Unable to create a new " + type.getName(), e);
+		}
+	}
+
+	@Override
+	public boolean accepts(int column) {
+		return column < parsers.length && parsers[column] != null;
+	}
+
+	@Override
+	public void cell(int column, RawCell cell) {
+		if (!cell.isBlank()) {
+			this.filled = true;
+			parsers[column].accept(row, cell);
+		}
+	}
+
+	/**
+	 * Keeps the text of every cell of a row.
+	 */
+	private static class HeaderCollector implements CellHandler {
+		private final TreeMap<Integer, String> texts = new TreeMap<Integer, String>();
+
+		@Override
+		public boolean accepts(int column) {
+			return true;
+		}
+
+		@Override
+		public void cell(int column, RawCell cell) {
+			if (cell.getKind() == RawCell.Kind.STRING && !cell.isBlank()) {
+				texts.put(column, cell.getText());
+			}
+		}
+	}
+}
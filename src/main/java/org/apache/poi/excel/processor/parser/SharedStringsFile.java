@@ -0,0 +1,196 @@
+package org.apache.poi.excel.processor.parser;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.function.IntFunction;
+
+import org.apache.poi.util.TempFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The shared strings of a workbook, spooled to a temp file rather than held in
+ * memory. <br>
+ * <br>
+ * The strings are written one after the other, along with a table of where
+ * each starts, so any of them is found with two reads of the file. The
+ * recently used ones are kept in memory, bounded by an estimate of their heap
+ * size. <br>
+ * <br>
+ * Thread safe, it can be shared by the sheets of the workbook.
+ *
+ * @author ssp5zone
+ */
+public class SharedStringsFile implements IntFunction<String>, Closeable {
+	private final static Logger log = LoggerFactory.getLogger(SharedStringsFile.class);
+
+	// A rough heap cost of a cached text besides its characters: the String, its
+	// array, the map entry and the Integer
+	private final static int ENTRY_OVERHEAD = 96;
+
+	private final File strings;
+	private final File offsets;
+	private final FileChannel stringsChannel;
+	private final FileChannel offsetsChannel;
+	private final int count;
+	private final long limit;
+
+	// Access ordered, so the eldest entry is the least recently used
+	private final LinkedHashMap<Integer, String> cache = new LinkedHashMap<Integer, String>(1024, 0.75f, true);
+	private long size;
+
+	private ByteBuffer buffer = ByteBuffer.allocate(1024);
+
+	private SharedStringsFile(File strings, File offsets, int count, long limit) throws IOException {
+		this.strings = strings;
+		this.offsets = offsets;
+		this.count = count;
+		this.limit = limit;
+		this.stringsChannel = FileChannel.open(strings.toPath(), StandardOpenOption.READ);
+		try {
+			this.offsetsChannel = FileChannel.open(offsets.toPath(), StandardOpenOption.READ);
+		} catch (IOException e) {
+			stringsChannel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Spools the shared strings part.
+	 *
+	 * @param in    The shared strings XML, null if the workbook has none. Closed
+	 *              once read.
+	 * @param limit The memory bound of the recently used strings, in bytes
+	 * @return The strings, to be closed once done
+	 * @throws IOException If the part could not be read or spooled
+	 */
+	public static SharedStringsFile of(InputStream in, long limit) throws IOException {
+		File strings = TempFile.createTempFile("poi-excel-sst", ".bin");
+		File offsets = null;
+		try {
+			offsets = TempFile.createTempFile("poi-excel-sst-offsets", ".bin");
+			int count = 0;
+			if (in != null) {
+				try (SharedStringsParser parser = new SharedStringsParser(in);
+						DataOutputStream stringsOut = new DataOutputStream(
+								new BufferedOutputStream(new FileOutputStream(strings), 64 * 1024));
+						DataOutputStream offsetsOut = new DataOutputStream(
+								new BufferedOutputStream(new FileOutputStream(offsets), 64 * 1024))) {
+					String text;
+					long offset = 0;
+					while ((text = parser.next()) != null) {
+						byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+						offsetsOut.writeLong(offset);
+						stringsOut.writeInt(bytes.length);
+						stringsOut.write(bytes);
+						offset += 4 + bytes.length;
+						count++;
+					}
+				}
+			}
+			return new SharedStringsFile(strings, offsets, count, limit);
+		} catch (IOException | RuntimeException e) {
+			delete(strings);
+			if (offsets != null) {
+				delete(offsets);
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * @return The number of strings
+	 */
+	public int getCount() {
+		return this.count;
+	}
+
+	/**
+	 * @return The string, null if there is no such string
+	 * @throws UncheckedIOException If the spool file could not be read
+	 */
+	@Override
+	public synchronized String apply(int index) {
+		if (index < 0 || index >= count) {
+			return null;
+		}
+		String text = cache.get(index);
+		if (text == null) {
+			try {
+				text = read(index);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			cache.put(index, text);
+			size += cost(text);
+
+			// Forget the least recently used, but always keep the one just read
+			Iterator<String> eldest = cache.values().iterator();
+			while (size > limit && cache.size() > 1) {
+				size -= cost(eldest.next());
+				eldest.remove();
+			}
+		}
+		return text;
+	}
+
+	private String read(int index) throws IOException {
+		long offset = readFully(offsetsChannel, 8, index * 8L).getLong();
+		int length = readFully(stringsChannel, 4, offset).getInt();
+		ByteBuffer bytes = readFully(stringsChannel, length, offset + 4);
+		return new String(bytes.array(), 0, length, StandardCharsets.UTF_8);
+	}
+
+	private ByteBuffer readFully(FileChannel channel, int length, long position) throws IOException {
+		if (buffer.capacity() < length) {
+			buffer = ByteBuffer.allocate(Math.max(length, buffer.capacity() * 2));
+		}
+		buffer.clear();
+		buffer.limit(length);
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, position + buffer.position()) < 0) {
+				throw new IOException("The shared strings spool file ends too early");
+			}
+		}
+		buffer.flip();
+		return buffer;
+	}
+
+	private static long cost(String value) {
+		return ENTRY_OVERHEAD + 2L * value.length();
+	}
+
+	/**
+	 * Deletes the spool files.
+	 */
+	@Override
+	public synchronized void close() {
+		try {
+			stringsChannel.close();
+			offsetsChannel.close();
+		} catch (IOException e) {
+			// Going to be deleted anyway
+		}
+		delete(strings);
+		delete(offsets);
+		cache.clear();
+	}
+
+	private static void delete(File file) {
+		if (!file.delete()) {
+			log.warn("Unable to delete the temp file " + file + ". It would be left behind.");
+		}
+	}
+}
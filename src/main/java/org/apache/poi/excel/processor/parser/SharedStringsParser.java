@@ -0,0 +1,83 @@
+package org.apache.poi.excel.processor.parser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Pulls the strings of a shared strings part (xl/sharedStrings.xml) one at a
+ * time, for those that do not want the whole table in memory. <br>
+ * <br>
+ * Not thread safe.
+ *
+ * @author ssp5zone
+ */
+public class SharedStringsParser implements Closeable {
+	private final InputStream in;
+	private final XMLStreamReader reader;
+	private final StringBuilder text = new StringBuilder();
+
+	/**
+	 * @param in The shared strings XML, closed along with the parser
+	 * @throws IOException If the XML could not be read
+	 */
+	public SharedStringsParser(InputStream in) throws IOException {
+		this.in = in;
+		try {
+			this.reader = SheetParser.factory.createXMLStreamReader(in);
+		} catch (XMLStreamException e) {
+			throw new IOException("Unable to read the shared strings", e);
+		}
+	}
+
+	/**
+	 * @return The text of the next string item, its runs joined and the phonetic
+	 *         ones left out. Null if there are no more.
+	 * @throws IOException If the XML is broken
+	 */
+	public String next() throws IOException {
+		try {
+			int phonetic = 0;
+			boolean inItem = false;
+			while (reader.hasNext()) {
+				int event = reader.next();
+				if (event == XMLStreamConstants.START_ELEMENT) {
+					String name = reader.getLocalName();
+					if ("si".equals(name)) {
+						inItem = true;
+						text.setLength(0);
+					} else if ("rPh".equals(name)) {
+						phonetic++;
+					} else if ("t".equals(name) && inItem && phonetic == 0) {
+						text.append(reader.getElementText());
+					}
+				} else if (event == XMLStreamConstants.END_ELEMENT) {
+					String name = reader.getLocalName();
+					if ("si".equals(name)) {
+						return text.toString();
+					} else if ("rPh".equals(name)) {
+						phonetic--;
+					}
+				}
+			}
+			return null;
+		} catch (XMLStreamException e) {
+			throw new IOException("Unable to read the shared strings", e);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			reader.close();
+		} catch (XMLStreamException e) {
+			// Nothing more is read anyway
+		} finally {
+			in.close();
+		}
+	}
+}
@@ -0,0 +1,179 @@
+package org.apache.poi.excel.processor.parser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads the rows of one sheet on a worker thread into a {@link ChunkQueue}.
+ * <br>
+ * <br>
+ * A job runs once, on whichever thread claims it first. A sheet that is read
+ * before any worker got to it is read on the reading thread itself, so a
+ * reader that jumps ahead to a later sheet never waits on busy workers.
+ *
+ * @author ssp5zone
+ */
+public class SheetJob<T> implements Runnable {
+	private final static Logger log = LoggerFactory.getLogger(SheetJob.class);
+
+	private final String name;
+	private final InputStream in;
+	private final IntFunction<String> sharedStrings;
+	private final Class<T> type;
+	private final ChunkQueue<T> queue;
+	private final AtomicBoolean claimed = new AtomicBoolean();
+
+	// The rows when read on the reading thread
+	private volatile RowIterator<T> inline;
+
+	/**
+	 * @param name          The sheet name
+	 * @param in            The sheet XML, closed once read
+	 * @param sharedStrings Resolves a shared string by its index
+	 * @param type          The POJO class of the rows
+	 * @param queue         Where the rows go, possibly shared with other jobs
+	 */
+	public SheetJob(String name, InputStream in, IntFunction<String> sharedStrings, Class<T> type,
+			ChunkQueue<T> queue) {
+		this.name = name;
+		this.in = in;
+		this.sharedStrings = sharedStrings;
+		this.type = type;
+		this.queue = queue;
+	}
+
+	/**
+	 * @return The sheet name
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	@Override
+	public void run() {
+		if (!claimed.compareAndSet(false, true)) {
+			return;
+		}
+		try (RowIterator<T> rows = open()) {
+			List<T> chunk = new ArrayList<T>(ChunkQueue.CHUNK_ROWS);
+			while (!queue.isClosed() && rows.hasNext()) {
+				chunk.add(rows.next());
+				if (chunk.size() == ChunkQueue.CHUNK_ROWS) {
+					queue.put(chunk);
+					chunk = new ArrayList<T>(ChunkQueue.CHUNK_ROWS);
+				}
+			}
+			if (!chunk.isEmpty()) {
+				queue.put(chunk);
+			}
+		} catch (Throwable e) {
+			queue.fail(e);
+		} finally {
+			queue.done();
+		}
+	}
+
+	/**
+	 * The rows of the sheet in their order. Read on this thread if no worker has
+	 * started on the sheet yet, else handed over by the worker.
+	 *
+	 * @return The rows
+	 */
+	public Iterator<T> iterator() {
+		return new Iterator<T>() {
+			private Iterator<T> rows;
+
+			private Iterator<T> rows() {
+				if (rows == null) {
+					rows = claimed.compareAndSet(false, true) ? openHere() : queue;
+				}
+				return rows;
+			}
+
+			@Override
+			public boolean hasNext() {
+				return rows().hasNext();
+			}
+
+			@Override
+			public T next() {
+				return rows().next();
+			}
+		};
+	}
+
+	private Iterator<T> openHere() {
+		// No worker would put anything for this sheet
+		queue.close();
+		try {
+			RowIterator<T> rows = open();
+			this.inline = rows;
+			return new Iterator<T>() {
+				@Override
+				public boolean hasNext() {
+					if (rows.hasNext()) {
+						return true;
+					}
+					close(rows);
+					return false;
+				}
+
+				@Override
+				public T next() {
+					return rows.next();
+				}
+			};
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * @return The rows after the header, none if the header is not there
+	 */
+	private RowIterator<T> open() throws IOException {
+		SheetParser parser = new SheetParser(in, sharedStrings);
+		try {
+			RowMapper<T> mapper = RowMapper.of(parser, type);
+			if (mapper == null) {
+				log.info("Skipping the sheet " + name + " as it has none of the columns.");
+			}
+			return new RowIterator<T>(parser, mapper);
+		} catch (IOException | RuntimeException e) {
+			parser.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Stops reading the sheet, or closes it if it was never read.
+	 */
+	public void cancel() {
+		if (claimed.compareAndSet(false, true)) {
+			close(in);
+		}
+		queue.close();
+		RowIterator<T> rows = this.inline;
+		if (rows != null) {
+			close(rows);
+		}
+	}
+
+	private static void close(Closeable closeable) {
+		try {
+			closeable.close();
+		} catch (IOException e) {
+			log.warn("Unable to close the sheet due to: " + e);
+		}
+	}
+}
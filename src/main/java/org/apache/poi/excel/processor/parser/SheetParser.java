@@ -0,0 +1,241 @@
+package org.apache.poi.excel.processor.parser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.IntFunction;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.poi.excel.processor.parser.RawCell.Kind;
+
+/**
+ * Pulls the rows of a sheet part (xl/worksheets/sheetN.xml) one at a time. <br>
+ * <br>
+ * The XML is read as a stream of events, so only the row at hand is ever held
+ * in memory, however big the sheet. Cells are handed to a {@link CellHandler},
+ * and only those it accepts are decoded. <br>
+ * <br>
+ * Not thread safe, a parser belongs to the thread reading its sheet.
+ *
+ * @author ssp5zone
+ */
+public class SheetParser implements Closeable {
+
+	// Shared with the SharedStringsParser
+	final static XMLInputFactory factory = newFactory();
+
+	private final InputStream in;
+	private final XMLStreamReader reader;
+	private final IntFunction<String> sharedStrings;
+	private final RawCell cell = new RawCell();
+	private final StringBuilder text = new StringBuilder();
+
+	private int rowIndex = -1;
+
+	/**
+	 * @param in            The sheet XML, closed along with the parser
+	 * @param sharedStrings Resolves a shared string by its index
+	 * @throws IOException If the XML could not be read
+	 */
+	public SheetParser(InputStream in, IntFunction<String> sharedStrings) throws IOException {
+		this(in, sharedStrings, 0);
+	}
+
+	/**
+	 * For the XML of a sheet that starts at a later row, say one skipped to by an
+	 * index.
+	 *
+	 * @param in            The sheet XML, closed along with the parser
+	 * @param sharedStrings Resolves a shared string by its index
+	 * @param firstRow      0 based index of the first row in the XML, for rows
+	 *                      that do not say it themselves
+	 * @throws IOException If the XML could not be read
+	 */
+	public SheetParser(InputStream in, IntFunction<String> sharedStrings, int firstRow) throws IOException {
+		this.in = in;
+		this.sharedStrings = sharedStrings;
+		this.rowIndex = firstRow - 1;
+		try {
+			this.reader = factory.createXMLStreamReader(in);
+		} catch (XMLStreamException e) {
+			throw new IOException("Unable to read the sheet", e);
+		}
+	}
+
+	private static XMLInputFactory newFactory() {
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+		// A sheet has no business with DTDs, and they are a way in for XXE attacks
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+		factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+		return factory;
+	}
+
+	/**
+	 * Moves to the next row. Cells of the current row that were not read are
+	 * skipped.
+	 *
+	 * @return false if there are no more rows
+	 * @throws IOException If the XML is broken
+	 */
+	public boolean nextRow() throws IOException {
+		try {
+			while (reader.hasNext()) {
+				if (reader.next() == XMLStreamConstants.START_ELEMENT && "row".equals(reader.getLocalName())) {
+					String reference = reader.getAttributeValue(null, "r");
+					// The row number is optional, rows without one follow the last
+					this.rowIndex = reference == null ? this.rowIndex + 1 : Integer.parseInt(reference) - 1;
+					return true;
+				}
+			}
+			return false;
+		} catch (XMLStreamException | NumberFormatException e) {
+			throw new IOException("Unable to read the rows of the sheet", e);
+		}
+	}
+
+	/**
+	 * @return 0 based index of the current row
+	 */
+	public int getRowIndex() {
+		return this.rowIndex;
+	}
+
+	/**
+	 * Reads the cells of the current row into the handler, in the order they are
+	 * in the file. Call once per row, after {@link #nextRow()}.
+	 *
+	 * @param handler Receives the accepted cells
+	 * @throws IOException If the XML is broken
+	 */
+	public void readCells(CellHandler handler) throws IOException {
+		try {
+			int column = -1;
+			while (reader.hasNext()) {
+				int event = reader.next();
+				if (event == XMLStreamConstants.START_ELEMENT && "c".equals(reader.getLocalName())) {
+					String reference = reader.getAttributeValue(null, "r");
+					column = reference == null ? column + 1 : toColumn(reference);
+					if (handler.accepts(column)) {
+						readCell();
+						handler.cell(column, cell);
+					} else {
+						skipElement();
+					}
+				} else if (event == XMLStreamConstants.END_ELEMENT && "row".equals(reader.getLocalName())) {
+					return;
+				}
+			}
+		} catch (XMLStreamException | RuntimeException e) {
+			throw new IOException("Unable to read row " + (rowIndex + 1) + " of the sheet", e);
+		}
+	}
+
+	/**
+	 * Reads the value of the cell element the reader is on, upto its end.
+	 */
+	private void readCell() throws XMLStreamException {
+		String type = reader.getAttributeValue(null, "t");
+		String style = reader.getAttributeValue(null, "s");
+		String value = null;
+		while (reader.hasNext()) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				String name = reader.getLocalName();
+				if ("v".equals(name)) {
+					value = reader.getElementText();
+				} else if ("is".equals(name)) {
+					value = readInlineString();
+				} else {
+					// Formulas and extensions
+					skipElement();
+				}
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				break;
+			}
+		}
+
+		Kind kind;
+		if (type == null || "n".equals(type)) {
+			kind = Kind.NUMBER;
+		} else if ("s".equals(type)) {
+			kind = Kind.STRING;
+			value = value == null ? null : sharedStrings.apply(Integer.parseInt(value.trim()));
+		} else if ("b".equals(type)) {
+			kind = Kind.BOOLEAN;
+		} else if ("e".equals(type)) {
+			kind = Kind.ERROR;
+		} else {
+			// inlineStr and the str of formulas
+			kind = Kind.STRING;
+		}
+		cell.set(kind, value, style == null ? 0 : Integer.parseInt(style));
+	}
+
+	/**
+	 * Joins the text runs of an inline string, leaving out the phonetic ones.
+	 */
+	private String readInlineString() throws XMLStreamException {
+		text.setLength(0);
+		while (reader.hasNext()) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				String name = reader.getLocalName();
+				if ("t".equals(name)) {
+					text.append(reader.getElementText());
+				} else if ("rPh".equals(name)) {
+					skipElement();
+				}
+			} else if (event == XMLStreamConstants.END_ELEMENT && "is".equals(reader.getLocalName())) {
+				break;
+			}
+		}
+		return text.toString();
+	}
+
+	/**
+	 * Moves past the end of the element the reader is on.
+	 */
+	private void skipElement() throws XMLStreamException {
+		int depth = 1;
+		while (depth > 0 && reader.hasNext()) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				depth++;
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				depth--;
+			}
+		}
+	}
+
+	/**
+	 * @param reference A cell reference, say "AB12"
+	 * @return 0 based index of its column, 27 for "AB12"
+	 */
+	static int toColumn(String reference) {
+		int column = 0;
+		for (int i = 0; i < reference.length(); i++) {
+			char c = reference.charAt(i);
+			if (c < 'A' || c > 'Z') {
+				break;
+			}
+			column = column * 26 + (c - 'A' + 1);
+		}
+		return column - 1;
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			reader.close();
+		} catch (XMLStreamException e) {
+			// Nothing more is read anyway
+		} finally {
+			in.close();
+		}
+	}
+}
@@ -0,0 +1,240 @@
+package org.apache.poi.excel.processor.parser;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.util.TempFile;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xml.sax.SAXException;
+
+/**
+ * An xlsx file opened for reading its sheets as streams. <br>
+ * <br>
+ * Holds the zip package and the shared strings of the workbook, the latter
+ * loaded only once asked for. The sheet streams handed out can be read by
+ * different threads at once, but have to be closed before the workbook is.
+ *
+ * @author ssp5zone
+ */
+public class WorkbookParser implements Closeable {
+	private final static Logger log = LoggerFactory.getLogger(WorkbookParser.class);
+
+	private final OPCPackage pkg;
+	private final XSSFReader reader;
+	private IntFunction<String> sharedStrings;
+
+	// Deleted on close, null if the file is the caller's
+	private final File temp;
+
+	/**
+	 * @param file The xlsx file
+	 * @throws IOException If it could not be opened
+	 */
+	public WorkbookParser(File file) throws IOException {
+		this(file, null);
+	}
+
+	private WorkbookParser(File file, File temp) throws IOException {
+		this.temp = temp;
+		try {
+			this.pkg = OPCPackage.open(file, PackageAccess.READ);
+		} catch (InvalidFormatException | RuntimeException e) {
+			deleteTemp();
+			throw new IOException("Unable to open the workbook " + file, e);
+		}
+		try {
+			this.reader = new XSSFReader(pkg);
+		} catch (OpenXML4JException | IOException | RuntimeException e) {
+			close();
+			throw new IOException("Unable to read the workbook " + file, e);
+		}
+	}
+
+	/**
+	 * Opens the content of a stream. It is first copied to a temp file, as an xlsx
+	 * can not be read without jumping around in it.
+	 *
+	 * @param in The xlsx content, not closed
+	 * @return The workbook, that deletes the temp file once closed
+	 * @throws IOException If the stream could not be read
+	 */
+	public static WorkbookParser of(InputStream in) throws IOException {
+		File file = TempFile.createTempFile("poi-excel-read", ".xlsx");
+		try {
+			Files.copy(in, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException | RuntimeException e) {
+			delete(file);
+			throw e;
+		}
+		return new WorkbookParser(file, file);
+	}
+
+	/**
+	 * Loads the shared strings of the workbook, the first time.
+	 *
+	 * @return Resolves a shared string by its index
+	 * @throws IOException If they could not be read
+	 */
+	public synchronized IntFunction<String> getSharedStrings() throws IOException {
+		if (sharedStrings == null) {
+			try {
+				ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+				this.sharedStrings = index -> strings.getItemAt(index).getString();
+			} catch (SAXException | RuntimeException e) {
+				throw new IOException("Unable to read the shared strings of the workbook", e);
+			}
+		}
+		return this.sharedStrings;
+	}
+
+	/**
+	 * The raw XML of the shared strings, for those that read only some of them.
+	 *
+	 * @return The shared strings part, null if the workbook has none. The caller
+	 *         closes it.
+	 * @throws IOException If the workbook could not be read
+	 */
+	public InputStream openSharedStrings() throws IOException {
+		try {
+			return reader.getSharedStringsData();
+		} catch (InvalidFormatException | RuntimeException e) {
+			// Workbooks with inline strings only do not need the part
+			log.debug("The workbook has no shared strings: " + e);
+			return null;
+		}
+	}
+
+	/**
+	 * @return The cell styles of the workbook, null if it has none
+	 * @throws IOException If they could not be read
+	 */
+	public StylesTable getStyles() throws IOException {
+		try {
+			return reader.getStylesTable();
+		} catch (InvalidFormatException | RuntimeException e) {
+			throw new IOException("Unable to read the styles of the workbook", e);
+		}
+	}
+
+	/**
+	 * @param name The sheet name, matched ignoring the case
+	 * @return A parser of the sheet with the passed name, else of the first sheet
+	 * @throws IOException If the workbook has no sheets or could not be read
+	 */
+	public SheetParser openSheet(String name) throws IOException {
+		InputStream in = openSheetData(findSheet(name));
+		try {
+			return new SheetParser(in, getSharedStrings());
+		} catch (IOException | RuntimeException e) {
+			in.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * @param name The sheet name, matched ignoring the case
+	 * @return The name of the sheet with the passed name as written, else the
+	 *         name of the first sheet
+	 * @throws IOException If the workbook has no sheets or could not be read
+	 */
+	public String findSheet(String name) throws IOException {
+		String first = null;
+		String found = null;
+		for (Map.Entry<String, InputStream> sheet : openSheets().entrySet()) {
+			sheet.getValue().close();
+			if (first == null) {
+				first = sheet.getKey();
+			}
+			if (found == null && sheet.getKey().equalsIgnoreCase(name)) {
+				found = sheet.getKey();
+			}
+		}
+		if (first == null) {
+			throw new IOException("The workbook has no sheets");
+		}
+		if (found == null) {
+			log.info("There is no sheet named " + name + ". Reading the first sheet instead.");
+			return first;
+		}
+		return found;
+	}
+
+	/**
+	 * @param name The exact sheet name
+	 * @return The XML of the sheet, for the caller to close
+	 * @throws IOException If there is no such sheet or it could not be read
+	 */
+	public InputStream openSheetData(String name) throws IOException {
+		InputStream found = null;
+		for (Map.Entry<String, InputStream> sheet : openSheets().entrySet()) {
+			if (found == null && sheet.getKey().equals(name)) {
+				found = sheet.getValue();
+			} else {
+				sheet.getValue().close();
+			}
+		}
+		if (found == null) {
+			throw new IOException("The workbook has no sheet named " + name);
+		}
+		return found;
+	}
+
+	/**
+	 * @return The XML of each sheet by its name, in the order of the tabs. The
+	 *         caller closes them.
+	 * @throws IOException If the workbook could not be read
+	 */
+	public Map<String, InputStream> openSheets() throws IOException {
+		Map<String, InputStream> sheets = new LinkedHashMap<String, InputStream>();
+		try {
+			XSSFReader.SheetIterator iterator = (XSSFReader.SheetIterator) reader.getSheetsData();
+			while (iterator.hasNext()) {
+				InputStream sheet = iterator.next();
+				sheets.put(iterator.getSheetName(), sheet);
+			}
+			return sheets;
+		} catch (InvalidFormatException | IOException | RuntimeException e) {
+			for (InputStream sheet : sheets.values()) {
+				sheet.close();
+			}
+			throw new IOException("Unable to read the sheets of the workbook", e);
+		}
+	}
+
+	/**
+	 * Releases the package and the temp file, if any.
+	 */
+	@Override
+	public void close() {
+		// Read only packages are reverted, close() would try to save them
+		pkg.revert();
+		deleteTemp();
+	}
+
+	private void deleteTemp() {
+		if (temp != null) {
+			delete(temp);
+		}
+	}
+
+	private static void delete(File file) {
+		if (!file.delete()) {
+			log.warn("Unable to delete the temp file " + file + ". It would be left behind.");
+		}
+	}
+}
@@ -1,21 +1,139 @@
 package org.apache.poi.excel.processor.reader;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.reflect.Array;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Objects;
 
+import org.apache.poi.excel.model.CellValueException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * A generalization of the Reflection - translation utilities.
+ * A generalization of the Reflection - translation utilities. <br>
+ * <br>
+ * The field is resolved once into {@link MethodHandle}s, one per primitive it
+ * can be read as, each returning that primitive as it is. Reads then have no
+ * access checks and no boxing of primitive fields. <br>
+ * <br>
+ * A read that fails throws, for the writer to count the cell. Where the field
+ * cannot be read as a type at all, every read of it throws the same
+ * {@link CellValueException}, without a stack trace.
  * 
  * @author ssp5zone
  */
 public class FieldReader {
 	private final static Logger log = LoggerFactory.getLogger(FieldReader.class);
-	protected Field field;
+
+	private static final MethodHandle IS_NULL;
+
+	static {
+		try {
+			IS_NULL = MethodHandles.lookup().findStatic(Objects.class, "isNull",
+					MethodType.methodType(boolean.class, Object.class));
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	protected final Field field;
+
+	// (Object) -> value handles. Where the field cannot be read as that type, say a
+	// long field read as an int, one that fails every read.
+	private final MethodHandle objectGetter;
+	private final MethodHandle intGetter;
+	private final MethodHandle floatGetter;
+	private final MethodHandle doubleGetter;
+	private final MethodHandle longGetter;
+	private final MethodHandle shortGetter;
+	private final MethodHandle byteGetter;
+	private final MethodHandle charGetter;
+	private final MethodHandle booleanGetter;
 
 	public FieldReader(Field field) {
 		this.field = field;
+		MethodHandle getter = unreflect(field);
+		this.objectGetter = asType(getter, Object.class);
+		this.intGetter = asType(getter, int.class);
+		this.floatGetter = asType(getter, float.class);
+		this.doubleGetter = asType(getter, double.class);
+		this.longGetter = asType(getter, long.class);
+		this.shortGetter = asType(getter, short.class);
+		this.byteGetter = asType(getter, byte.class);
+		this.charGetter = asType(getter, char.class);
+		this.booleanGetter = asType(getter, boolean.class);
+	}
+
+	/**
+	 * @return A getter taking the owning object, even for static fields.
+	 */
+	private static MethodHandle unreflect(Field field) {
+		try {
+			field.setAccessible(true);
+			MethodHandle getter = MethodHandles.lookup().unreflectGetter(field);
+			if (Modifier.isStatic(field.getModifiers())) {
+				getter = MethodHandles.dropArguments(getter, 0, Object.class);
+			}
+			return getter;
+		} catch (IllegalAccessException | RuntimeException e) {
+			log.warn("Unable to access the field " + field + ". It would be left blank. The error was: ", e);
+			return null;
+		}
+	}
+
+	private MethodHandle asType(MethodHandle getter, Class<?> type) {
+		if (getter == null) {
+			return unreadable(type);
+		}
+		try {
+			Class<?> fieldType = getter.type().returnType();
+			if (type.isPrimitive() && !fieldType.isPrimitive()) {
+				// A null wrapper is read as 0, as it always has been, and not as a failure
+				MethodHandle unbox = MethodHandles.identity(fieldType).asType(MethodType.methodType(type, fieldType));
+				MethodHandle zero = MethodHandles.dropArguments(MethodHandles.constant(type, zeroOf(type)), 0,
+						fieldType);
+				MethodHandle isNull = IS_NULL.asType(MethodType.methodType(boolean.class, fieldType));
+				getter = MethodHandles.filterReturnValue(getter, MethodHandles.guardWithTest(isNull, zero, unbox));
+			}
+			return getter.asType(MethodType.methodType(type, Object.class));
+		} catch (WrongMethodTypeException e) {
+			return unreadable(type);
+		}
+	}
+
+	private static Object zeroOf(Class<?> type) {
+		// The blank of a char has always been a space
+		return type == char.class ? ' ' : Array.get(Array.newInstance(type, 1), 0);
+	}
+
+	/**
+	 * @return A getter that fails every read, with the one exception for all of
+	 *         them
+	 */
+	private MethodHandle unreadable(Class<?> type) {
+		CellValueException failure = new CellValueException("Unable to read the field as " + type.getSimpleName(),
+				field);
+		MethodHandle thrower = MethodHandles.throwException(type, CellValueException.class).bindTo(failure);
+		return MethodHandles.dropArguments(thrower, 0, Object.class);
+	}
+
+	/**
+	 * Errors and runtime exceptions are propagated as they are, for the writer to
+	 * count the cell along with the others that could not be written.
+	 */
+	private static RuntimeException rethrow(Throwable e) {
+		if (e instanceof Error) {
+			throw (Error) e;
+		}
+		if (e instanceof RuntimeException) {
+			return (RuntimeException) e;
+		}
+		// The getters throw nothing checked
+		return new IllegalStateException(e);
 	}
 
 	/**
@@ -28,90 +146,73 @@ public class FieldReader {
 	 */
 	public Object getObject(Object obj) {
 		try {
-			return field.get(obj);
-		} catch (IllegalArgumentException | IllegalAccessException | NullPointerException e) {
-			log.warn("Unable to read field from the paseed excel object. The error was: ", e);
-			return null;
+			return (Object) objectGetter.invokeExact(obj);
+		} catch (Throwable e) {
+			throw rethrow(e);
 		}
 	}
 
 	public int getInt(Object obj) {
 		try {
-			return field.getInt(obj);
-		} catch (IllegalArgumentException | IllegalAccessException | NullPointerException e) {
-			log.warn("Unable to read field from the paseed excel object. The error was: ", e);
-			;
-			return 0;
+			return (int) intGetter.invokeExact(obj);
+		} catch (Throwable e) {
+			throw rethrow(e);
 		}
 	}
 
 	public float getFloat(Object obj) {
 		try {
-			return field.getFloat(obj);
-		} catch (IllegalArgumentException | IllegalAccessException | NullPointerException e) {
-			log.warn("Unable to read field from the paseed excel object. The error was: ", e);
-			;
-			return 0;
+			return (float) floatGetter.invokeExact(obj);
+		} catch (Throwable e) {
+			throw rethrow(e);
 		}
 	}
 
 	public double getDouble(Object obj) {
 		try {
-			return field.getDouble(obj);
-		} catch (IllegalArgumentException | IllegalAccessException | NullPointerException e) {
-			log.warn("Unable to read field from the paseed excel object. The error was: ", e);
-			;
-			return 0;
+			return (double) doubleGetter.invokeExact(obj);
+		} catch (Throwable e) {
+			throw rethrow(e);
 		}
 	}
 
 	public long getLong(Object obj) {
 		try {
-			return field.getLong(obj);
-		} catch (IllegalArgumentException | IllegalAccessException | NullPointerException e) {
-			log.warn("Unable to read field from the paseed excel object. The error was: ", e);
-			;
-			return 0;
+			return (long) longGetter.invokeExact(obj);
+		} catch (Throwable e) {
+			throw rethrow(e);
 		}
 	}
 
 	public short getShort(Object obj) {
 		try {
-			return field.getShort(obj);
-		} catch (IllegalArgumentException | IllegalAccessException | NullPointerException e) {
-			log.warn("Unable to read field from the paseed excel object. The error was: ", e);
-			;
-			return 0;
+			return (short) shortGetter.invokeExact(obj);
+		} catch (Throwable e) {
+			throw rethrow(e);
 		}
 	}
 
 	public byte getByte(Object obj) {
 		try {
-			return field.getByte(obj);
-		} catch (IllegalArgumentException | IllegalAccessException | NullPointerException e) {
-			log.warn("Unable to read field from the paseed excel object. The error was: ", e);
-			;
-			return 0;
+			return (byte) byteGetter.invokeExact(obj);
+		} catch (Throwable e) {
+			throw rethrow(e);
 		}
 	}
 
 	public char getChar(Object obj) {
 		try {
-			return field.getChar(obj);
-		} catch (IllegalArgumentException | IllegalAccessException | NullPointerException e) {
-			log.warn("Unable to read field from the paseed excel object. The error was: ", e);
-			;
-			return ' ';
+			return (char) charGetter.invokeExact(obj);
+		} catch (Throwable e) {
+			throw rethrow(e);
 		}
 	}
 
 	public boolean getBoolean(Object obj) {
 		try {
-			return field.getBoolean(obj);
-		} catch (IllegalArgumentException | IllegalAccessException | NullPointerException e) {
-			log.warn("Unable to read field from the paseed excel object. The error was: ", e);
-			;
-			return false;
+			return (boolean) booleanGetter.invokeExact(obj);
+		} catch (Throwable e) {
+			throw rethrow(e);
 		}
 	}
 }
@@ -1,6 +1,11 @@
 package org.apache.poi.excel.processor.writer;
 
 import java.lang.reflect.Field;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.function.BiConsumer;
@@ -8,22 +13,17 @@ import java.util.function.BiConsumer;
 import org.apache.poi.excel.ExcelWriter;
 import org.apache.poi.excel.annotation.ExcelCell;
 import org.apache.poi.excel.model.ExcelCellType;
-import org.apache.poi.excel.model.WorkbookContainer;
 import org.apache.poi.excel.processor.writer.atomic.AnnotatedCellWriter;
 import org.apache.poi.excel.processor.writer.atomic.GenericCellWriter;
-import org.apache.poi.ss.usermodel.BorderStyle;
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.CellStyle;
-import org.apache.poi.ss.usermodel.Font;
-import org.apache.poi.ss.usermodel.IndexedColors;
-import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.excel.processor.writer.engine.CellCursor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Creates generators that are used to write individual cells of an Excel file.
  * These generators significantly improve the performance by reducing the
- * generic checks over and again for a specific column. <br>
+ * generic checks over and again for a specific column. The generators write
+ * through a {@link CellCursor}, so they work the same with every engine. <br>
  * <br>
  * Local class, to be used internally.
  *
@@ -32,11 +32,6 @@ import org.slf4j.LoggerFactory;
  */
 public class CellWriterFactory {
 	private final static Logger log = LoggerFactory.getLogger(CellWriterFactory.class);
-	private WorkbookContainer container;
-
-	public CellWriterFactory(WorkbookContainer container) {
-		this.container = container;
-	}
 
 	/**
 	 * Generates a small cell writer block that that can be efficiently used for
@@ -46,9 +41,9 @@ public class CellWriterFactory {
 	 * @param field The field based on which the writer is decided
 	 * @return A lambda function that can be utilized by the caller
 	 */
-	public BiConsumer<Cell, Object> getGenericFieldWriter(Field field) {
+	public BiConsumer<CellCursor, Object> getGenericFieldWriter(Field field) {
 		Class<?> fieldClass = field.getType();
-		GenericCellWriter cellWriter = new GenericCellWriter(field, container);
+		GenericCellWriter cellWriter = new GenericCellWriter(field);
 		if (fieldClass == Integer.class || fieldClass == int.class) {
 			return cellWriter.intWriter;
 		} else if (fieldClass == Short.class || fieldClass == short.class) {
@@ -71,6 +66,16 @@ public class CellWriterFactory {
 			return cellWriter.calendarWriter;
 		} else if (fieldClass == java.sql.Date.class) {
 			return cellWriter.sqlDateWriter;
+		} else if (fieldClass == LocalDate.class) {
+			return cellWriter.localDateWriter;
+		} else if (fieldClass == LocalDateTime.class) {
+			return cellWriter.localDateTimeWriter;
+		} else if (fieldClass == OffsetDateTime.class) {
+			return cellWriter.offsetDateTimeWriter;
+		} else if (fieldClass == ZonedDateTime.class) {
+			return cellWriter.zonedDateTimeWriter;
+		} else if (fieldClass == Instant.class) {
+			return cellWriter.instantWriter;
 		} else {
 			return cellWriter.stringWriter;
 		}
@@ -84,67 +89,51 @@ public class CellWriterFactory {
 	 * @param field The field based on which the writer is decided
 	 * @return A lambda function that can be utilized by the caller
 	 */
-	public BiConsumer<Cell, Object> getAnnotatedFieldWriter(Field field) {
+	public BiConsumer<CellCursor, Object> getAnnotatedFieldWriter(Field field) {
 		if (field.isAnnotationPresent(ExcelCell.class)) {
 			ExcelCellType type = field.getAnnotation(ExcelCell.class).type();
 			if (!type.equals(ExcelCellType.DEFAULT)) {
 				AnnotatedCellWriter cellWriter = new AnnotatedCellWriter(field);
 				switch (type) {
 				case GENERAL:
-					return ((Cell cell, Object obj) -> {
-						String value = "";
-						try {
-							Object attrValue = field.get(obj);
-							if (attrValue != null) {
-								value = attrValue.toString();
-							}
-						} catch (IllegalArgumentException | IllegalAccessException e) {
-							log.warn("Unable to write generic excel cell : " + cell + ". Defaulting to blank.");
-						}
-						cell.setCellValue(value);
-						cell.setCellStyle(container.getStyle(ExcelCellType.GENERAL));
+					return ((CellCursor cell, Object obj) -> {
+						Object attrValue = cellWriter.getObject(obj);
+						cell.setString(attrValue == null ? "" : attrValue.toString(), ExcelCellType.GENERAL);
 					});
 				case INTEGER:
 					cellWriter.initNumericConverter();
-					return ((Cell cell, Object obj) -> {
-						cellWriter.writeNumeric(cell, obj);
-						cell.setCellStyle(container.getStyle(ExcelCellType.INTEGER));
+					return ((CellCursor cell, Object obj) -> {
+						cellWriter.writeNumeric(cell, obj, ExcelCellType.INTEGER);
 					});
 				case DECIMAL:
 					cellWriter.initNumericConverter();
-					return ((Cell cell, Object obj) -> {
-						cellWriter.writeNumeric(cell, obj);
-						cell.setCellStyle(container.getStyle(ExcelCellType.DECIMAL));
+					return ((CellCursor cell, Object obj) -> {
+						cellWriter.writeNumeric(cell, obj, ExcelCellType.DECIMAL);
 					});
 				case PRECISE:
 					cellWriter.initNumericConverter();
-					return ((Cell cell, Object obj) -> {
-						cellWriter.writeNumeric(cell, obj);
-						cell.setCellStyle(container.getStyle(ExcelCellType.PRECISE));
+					return ((CellCursor cell, Object obj) -> {
+						cellWriter.writeNumeric(cell, obj, ExcelCellType.PRECISE);
 					});
 				case CURRENCY:
 					cellWriter.initNumericConverter();
-					return ((Cell cell, Object obj) -> {
-						cellWriter.writeNumeric(cell, obj);
-						cell.setCellStyle(container.getStyle(ExcelCellType.CURRENCY));
+					return ((CellCursor cell, Object obj) -> {
+						cellWriter.writeNumeric(cell, obj, ExcelCellType.CURRENCY);
 					});
 				case DATE:
 					cellWriter.initDateConverter();
-					return ((Cell cell, Object obj) -> {
-						cellWriter.writeDate(cell, obj);
-						cell.setCellStyle(container.getStyle(ExcelCellType.DATE));
+					return ((CellCursor cell, Object obj) -> {
+						cellWriter.writeDate(cell, obj, ExcelCellType.DATE);
 					});
 				case DATETIME:
 					cellWriter.initDateConverter();
-					return ((Cell cell, Object obj) -> {
-						cellWriter.writeDate(cell, obj);
-						cell.setCellStyle(container.getStyle(ExcelCellType.DATETIME));
+					return ((CellCursor cell, Object obj) -> {
+						cellWriter.writeDate(cell, obj, ExcelCellType.DATETIME);
 					});
 				case PERCENT:
 					cellWriter.initNumericConverter();
-					return ((Cell cell, Object obj) -> {
-						cellWriter.writeNumeric(cell, obj);
-						cell.setCellStyle(container.getStyle(ExcelCellType.PERCENT));
+					return ((CellCursor cell, Object obj) -> {
+						cellWriter.writeNumeric(cell, obj, ExcelCellType.PERCENT);
 					});
 				default:
 					break;
@@ -154,29 +143,4 @@ public class CellWriterFactory {
 		// If the annotation or type is missing
 		return this.getGenericFieldWriter(field);
 	}
-
-	/**
-	 * A simple column name writer with custom style
-	 * 
-	 * @return A lambda function that can be utilized by the caller to write column
-	 *         headings
-	 */
-	public BiConsumer<Cell, String> getColumnWriter() {
-		Workbook wb = this.container.getWorkbook();
-
-		Font font = wb.createFont();
-		font.setBold(true);
-		font.setColor(IndexedColors.DARK_BLUE.getIndex());
-
-		CellStyle style = wb.createCellStyle();
-		style.setBorderBottom(BorderStyle.MEDIUM);
-		style.setBottomBorderColor(IndexedColors.BLUE1.getIndex());
-		style.setFont(font);
-
-		return (Cell cell, String header) -> {
-			cell.setCellValue(header);
-			cell.setCellStyle(style);
-		};
-	}
-
 }
@@ -0,0 +1,168 @@
+package org.apache.poi.excel.processor.writer;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+
+import org.apache.poi.excel.model.DelimitedFormat;
+
+/**
+ * Writes the fields of records as delimited text, see {@link DelimitedFormat}.
+ * <br>
+ * <br>
+ * The text is gathered in a buffer of its own and handed to the underlying
+ * writer in large blocks, so it need not be buffered. Fields are copied into
+ * the buffer as they are, with no intermediate strings. <br>
+ * <br>
+ * Not thread safe.
+ *
+ * @author ssp5zone
+ */
+public class DelimitedWriter implements Closeable, Flushable {
+	private final Writer out;
+	private final char delimiter;
+	private final char[] buffer = new char[32 * 1024];
+	private final char[] digits = new char[20];
+	private int position;
+	private boolean first = true;
+
+	/**
+	 * @param out    Where the text goes, closed along with this
+	 * @param format The delimiter to use
+	 */
+	public DelimitedWriter(Writer out, DelimitedFormat format) {
+		this.out = out;
+		this.delimiter = format.getDelimiter();
+	}
+
+	/**
+	 * Writes the next field of the record, quoted if need be.
+	 *
+	 * @param value The text, null for an empty field
+	 * @return This writer
+	 * @throws IOException If the text could not be written
+	 */
+	public DelimitedWriter field(CharSequence value) throws IOException {
+		if (!first) {
+			write(delimiter);
+		}
+		first = false;
+		if (value == null) {
+			return this;
+		}
+		int length = value.length();
+		if (needsQuotes(value, length)) {
+			write('"');
+			for (int i = 0; i < length; i++) {
+				char c = value.charAt(i);
+				if (c == '"') {
+					write('"');
+				}
+				write(c);
+			}
+			write('"');
+		} else {
+			for (int i = 0; i < length; i++) {
+				write(value.charAt(i));
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * Writes the next field of the record as a whole number, without creating a
+	 * string for it.
+	 *
+	 * @param value The number
+	 * @return This writer
+	 * @throws IOException If the text could not be written
+	 */
+	public DelimitedWriter field(long value) throws IOException {
+		if (!first) {
+			write(delimiter);
+		}
+		first = false;
+		if (value == Long.MIN_VALUE) {
+			// Has no positive counterpart
+			for (char c : Long.toString(value).toCharArray()) {
+				write(c);
+			}
+			return this;
+		}
+		if (value < 0) {
+			write('-');
+			value = -value;
+		}
+		int length = 0;
+		do {
+			digits[length++] = (char) ('0' + value % 10);
+			value /= 10;
+		} while (value > 0);
+		while (length > 0) {
+			write(digits[--length]);
+		}
+		return this;
+	}
+
+	/**
+	 * Writes empty fields.
+	 *
+	 * @param count How many
+	 * @return This writer
+	 * @throws IOException If the text could not be written
+	 */
+	public DelimitedWriter skip(int count) throws IOException {
+		for (int i = 0; i < count; i++) {
+			field(null);
+		}
+		return this;
+	}
+
+	/**
+	 * Ends the record, the next field starts a new one.
+	 *
+	 * @return This writer
+	 * @throws IOException If the text could not be written
+	 */
+	public DelimitedWriter endRecord() throws IOException {
+		write('\r');
+		write('\n');
+		first = true;
+		return this;
+	}
+
+	private boolean needsQuotes(CharSequence value, int length) {
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+			if (c == delimiter || c == '"' || c == '\n' || c == '\r') {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void write(char c) throws IOException {
+		if (position == buffer.length) {
+			out.write(buffer, 0, position);
+			position = 0;
+		}
+		buffer[position++] = c;
+	}
+
+	@Override
+	public void flush() throws IOException {
+		out.write(buffer, 0, position);
+		position = 0;
+		out.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			flush();
+		} finally {
+			out.close();
+		}
+	}
+}
@@ -0,0 +1,42 @@
+package org.apache.poi.excel.processor.writer;
+
+import org.apache.poi.excel.ExcelWriter;
+import org.apache.poi.excel.processor.generator.RowWriterProcessor;
+import org.apache.poi.excel.processor.writer.engine.CellCursor;
+
+/**
+ * A plain Java writer for the rows of one POJO class, generated at build time
+ * by the {@link RowWriterProcessor}. <br>
+ * <br>
+ * The generated class lives next to the POJO and is named
+ * <code>&lt;Class&gt;_ExcelRowWriter</code>. When one is on the classpath the
+ * {@link ExcelWriter} uses it instead of the reflective
+ * {@link CellWriterFactory} writers. Else, nothing changes.
+ *
+ * @param <T> The POJO class
+ * @author ssp5zone
+ * @see RowWriterProcessor
+ */
+public interface RowWriter<T> {
+
+	/**
+	 * The suffix added to the binary name of the POJO class to get the name of
+	 * its generated writer.
+	 */
+	public static final String SUFFIX = "_ExcelRowWriter";
+
+	/**
+	 * @return The names of the fields written, in column order. Used to verify
+	 *         that the writer still matches the class it was generated for.
+	 */
+	public String[] getColumns();
+
+	/**
+	 * Writes one column of a row into the current cell of the cursor.
+	 * 
+	 * @param cursor The cursor, already positioned on the column
+	 * @param row    The POJO
+	 * @param column The column number, as in {@link #getColumns()}
+	 */
+	public void write(CellCursor cursor, T row, int column);
+}
@@ -1,78 +1,141 @@
 package org.apache.poi.excel.processor.writer.atomic;
 
 import java.lang.reflect.Field;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.time.ZonedDateTime;
 import java.util.Date;
 import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
 
-import org.apache.commons.lang.ObjectUtils;
+import org.apache.poi.excel.model.CellValueException;
+import org.apache.poi.excel.model.ExcelCellType;
 import org.apache.poi.excel.processor.reader.FieldReader;
+import org.apache.poi.excel.processor.writer.engine.CellCursor;
+import org.apache.poi.excel.utility.DateParser;
 import org.apache.poi.excel.utility.DateUtil;
-import org.apache.poi.ss.usermodel.Cell;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.apache.poi.excel.utility.NumberUtil;
 
 public class AnnotatedCellWriter extends FieldReader {
-	private final static Logger log = LoggerFactory.getLogger(AnnotatedCellWriter.class);
-	private Function<Object, Object> numericConverter;
+	private ToDoubleFunction<Object> numericConverter;
 	private Function<Object, Date> dateConverter;
+	private ToDoubleFunction<Object> serialConverter;
 
 	public AnnotatedCellWriter(Field field) {
 		super(field);
 	}
 
 	public void initDateConverter() {
+		// The java.time types are written as Excel serial numbers straight away
 		if (field.getType() == Date.class) {
 			dateConverter = (Object obj) -> (Date) this.getObject(obj);
 		} else if (field.getType() == LocalDate.class) {
-			dateConverter = (Object obj) -> DateUtil.asDate((LocalDate) this.getObject(obj));
+			serialConverter = (Object value) -> DateUtil.toSerial((LocalDate) value);
 		} else if (field.getType() == LocalDateTime.class) {
-			dateConverter = (Object obj) -> DateUtil.asDate((LocalDateTime) this.getObject(obj));
+			serialConverter = (Object value) -> DateUtil.toSerial((LocalDateTime) value);
 		} else if (field.getType() == OffsetDateTime.class) {
-			dateConverter = (Object obj) -> DateUtil.asDate((OffsetDateTime) this.getObject(obj));
+			serialConverter = (Object value) -> DateUtil.toSerial((OffsetDateTime) value);
 		} else if (field.getType() == ZonedDateTime.class) {
-			dateConverter = (Object obj) -> DateUtil.asDate((ZonedDateTime) this.getObject(obj));
+			serialConverter = (Object value) -> DateUtil.toSerial((ZonedDateTime) value);
+		} else if (field.getType() == Instant.class) {
+			serialConverter = (Object value) -> DateUtil.toSerial((Instant) value);
 		} else {
-			dateConverter = (Object obj) -> DateUtil
-					.parse(ObjectUtils.defaultIfNull(this.getObject(obj), "").toString());
+			// One parser per column, so that it learns the format of the column
+			DateParser parser = new DateParser();
+			dateConverter = (Object obj) -> parseDate(parser, this.getObject(obj));
 		}
 	}
 
 	public void initNumericConverter() {
-		if (field.getType() == int.class || field.getType() == Integer.class) {
-			numericConverter = (Object obj) -> this.getInt(obj);
-		} else if (field.getType() == float.class || field.getType() == Float.class) {
-			numericConverter = (Object obj) -> this.getFloat(obj);
-		} else if (field.getType() == double.class || field.getType() == Double.class) {
-			numericConverter = (Object obj) -> this.getDouble(obj);
-		} else if (field.getType() == long.class || field.getType() == Long.class) {
-			numericConverter = (Object obj) -> this.getLong(obj);
+		// Primitives are read and written as they are. Wrappers and everything else go
+		// through getObject, so that a null is written blank and not 0.
+		if (field.getType() == int.class) {
+			numericConverter = this::getInt;
+		} else if (field.getType() == long.class) {
+			numericConverter = this::getLong;
+		} else if (field.getType() == double.class) {
+			numericConverter = this::getDouble;
+		} else if (field.getType() == float.class) {
+			numericConverter = (Object obj) -> NumberUtil.toDouble(this.getFloat(obj));
+		} else if (field.getType() == short.class) {
+			numericConverter = this::getShort;
+		} else if (field.getType() == byte.class) {
+			numericConverter = this::getByte;
 		} else {
-			numericConverter = (Object obj) -> this.getObject(obj);
+			numericConverter = null;
 		}
 	}
 
-	public void writeNumeric(Cell cell, Object obj) {
-		Object genericObject = numericConverter.apply(obj);
-		if (genericObject == null) {
-			log.debug("An Excel of numeric cell family is null. Not writing anything. Cell: " + cell);
+	public void writeNumeric(CellCursor cell, Object obj, ExcelCellType type) {
+		if (numericConverter != null) {
+			cell.setNumber(numericConverter.applyAsDouble(obj), type);
+		} else {
+			writeNumber(cell, this.getObject(obj), type);
+		}
+	}
+
+	/**
+	 * Writes a value of any type to a cell of the numeric family. Numbers are
+	 * written as they are, anything else is parsed from its text.
+	 * 
+	 * @param cell  The cell
+	 * @param value The value, blank if null
+	 * @param type  The numeric type
+	 * @throws CellValueException If the value is not a number
+	 */
+	public static void writeNumber(CellCursor cell, Object value, ExcelCellType type) {
+		if (value == null) {
+			cell.setBlank(type);
+			return;
+		}
+		if (value instanceof Number) {
+			cell.setNumber(NumberUtil.toDouble(value), type);
+			return;
+		}
+		// Checked first, a bad column would otherwise throw a NumberFormatException a row
+		String text = value.toString();
+		if (!NumberUtil.isNumber(text)) {
+			throw new CellValueException("Not a number", value);
+		}
+		cell.setNumber(Double.parseDouble(text), type);
+	}
+
+	/**
+	 * Reads a date from the text of a value of any type.
+	 * 
+	 * @param parser The parser of the column
+	 * @param value  The value
+	 * @return The date, null if the value is null or blank
+	 * @throws CellValueException If the text is no date
+	 */
+	public static Date parseDate(DateParser parser, Object value) {
+		if (value == null) {
+			return null;
+		}
+		String text = value.toString();
+		if (text.trim().isEmpty()) {
+			return null;
 		}
-		try {
-			cell.setCellValue(Double.parseDouble(genericObject.toString()));
-		} catch (Exception cce) {
-			log.debug("An Excel cell is not recognized as Integer. Not writing anything in this cell: " + cell);
+		Date date = parser.tryParse(text);
+		if (date == null) {
+			throw new CellValueException("Not a date", value);
 		}
+		return date;
 	}
 
-	public void writeDate(Cell cell, Object obj) {
-		try {
-			Date value = dateConverter.apply(obj);
-			cell.setCellValue(value);
-		} catch (IllegalArgumentException e) {
-			log.warn("Unable to write Date to an Excel cell : " + cell + ". Defaulting to blank.");
+	public void writeDate(CellCursor cell, Object obj, ExcelCellType type) {
+		if (serialConverter != null) {
+			Object value = this.getObject(obj);
+			if (value == null) {
+				cell.setBlank(type);
+			} else {
+				cell.setNumber(serialConverter.applyAsDouble(value), type);
+			}
+			return;
 		}
+		// A text that is no date fails the cell, for the writer to count
+		cell.setDate(dateConverter.apply(obj), type);
 	}
 }
@@ -0,0 +1,97 @@
+package org.apache.poi.excel.processor.writer.atomic;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.util.Date;
+
+import org.apache.poi.excel.model.ExcelCellType;
+import org.apache.poi.excel.processor.writer.RowWriter;
+import org.apache.poi.excel.processor.writer.engine.CellCursor;
+import org.apache.poi.excel.utility.DateParser;
+import org.apache.poi.excel.utility.DateUtil;
+import org.apache.poi.excel.utility.NumberUtil;
+
+/**
+ * The cell conversions used by the generated {@link RowWriter}s. They mirror
+ * {@link AnnotatedCellWriter}, but the overload is picked from the static type
+ * of the field at compile time. <br>
+ * <br>
+ * Local class, to be used by the generated code only.
+ *
+ * @author ssp5zone
+ */
+public final class GeneratedCellWriter {
+	private GeneratedCellWriter() {
+	}
+
+	public static void writeNumeric(CellCursor cell, int value, ExcelCellType type) {
+		cell.setNumber(value, type);
+	}
+
+	public static void writeNumeric(CellCursor cell, long value, ExcelCellType type) {
+		cell.setNumber(value, type);
+	}
+
+	public static void writeNumeric(CellCursor cell, double value, ExcelCellType type) {
+		cell.setNumber(value, type);
+	}
+
+	public static void writeNumeric(CellCursor cell, float value, ExcelCellType type) {
+		cell.setNumber(NumberUtil.toDouble(value), type);
+	}
+
+	public static void writeNumeric(CellCursor cell, Object value, ExcelCellType type) {
+		AnnotatedCellWriter.writeNumber(cell, value, type);
+	}
+
+	public static void writeDate(CellCursor cell, Date value, ExcelCellType type) {
+		cell.setDate(value, type);
+	}
+
+	public static void writeDate(CellCursor cell, LocalDate value, ExcelCellType type) {
+		if (value == null) {
+			cell.setBlank(type);
+		} else {
+			cell.setNumber(DateUtil.toSerial(value), type);
+		}
+	}
+
+	public static void writeDate(CellCursor cell, LocalDateTime value, ExcelCellType type) {
+		if (value == null) {
+			cell.setBlank(type);
+		} else {
+			cell.setNumber(DateUtil.toSerial(value), type);
+		}
+	}
+
+	public static void writeDate(CellCursor cell, OffsetDateTime value, ExcelCellType type) {
+		if (value == null) {
+			cell.setBlank(type);
+		} else {
+			cell.setNumber(DateUtil.toSerial(value), type);
+		}
+	}
+
+	public static void writeDate(CellCursor cell, ZonedDateTime value, ExcelCellType type) {
+		if (value == null) {
+			cell.setBlank(type);
+		} else {
+			cell.setNumber(DateUtil.toSerial(value), type);
+		}
+	}
+
+	public static void writeDate(CellCursor cell, Instant value, ExcelCellType type) {
+		if (value == null) {
+			cell.setBlank(type);
+		} else {
+			cell.setNumber(DateUtil.toSerial(value), type);
+		}
+	}
+
+	public static void writeDate(CellCursor cell, DateParser parser, Object value, ExcelCellType type) {
+		cell.setDate(AnnotatedCellWriter.parseDate(parser, value), type);
+	}
+}
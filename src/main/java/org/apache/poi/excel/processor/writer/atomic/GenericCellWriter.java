@@ -1,115 +1,120 @@
 package org.apache.poi.excel.processor.writer.atomic;
 
 import java.lang.reflect.Field;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.function.BiConsumer;
 
 import org.apache.poi.excel.model.ExcelCellType;
-import org.apache.poi.excel.model.WorkbookContainer;
 import org.apache.poi.excel.processor.reader.FieldReader;
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.CellType;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.apache.poi.excel.processor.writer.engine.CellCursor;
+import org.apache.poi.excel.utility.DateUtil;
 
 public class GenericCellWriter extends FieldReader {
-	private final static Logger log = LoggerFactory.getLogger(GenericCellWriter.class);
-	private WorkbookContainer container;
-
-	public GenericCellWriter(Field field, WorkbookContainer container) {
+	public GenericCellWriter(Field field) {
 		super(field);
-		this.container = container;
 	}
 
-	public BiConsumer<Cell, Object> intWriter = (Cell cell, Object obj) -> {
-		cell.setCellValue(this.getInt(obj));
-		cell.setCellStyle(container.getStyle(ExcelCellType.INTEGER));
+	public BiConsumer<CellCursor, Object> intWriter = (CellCursor cell, Object obj) -> {
+		cell.setNumber(this.getInt(obj), ExcelCellType.INTEGER);
+	};
+
+	public BiConsumer<CellCursor, Object> shortWriter = (CellCursor cell, Object obj) -> {
+		cell.setNumber(this.getShort(obj), ExcelCellType.INTEGER);
+	};
+
+	public BiConsumer<CellCursor, Object> longWriter = (CellCursor cell, Object obj) -> {
+		cell.setNumber(this.getLong(obj), ExcelCellType.INTEGER);
+	};
+
+	public BiConsumer<CellCursor, Object> doubleWriter = (CellCursor cell, Object obj) -> {
+		cell.setNumber(this.getDouble(obj), ExcelCellType.PRECISE);
+	};
+
+	public BiConsumer<CellCursor, Object> floatWriter = (CellCursor cell, Object obj) -> {
+		cell.setNumber(this.getFloat(obj), ExcelCellType.DECIMAL);
 	};
 
-	public BiConsumer<Cell, Object> shortWriter = (Cell cell, Object obj) -> {
-		cell.setCellValue(this.getShort(obj));
-		cell.setCellStyle(container.getStyle(ExcelCellType.INTEGER));
+	public BiConsumer<CellCursor, Object> byteWriter = (CellCursor cell, Object obj) -> {
+		cell.setNumber(this.getByte(obj), ExcelCellType.INTEGER);
 	};
 
-	public BiConsumer<Cell, Object> longWriter = (Cell cell, Object obj) -> {
-		cell.setCellValue(this.getLong(obj));
-		cell.setCellStyle(container.getStyle(ExcelCellType.INTEGER));
+	public BiConsumer<CellCursor, Object> charWriter = (CellCursor cell, Object obj) -> {
+		cell.setString(String.valueOf(this.getChar(obj)), null);
 	};
 
-	public BiConsumer<Cell, Object> doubleWriter = (Cell cell, Object obj) -> {
-		cell.setCellValue(this.getDouble(obj));
-		cell.setCellStyle(container.getStyle(ExcelCellType.PRECISE));
+	public BiConsumer<CellCursor, Object> booleanWriter = (CellCursor cell, Object obj) -> {
+		cell.setBoolean(this.getBoolean(obj));
 	};
 
-	public BiConsumer<Cell, Object> floatWriter = (Cell cell, Object obj) -> {
-		cell.setCellValue(this.getFloat(obj));
-		cell.setCellStyle(container.getStyle(ExcelCellType.DECIMAL));
+	public BiConsumer<CellCursor, Object> utilDateWriter = (CellCursor cell, Object obj) -> {
+		cell.setDate((Date) this.getObject(obj), ExcelCellType.DATE);
 	};
 
-	public BiConsumer<Cell, Object> byteWriter = (Cell cell, Object obj) -> {
-		cell.setCellValue(this.getByte(obj));
-		cell.setCellStyle(container.getStyle(ExcelCellType.INTEGER));
+	public BiConsumer<CellCursor, Object> sqlDateWriter = (CellCursor cell, Object obj) -> {
+		java.sql.Date value = (java.sql.Date) this.getObject(obj);
+		cell.setDate(value == null ? null : new Date(value.getTime()), ExcelCellType.DATE);
 	};
 
-	@SuppressWarnings("deprecation")
-	public BiConsumer<Cell, Object> charWriter = (Cell cell, Object obj) -> {
-		cell.setCellValue(String.valueOf(this.getChar(obj)));
-		cell.setCellType(CellType.STRING);
+	public BiConsumer<CellCursor, Object> calendarWriter = (CellCursor cell, Object obj) -> {
+		Calendar value = (Calendar) this.getObject(obj);
+		cell.setDate(value == null ? null : value.getTime(), ExcelCellType.DATETIME);
 	};
 
-	@SuppressWarnings("deprecation")
-	public BiConsumer<Cell, Object> booleanWriter = (Cell cell, Object obj) -> {
-		cell.setCellValue(this.getBoolean(obj));
-		cell.setCellType(CellType.BOOLEAN);
+	public BiConsumer<CellCursor, Object> localDateWriter = (CellCursor cell, Object obj) -> {
+		LocalDate value = (LocalDate) this.getObject(obj);
+		if (value == null) {
+			cell.setBlank(ExcelCellType.DATE);
+		} else {
+			cell.setNumber(DateUtil.toSerial(value), ExcelCellType.DATE);
+		}
 	};
 
-	@SuppressWarnings("deprecation")
-	public BiConsumer<Cell, Object> utilDateWriter = (Cell cell, Object obj) -> {
-		Date value = null;
-		try {
-			value = (Date) field.get(obj);
+	public BiConsumer<CellCursor, Object> localDateTimeWriter = (CellCursor cell, Object obj) -> {
+		LocalDateTime value = (LocalDateTime) this.getObject(obj);
+		if (value == null) {
+			cell.setBlank(ExcelCellType.DATETIME);
+		} else {
+			cell.setNumber(DateUtil.toSerial(value), ExcelCellType.DATETIME);
+		}
+	};
 
-		} catch (IllegalArgumentException | IllegalAccessException | NullPointerException | ClassCastException e) {
-			log.warn("Unable to write cell : " + cell + ". Defaulting to ERROR.");
-			cell.setCellType(CellType.ERROR);
+	public BiConsumer<CellCursor, Object> offsetDateTimeWriter = (CellCursor cell, Object obj) -> {
+		OffsetDateTime value = (OffsetDateTime) this.getObject(obj);
+		if (value == null) {
+			cell.setBlank(ExcelCellType.DATETIME);
+		} else {
+			cell.setNumber(DateUtil.toSerial(value), ExcelCellType.DATETIME);
 		}
-		cell.setCellValue(value);
-		cell.setCellStyle(container.getStyle(ExcelCellType.DATE));
-	};
-
-	@SuppressWarnings("deprecation")
-	public BiConsumer<Cell, Object> sqlDateWriter = (Cell cell, Object obj) -> {
-		Date value = null;
-		try {
-			value = new Date(((java.sql.Date) field.get(obj)).getTime());
-			cell.setCellStyle(container.getStyle(ExcelCellType.DATE));
-		} catch (IllegalArgumentException | IllegalAccessException | NullPointerException | ClassCastException e) {
-			log.warn("Unable to write cell : " + cell + ". Defaulting to ERROR.");
-			cell.setCellType(CellType.ERROR);
+	};
+
+	public BiConsumer<CellCursor, Object> zonedDateTimeWriter = (CellCursor cell, Object obj) -> {
+		ZonedDateTime value = (ZonedDateTime) this.getObject(obj);
+		if (value == null) {
+			cell.setBlank(ExcelCellType.DATETIME);
+		} else {
+			cell.setNumber(DateUtil.toSerial(value), ExcelCellType.DATETIME);
 		}
-		cell.setCellValue(value);
-	};
-
-	@SuppressWarnings("deprecation")
-	public BiConsumer<Cell, Object> calendarWriter = (Cell cell, Object obj) -> {
-		Date value = null;
-		try {
-			value = ((Calendar) field.get(obj)).getTime();
-			cell.setCellStyle(container.getStyle(ExcelCellType.DATETIME));
-		} catch (IllegalArgumentException | IllegalAccessException | NullPointerException | ClassCastException e) {
-			log.warn("Unable to write cell : " + cell + ". Defaulting to ERROR.");
-			cell.setCellType(CellType.ERROR);
+	};
+
+	public BiConsumer<CellCursor, Object> instantWriter = (CellCursor cell, Object obj) -> {
+		Instant value = (Instant) this.getObject(obj);
+		if (value == null) {
+			cell.setBlank(ExcelCellType.DATETIME);
+		} else {
+			cell.setNumber(DateUtil.toSerial(value), ExcelCellType.DATETIME);
 		}
-		cell.setCellValue(value);
 	};
 
-	@SuppressWarnings("deprecation")
-	public BiConsumer<Cell, Object> stringWriter = (Cell cell, Object obj) -> {
+	public BiConsumer<CellCursor, Object> stringWriter = (CellCursor cell, Object obj) -> {
 		obj = this.getObject(obj);
 		if (obj != null) {
-			cell.setCellValue(obj.toString());
-			cell.setCellType(CellType.STRING);
+			cell.setString(obj.toString(), null);
 		}
 	};
 }
@@ -0,0 +1,59 @@
+package org.apache.poi.excel.processor.writer.engine;
+
+import java.util.Date;
+
+import org.apache.poi.excel.model.ExcelCellType;
+import org.apache.poi.excel.processor.writer.CellWriterFactory;
+
+/**
+ * The cell currently being written. <br>
+ * <br>
+ * A cursor is re-used for every cell of a sheet, so the writers created by the
+ * {@link CellWriterFactory} never deal with any engine specific cell objects.
+ * The row and column are positioned by the caller before a writer is invoked.
+ * <br>
+ * <br>
+ * Local class, to be used internally.
+ *
+ * @author ssp5zone
+ * @see SheetEngine
+ */
+public interface CellCursor {
+
+	/**
+	 * Move to a column of the current row.
+	 * 
+	 * @param column 0 based column index
+	 */
+	void setColumn(int column);
+
+	/**
+	 * @param value The number to write
+	 * @param type  The format of the cell
+	 */
+	void setNumber(double value, ExcelCellType type);
+
+	/**
+	 * @param value The text to write, null for a blank cell
+	 * @param type  The format of the cell, null for no format at all
+	 */
+	void setString(String value, ExcelCellType type);
+
+	/**
+	 * @param value The boolean to write
+	 */
+	void setBoolean(boolean value);
+
+	/**
+	 * @param value The date to write, null for a blank cell
+	 * @param type  The format of the cell
+	 */
+	void setDate(Date value, ExcelCellType type);
+
+	/**
+	 * Leave the cell empty but formatted.
+	 * 
+	 * @param type The format of the cell
+	 */
+	void setBlank(ExcelCellType type);
+}
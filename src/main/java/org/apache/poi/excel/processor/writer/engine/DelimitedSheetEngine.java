@@ -0,0 +1,325 @@
+package org.apache.poi.excel.processor.writer.engine;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+import org.apache.poi.excel.model.ConditionSchema;
+import org.apache.poi.excel.model.ExcelCellType;
+import org.apache.poi.excel.model.StylePool;
+import org.apache.poi.excel.processor.writer.DelimitedWriter;
+import org.apache.poi.ss.usermodel.BuiltinFormats;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.NumberToTextConverter;
+import org.apache.poi.ss.util.WorkbookUtil;
+
+/**
+ * A sheet of the {@link DelimitedWorkbookEngine}. It is its own
+ * {@link CellCursor}, so a cell goes straight into the text buffer. <br>
+ * <br>
+ * The column headers make the first line, and every row a line after it. The
+ * heading, widths, panes, filters and conditions have no place in plain text
+ * and are left out. <br>
+ * <br>
+ * Numbers and dates are written as the xlsx would show them, in the format of
+ * their {@link ExcelCellType}. Numbers of the General type are written in
+ * full.
+ *
+ * @author ssp5zone
+ */
+public class DelimitedSheetEngine implements SheetEngine, CellCursor {
+
+	private final static short[] formatIndexes = new short[ExcelCellType.values().length];
+	static {
+		for (ExcelCellType type : ExcelCellType.values()) {
+			formatIndexes[type.ordinal()] = (short) BuiltinFormats.getBuiltinFormat(type.getFormat());
+		}
+	}
+
+	// The largest whole number a double holds exactly
+	private final static double EXACT_LIMIT = 1e15;
+
+	// Same as the reader's converter, US style like the formats themselves
+	private final DataFormatter formatter = new DataFormatter(Locale.US);
+
+	private final DelimitedWorkbookEngine engine;
+	private final int index;
+	private String name;
+
+	// Held back until the text is started
+	private List<String> headers;
+
+	// The number formats of the columns with a look of their own, by type slot
+	private String[][] columnFormats;
+
+	private DelimitedWriter out;
+	private File spool;
+	// The file of the sheet, when writing into a directory
+	private File target;
+	private boolean finished;
+
+	// The fields written of the current row, and the one about to be
+	private int written;
+	private int column;
+
+	DelimitedSheetEngine(DelimitedWorkbookEngine engine, int index) {
+		this.engine = engine;
+		this.index = index;
+		this.name = "Sheet" + index;
+	}
+
+	File createSpool() throws IOException {
+		this.spool = DelimitedWorkbookEngine.createSpool();
+		return this.spool;
+	}
+
+	File getSpool() {
+		return this.spool;
+	}
+
+	void setTarget(File target) {
+		this.target = target;
+	}
+
+	@Override
+	public int getIndex() {
+		return this.index;
+	}
+
+	@Override
+	public String getName() {
+		return this.name;
+	}
+
+	@Override
+	public void setName(String name) {
+		WorkbookUtil.validateSheetName(name);
+		if (engine.isNameTaken(name, this)) {
+			throw new IllegalArgumentException("The workbook already contains a sheet named '" + name + "'");
+		}
+		this.name = name;
+	}
+
+	@Override
+	public void writeHeading(String heading, String subHeading) {
+		// A heading would be read as data by whoever parses the text
+	}
+
+	@Override
+	public void writeColumns(int rowIndex, List<String> headers) {
+		this.headers = new ArrayList<String>(headers);
+	}
+
+	@Override
+	public void setColumnStyles(int[][] styles) {
+		// Only the formats matter to plain text
+		this.columnFormats = new String[styles.length][];
+		for (int i = 0; i < styles.length; i++) {
+			if (styles[i] != null) {
+				columnFormats[i] = new String[styles[i].length];
+				for (int slot = 0; slot < styles[i].length; slot++) {
+					columnFormats[i][slot] = StylePool.get(styles[i][slot]).getFormat();
+				}
+			}
+		}
+	}
+
+	@Override
+	public void setColumnWidth(int column, int width) {
+		// Plain text has no widths
+	}
+
+	@Override
+	public void freezeRows(int rows) {
+		// Nor panes
+	}
+
+	@Override
+	public CellCursor startRow(int rowIndex) {
+		try {
+			if (out == null) {
+				open();
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		written = 0;
+		column = 0;
+		return this;
+	}
+
+	@Override
+	public void endRow() {
+		try {
+			// Every line has the same fields, even if the last cells failed
+			if (headers != null && written < headers.size()) {
+				out.skip(headers.size() - written);
+			}
+			out.endRecord();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public void autoSizeColumns(int columns) {
+		// Nothing to size
+	}
+
+	@Override
+	public void setAutoFilter(int rowIndex, int lastColumn) {
+		// Nor to filter
+	}
+
+	@Override
+	public void addCondition(int firstRow, int lastRow, ConditionSchema condition) {
+		// Nor to highlight
+	}
+
+	@Override
+	public void finish() {
+		if (finished) {
+			return;
+		}
+		try {
+			if (out == null) {
+				open();
+			}
+			out.close();
+			engine.release(this);
+			finished = true;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Closes and deletes the spool file, if any. The file of a sheet that did
+	 * not finish, say of a cancelled write, is deleted as well.
+	 */
+	void dispose() {
+		if (out != null && !finished) {
+			try {
+				out.close();
+			} catch (IOException e) {
+				// Going to be deleted anyway
+			}
+		}
+		NativeWorkbookEngine.delete(spool);
+		if (!finished) {
+			NativeWorkbookEngine.delete(target);
+		}
+	}
+
+	/**
+	 * Starts the text and writes the headers that were held back.
+	 */
+	private void open() throws IOException {
+		out = engine.open(this);
+		if (headers != null) {
+			for (String header : headers) {
+				out.field(header);
+			}
+			out.endRecord();
+		}
+	}
+
+	@Override
+	public void setColumn(int column) {
+		this.column = column;
+	}
+
+	/**
+	 * Moves the text to the current column, with empty fields for any cells
+	 * that were not written.
+	 */
+	private DelimitedWriter field() throws IOException {
+		out.skip(column - written);
+		written = column + 1;
+		return out;
+	}
+
+	/**
+	 * @param type The type of the cell
+	 * @return The format the current column has in place of the one of the
+	 *         type, null if none
+	 */
+	private String getOwnFormat(ExcelCellType type) {
+		String[] formats = columnFormats == null || column >= columnFormats.length ? null : columnFormats[column];
+		if (formats == null) {
+			return null;
+		}
+		String format = formats[StylePool.slotOf(type)];
+		return type != null && format.equals(type.getFormat()) ? null : format;
+	}
+
+	@Override
+	public void setNumber(double value, ExcelCellType type) {
+		try {
+			String format = getOwnFormat(type);
+			if (Double.isNaN(value) || Double.isInfinite(value)) {
+				// As the xlsx engines write them
+				field().field("#NUM!");
+			} else if (format != null) {
+				field().field(format.equals("") || format.equals("General") ? NumberToTextConverter.toText(value)
+						: formatter.formatRawCellContents(value, BuiltinFormats.getBuiltinFormat(format), format));
+			} else if (type == ExcelCellType.INTEGER && value == Math.rint(value) && Math.abs(value) < EXACT_LIMIT) {
+				// By far the most common, done without any strings
+				field().field((long) value);
+			} else if (type == null || type == ExcelCellType.GENERAL || type == ExcelCellType.DEFAULT) {
+				field().field(NumberToTextConverter.toText(value));
+			} else {
+				field().field(formatter.formatRawCellContents(value, formatIndexes[type.ordinal()], type.getFormat()));
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public void setString(String value, ExcelCellType type) {
+		try {
+			field().field(value);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public void setBoolean(boolean value) {
+		try {
+			field().field(value ? "TRUE" : "FALSE");
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public void setDate(Date value, ExcelCellType type) {
+		if (value == null) {
+			setBlank(type);
+		} else {
+			// Through the serial, so the text is the same as of the xlsx engines
+			setNumber(DateUtil.getExcelDate(value), type);
+		}
+	}
+
+	@Override
+	public void setBlank(ExcelCellType type) {
+		try {
+			field().field(null);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return name + "!" + column;
+	}
+}
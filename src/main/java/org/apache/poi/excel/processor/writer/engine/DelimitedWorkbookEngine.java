@@ -0,0 +1,185 @@
+package org.apache.poi.excel.processor.writer.engine;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.poi.excel.model.DelimitedFormat;
+import org.apache.poi.excel.processor.writer.DelimitedWriter;
+import org.apache.poi.util.TempFile;
+
+/**
+ * A workbook engine that writes each sheet as delimited text rather than a
+ * workbook, for consumers that never open Excel. <br>
+ * <br>
+ * The sheets go either into a zip, one entry per sheet, or into a file each in
+ * a directory. Like the {@link NativeWorkbookEngine}, a sheet streams straight
+ * into the zip when no other sheet is doing so, and is spooled to a temp file
+ * otherwise. As the entries are read in order, only the sheet next in line may
+ * stream, so the zip has them in the order of the sheets.
+ *
+ * @author ssp5zone
+ */
+public class DelimitedWorkbookEngine implements WorkbookEngine {
+
+	private final DelimitedFormat format;
+
+	// One of the two, the other is null
+	private final ZipOutputStream zip;
+	private final File directory;
+
+	private final List<DelimitedSheetEngine> sheets = new ArrayList<DelimitedSheetEngine>();
+
+	// The sheet currently streaming into the zip, if any
+	private DelimitedSheetEngine entryOwner;
+
+	// The sheets streamed into the zip so far, all the first ones
+	private int entries;
+
+	/**
+	 * Writes a zip of the sheets.
+	 *
+	 * @param out    Where the zip gets written
+	 * @param format CSV or TSV
+	 */
+	public DelimitedWorkbookEngine(OutputStream out, DelimitedFormat format) {
+		this.format = format;
+		this.zip = new ZipOutputStream(out);
+		this.directory = null;
+	}
+
+	/**
+	 * Writes a file per sheet, named after the sheet. Existing files are
+	 * replaced.
+	 *
+	 * @param directory Where the files go
+	 * @param format    CSV or TSV
+	 */
+	public DelimitedWorkbookEngine(File directory, DelimitedFormat format) {
+		this.format = format;
+		this.zip = null;
+		this.directory = directory;
+	}
+
+	DelimitedFormat getFormat() {
+		return this.format;
+	}
+
+	@Override
+	public boolean isParallel() {
+		return true;
+	}
+
+	@Override
+	public SheetEngine createSheet() {
+		DelimitedSheetEngine sheet = new DelimitedSheetEngine(this, sheets.size());
+		sheets.add(sheet);
+		return sheet;
+	}
+
+	/**
+	 * @return The files written, one per sheet in their order. Empty when
+	 *         writing a zip.
+	 */
+	public List<File> getFiles() {
+		List<File> files = new ArrayList<File>();
+		if (directory != null) {
+			for (DelimitedSheetEngine sheet : sheets) {
+				files.add(new File(directory, format.toFileName(sheet.getName())));
+			}
+		}
+		return files;
+	}
+
+	/**
+	 * Opens the text of a sheet, into its file, the zip or else a spool file.
+	 *
+	 * @param sheet The sheet that is ready to write its rows
+	 * @return The writer, to be closed by the sheet once done
+	 * @throws IOException If the text could not be opened
+	 */
+	synchronized DelimitedWriter open(DelimitedSheetEngine sheet) throws IOException {
+		OutputStream out;
+		if (directory != null) {
+			File file = new File(directory, format.toFileName(sheet.getName()));
+			out = new FileOutputStream(file);
+			sheet.setTarget(file);
+		} else if (entryOwner == null && sheet.getIndex() == entries) {
+			zip.putNextEntry(new ZipEntry(format.toFileName(sheet.getName())));
+			entryOwner = sheet;
+			// The sheet closes its writer, which must not close the zip
+			out = new FilterOutputStream(zip) {
+				@Override
+				public void write(byte[] b, int off, int len) throws IOException {
+					zip.write(b, off, len);
+				}
+
+				@Override
+				public void close() throws IOException {
+					flush();
+				}
+			};
+		} else {
+			out = new FileOutputStream(sheet.createSpool());
+		}
+		return new DelimitedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), format);
+	}
+
+	/**
+	 * Completes the zip entry of a sheet, if it had claimed it.
+	 *
+	 * @param sheet The sheet that is done
+	 * @throws IOException If the entry could not be completed
+	 */
+	synchronized void release(DelimitedSheetEngine sheet) throws IOException {
+		if (entryOwner == sheet) {
+			zip.closeEntry();
+			entryOwner = null;
+			entries++;
+		}
+	}
+
+	boolean isNameTaken(String name, DelimitedSheetEngine except) {
+		return sheets.stream().anyMatch(sheet -> sheet != except && sheet.getName().equalsIgnoreCase(name));
+	}
+
+	@Override
+	public void finish() throws IOException {
+		for (DelimitedSheetEngine sheet : sheets) {
+			sheet.finish();
+			File spool = sheet.getSpool();
+			if (spool != null) {
+				zip.putNextEntry(new ZipEntry(format.toFileName(sheet.getName())));
+				Files.copy(spool.toPath(), zip);
+				zip.closeEntry();
+			}
+		}
+		if (zip != null) {
+			zip.finish();
+		}
+	}
+
+	@Override
+	public void close() {
+		for (DelimitedSheetEngine sheet : sheets) {
+			sheet.dispose();
+		}
+	}
+
+	/**
+	 * @return A new temp file for a sheet that has to wait for the zip
+	 * @throws IOException If it could not be created
+	 */
+	static File createSpool() throws IOException {
+		return TempFile.createTempFile("poi-excel-text", ".txt");
+	}
+}
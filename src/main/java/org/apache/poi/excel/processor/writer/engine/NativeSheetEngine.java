@@ -0,0 +1,503 @@
+package org.apache.poi.excel.processor.writer.engine;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.poi.excel.model.ConditionSchema;
+import org.apache.poi.excel.model.ExcelCellType;
+import org.apache.poi.excel.model.ExcelConditionType;
+import org.apache.poi.excel.model.StylePool;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.ss.util.WorkbookUtil;
+import org.apache.poi.util.TempFile;
+
+/**
+ * A sheet of the {@link NativeWorkbookEngine}. It is its own
+ * {@link CellCursor}, so writing a cell creates no objects at all. <br>
+ * <br>
+ * Everything that precedes the rows in the sheet XML (heading, columns, freeze
+ * pane) is held back until the first row is started, after which the rows are
+ * streamed out as they come.
+ *
+ * @author ssp5zone
+ */
+public class NativeSheetEngine implements SheetEngine, CellCursor {
+	private final NativeWorkbookEngine engine;
+	private final int index;
+	private String name;
+
+	// Held back until the sheet XML is started
+	private String heading;
+	private String subHeading;
+	private int columnRow = -1;
+	private List<String> headers;
+	private final Map<Integer, Integer> columnWidths = new TreeMap<Integer, Integer>();
+
+	// The pool ids of the columns with a look of their own, by type slot, and
+	// their style indices as they are first used, 0 till then
+	private int[][] styleIds;
+	private int[][] columnStyles;
+	private int frozenRows;
+
+	// Written after the rows
+	private CellRangeAddress autoFilter;
+	private final List<CellRangeAddress> mergedRegions = new ArrayList<CellRangeAddress>();
+	private final List<ConditionSchema> conditions = new ArrayList<ConditionSchema>();
+	private final List<CellRangeAddress> conditionRanges = new ArrayList<CellRangeAddress>();
+	private final List<Integer> conditionStyles = new ArrayList<Integer>();
+
+	private XmlWriter xml;
+	private File spool;
+	private boolean finished;
+
+	// The "r" attribute of the cells, pre-encoded. The column letters are cached
+	// across rows, the row digits are rebuilt once per row.
+	private char[][] columnRefs = new char[0][];
+	private final char[] rowRef = new char[20];
+	private int rowRefLength;
+	private char[] column;
+
+	// The texts of the first cells of each column are sampled. A column with
+	// mostly distinct texts is written inline from there on.
+	private static final int SAMPLE_SIZE = 1000;
+	private final SharedStrings sharedStrings;
+	private int[] sampled = new int[0];
+	private int[] misses = new int[0];
+	private int columnIndex;
+
+	NativeSheetEngine(NativeWorkbookEngine engine, int index) {
+		this.engine = engine;
+		this.sharedStrings = engine.getSharedStrings();
+		this.index = index;
+		this.name = "Sheet" + index;
+	}
+
+	String getPartName() {
+		return "xl/worksheets/sheet" + (index + 1) + ".xml";
+	}
+
+	@Override
+	public String getName() {
+		return this.name;
+	}
+
+	CellRangeAddress getAutoFilter() {
+		return this.autoFilter;
+	}
+
+	File getSpool() {
+		return this.spool;
+	}
+
+	@Override
+	public int getIndex() {
+		return this.index;
+	}
+
+	@Override
+	public void setName(String name) {
+		WorkbookUtil.validateSheetName(name);
+		if (engine.isNameTaken(name, this)) {
+			throw new IllegalArgumentException("The workbook already contains a sheet named '" + name + "'");
+		}
+		this.name = name;
+	}
+
+	@Override
+	public void writeHeading(String heading, String subHeading) {
+		this.heading = heading;
+		this.subHeading = subHeading;
+		this.mergedRegions.add(new CellRangeAddress(0, 0, 0, 5));
+		this.mergedRegions.add(new CellRangeAddress(1, 1, 0, 5));
+	}
+
+	@Override
+	public void writeColumns(int rowIndex, List<String> headers) {
+		this.columnRow = rowIndex;
+		this.headers = new ArrayList<String>(headers);
+	}
+
+	@Override
+	public void setColumnStyles(int[][] styles) {
+		this.styleIds = styles;
+		this.columnStyles = new int[styles.length][];
+		for (int i = 0; i < styles.length; i++) {
+			if (styles[i] != null) {
+				columnStyles[i] = new int[styles[i].length];
+			}
+		}
+	}
+
+	@Override
+	public void setColumnWidth(int column, int width) {
+		this.columnWidths.put(column, width);
+	}
+
+	@Override
+	public void freezeRows(int rows) {
+		this.frozenRows = rows;
+	}
+
+	@Override
+	public CellCursor startRow(int rowIndex) {
+		try {
+			if (xml == null) {
+				open();
+			}
+			rowRefLength = XmlWriter.toChars(rowIndex + 1L, rowRef);
+			xml.write("<row r=\"").write(rowRef, rowRefLength).write("\">");
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return this;
+	}
+
+	@Override
+	public void endRow() {
+		try {
+			xml.write("</row>\n");
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public void autoSizeColumns(int columns) {
+		// The rows are gone by now, there is nothing left to measure
+	}
+
+	@Override
+	public void setAutoFilter(int rowIndex, int lastColumn) {
+		this.autoFilter = new CellRangeAddress(rowIndex, rowIndex, 0, lastColumn);
+	}
+
+	@Override
+	public void addCondition(int firstRow, int lastRow, ConditionSchema condition) {
+		int column = condition.getColumn();
+		conditions.add(condition);
+		conditionRanges.add(new CellRangeAddress(firstRow, lastRow, column, column));
+		conditionStyles.add(engine.getDifferentialStyle(condition.getLook()));
+	}
+
+	@Override
+	public void finish() {
+		if (finished) {
+			return;
+		}
+		try {
+			if (xml == null) {
+				open();
+			}
+			writeEpilogue(xml);
+			if (spool != null) {
+				xml.close();
+			} else {
+				engine.releaseEntry();
+			}
+			finished = true;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Deletes the spool file, if any.
+	 */
+	void dispose() {
+		if (spool != null && !finished) {
+			try {
+				xml.close();
+			} catch (IOException e) {
+				// Going to be deleted anyway
+			}
+		}
+		NativeWorkbookEngine.delete(spool);
+	}
+
+	/**
+	 * Starts the sheet XML, either in the zip or in a spool file, and writes
+	 * everything that was held back.
+	 */
+	private void open() throws IOException {
+		xml = engine.claimEntry(this);
+		if (xml == null) {
+			spool = TempFile.createTempFile("poi-excel-sheet", ".xml");
+			xml = new XmlWriter(new FileOutputStream(spool));
+		}
+
+		writeProlog(xml);
+
+		if (heading != null) {
+			int style = heading.length() < 16 ? NativeWorkbookEngine.HEADING_STYLE
+					: NativeWorkbookEngine.SMALL_HEADING_STYLE;
+			startRow(0);
+			setColumn(0);
+			writeString(heading, style);
+			endRow();
+			startRow(1);
+			writeString(subHeading, -1);
+			endRow();
+			// A spacer row
+			startRow(2);
+			setColumn(0);
+			startCell(-1, null);
+			xml.write("/>");
+			endRow();
+		}
+		if (headers != null) {
+			startRow(columnRow);
+			for (int columnIndex = 0; columnIndex < headers.size(); columnIndex++) {
+				setColumn(columnIndex);
+				writeString(headers.get(columnIndex), NativeWorkbookEngine.COLUMN_STYLE);
+			}
+			endRow();
+		}
+	}
+
+	/**
+	 * Writes everything of the sheet XML upto and including the opening of the
+	 * sheet data.
+	 */
+	void writeProlog(XmlWriter xml) throws IOException {
+		xml.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n");
+		xml.write("<worksheet xmlns=\"").write(NativeWorkbookEngine.MAIN_NS).write("\" xmlns:r=\"")
+				.write(NativeWorkbookEngine.REL_NS).write("\">");
+
+		xml.write("<sheetViews><sheetView workbookViewId=\"0\"");
+		if (index == 0) {
+			xml.write(" tabSelected=\"1\"");
+		}
+		if (frozenRows > 0) {
+			xml.write("><pane ySplit=\"").write(frozenRows).write("\" topLeftCell=\"A").write(frozenRows + 1)
+					.write("\" activePane=\"bottomLeft\" state=\"frozen\"/><selection pane=\"bottomLeft\"/>");
+			xml.write("</sheetView></sheetViews>");
+		} else {
+			xml.write("/></sheetViews>");
+		}
+		xml.write("<sheetFormatPr defaultRowHeight=\"15\"/>");
+
+		if (columnWidths.size() > 0) {
+			xml.write("<cols>");
+			for (Map.Entry<Integer, Integer> width : columnWidths.entrySet()) {
+				xml.write("<col min=\"").write(width.getKey() + 1).write("\" max=\"").write(width.getKey() + 1)
+						.write("\" width=\"").write(width.getValue() / 256.0).write("\" customWidth=\"1\"/>");
+			}
+			xml.write("</cols>");
+		}
+		xml.write("<sheetData>");
+	}
+
+	/**
+	 * Writes everything of the sheet XML from the closing of the sheet data on.
+	 */
+	void writeEpilogue(XmlWriter xml) throws IOException {
+		xml.write("</sheetData>");
+		if (autoFilter != null) {
+			xml.write("<autoFilter ref=\"").write(autoFilter.formatAsString()).write("\"/>");
+		}
+		if (mergedRegions.size() > 0) {
+			xml.write("<mergeCells count=\"").write(mergedRegions.size()).write("\">");
+			for (CellRangeAddress region : mergedRegions) {
+				xml.write("<mergeCell ref=\"").write(region.formatAsString()).write("\"/>");
+			}
+			xml.write("</mergeCells>");
+		}
+		for (int i = 0; i < conditions.size(); i++) {
+			writeCondition(xml, conditionRanges.get(i), conditions.get(i), conditionStyles.get(i), i + 1);
+		}
+		xml.write("</worksheet>");
+	}
+
+	private static void writeCondition(XmlWriter xml, CellRangeAddress range, ConditionSchema condition, int style,
+			int priority) throws IOException {
+		xml.write("<conditionalFormatting sqref=\"").write(range.formatAsString()).write("\">");
+		if (condition.getType().isRanked()) {
+			xml.write("<cfRule type=\"top10\" dxfId=\"").write(style).write("\" priority=\"").write(priority)
+					.write("\" rank=\"").write(condition.getRank()).write("\"");
+			if (condition.getType() == ExcelConditionType.BOTTOM) {
+				xml.write(" bottom=\"1\"");
+			}
+			xml.write("/>");
+		} else {
+			xml.write("<cfRule type=\"cellIs\" dxfId=\"").write(style).write("\" priority=\"").write(priority)
+					.write("\" operator=\"").write(condition.getType().getOperator()).write("\"><formula>")
+					.writeEscaped(condition.getValue()).write("</formula>");
+			if (condition.getTo() != null) {
+				xml.write("<formula>").writeEscaped(condition.getTo()).write("</formula>");
+			}
+			xml.write("</cfRule>");
+		}
+		xml.write("</conditionalFormatting>");
+	}
+
+	@Override
+	public void setColumn(int column) {
+		if (column >= columnRefs.length) {
+			char[][] refs = new char[Math.max(column + 1, columnRefs.length * 2)][];
+			System.arraycopy(columnRefs, 0, refs, 0, columnRefs.length);
+			columnRefs = refs;
+		}
+		if (columnRefs[column] == null) {
+			columnRefs[column] = CellReference.convertNumToColString(column).toCharArray();
+		}
+		this.column = columnRefs[column];
+		this.columnIndex = column;
+	}
+
+	/**
+	 * @param type The type of the cell, null for none
+	 * @return The style index of the current column for the type, -1 for none
+	 */
+	private int getStyle(ExcelCellType type) {
+		int[] styles = columnStyles == null || columnIndex >= columnStyles.length ? null : columnStyles[columnIndex];
+		if (styles != null) {
+			int slot = StylePool.slotOf(type);
+			if (styles[slot] == 0) {
+				// Only the looks in use end up in the styles
+				styles[slot] = engine.getPooledStyle(styleIds[columnIndex][slot]);
+			}
+			return styles[slot];
+		}
+		return type == null ? -1 : NativeWorkbookEngine.getStyle(type);
+	}
+
+	@Override
+	public void setNumber(double value, ExcelCellType type) {
+		try {
+			if (Double.isNaN(value) || Double.isInfinite(value)) {
+				// Excel has no such numbers
+				startCell(getStyle(type), "e");
+				xml.write("><v>#NUM!</v></c>");
+			} else {
+				startCell(getStyle(type), null);
+				xml.write("><v>").write(value).write("</v></c>");
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public void setString(String value, ExcelCellType type) {
+		try {
+			int style = getStyle(type);
+			if (value != null && sharedStrings != null && writeShared(value, style)) {
+				return;
+			}
+			writeString(value, style);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public void setBoolean(boolean value) {
+		try {
+			startCell(getStyle(null), "b");
+			xml.write(value ? "><v>1</v></c>" : "><v>0</v></c>");
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public void setDate(Date value, ExcelCellType type) {
+		if (value == null) {
+			setBlank(type);
+		} else {
+			setNumber(org.apache.poi.ss.usermodel.DateUtil.getExcelDate(value), type);
+		}
+	}
+
+	@Override
+	public void setBlank(ExcelCellType type) {
+		try {
+			startCell(getStyle(type), null);
+			xml.write("/>");
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Writes the text as a reference to the shared strings table, unless the
+	 * column has turned out to be mostly distinct texts.
+	 * 
+	 * @return false if the text has to be written inline instead
+	 */
+	private boolean writeShared(String value, int style) throws IOException {
+		if (columnIndex >= sampled.length) {
+			int length = Math.max(columnIndex + 1, sampled.length * 2);
+			sampled = Arrays.copyOf(sampled, length);
+			misses = Arrays.copyOf(misses, length);
+		}
+		int count = sampled[columnIndex];
+		if (count < 0) {
+			return false;
+		}
+		int index = sharedStrings.find(value);
+		if (count < SAMPLE_SIZE) {
+			if (index < 0) {
+				misses[columnIndex]++;
+			}
+			count++;
+			// More than half of them new, a dictionary won't help this column
+			sampled[columnIndex] = count == SAMPLE_SIZE && misses[columnIndex] * 2 > SAMPLE_SIZE ? -1 : count;
+		}
+		if (index < 0) {
+			index = sharedStrings.add(value);
+		}
+		startCell(style, "s");
+		xml.write("><v>").write(index).write("</v></c>");
+		return true;
+	}
+
+	private void writeString(String value, int style) throws IOException {
+		if (value == null) {
+			if (style >= 0) {
+				startCell(style, null);
+				xml.write("/>");
+			}
+			return;
+		}
+		startCell(style, "inlineStr");
+		if (value.length() > 0
+				&& (Character.isWhitespace(value.charAt(0)) || Character.isWhitespace(value.charAt(value.length() - 1)))) {
+			xml.write("><is><t xml:space=\"preserve\">");
+		} else {
+			xml.write("><is><t>");
+		}
+		xml.writeEscaped(value).write("</t></is></c>");
+	}
+
+	/**
+	 * Writes the opening of a cell, leaving the tag open for the caller to either
+	 * close or fill.
+	 * 
+	 * @param style The cell style index, -1 for none
+	 * @param type  The cell type attribute, null for a number
+	 */
+	private void startCell(int style, String type) throws IOException {
+		xml.write("<c r=\"").write(column, column.length).write(rowRef, rowRefLength).write('"');
+		if (style > 0) {
+			xml.write(" s=\"").write(engine.toCellXf(style)).write('"');
+		}
+		if (type != null) {
+			xml.write(" t=\"").write(type).write('"');
+		}
+	}
+
+	@Override
+	public String toString() {
+		return name + "!" + (column == null ? "" : new String(column)) + new String(rowRef, 0, rowRefLength);
+	}
+}
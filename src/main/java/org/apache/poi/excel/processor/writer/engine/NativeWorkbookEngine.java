@@ -0,0 +1,482 @@
+package org.apache.poi.excel.processor.writer.engine;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.poi.excel.model.CellFormat;
+import org.apache.poi.excel.model.ExcelCellType;
+import org.apache.poi.excel.model.StylePool;
+import org.apache.poi.ss.usermodel.BuiltinFormats;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.util.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A workbook engine that writes SpreadsheetML straight into the zip stream,
+ * without going through POI's object model. <br>
+ * <br>
+ * A sheet streams its XML directly into the zip when no other sheet is doing
+ * so. Sheets written at the same time by other threads are spooled to a temp
+ * file and copied into the zip at the end. <br>
+ * <br>
+ * Optionally, repeated cell texts go to a bounded {@link SharedStrings} table.
+ *
+ * @author ssp5zone
+ */
+public class NativeWorkbookEngine implements WorkbookEngine {
+	private final static Logger log = LoggerFactory.getLogger(NativeWorkbookEngine.class);
+
+	static final String MAIN_NS = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+	static final String REL_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+	private static final String PACKAGE_REL_NS = "http://schemas.openxmlformats.org/package/2006/relationships";
+	private static final String XML_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+
+	// Cell style indices, matching the cellXfs written in styles.xml
+	private static final int FIRST_TYPE_STYLE = 1;
+	static final int COLUMN_STYLE = FIRST_TYPE_STYLE + ExcelCellType.values().length;
+	static final int HEADING_STYLE = COLUMN_STYLE + 1;
+	static final int SMALL_HEADING_STYLE = HEADING_STYLE + 1;
+
+	private final ZipOutputStream zip;
+
+	// Only ever flushed, as closing it would close the caller's stream
+	private final XmlWriter zipWriter;
+
+	private final List<NativeSheetEngine> sheets = new ArrayList<NativeSheetEngine>();
+
+	// The sheet currently streaming into the zip, if any
+	private NativeSheetEngine entryOwner;
+
+	// Null when the cell texts are written inline
+	private final SharedStrings sharedStrings;
+
+	// The pooled formats met so far, styled after the fixed ones in this order
+	private final List<CellFormat> pooled = new ArrayList<CellFormat>();
+
+	// The style index of each StylePool id, 0 when not met yet
+	private int[] pooledStyles = new int[0];
+
+	// The looks of the conditions, each written once as a differential style
+	private final List<CellFormat> differentialStyles = new ArrayList<CellFormat>();
+
+	public NativeWorkbookEngine(OutputStream out) {
+		this(out, 0);
+	}
+
+	/**
+	 * @param out                Where the workbook gets written
+	 * @param sharedStringsLimit The memory bound of the shared strings lookup in
+	 *                           bytes, 0 to write all texts inline
+	 */
+	public NativeWorkbookEngine(OutputStream out, long sharedStringsLimit) {
+		this.zip = new ZipOutputStream(out);
+		this.zipWriter = new XmlWriter(zip);
+		this.sharedStrings = sharedStringsLimit > 0 ? new SharedStrings(sharedStringsLimit) : null;
+	}
+
+	SharedStrings getSharedStrings() {
+		return this.sharedStrings;
+	}
+
+	private boolean hasSharedStrings() {
+		return sharedStrings != null && !sharedStrings.isEmpty();
+	}
+
+	static int getStyle(ExcelCellType type) {
+		return FIRST_TYPE_STYLE + type.ordinal();
+	}
+
+	/**
+	 * @param id The {@link StylePool} id of a format
+	 * @return The style index of the format, the same for every sheet
+	 */
+	synchronized int getPooledStyle(int id) {
+		if (id >= pooledStyles.length) {
+			pooledStyles = Arrays.copyOf(pooledStyles, Math.max(id + 1, pooledStyles.length * 2));
+		}
+		if (pooledStyles[id] == 0) {
+			pooled.add(StylePool.get(id));
+			pooledStyles[id] = SMALL_HEADING_STYLE + pooled.size();
+		}
+		return pooledStyles[id];
+	}
+
+	/**
+	 * @param style A style index given by {@link #getPooledStyle(int)}
+	 * @return Its format
+	 */
+	synchronized CellFormat getPooledFormat(int style) {
+		return pooled.get(style - SMALL_HEADING_STYLE - 1);
+	}
+
+	/**
+	 * @param look The font and fill of the cells matching a condition
+	 * @return The index of its dxf entry in the styles part, the same for every
+	 *         condition of that look
+	 */
+	synchronized int getDifferentialStyle(CellFormat look) {
+		int style = differentialStyles.indexOf(look);
+		if (style < 0) {
+			differentialStyles.add(look);
+			style = differentialStyles.size() - 1;
+		}
+		return style;
+	}
+
+	/**
+	 * @param style One of the style indices of this engine
+	 * @return The index of the matching cellXfs entry in the styles part
+	 */
+	int toCellXf(int style) {
+		return style;
+	}
+
+	@Override
+	public boolean isParallel() {
+		return true;
+	}
+
+	@Override
+	public SheetEngine createSheet() {
+		NativeSheetEngine sheet = new NativeSheetEngine(this, sheets.size());
+		sheets.add(sheet);
+		return sheet;
+	}
+
+	/**
+	 * Lets a sheet stream into the zip if no one else is.
+	 * 
+	 * @param sheet The sheet that is ready to write its rows
+	 * @return The writer of the zip entry, or null if the sheet has to spool
+	 * @throws IOException If the entry could not be started
+	 */
+	synchronized XmlWriter claimEntry(NativeSheetEngine sheet) throws IOException {
+		if (entryOwner != null) {
+			return null;
+		}
+		zip.putNextEntry(new ZipEntry(sheet.getPartName()));
+		entryOwner = sheet;
+		return zipWriter;
+	}
+
+	/**
+	 * Completes the zip entry of the sheet that claimed it.
+	 * 
+	 * @throws IOException If the entry could not be completed
+	 */
+	synchronized void releaseEntry() throws IOException {
+		zipWriter.flush();
+		zip.closeEntry();
+		entryOwner = null;
+	}
+
+	boolean isNameTaken(String name, NativeSheetEngine except) {
+		return sheets.stream().anyMatch(sheet -> sheet != except && sheet.getName().equalsIgnoreCase(name));
+	}
+
+	@Override
+	public void finish() throws IOException {
+		finishSheets();
+		writeParts();
+		zip.finish();
+	}
+
+	/**
+	 * Completes the sheets, and copies over the ones that had to wait for the
+	 * zip.
+	 */
+	void finishSheets() throws IOException {
+		for (NativeSheetEngine sheet : sheets) {
+			sheet.finish();
+			File spool = sheet.getSpool();
+			if (spool != null) {
+				zip.putNextEntry(new ZipEntry(sheet.getPartName()));
+				Files.copy(spool.toPath(), zip);
+				zip.closeEntry();
+			}
+		}
+
+		if (hasSharedStrings()) {
+			writeSharedStrings();
+		}
+	}
+
+	/**
+	 * Writes the parts of the workbook other than the sheets.
+	 */
+	void writeParts() throws IOException {
+		writePart("[Content_Types].xml", this::writeContentTypes);
+		writePart("_rels/.rels", this::writeRootRelations);
+		writePart("xl/workbook.xml", this::writeWorkbook);
+		writePart("xl/_rels/workbook.xml.rels", this::writeWorkbookRelations);
+		writePart("xl/styles.xml", this::writeStyles);
+	}
+
+	/**
+	 * Copies a part into the zip as it is.
+	 * 
+	 * @param entry The entry of the part, its name and, if stored rather than
+	 *              deflated, its size and checksum
+	 * @param in    The bytes of the part
+	 * @throws IOException If the part could not be copied
+	 */
+	void copyPart(ZipEntry entry, InputStream in) throws IOException {
+		zip.putNextEntry(entry);
+		IOUtils.copy(in, zip);
+		zip.closeEntry();
+	}
+
+	@Override
+	public void close() {
+		for (NativeSheetEngine sheet : sheets) {
+			sheet.dispose();
+		}
+		if (sharedStrings != null) {
+			sharedStrings.dispose();
+		}
+	}
+
+	private interface PartWriter {
+		void write(XmlWriter writer) throws IOException;
+	}
+
+	private void writePart(String name, PartWriter part) throws IOException {
+		zip.putNextEntry(new ZipEntry(name));
+		zipWriter.write(XML_HEADER);
+		part.write(zipWriter);
+		zipWriter.flush();
+		zip.closeEntry();
+	}
+
+	/**
+	 * The table entries are already spooled, they only need their counts on top.
+	 */
+	private void writeSharedStrings() throws IOException {
+		File spool = sharedStrings.finish();
+		zip.putNextEntry(new ZipEntry("xl/sharedStrings.xml"));
+		zipWriter.write(XML_HEADER);
+		zipWriter.write("<sst xmlns=\"").write(MAIN_NS).write("\" count=\"").write(sharedStrings.getCount())
+				.write("\" uniqueCount=\"").write(sharedStrings.getUniqueCount()).write("\">");
+		zipWriter.flush();
+		Files.copy(spool.toPath(), zip);
+		zipWriter.write("</sst>");
+		zipWriter.flush();
+		zip.closeEntry();
+	}
+
+	private void writeContentTypes(XmlWriter xml) throws IOException {
+		xml.write("<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">");
+		xml.write("<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>");
+		xml.write("<Default Extension=\"xml\" ContentType=\"application/xml\"/>");
+		xml.write("<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>");
+		xml.write("<Override PartName=\"/xl/styles.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml\"/>");
+		if (hasSharedStrings()) {
+			xml.write("<Override PartName=\"/xl/sharedStrings.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sharedStrings+xml\"/>");
+		}
+		for (NativeSheetEngine sheet : sheets) {
+			xml.write("<Override PartName=\"/").write(sheet.getPartName()).write(
+					"\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+		}
+		xml.write("</Types>");
+	}
+
+	private void writeRootRelations(XmlWriter xml) throws IOException {
+		xml.write("<Relationships xmlns=\"").write(PACKAGE_REL_NS).write("\">");
+		xml.write("<Relationship Id=\"rId1\" Type=\"").write(REL_NS)
+				.write("/officeDocument\" Target=\"xl/workbook.xml\"/>");
+		xml.write("</Relationships>");
+	}
+
+	private void writeWorkbook(XmlWriter xml) throws IOException {
+		xml.write("<workbook xmlns=\"").write(MAIN_NS).write("\" xmlns:r=\"").write(REL_NS).write("\">");
+		xml.write("<sheets>");
+		for (NativeSheetEngine sheet : sheets) {
+			xml.write("<sheet name=\"").writeEscaped(sheet.getName()).write("\" sheetId=\"")
+					.write(sheet.getIndex() + 1).write("\" r:id=\"rId").write(sheet.getIndex() + 1).write("\"/>");
+		}
+		xml.write("</sheets>");
+
+		// Excel expects the hidden filter range of every sheet that has filters
+		boolean anyFilter = sheets.stream().anyMatch(sheet -> sheet.getAutoFilter() != null);
+		if (anyFilter) {
+			xml.write("<definedNames>");
+			for (NativeSheetEngine sheet : sheets) {
+				if (sheet.getAutoFilter() != null) {
+					xml.write("<definedName name=\"_xlnm._FilterDatabase\" localSheetId=\"").write(sheet.getIndex())
+							.write("\" hidden=\"1\">'").writeEscaped(sheet.getName().replace("'", "''")).write("'!")
+							.write(sheet.getAutoFilter().formatAsString(null, true))
+							.write("</definedName>");
+				}
+			}
+			xml.write("</definedNames>");
+		}
+		xml.write("</workbook>");
+	}
+
+	private void writeWorkbookRelations(XmlWriter xml) throws IOException {
+		xml.write("<Relationships xmlns=\"").write(PACKAGE_REL_NS).write("\">");
+		for (NativeSheetEngine sheet : sheets) {
+			xml.write("<Relationship Id=\"rId").write(sheet.getIndex() + 1).write("\" Type=\"").write(REL_NS)
+					.write("/worksheet\" Target=\"worksheets/sheet").write(sheet.getIndex() + 1).write(".xml\"/>");
+		}
+		xml.write("<Relationship Id=\"rId").write(sheets.size() + 1).write("\" Type=\"").write(REL_NS)
+				.write("/styles\" Target=\"styles.xml\"/>");
+		if (hasSharedStrings()) {
+			xml.write("<Relationship Id=\"rId").write(sheets.size() + 2).write("\" Type=\"").write(REL_NS)
+					.write("/sharedStrings\" Target=\"sharedStrings.xml\"/>");
+		}
+		xml.write("</Relationships>");
+	}
+
+	private void writeStyles(XmlWriter xml) throws IOException {
+		ExcelCellType[] types = ExcelCellType.values();
+
+		// Only the formats that Excel does not know of by itself
+		Map<String, Integer> formatIds = new LinkedHashMap<String, Integer>();
+		for (ExcelCellType type : types) {
+			toFormatId(type.getFormat(), formatIds);
+		}
+		for (CellFormat format : pooled) {
+			toFormatId(format.getFormat(), formatIds);
+		}
+
+		xml.write("<styleSheet xmlns=\"").write(MAIN_NS).write("\">");
+		long customFormats = formatIds.values().stream().filter(id -> id >= 164).count();
+		if (customFormats > 0) {
+			xml.write("<numFmts count=\"").write(customFormats).write("\">");
+			for (Map.Entry<String, Integer> format : formatIds.entrySet()) {
+				if (format.getValue() >= 164) {
+					xml.write("<numFmt numFmtId=\"").write(format.getValue()).write("\" formatCode=\"")
+							.writeEscaped(format.getKey()).write("\"/>");
+				}
+			}
+			xml.write("</numFmts>");
+		}
+
+		// The fonts and fills the pooled formats add, each written once
+		List<String> fonts = new ArrayList<String>();
+		List<IndexedColors> fills = new ArrayList<IndexedColors>();
+		for (CellFormat format : pooled) {
+			if (format.hasFont() && !fonts.contains(toFont(format))) {
+				fonts.add(toFont(format));
+			}
+			if (format.hasFill() && !fills.contains(format.getFill())) {
+				fills.add(format.getFill());
+			}
+		}
+
+		// Default, column header, heading and small heading
+		short darkBlue = IndexedColors.DARK_BLUE.getIndex();
+		xml.write("<fonts count=\"").write(4 + fonts.size()).write("\">");
+		xml.write("<font><sz val=\"11\"/><color indexed=\"8\"/><name val=\"Calibri\"/><family val=\"2\"/></font>");
+		xml.write("<font><b/><sz val=\"11\"/><color indexed=\"").write(darkBlue)
+				.write("\"/><name val=\"Calibri\"/><family val=\"2\"/></font>");
+		xml.write("<font><b/><sz val=\"18\"/><color indexed=\"").write(darkBlue)
+				.write("\"/><name val=\"Calibri\"/><family val=\"2\"/></font>");
+		xml.write("<font><b/><sz val=\"16\"/><color indexed=\"").write(darkBlue)
+				.write("\"/><name val=\"Calibri\"/><family val=\"2\"/></font>");
+		for (String font : fonts) {
+			xml.write(font);
+		}
+		xml.write("</fonts>");
+		xml.write("<fills count=\"").write(2 + fills.size()).write("\"><fill><patternFill patternType=\"none\"/></fill>"
+				+ "<fill><patternFill patternType=\"gray125\"/></fill>");
+		for (IndexedColors fill : fills) {
+			xml.write("<fill><patternFill patternType=\"solid\"><fgColor indexed=\"").write(fill.getIndex())
+					.write("\"/><bgColor indexed=\"64\"/></patternFill></fill>");
+		}
+		xml.write("</fills>");
+		xml.write("<borders count=\"2\"><border><left/><right/><top/><bottom/><diagonal/></border>");
+		xml.write("<border><left/><right/><top/><bottom style=\"medium\"><color indexed=\"")
+				.write(IndexedColors.BLUE1.getIndex()).write("\"/></bottom><diagonal/></border></borders>");
+		xml.write("<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>");
+
+		xml.write("<cellXfs count=\"").write(SMALL_HEADING_STYLE + 1 + pooled.size()).write("\">");
+		xml.write("<xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\"/>");
+		for (ExcelCellType type : types) {
+			xml.write("<xf numFmtId=\"").write(formatIds.get(type.getFormat()))
+					.write("\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyNumberFormat=\"1\"/>");
+		}
+		xml.write("<xf numFmtId=\"0\" fontId=\"1\" fillId=\"0\" borderId=\"1\" xfId=\"0\" applyFont=\"1\" applyBorder=\"1\"/>");
+		xml.write("<xf numFmtId=\"0\" fontId=\"2\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyFont=\"1\"/>");
+		xml.write("<xf numFmtId=\"0\" fontId=\"3\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyFont=\"1\"/>");
+		for (CellFormat format : pooled) {
+			int fontId = format.hasFont() ? 4 + fonts.indexOf(toFont(format)) : 0;
+			int fillId = format.hasFill() ? 2 + fills.indexOf(format.getFill()) : 0;
+			xml.write("<xf numFmtId=\"").write(formatIds.get(format.getFormat())).write("\" fontId=\"").write(fontId)
+					.write("\" fillId=\"").write(fillId).write("\" borderId=\"0\" xfId=\"0\" applyNumberFormat=\"1\"");
+			if (format.hasFont()) {
+				xml.write(" applyFont=\"1\"");
+			}
+			if (format.hasFill()) {
+				xml.write(" applyFill=\"1\"");
+			}
+			xml.write("/>");
+		}
+		xml.write("</cellXfs>");
+		xml.write("<cellStyles count=\"1\"><cellStyle name=\"Normal\" xfId=\"0\" builtinId=\"0\"/></cellStyles>");
+		if (differentialStyles.size() > 0) {
+			xml.write("<dxfs count=\"").write(differentialStyles.size()).write("\">");
+			for (CellFormat look : differentialStyles) {
+				xml.write("<dxf>");
+				if (look.hasFont()) {
+					xml.write("<font>").write(look.isBold() ? "<b/>" : "").write(look.isItalic() ? "<i/>" : "");
+					if (look.getColor() != IndexedColors.AUTOMATIC) {
+						xml.write("<color indexed=\"").write(look.getColor().getIndex()).write("\"/>");
+					}
+					xml.write("</font>");
+				}
+				if (look.hasFill()) {
+					xml.write("<fill><patternFill patternType=\"solid\"><bgColor indexed=\"")
+							.write(look.getFill().getIndex()).write("\"/></patternFill></fill>");
+				}
+				xml.write("</dxf>");
+			}
+			xml.write("</dxfs>");
+		}
+		xml.write("</styleSheet>");
+	}
+
+	/**
+	 * Gives the format a builtin id if Excel knows it, else the next custom one.
+	 */
+	private static void toFormatId(String format, Map<String, Integer> formatIds) {
+		if (formatIds.containsKey(format)) {
+			return;
+		}
+		int builtin = format.equals("") ? 0 : BuiltinFormats.getBuiltinFormat(format);
+		if (builtin < 0) {
+			builtin = 164 + (int) formatIds.values().stream().filter(id -> id >= 164).count();
+		}
+		formatIds.put(format, builtin);
+	}
+
+	/**
+	 * @return The font element of a pooled format
+	 */
+	private static String toFont(CellFormat format) {
+		short color = format.getColor() == IndexedColors.AUTOMATIC ? 8 : format.getColor().getIndex();
+		return "<font>" + (format.isBold() ? "<b/>" : "") + (format.isItalic() ? "<i/>" : "")
+				+ "<sz val=\"11\"/><color indexed=\"" + color + "\"/><name val=\"Calibri\"/><family val=\"2\"/></font>";
+	}
+
+	/**
+	 * Deletes a temp file, logging rather than failing if it cannot be deleted.
+	 */
+	static void delete(File file) {
+		if (file != null && file.exists() && !file.delete()) {
+			log.warn("Unable to delete the temp file: " + file);
+		}
+	}
+}
@@ -0,0 +1,379 @@
+package org.apache.poi.excel.processor.writer.engine;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.poi.excel.model.CellFormat;
+import org.apache.poi.excel.model.ConditionSchema;
+import org.apache.poi.excel.model.ExcelCellType;
+import org.apache.poi.excel.model.ExcelConditionType;
+import org.apache.poi.excel.model.StylePool;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.ConditionalFormattingRule;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.FontFormatting;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.PatternFormatting;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.SheetConditionalFormatting;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTCfRule;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTWorksheet;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.STCfType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A sheet of the {@link PoiWorkbookEngine}. It is its own {@link CellCursor},
+ * creating a POI cell for every value written. <br>
+ * <br>
+ * When the workbook has a memory budget, it estimates the size of each row as
+ * it gets written, and flushes its rows when the workbook asks it to, once the
+ * budget is crossed.
+ *
+ * @author ssp5zone
+ */
+public class PoiSheetEngine implements SheetEngine, CellCursor {
+	private final static Logger log = LoggerFactory.getLogger(PoiSheetEngine.class);
+
+	// Rough heap sizes of the streamed POI objects, on a 64 bit JVM
+	private final static int ROW_BYTES = 96;
+	private final static int CELL_BYTES = 72;
+	private final static int STRING_BYTES = 40;
+
+	private final PoiWorkbookEngine engine;
+	private final Sheet sheet;
+	private final boolean budgeted;
+	private Row row;
+	private int column;
+
+	// The pool ids of the columns with a look of their own, by type slot, and
+	// their styles as they are first used
+	private int[][] styleIds;
+	private CellStyle[][] columnStyles;
+
+	// The estimated size of the current row, and of the rows held in memory. The
+	// latter is read by the workbook, from the thread of any sheet.
+	private long rowBytes;
+	private volatile long retainedBytes;
+
+	// Set by the workbook, from the thread of any sheet
+	private volatile boolean flushRequested;
+	private int flushes;
+
+	public PoiSheetEngine(PoiWorkbookEngine engine, Sheet sheet) {
+		this.engine = engine;
+		this.sheet = sheet;
+		this.budgeted = engine.hasMemoryBudget() && sheet instanceof SXSSFSheet;
+	}
+
+	public Sheet getSheet() {
+		return this.sheet;
+	}
+
+	/**
+	 * @return The times the rows were flushed to the temp file as per the
+	 *         memory budget
+	 */
+	public int getFlushes() {
+		return this.flushes;
+	}
+
+	long getRetainedBytes() {
+		return this.retainedBytes;
+	}
+
+	/**
+	 * Has the rows flushed as the next row ends.
+	 */
+	void requestFlush() {
+		this.flushRequested = true;
+	}
+
+	@Override
+	public int getIndex() {
+		return sheet.getWorkbook().getSheetIndex(sheet);
+	}
+
+	@Override
+	public String getName() {
+		return sheet.getSheetName();
+	}
+
+	@Override
+	public void setName(String name) {
+		sheet.getWorkbook().setSheetName(getIndex(), name);
+	}
+
+	@Override
+	public void writeHeading(String heading, String subHeading) {
+		// Line 1
+		sheet.createRow(0).createCell(0).setCellValue(heading);
+
+		// Add some styling to the header
+		Workbook wb = sheet.getWorkbook();
+
+		Font font = wb.createFont();
+		font.setBold(true);
+		font.setColor(IndexedColors.DARK_BLUE.getIndex());
+		font.setFontHeightInPoints((short) (heading.length() < 16 ? 18 : 16));
+
+		CellStyle style = wb.createCellStyle();
+		style.setFont(font);
+
+		sheet.getRow(0).getCell(0).setCellStyle(style);
+
+		// Line 2
+		sheet.createRow(1).createCell(0).setCellValue(subHeading);
+
+		// Merge cells to make them look decent.
+		sheet.addMergedRegion(new CellRangeAddress(0, // first row (0-based)
+				0, // last row (0-based)
+				0, // first column (0-based)
+				5 // last column (0-based)
+		));
+		sheet.addMergedRegion(new CellRangeAddress(1, // first row (0-based)
+				1, // last row (0-based)
+				0, // first column (0-based)
+				5 // last column (0-based)
+		));
+
+		// A spacer row
+		sheet.createRow(2).createCell(0);
+	}
+
+	@Override
+	public void writeColumns(int rowIndex, List<String> headers) {
+		Row headerRow = sheet.createRow(rowIndex);
+		CellStyle style = engine.getColumnStyle();
+		for (int columnIndex = 0; columnIndex < headers.size(); columnIndex++) {
+			Cell cell = headerRow.createCell(columnIndex);
+			cell.setCellValue(headers.get(columnIndex));
+			cell.setCellStyle(style);
+		}
+	}
+
+	@Override
+	public void setColumnStyles(int[][] styles) {
+		this.styleIds = styles;
+		this.columnStyles = new CellStyle[styles.length][];
+		for (int i = 0; i < styles.length; i++) {
+			if (styles[i] != null) {
+				columnStyles[i] = new CellStyle[styles[i].length];
+			}
+		}
+	}
+
+	@Override
+	public void setColumnWidth(int column, int width) {
+		sheet.setColumnWidth(column, width);
+	}
+
+	@Override
+	public void freezeRows(int rows) {
+		sheet.createFreezePane(0, rows);
+	}
+
+	@Override
+	public CellCursor startRow(int rowIndex) {
+		this.row = sheet.createRow(rowIndex);
+		this.rowBytes = ROW_BYTES;
+		return this;
+	}
+
+	@Override
+	public void endRow() {
+		this.row = null;
+		if (budgeted) {
+			this.retainedBytes += rowBytes;
+			engine.retain(rowBytes);
+			if (flushRequested) {
+				flushRows();
+			}
+		}
+	}
+
+	/**
+	 * Moves all the rows held in memory to the temp file.
+	 */
+	private void flushRows() {
+		this.flushRequested = false;
+		try {
+			((SXSSFSheet) sheet).flushRows();
+		} catch (IOException e) {
+			// The rows stay in memory, over the budget, till the next try
+			log.warn("Unable to flush the rows of {} due to: {}", sheet.getSheetName(), e.toString());
+			return;
+		}
+		engine.release(retainedBytes);
+		this.retainedBytes = 0;
+		this.flushes++;
+	}
+
+	@Override
+	public void autoSizeColumns(int columns) {
+		// In case of SXSSFSheet, the row tracking is limited and hence cannot be used
+		// to auto-size
+		if (!(sheet instanceof SXSSFSheet)) {
+			for (int column = 0; column < columns; column++) {
+				sheet.autoSizeColumn(column, false);
+			}
+		}
+	}
+
+	@Override
+	public void setAutoFilter(int rowIndex, int lastColumn) {
+		sheet.setAutoFilter(new CellRangeAddress(rowIndex, // 1st row
+				rowIndex, // Last row
+				0, // 1st cell
+				lastColumn // Last cell
+		));
+	}
+
+	@Override
+	public void addCondition(int firstRow, int lastRow, ConditionSchema condition) {
+		SheetConditionalFormatting formatting = sheet.getSheetConditionalFormatting();
+		ExcelConditionType type = condition.getType();
+		ConditionalFormattingRule rule;
+		if (type.isRanked()) {
+			// POI has no ranked rules of its own, this one is turned into one below
+			rule = formatting.createConditionalFormattingRule("FALSE");
+		} else {
+			rule = formatting.createConditionalFormattingRule(type.getComparison(), condition.getValue(),
+					condition.getTo());
+		}
+
+		CellFormat look = condition.getLook();
+		if (look.hasFont()) {
+			FontFormatting font = rule.createFontFormatting();
+			font.setFontStyle(look.isItalic(), look.isBold());
+			if (look.getColor() != IndexedColors.AUTOMATIC) {
+				font.setFontColorIndex(look.getColor().getIndex());
+			}
+		}
+		if (look.hasFill()) {
+			PatternFormatting fill = rule.createPatternFormatting();
+			fill.setFillBackgroundColor(look.getFill().getIndex());
+			fill.setFillPattern(PatternFormatting.SOLID_FOREGROUND);
+		}
+
+		int column = condition.getColumn();
+		formatting.addConditionalFormatting(
+				new CellRangeAddress[] { new CellRangeAddress(firstRow, lastRow, column, column) }, rule);
+		if (type.isRanked()) {
+			toRanked(condition);
+		}
+	}
+
+	/**
+	 * Makes the rule last added a top or bottom one.
+	 */
+	private void toRanked(ConditionSchema condition) {
+		XSSFSheet xssfSheet = sheet instanceof SXSSFSheet
+				? ((SXSSFWorkbook) sheet.getWorkbook()).getXSSFWorkbook().getSheetAt(getIndex())
+				: (XSSFSheet) sheet;
+		CTWorksheet worksheet = xssfSheet.getCTWorksheet();
+		CTCfRule rule = worksheet.getConditionalFormattingArray(worksheet.sizeOfConditionalFormattingArray() - 1)
+				.getCfRuleArray(0);
+		rule.setType(STCfType.TOP_10);
+		while (rule.sizeOfFormulaArray() > 0) {
+			rule.removeFormula(0);
+		}
+		rule.setRank(condition.getRank());
+		if (condition.getType() == ExcelConditionType.BOTTOM) {
+			rule.setBottom(true);
+		}
+	}
+
+	@Override
+	public void finish() {
+		// The workbook writes all sheets at the end, only the budget is to be freed
+		if (budgeted && retainedBytes > 0) {
+			flushRows();
+		}
+	}
+
+	@Override
+	public void setColumn(int column) {
+		this.column = column;
+	}
+
+	/**
+	 * @param type The type of the cell, null for none
+	 * @return The style of the current column for the type, null for none
+	 */
+	private CellStyle getStyle(ExcelCellType type) {
+		CellStyle[] styles = columnStyles == null || column >= columnStyles.length ? null : columnStyles[column];
+		if (styles != null) {
+			int slot = StylePool.slotOf(type);
+			if (styles[slot] == null) {
+				// Only the looks in use end up in the workbook
+				styles[slot] = engine.getPooledStyle(styleIds[column][slot]);
+			}
+			return styles[slot];
+		}
+		return type == null ? null : engine.getStyle(type);
+	}
+
+	@Override
+	public void setNumber(double value, ExcelCellType type) {
+		Cell cell = row.createCell(column);
+		cell.setCellValue(value);
+		cell.setCellStyle(getStyle(type));
+		rowBytes += CELL_BYTES;
+	}
+
+	@Override
+	public void setString(String value, ExcelCellType type) {
+		Cell cell = row.createCell(column);
+		rowBytes += CELL_BYTES;
+		if (value != null) {
+			cell.setCellValue(value);
+			rowBytes += STRING_BYTES + 2 * value.length();
+		}
+		CellStyle style = getStyle(type);
+		if (style != null) {
+			cell.setCellStyle(style);
+		}
+	}
+
+	@Override
+	public void setBoolean(boolean value) {
+		Cell cell = row.createCell(column);
+		cell.setCellValue(value);
+		CellStyle style = getStyle(null);
+		if (style != null) {
+			cell.setCellStyle(style);
+		}
+		rowBytes += CELL_BYTES;
+	}
+
+	@Override
+	public void setDate(Date value, ExcelCellType type) {
+		Cell cell = row.createCell(column);
+		if (value != null) {
+			cell.setCellValue(value);
+		}
+		cell.setCellStyle(getStyle(type));
+		rowBytes += CELL_BYTES;
+	}
+
+	@Override
+	public void setBlank(ExcelCellType type) {
+		row.createCell(column).setCellStyle(getStyle(type));
+		rowBytes += CELL_BYTES;
+	}
+
+	@Override
+	public String toString() {
+		return sheet.getSheetName() + "!" + new CellReference(row == null ? 0 : row.getRowNum(), column).formatAsString();
+	}
+}
@@ -0,0 +1,246 @@
+package org.apache.poi.excel.processor.writer.engine;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.poi.excel.model.CellFormat;
+import org.apache.poi.excel.model.ExcelCellType;
+import org.apache.poi.excel.model.StylePool;
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The workbook engine backed by Apache POI's usermodel. <br>
+ * <br>
+ * By default the streamed sheets keep their last 500 rows in memory. Given a
+ * memory budget, the rows are instead kept till the estimated size of the rows
+ * held by all the sheets crosses it, so the window follows the width of the
+ * rows. The sheet holding the most of them then flushes its rows to its temp
+ * file. <br>
+ * <br>
+ * Not streamed, the whole workbook is held in memory. The columns can then be
+ * sized to their cells, but the sheets share the strings and styles of the
+ * workbook unguarded, so they are written one by one.
+ *
+ * @author ssp5zone
+ */
+public class PoiWorkbookEngine implements WorkbookEngine {
+	private final static Logger log = LoggerFactory.getLogger(PoiWorkbookEngine.class);
+
+	private final Workbook workbook;
+
+	private final OutputStream out;
+
+	// Indexed by the ordinal of the type
+	private CellStyle[] styles;
+
+	private CellStyle columnStyle;
+
+	// Indexed by the StylePool id, created as the columns ask for them
+	private CellStyle[] pooledStyles = new CellStyle[0];
+
+	// The fonts of the pooled styles, shared by the ones that differ otherwise
+	private final Map<String, Font> fonts = new HashMap<String, Font>();
+
+	// 0 when the rows are windowed by count instead
+	private final long memoryBudget;
+
+	// The estimated bytes of the rows held in memory, across the sheets
+	private final AtomicLong retained = new AtomicLong();
+
+	// To find the one holding the most rows, guarded by itself
+	private final List<PoiSheetEngine> sheets = new ArrayList<PoiSheetEngine>();
+
+	public PoiWorkbookEngine(OutputStream out) {
+		this(out, 0, false);
+	}
+
+	/**
+	 * @param out               Where the workbook gets written
+	 * @param memoryBudget      The bytes of rows to hold in memory, 0 to hold the
+	 *                          last 500 rows of each sheet instead
+	 * @param compressTempFiles Whether to gzip the temp files of the streamed rows
+	 */
+	public PoiWorkbookEngine(OutputStream out, long memoryBudget, boolean compressTempFiles) {
+		// SXSSFWorkbook is whooping 300 times faster!!!!!!!!!!!!!!
+		// !!!DANGER!!!: SXSSFWorkbook has short term memory loss. It can now remember
+		// only a window of rows at a time. You also cant use formula's
+		// Be careful with SXSSFWorkbook
+		// -1 turns the auto flush off, the sheets then flush as per the budget
+		this(out, new SXSSFWorkbook(null, memoryBudget > 0 ? -1 : 500, compressTempFiles), memoryBudget);
+	}
+
+	/**
+	 * A workbook held in memory as a whole, for small exports.
+	 * 
+	 * @param out Where the workbook gets written
+	 * @return The engine
+	 */
+	public static PoiWorkbookEngine inMemory(OutputStream out) {
+		return new PoiWorkbookEngine(out, new XSSFWorkbook(), 0);
+	}
+
+	private PoiWorkbookEngine(OutputStream out, Workbook workbook, long memoryBudget) {
+		this.workbook = workbook;
+		this.memoryBudget = memoryBudget;
+		this.out = out;
+
+		// Initialize all the available styles we have defined in the ExcelCellStyle
+		// enum
+		this.initStyles();
+	}
+
+	private void initStyles() {
+		this.styles = new CellStyle[ExcelCellType.values().length];
+		for (ExcelCellType type : ExcelCellType.values()) {
+			this.styles[type.ordinal()] = type.getCellStyle(workbook);
+		}
+
+		// A simple column name style
+		Font font = workbook.createFont();
+		font.setBold(true);
+		font.setColor(IndexedColors.DARK_BLUE.getIndex());
+
+		this.columnStyle = workbook.createCellStyle();
+		this.columnStyle.setBorderBottom(BorderStyle.MEDIUM);
+		this.columnStyle.setBottomBorderColor(IndexedColors.BLUE1.getIndex());
+		this.columnStyle.setFont(font);
+	}
+
+	public Workbook getWorkbook() {
+		return this.workbook;
+	}
+
+	public CellStyle getStyle(ExcelCellType type) {
+		return this.styles[type.ordinal()];
+	}
+
+	public CellStyle getColumnStyle() {
+		return this.columnStyle;
+	}
+
+	/**
+	 * @param id The {@link StylePool} id of a format
+	 * @return The one cell style of the workbook with that format
+	 */
+	public synchronized CellStyle getPooledStyle(int id) {
+		if (id >= pooledStyles.length) {
+			pooledStyles = Arrays.copyOf(pooledStyles, Math.max(id + 1, pooledStyles.length * 2));
+		}
+		if (pooledStyles[id] == null) {
+			pooledStyles[id] = createStyle(StylePool.get(id));
+		}
+		return pooledStyles[id];
+	}
+
+	private CellStyle createStyle(CellFormat format) {
+		CellStyle style = workbook.createCellStyle();
+		if (!format.getFormat().equals("")) {
+			style.setDataFormat(workbook.createDataFormat().getFormat(format.getFormat()));
+		}
+		if (format.hasFont()) {
+			String key = format.isBold() + "/" + format.isItalic() + "/" + format.getColor();
+			Font font = fonts.get(key);
+			if (font == null) {
+				font = workbook.createFont();
+				font.setBold(format.isBold());
+				font.setItalic(format.isItalic());
+				if (format.getColor() != IndexedColors.AUTOMATIC) {
+					font.setColor(format.getColor().getIndex());
+				}
+				fonts.put(key, font);
+			}
+			style.setFont(font);
+		}
+		if (format.hasFill()) {
+			style.setFillForegroundColor(format.getFill().getIndex());
+			style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+		}
+		return style;
+	}
+
+	public boolean hasMemoryBudget() {
+		return this.memoryBudget > 0;
+	}
+
+	/**
+	 * Accounts for a row now held in memory. Once the rows held cross the memory
+	 * budget, the sheet holding the most of them is asked to flush. It does so
+	 * as it ends its next row, as only the thread writing a sheet may touch its
+	 * rows.
+	 * 
+	 * @param bytes The estimated size of the row
+	 */
+	void retain(long bytes) {
+		if (retained.addAndGet(bytes) > memoryBudget) {
+			PoiSheetEngine largest = null;
+			synchronized (sheets) {
+				for (PoiSheetEngine sheet : sheets) {
+					if (largest == null || sheet.getRetainedBytes() > largest.getRetainedBytes()) {
+						largest = sheet;
+					}
+				}
+			}
+			if (largest != null) {
+				largest.requestFlush();
+			}
+		}
+	}
+
+	/**
+	 * Accounts for rows flushed out of memory.
+	 * 
+	 * @param bytes The estimated size of the rows
+	 */
+	void release(long bytes) {
+		retained.addAndGet(-bytes);
+	}
+
+	@Override
+	public boolean isParallel() {
+		return workbook instanceof SXSSFWorkbook;
+	}
+
+	@Override
+	public SheetEngine createSheet() {
+		PoiSheetEngine sheet = new PoiSheetEngine(this, workbook.createSheet());
+		synchronized (sheets) {
+			sheets.add(sheet);
+		}
+		return sheet;
+	}
+
+	@Override
+	public void finish() throws IOException {
+		workbook.write(out);
+	}
+
+	@Override
+	public void close() {
+		// Get rid of the temp files backing the streamed rows. Before the close, as a
+		// sheet stopped midway cannot flush its last rows into a closed temp file.
+		if (workbook instanceof SXSSFWorkbook) {
+			((SXSSFWorkbook) workbook).dispose();
+		}
+		try {
+			workbook.close();
+		} catch (IOException e) {
+			log.warn("Unable to close the workbook due to: " + e);
+			log.info("The above exception is not fatal. Will try to continue");
+		}
+	}
+}
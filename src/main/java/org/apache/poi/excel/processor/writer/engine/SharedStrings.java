@@ -0,0 +1,141 @@
+package org.apache.poi.excel.processor.writer.engine;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import org.apache.poi.util.TempFile;
+
+/**
+ * The shared strings table of a {@link NativeWorkbookEngine}. Repeated texts
+ * are written once in the table and the cells only refer to them by index.
+ * <br>
+ * <br>
+ * The table itself is spooled to a temp file as it grows. Only the lookup of
+ * text to index is held in memory, bounded by an estimate of its heap size.
+ * When the bound is hit, the least recently used texts are forgotten. Should
+ * they come again they get a new entry, which a reader does not mind. <br>
+ * <br>
+ * Shared by all the sheets of a workbook, so it is thread safe.
+ *
+ * @author ssp5zone
+ */
+class SharedStrings {
+
+	// A rough heap cost of a cached text besides its characters: the String, its
+	// array, the map entry and the Integer
+	private static final int ENTRY_OVERHEAD = 96;
+
+	private final long limit;
+
+	// Access ordered, so the eldest entry is the least recently used
+	private final LinkedHashMap<String, Integer> lookup = new LinkedHashMap<String, Integer>(1024, 0.75f, true);
+	private long size;
+
+	private int uniqueCount;
+	private long count;
+
+	private File spool;
+	private XmlWriter xml;
+
+	/**
+	 * @param limit The memory bound of the lookup, in bytes
+	 */
+	SharedStrings(long limit) {
+		this.limit = limit;
+	}
+
+	/**
+	 * @param value The text
+	 * @return The index of the text in the table, -1 if it is not there (anymore)
+	 */
+	synchronized int find(String value) {
+		Integer index = lookup.get(value);
+		if (index == null) {
+			return -1;
+		}
+		count++;
+		return index;
+	}
+
+	/**
+	 * Adds the text to the table, unless some other sheet just did.
+	 * 
+	 * @param value The text
+	 * @return The index of the text in the table
+	 * @throws IOException If the table could not be spooled
+	 */
+	synchronized int add(String value) throws IOException {
+		count++;
+		Integer index = lookup.get(value);
+		if (index != null) {
+			return index;
+		}
+		if (xml == null) {
+			spool = TempFile.createTempFile("poi-excel-sst", ".xml");
+			xml = new XmlWriter(new FileOutputStream(spool));
+		}
+		if (value.length() > 0
+				&& (Character.isWhitespace(value.charAt(0)) || Character.isWhitespace(value.charAt(value.length() - 1)))) {
+			xml.write("<si><t xml:space=\"preserve\">");
+		} else {
+			xml.write("<si><t>");
+		}
+		xml.writeEscaped(value).write("</t></si>");
+
+		index = uniqueCount++;
+		lookup.put(value, index);
+		size += cost(value);
+
+		// Forget the least recently used, but always keep the one just added
+		Iterator<String> eldest = lookup.keySet().iterator();
+		while (size > limit && lookup.size() > 1) {
+			size -= cost(eldest.next());
+			eldest.remove();
+		}
+		return index;
+	}
+
+	private static long cost(String value) {
+		return ENTRY_OVERHEAD + 2L * value.length();
+	}
+
+	boolean isEmpty() {
+		return uniqueCount == 0;
+	}
+
+	int getUniqueCount() {
+		return uniqueCount;
+	}
+
+	long getCount() {
+		return count;
+	}
+
+	/**
+	 * Completes the spool file.
+	 * 
+	 * @return The <code>&lt;si&gt;</code> entries of the table, in index order
+	 * @throws IOException If the spool file could not be completed
+	 */
+	File finish() throws IOException {
+		xml.close();
+		return spool;
+	}
+
+	/**
+	 * Deletes the spool file, if any.
+	 */
+	void dispose() {
+		if (xml != null) {
+			try {
+				xml.close();
+			} catch (IOException e) {
+				// Going to be deleted anyway
+			}
+		}
+		NativeWorkbookEngine.delete(spool);
+	}
+}
@@ -0,0 +1,122 @@
+package org.apache.poi.excel.processor.writer.engine;
+
+import java.util.List;
+
+import org.apache.poi.excel.model.ConditionSchema;
+import org.apache.poi.excel.model.ExcelCellType;
+import org.apache.poi.excel.model.StylePool;
+
+/**
+ * A single sheet of a {@link WorkbookEngine}. <br>
+ * <br>
+ * Calls are expected in the order the sheet is laid out: name, heading,
+ * columns and freeze pane first, then the rows, then the filters. A sheet is
+ * used by one thread at a time, though different sheets may be written by
+ * different threads. <br>
+ * <br>
+ * Local class, to be used internally.
+ *
+ * @author ssp5zone
+ */
+public interface SheetEngine {
+
+	/**
+	 * @return 0 based position of this sheet in the workbook
+	 */
+	int getIndex();
+
+	/**
+	 * @return The name of the sheet tab
+	 */
+	String getName();
+
+	/**
+	 * @param name The name of the sheet tab
+	 * @throws IllegalArgumentException If the name is invalid or already taken
+	 */
+	void setName(String name);
+
+	/**
+	 * Writes a big heading in the 1st row, the sub heading in the 2nd row and
+	 * leaves the 3rd row as a spacer.
+	 * 
+	 * @param heading    The heading text
+	 * @param subHeading The sub heading text
+	 */
+	void writeHeading(String heading, String subHeading);
+
+	/**
+	 * Writes the column headers in the passed row.
+	 * 
+	 * @param rowIndex 0 based row index
+	 * @param headers  The column names, in order
+	 */
+	void writeColumns(int rowIndex, List<String> headers);
+
+	/**
+	 * Gives columns a format, font or fill of their own. Called before the first
+	 * row, and only if any column has one.
+	 * 
+	 * @param styles The {@link StylePool} ids of the styles of each column, by
+	 *               {@link StylePool#slotOf(ExcelCellType)}. Null for a column
+	 *               with only the styles of its types.
+	 */
+	void setColumnStyles(int[][] styles);
+
+	/**
+	 * @param column 0 based column index
+	 * @param width  The width in units of 1/256th of a character width
+	 */
+	void setColumnWidth(int column, int width);
+
+	/**
+	 * Keeps the first few rows in view while scrolling.
+	 * 
+	 * @param rows The number of rows to freeze
+	 */
+	void freezeRows(int rows);
+
+	/**
+	 * Starts a new data row. Rows must be started in increasing order.
+	 * 
+	 * @param rowIndex 0 based row index
+	 * @return The cursor to write the cells of this row
+	 */
+	CellCursor startRow(int rowIndex);
+
+	/**
+	 * Ends the row last started.
+	 */
+	void endRow();
+
+	/**
+	 * Resizes the columns to fit their content, if the engine can.
+	 * 
+	 * @param columns The number of columns to resize
+	 */
+	void autoSizeColumns(int columns);
+
+	/**
+	 * Adds filters on the passed row.
+	 * 
+	 * @param rowIndex   0 based row index
+	 * @param lastColumn 0 based index of the last column to filter
+	 */
+	void setAutoFilter(int rowIndex, int lastColumn);
+
+	/**
+	 * Highlights the cells of a column that meet the condition, as one
+	 * conditional format over the rows. Called after the rows, in the order of
+	 * priority.
+	 * 
+	 * @param firstRow  0 based index of the first row to highlight
+	 * @param lastRow   0 based index of the last row to highlight
+	 * @param condition The rule, the column and the look
+	 */
+	void addCondition(int firstRow, int lastRow, ConditionSchema condition);
+
+	/**
+	 * Nothing more would be written to this sheet.
+	 */
+	void finish();
+}
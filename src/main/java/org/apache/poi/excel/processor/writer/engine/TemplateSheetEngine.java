@@ -0,0 +1,145 @@
+package org.apache.poi.excel.processor.writer.engine;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.poi.excel.processor.index.TagScanner;
+
+/**
+ * The sheet of the {@link TemplateWorkbookEngine}. The rows are written just
+ * as the {@link NativeSheetEngine} does, in between what the template has
+ * around them. <br>
+ * <br>
+ * Everything of the template sheet before its rows is kept, but for the
+ * dimension, which would no longer be true. So are the rows above the first
+ * row, and everything after the rows, such as merged cells, conditional formats
+ * or the drawing with the logo. The rows of the template from the first row on
+ * are dropped, as the written ones take their place. <br>
+ * <br>
+ * Column widths, panes and filters are those of the template.
+ *
+ * @author ssp5zone
+ */
+public class TemplateSheetEngine extends NativeSheetEngine {
+	private final String name;
+	private final String partName;
+
+	// The template sheet XML before and after the written rows
+	private String prolog;
+	private String epilogue;
+
+	/**
+	 * @param engine   The workbook
+	 * @param name     The name of the sheet in the template
+	 * @param partName The zip entry of the sheet
+	 * @param template The sheet XML of the template
+	 * @param firstRow The 0 based row from which on the rows are replaced
+	 * @throws IOException If the template sheet has no sheet data
+	 */
+	TemplateSheetEngine(TemplateWorkbookEngine engine, String name, String partName, byte[] template, int firstRow)
+			throws IOException {
+		super(engine, 0);
+		this.name = name;
+		this.partName = partName;
+		split(template, firstRow);
+	}
+
+	/**
+	 * Finds where the written rows go in the template sheet XML.
+	 */
+	private void split(byte[] template, int firstRow) throws IOException {
+		TagScanner scanner = new TagScanner(new ByteArrayInputStream(template));
+		int dimensionStart = -1;
+		int dimensionEnd = -1;
+		int cut = -1;
+		boolean inData = false;
+		int rowNumber = 0;
+		while (scanner.next(false)) {
+			int offset = (int) scanner.getOffset();
+			if (scanner.is("dimension") && !scanner.isEnd()) {
+				scanner.readAttributes();
+				dimensionStart = offset;
+				dimensionEnd = (int) scanner.getEnd();
+			} else if (scanner.is("sheetData") && !scanner.isEnd()) {
+				if (!startsWith(template, offset + 1, "sheetData")) {
+					// The written rows have no prefix
+					throw new IOException("A sheet with a prefixed namespace cannot be filled");
+				}
+				if (scanner.readAttributes().endsWith("/")) {
+					split(template, dimensionStart, dimensionEnd, offset, (int) scanner.getEnd(), "<sheetData>",
+							"</sheetData>");
+					return;
+				}
+				inData = true;
+			} else if (scanner.is("sheetData")) {
+				// Rows from the cut on are dropped
+				split(template, dimensionStart, dimensionEnd, cut < 0 ? offset : cut, offset, "", "");
+				return;
+			} else if (inData && cut < 0 && scanner.is("row") && !scanner.isEnd()) {
+				String r = TagScanner.getAttribute(scanner.readAttributes(), "r");
+				rowNumber = r == null ? rowNumber + 1 : Integer.parseInt(r);
+				if (rowNumber > firstRow) {
+					cut = offset;
+				}
+			}
+		}
+		throw new IOException("The template sheet " + name + " has no sheet data");
+	}
+
+	/**
+	 * @param cut    Where the written rows start
+	 * @param resume Where the template goes on after them
+	 * @param open   Written before the rows
+	 * @param close  Written after the rows
+	 */
+	private void split(byte[] template, int dimensionStart, int dimensionEnd, int cut, int resume, String open,
+			String close) {
+		StringBuilder before = new StringBuilder();
+		if (dimensionStart >= 0) {
+			before.append(new String(template, 0, dimensionStart, StandardCharsets.UTF_8));
+			before.append(new String(template, dimensionEnd, cut - dimensionEnd, StandardCharsets.UTF_8));
+		} else {
+			before.append(new String(template, 0, cut, StandardCharsets.UTF_8));
+		}
+		this.prolog = before.append(open).toString();
+		this.epilogue = close + new String(template, resume, template.length - resume, StandardCharsets.UTF_8);
+	}
+
+	private static boolean startsWith(byte[] bytes, int from, String text) {
+		if (from + text.length() > bytes.length) {
+			return false;
+		}
+		for (int i = 0; i < text.length(); i++) {
+			if (bytes[from + i] != text.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	String getPartName() {
+		return this.partName;
+	}
+
+	@Override
+	public String getName() {
+		return this.name;
+	}
+
+	@Override
+	public void setName(String name) {
+		// The template has named the sheet already
+	}
+
+	@Override
+	void writeProlog(XmlWriter xml) throws IOException {
+		xml.write(prolog);
+	}
+
+	@Override
+	void writeEpilogue(XmlWriter xml) throws IOException {
+		xml.write(epilogue);
+	}
+}
@@ -0,0 +1,253 @@
+package org.apache.poi.excel.processor.writer.engine;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.apache.poi.excel.model.CellFormat;
+import org.apache.poi.excel.model.ExcelCellType;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.BuiltinFormats;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFFont;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link NativeWorkbookEngine} that fills one sheet of an existing workbook
+ * rather than writing a new one. <br>
+ * <br>
+ * Only the package relations are read to find the parts. The styles get the
+ * cell formats of this utility appended, and the sheet gets its rows replaced,
+ * see {@link TemplateSheetEngine}. Every other part of the template is copied
+ * into the new zip as it is, without being parsed.
+ *
+ * @author ssp5zone
+ */
+public class TemplateWorkbookEngine extends NativeWorkbookEngine {
+	private final static Logger log = LoggerFactory.getLogger(TemplateWorkbookEngine.class);
+
+	private final ZipFile template;
+	private final int firstRow;
+
+	// The sheet to fill, as named in the template
+	private String sheetName;
+	private String sheetPart;
+
+	private String stylesPart;
+	private StylesTable styles;
+
+	// The cellXfs of the styles of this engine, appended to the template's
+	private int[] cellXfs = new int[SMALL_HEADING_STYLE + 1];
+
+	private TemplateSheetEngine sheet;
+
+	/**
+	 * @param template  The xlsx to fill, left unchanged
+	 * @param sheetName The sheet to fill, matched ignoring the case
+	 * @param firstRow  The 0 based row from which on the rows are replaced
+	 * @param out       Where the filled workbook gets written
+	 * @throws IOException If the template could not be read or has no such sheet
+	 */
+	public TemplateWorkbookEngine(File template, String sheetName, int firstRow, OutputStream out)
+			throws IOException {
+		// The texts stay inline, the template may have a table of its own
+		super(out, 0);
+		this.firstRow = firstRow;
+		findParts(template, sheetName);
+		appendStyles();
+		this.template = new ZipFile(template);
+	}
+
+	/**
+	 * Looks up the parts of the sheet and the styles through the relations.
+	 */
+	private void findParts(File file, String name) throws IOException {
+		OPCPackage pkg;
+		try {
+			pkg = OPCPackage.open(file, PackageAccess.READ);
+		} catch (OpenXML4JException | RuntimeException e) {
+			throw new IOException("Unable to open the template " + file, e);
+		}
+		try {
+			XSSFReader reader = new XSSFReader(pkg);
+			XSSFReader.SheetIterator iterator = (XSSFReader.SheetIterator) reader.getSheetsData();
+			while (iterator.hasNext()) {
+				iterator.next().close();
+				if (sheetName == null && iterator.getSheetName().equalsIgnoreCase(name)) {
+					sheetName = iterator.getSheetName();
+					sheetPart = toEntryName(iterator.getSheetPart().getPartName().getName());
+				}
+			}
+			styles = reader.getStylesTable();
+			if (styles != null) {
+				stylesPart = toEntryName(styles.getPackagePart().getPartName().getName());
+			}
+		} catch (OpenXML4JException | RuntimeException e) {
+			throw new IOException("Unable to read the parts of the template " + file, e);
+		} finally {
+			pkg.revert();
+		}
+		if (sheetName == null) {
+			throw new IOException("The template has no sheet named " + name);
+		}
+		if (styles == null) {
+			throw new IOException("The template has no styles");
+		}
+	}
+
+	/**
+	 * The part names are absolute, the zip entries are not.
+	 */
+	private static String toEntryName(String partName) {
+		return partName.startsWith("/") ? partName.substring(1) : partName;
+	}
+
+	/**
+	 * Adds a cell format per cell type, and a bold one for the column headers,
+	 * in the font of the template.
+	 */
+	private void appendStyles() {
+		for (ExcelCellType type : ExcelCellType.values()) {
+			cellXfs[getStyle(type)] = createStyle(new CellFormat(type.getFormat(), false, false, null, null));
+		}
+
+		XSSFFont base = styles.getFontAt(0);
+		XSSFFont font = new XSSFFont();
+		font.setFontName(base.getFontName());
+		font.setFontHeight(base.getFontHeight());
+		font.setBold(true);
+		font.setColor(IndexedColors.DARK_BLUE.getIndex());
+		font.registerTo(styles);
+		XSSFCellStyle header = styles.createCellStyle();
+		header.setFont(font);
+		header.setBorderBottom(BorderStyle.MEDIUM);
+		header.setBottomBorderColor(IndexedColors.BLUE1.getIndex());
+		// No heading is ever written, but the headers are the closest
+		cellXfs[COLUMN_STYLE] = header.getIndex();
+		cellXfs[HEADING_STYLE] = header.getIndex();
+		cellXfs[SMALL_HEADING_STYLE] = header.getIndex();
+	}
+
+	@Override
+	synchronized int getPooledStyle(int id) {
+		int style = super.getPooledStyle(id);
+		if (style >= cellXfs.length) {
+			cellXfs = Arrays.copyOf(cellXfs, style + 1);
+			cellXfs[style] = createStyle(getPooledFormat(style));
+		}
+		return style;
+	}
+
+	/**
+	 * @return The cellXfs index of a new style of the format
+	 */
+	private int createStyle(CellFormat format) {
+		XSSFCellStyle style = styles.createCellStyle();
+		String code = format.getFormat();
+		if (!code.equals("")) {
+			int builtin = BuiltinFormats.getBuiltinFormat(code);
+			style.setDataFormat(builtin >= 0 ? builtin : styles.putNumberFormat(code));
+		}
+		if (format.hasFont()) {
+			XSSFFont base = styles.getFontAt(0);
+			XSSFFont font = new XSSFFont();
+			font.setFontName(base.getFontName());
+			font.setFontHeight(base.getFontHeight());
+			font.setBold(format.isBold());
+			font.setItalic(format.isItalic());
+			if (format.getColor() != IndexedColors.AUTOMATIC) {
+				font.setColor(format.getColor().getIndex());
+			}
+			// Equal fonts are registered once
+			font.registerTo(styles);
+			style.setFont(font);
+		}
+		if (format.hasFill()) {
+			style.setFillForegroundColor(format.getFill().getIndex());
+			style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+		}
+		return style.getIndex();
+	}
+
+	@Override
+	int toCellXf(int style) {
+		return cellXfs[style];
+	}
+
+	@Override
+	public SheetEngine createSheet() {
+		if (sheet != null) {
+			throw new IllegalStateException("A template is filled with one sheet only");
+		}
+		try (InputStream in = template.getInputStream(template.getEntry(sheetPart))) {
+			sheet = new TemplateSheetEngine(this, sheetName, sheetPart, IOUtils.toByteArray(in), firstRow);
+		} catch (IOException e) {
+			throw new IllegalStateException("Unable to read the sheet " + sheetName + " of the template", e);
+		}
+		return sheet;
+	}
+
+	@Override
+	void finishSheets() throws IOException {
+		if (sheet != null) {
+			sheet.finish();
+		}
+	}
+
+	@Override
+	void writeParts() throws IOException {
+		Enumeration<? extends ZipEntry> entries = template.entries();
+		while (entries.hasMoreElements()) {
+			ZipEntry entry = entries.nextElement();
+			String name = entry.getName();
+			if (name.equals(stylesPart)) {
+				ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+				styles.writeTo(bytes);
+				copyPart(new ZipEntry(name), new ByteArrayInputStream(bytes.toByteArray()));
+			} else if (!name.equals(sheetPart) || sheet == null) {
+				copyPart(copyOf(entry), template.getInputStream(entry));
+			}
+		}
+	}
+
+	/**
+	 * @return A new entry of the same name. A stored entry, most likely an image,
+	 *         stays stored so it is not compressed again.
+	 */
+	private static ZipEntry copyOf(ZipEntry entry) {
+		ZipEntry copy = new ZipEntry(entry.getName());
+		if (entry.getMethod() == ZipEntry.STORED) {
+			copy.setMethod(ZipEntry.STORED);
+			copy.setSize(entry.getSize());
+			copy.setCompressedSize(entry.getSize());
+			copy.setCrc(entry.getCrc());
+		}
+		return copy;
+	}
+
+	@Override
+	public void close() {
+		super.close();
+		try {
+			template.close();
+		} catch (IOException e) {
+			log.warn("Unable to close the template due to: " + e);
+		}
+	}
+}
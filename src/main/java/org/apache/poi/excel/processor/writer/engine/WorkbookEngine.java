@@ -0,0 +1,48 @@
+package org.apache.poi.excel.processor.writer.engine;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import org.apache.poi.excel.ExcelWriter;
+import org.apache.poi.excel.model.ExcelEngine;
+
+/**
+ * Produces the actual excel file of one export. Each {@link ExcelEngine} has
+ * its own implementation. The engine is bound to its output stream when
+ * created, so that it may stream parts out as soon as they are ready. <br>
+ * <br>
+ * Local class, to be used internally.
+ *
+ * @author ssp5zone
+ * @see ExcelWriter
+ */
+public interface WorkbookEngine extends Closeable {
+
+	/**
+	 * Adds a new sheet at the end of the workbook. Not thread safe.
+	 * 
+	 * @return The new sheet
+	 */
+	SheetEngine createSheet();
+
+	/**
+	 * @return true if the rows of different sheets may be written by different
+	 *         threads at the same time
+	 */
+	boolean isParallel();
+
+	/**
+	 * Writes whatever is left of the workbook into the output stream. The stream
+	 * itself is not closed.
+	 * 
+	 * @throws IOException If the stream could not be written to.
+	 */
+	void finish() throws IOException;
+
+	/**
+	 * Releases any memory and temp files held by this engine. Safe to call even
+	 * if {@link #finish()} was never called.
+	 */
+	@Override
+	void close();
+}
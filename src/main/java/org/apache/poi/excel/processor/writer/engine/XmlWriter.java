@@ -0,0 +1,146 @@
+package org.apache.poi.excel.processor.writer.engine;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A thin UTF-8 writer for the SpreadsheetML parts. It writes numbers without
+ * creating Strings for them and only escapes text that actually needs it. <br>
+ * <br>
+ * Local class, to be used internally.
+ *
+ * @author ssp5zone
+ */
+class XmlWriter {
+	private final Writer out;
+
+	// Scratch space for the digits of a number
+	private final char[] digits = new char[20];
+
+	// Scratch space for the text of a fractional number
+	private final StringBuilder fraction = new StringBuilder(32);
+	private final char[] fractionChars = new char[32];
+
+	XmlWriter(OutputStream stream) {
+		this.out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), 1 << 16);
+	}
+
+	XmlWriter write(String text) throws IOException {
+		out.write(text);
+		return this;
+	}
+
+	XmlWriter write(char[] text, int length) throws IOException {
+		out.write(text, 0, length);
+		return this;
+	}
+
+	XmlWriter write(char c) throws IOException {
+		out.write(c);
+		return this;
+	}
+
+	/**
+	 * Writes an integer without any intermediate String.
+	 */
+	XmlWriter write(long value) throws IOException {
+		out.write(digits, 0, toChars(value, digits));
+		return this;
+	}
+
+	/**
+	 * Writes whole numbers as such, the fractional ones as
+	 * {@link Double#toString(double)} would, but through a reused builder so that
+	 * no String is created.
+	 */
+	XmlWriter write(double value) throws IOException {
+		long whole = (long) value;
+		if (whole == value && whole > -1_000_000_000_000_000L && whole < 1_000_000_000_000_000L) {
+			return write(whole);
+		}
+		fraction.setLength(0);
+		fraction.append(value);
+		int length = fraction.length();
+		fraction.getChars(0, length, fractionChars, 0);
+		out.write(fractionChars, 0, length);
+		return this;
+	}
+
+	/**
+	 * Writes the text escaped for use as an element value or an attribute.
+	 * Characters that XML 1.0 cannot carry are replaced with a '?'.
+	 */
+	XmlWriter writeEscaped(String text) throws IOException {
+		int length = text.length();
+		int start = 0;
+		for (int i = 0; i < length; i++) {
+			char c = text.charAt(i);
+			String replacement;
+			if (c == '<') {
+				replacement = "&lt;";
+			} else if (c == '>') {
+				replacement = "&gt;";
+			} else if (c == '&') {
+				replacement = "&amp;";
+			} else if (c == '"') {
+				replacement = "&quot;";
+			} else if (c == '\r') {
+				replacement = "&#13;";
+			} else if ((c < 0x20 && c != '\t' && c != '\n') || c == 0xFFFE || c == 0xFFFF) {
+				replacement = "?";
+			} else {
+				continue;
+			}
+			// Copy the run of plain characters, then the replacement
+			if (i > start) {
+				out.write(text, start, i - start);
+			}
+			out.write(replacement);
+			start = i + 1;
+		}
+		if (start < length) {
+			out.write(text, start, length - start);
+		}
+		return this;
+	}
+
+	void flush() throws IOException {
+		out.flush();
+	}
+
+	void close() throws IOException {
+		out.close();
+	}
+
+	/**
+	 * Fills the passed buffer with the decimal digits of the value.
+	 * 
+	 * @return The number of characters used
+	 */
+	static int toChars(long value, char[] buffer) {
+		if (value == Long.MIN_VALUE) {
+			String text = Long.toString(value);
+			text.getChars(0, text.length(), buffer, 0);
+			return text.length();
+		}
+		boolean negative = value < 0;
+		if (negative) {
+			value = -value;
+		}
+		int position = buffer.length;
+		do {
+			buffer[--position] = (char) ('0' + (value % 10));
+			value /= 10;
+		} while (value != 0);
+		if (negative) {
+			buffer[--position] = '-';
+		}
+		int length = buffer.length - position;
+		System.arraycopy(buffer, position, buffer, 0, length);
+		return length;
+	}
+}
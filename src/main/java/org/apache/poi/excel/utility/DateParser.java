@@ -0,0 +1,159 @@
+package org.apache.poi.excel.utility;
+
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Converts any partial Date-time text into a java.util.Date. <br>
+ * <br>
+ * It tries the standard ISO format first and then a bunch of other known
+ * formats. The format that worked is remembered and tried first the next time,
+ * so keep one instance per column and the column is parsed with a single
+ * attempt per cell. The formatters are compiled only once. <br>
+ * <br>
+ * Safe to share between threads.
+ *
+ * @author ssp5zone
+ * @see DateUtil#parse(String)
+ */
+public class DateParser {
+	private final static Logger log = LoggerFactory.getLogger(DateParser.class);
+
+	// The different versions of Zulu time format that I could think of. [] implies
+	// optional. [XXX] implies 'Z'oned time like -03:00.
+	private static final DateTimeFormatter ISO_FORMAT = DateTimeFormatter
+			.ofPattern("yyyy-MM-dd[[ ]['T']HH:mm[:ss][.SSSSSSSSS][.SSSSSS][.SSS][.S][XXX]]");
+
+	// The submission time contains zone name like [America/New_york], [UTC-5] etc.
+	// This is redundant and not a standard that a parser can understand.
+	private static final Pattern ZONE_NAME = Pattern.compile("\\[.*\\]");
+
+	// All alternate time formats you can think of
+	private static final String[] OTHER_FORMATS = { "MM/dd/yyyy", "MM/dd/yy", "yyyy/MM/dd", "yy/MM/dd", "mmddyy",
+			"ddmmyy", "MMM dd, yy", "MMM dd, yyyy", "EEE, d MMM yyyy HH:mm:ss Z" };
+
+	// SimpleDateFormat is not thread safe, so each thread gets its own set
+	private static final ThreadLocal<SimpleDateFormat[]> otherFormats = ThreadLocal.withInitial(() -> {
+		SimpleDateFormat[] formats = new SimpleDateFormat[OTHER_FORMATS.length];
+		for (int i = 0; i < formats.length; i++) {
+			formats[i] = new SimpleDateFormat(OTHER_FORMATS[i]);
+		}
+		return formats;
+	});
+
+	// 0 is the ISO format, the rest are OTHER_FORMATS. -1 till the first success.
+	private volatile int learned = -1;
+
+	/**
+	 * Parses the timestamp, trying the format that worked last time first.
+	 * 
+	 * @param timestamp the timestamp
+	 * @return the date, null if empty or in a format that is not understood
+	 */
+	public Date parse(String timestamp) {
+		if (timestamp == null || timestamp.trim().equals("")) {
+			return null;
+		}
+		Date parsedDate = tryParse(timestamp);
+		if (parsedDate == null) {
+			log.error("Unable to parse the passed date: '" + timestamp + "' to any known format");
+		}
+		return parsedDate;
+	}
+
+	/**
+	 * Same as {@link #parse(String)}, but logs nothing, for callers that count
+	 * the texts that are no date themselves.
+	 * 
+	 * @param timestamp the timestamp, must not be null
+	 * @return the date, null if empty or in a format that is not understood
+	 */
+	public Date tryParse(String timestamp) {
+		int first = this.learned;
+		if (first >= 0) {
+			Date parsedDate = parse(first, timestamp);
+			if (parsedDate != null) {
+				return parsedDate;
+			}
+		}
+		for (int format = 0; format <= OTHER_FORMATS.length; format++) {
+			if (format != first) {
+				Date parsedDate = parse(format, timestamp);
+				if (parsedDate != null) {
+					this.learned = format;
+					return parsedDate;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return The format that worked last, -1 if none yet. Visible for testing.
+	 */
+	int getLearned() {
+		return this.learned;
+	}
+
+	private static Date parse(int format, String timestamp) {
+		return format == 0 ? parseIso(timestamp) : parseOther(otherFormats.get()[format - 1], timestamp);
+	}
+
+	private static Date parseIso(String timestamp) {
+		// Eg. 2018-10-18T14:36:19.419-05:00[UTC-05:00] becomes
+		// 2018-10-18T14:36:19.419-05:00
+		if (timestamp.indexOf('[') >= 0) {
+			timestamp = ZONE_NAME.matcher(timestamp).replaceAll("");
+		}
+		// Checked first, as most texts of a column in another format would otherwise
+		// throw an exception each
+		ParsePosition position = new ParsePosition(0);
+		if (ISO_FORMAT.parseUnresolved(timestamp, position) == null || position.getIndex() != timestamp.length()) {
+			return null;
+		}
+		TemporalAccessor ta;
+		try {
+			// Lets try to parse it and see if it matches anything that we understand
+			ta = ISO_FORMAT.parseBest(timestamp, OffsetDateTime::from, LocalDateTime::from, LocalDate::from);
+		} catch (DateTimeParseException e) {
+			return null;
+		}
+
+		// Check if the parsed result was any known format
+		if (ta instanceof ZonedDateTime) {
+			return DateUtil.asDate((ZonedDateTime) ta);
+		} else if (ta instanceof OffsetDateTime) {
+			// An offset was present, the instant is known
+			return DateUtil.asDate((OffsetDateTime) ta);
+		} else if (ta instanceof LocalDateTime) {
+			// No Offset. Use it as a time stamp.
+			return DateUtil.asDate((LocalDateTime) ta);
+		} else if (ta instanceof LocalDate) {
+			// No time. Use it as a Date.
+			return DateUtil.asDate((LocalDate) ta);
+		}
+		return null;
+	}
+
+	/**
+	 * Same rules as the commons-lang DateUtils.parseDate used earlier, a lenient
+	 * parse that must consume the whole text.
+	 */
+	private static Date parseOther(SimpleDateFormat format, String timestamp) {
+		ParsePosition position = new ParsePosition(0);
+		Date parsedDate = format.parse(timestamp, position);
+		return parsedDate != null && position.getIndex() == timestamp.length() ? parsedDate : null;
+	}
+}
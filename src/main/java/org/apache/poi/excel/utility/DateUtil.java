@@ -1,24 +1,52 @@
 package org.apache.poi.excel.utility;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.temporal.TemporalAccessor;
 import java.util.Date;
 
-import org.apache.commons.lang.time.DateUtils;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 public class DateUtil {
-	private final static Logger log = LoggerFactory.getLogger(DateUtil.class);
-
 	/** The Constant DATE_FORMAT_YYYY_MM_DD. */
 	public static final String DATE_FORMAT_YYYY_MM_DD = "yyyy-MM-dd";
 
+	/** The serial number of 1970-01-01 in Excel, ignoring its 1900-02-29. */
+	private static final long EPOCH_SERIAL = 25568;
+
+	private static final double DAY_MILLISECONDS = 86_400_000.0;
+
+	/** What Excel can not show, same as POI. */
+	private static final double BAD_SERIAL = -1;
+
+	/** The zone used when none is given, New York unless configured otherwise. */
+	private static volatile ZoneId zone = ZoneId.of("America/New_York");
+
+	/**
+	 * The zone in which the dates and times without an offset are assumed to be.
+	 * 
+	 * @return the zone
+	 */
+	public static ZoneId getZone() {
+		return zone;
+	}
+
+	/**
+	 * Sets the zone in which the dates and times without an offset are assumed to
+	 * be. Defaults to America/New_York. <br>
+	 * <br>
+	 * Applies to every export of the JVM, configure this once at startup.
+	 * 
+	 * @param zone the zone
+	 */
+	public static void setZone(ZoneId zone) {
+		if (zone == null) {
+			throw new IllegalArgumentException("The zone can not be null");
+		}
+		DateUtil.zone = zone;
+	}
+
 	/**
 	 * As date.
 	 * 
@@ -26,7 +54,7 @@ public class DateUtil {
 	 * @return the date
 	 */
 	public static Date asDate(LocalDate localDate) {
-		return Date.from(localDate.atStartOfDay().atZone(ZoneId.of("America/New_York")).toInstant());
+		return Date.from(localDate.atStartOfDay().atZone(zone).toInstant());
 	}
 
 	/**
@@ -36,7 +64,7 @@ public class DateUtil {
 	 * @return the date
 	 */
 	public static Date asDate(LocalDateTime localDateTime) {
-		return Date.from(localDateTime.atZone(ZoneId.of("America/New_York")).toInstant());
+		return Date.from(localDateTime.atZone(zone).toInstant());
 	}
 
 	/**
@@ -59,64 +87,112 @@ public class DateUtil {
 		return Date.from(zonedDateTime.toInstant());
 	}
 
+	/**
+	 * The Excel serial number of a date, i.e. the days since 1900-01-00 with
+	 * Excel's made up 1900-02-29 included. Computed straight from the epoch day,
+	 * no Date or Calendar involved.
+	 * 
+	 * @param localDate the local date, as is
+	 * @return the serial number, -1 if before 1900 as Excel can't show those
+	 */
+	public static double toSerial(LocalDate localDate) {
+		if (localDate.getYear() < 1900) {
+			return BAD_SERIAL;
+		}
+		return toSerial(0, localDate.toEpochDay());
+	}
+
+	/**
+	 * The Excel serial number of a date and time, the fraction being the part of
+	 * the day. Millisecond precision, same as POI.
+	 * 
+	 * @param localDateTime the local date time, as is
+	 * @return the serial number, -1 if before 1900 as Excel can't show those
+	 */
+	public static double toSerial(LocalDateTime localDateTime) {
+		if (localDateTime.getYear() < 1900) {
+			return BAD_SERIAL;
+		}
+		// Same arithmetic as POI, so that the numbers match to the last bit
+		double fraction = (((localDateTime.getHour() * 60.0 + localDateTime.getMinute()) * 60.0
+				+ localDateTime.getSecond()) * 1000.0 + localDateTime.getNano() / 1_000_000) / DAY_MILLISECONDS;
+		return toSerial(fraction, localDateTime.toLocalDate().toEpochDay());
+	}
+
+	/**
+	 * The Excel serial number of an instant. Instants are shown in the zone of
+	 * the JVM, just like POI shows a java.util.Date.
+	 * 
+	 * @param offsetDateTime the offset date time
+	 * @return the serial number
+	 */
+	public static double toSerial(OffsetDateTime offsetDateTime) {
+		return toSerial(offsetDateTime.atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime());
+	}
+
+	/**
+	 * The Excel serial number of an instant. Instants are shown in the zone of
+	 * the JVM, just like POI shows a java.util.Date.
+	 * 
+	 * @param zonedDateTime the zoned date time
+	 * @return the serial number
+	 */
+	public static double toSerial(ZonedDateTime zonedDateTime) {
+		return toSerial(zonedDateTime.withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime());
+	}
+
+	/**
+	 * The Excel serial number of an instant. Instants are shown in the zone of
+	 * the JVM, just like POI shows a java.util.Date.
+	 * 
+	 * @param instant the instant
+	 * @return the serial number
+	 */
+	public static double toSerial(Instant instant) {
+		return toSerial(LocalDateTime.ofInstant(instant, ZoneId.systemDefault()));
+	}
+
+	/**
+	 * The date and time of an Excel serial number, as is. The reverse of
+	 * {@link #toSerial(LocalDateTime)}, rounded to the millisecond.
+	 * 
+	 * @param serial the serial number
+	 * @return the local date time, null if negative as Excel can't show those
+	 */
+	public static LocalDateTime toLocalDateTime(double serial) {
+		if (serial < 0 || Double.isNaN(serial) || Double.isInfinite(serial)) {
+			return null;
+		}
+		long days = (long) Math.floor(serial);
+		long millis = Math.round((serial - days) * DAY_MILLISECONDS);
+		// Skip back over Excel's 1900-02-29
+		if (days >= 61) {
+			days--;
+		}
+		return LocalDate.ofEpochDay(days - EPOCH_SERIAL).atStartOfDay().plusNanos(millis * 1_000_000);
+	}
+
+	private static double toSerial(double fraction, long epochDay) {
+		double value = fraction + (epochDay + EPOCH_SERIAL);
+		// Excel believes 1900 was a leap year, so every day after the 28th of February
+		// is one more
+		if (value >= 60) {
+			value++;
+		}
+		return value;
+	}
+
 	/**
 	 * Convert any partial Date-time format into a java.util.Date. If it is unable
-	 * to understand the passed format, it just returns null
+	 * to understand the passed format, it just returns null. <br>
+	 * <br>
+	 * To parse a whole column, keep a {@link DateParser} instead. It remembers
+	 * the format that worked.
 	 * 
 	 * @param timestamp the timestamp
 	 * @return the string
 	 */
 	public static Date parse(String timestamp) {
-		Date parsedDate = null;
-		if (timestamp != null && !timestamp.trim().equals("")) {
-			// First lets see if it is a standard ISO format
-			try {
-				// The submission time contains zone name like [America/New_york], [UTC-5] etc.
-				// This is redundant and not a standard that a parser can understand. So lets
-				// get rid of that.
-				// Eg. 2018-10-18T14:36:19.419-05:00[UTC-05:00] becomes
-				// 2018-10-18T14:36:19.419-05:00
-				timestamp = timestamp.replaceAll("\\[.*\\]", "");
-
-				// The different versions of Zulu time format that I could think of. [] implies
-				// optional. [XXX] implies 'Z'oned time like -03:00.
-				DateTimeFormatter formatter = DateTimeFormatter
-						.ofPattern("yyyy-MM-dd[[ ]['T']HH:mm[:ss][.SSSSSSSSS][.SSSSSS][.SSS][.S][XXX]]");
-
-				// Lets try to parse it and see if it matches anything that we understand
-				TemporalAccessor ta = formatter.parseBest(timestamp, OffsetDateTime::from, LocalDateTime::from,
-						LocalDate::from);
-
-				// Check if the parsed result was any known format
-				if (ta instanceof ZonedDateTime) {
-					// An offset was present, convert it to New York Time.
-					parsedDate = asDate(ZonedDateTime.from(ta));
-				} else if (ta instanceof OffsetDateTime) {
-					// An offset was present, convert it to New York Time.
-					parsedDate = asDate(OffsetDateTime.from(ta));
-				} else if (ta instanceof LocalDateTime) {
-					// No Offset. Use it as a time stamp.
-					parsedDate = asDate(LocalDateTime.from(ta));
-				} else if (ta instanceof LocalDate) {
-					// No time. Use it as a Date.
-					parsedDate = asDate(LocalDate.from(ta));
-				} else {
-					throw new Exception("Cannot understand date-time format");
-				}
-			} catch (Exception p) {
-				log.warn("The date was not in the standard format. Trying other known date formats.");
-				// Hmm... Things did not work. Lets try something else
-				try {
-					// All alternate time formats you can think of
-					parsedDate = DateUtils.parseDate(timestamp,
-							new String[] { "MM/dd/yyyy", "MM/dd/yy", "yyyy/MM/dd", "yy/MM/dd", "mmddyy", "ddmmyy",
-									"MMM dd, yy", "MMM dd, yyyy", "EEE, d MMM yyyy HH:mm:ss Z" });
-					;
-				} catch (Exception pex) {
-					log.error("Unable to parse the passed date: '" + timestamp + "' to any known format");
-				}
-			}
-		}
-		return parsedDate;
+		return new DateParser().parse(timestamp);
 	}
-}
\ No newline at end of file
+}
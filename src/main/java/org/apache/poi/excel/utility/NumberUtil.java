@@ -0,0 +1,126 @@
+package org.apache.poi.excel.utility;
+
+public class NumberUtil {
+
+	/** Powers of ten that are exact as a double. */
+	private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9 };
+
+	/**
+	 * Widens a float to the double a person would expect, i.e. 0.1f becomes 0.1
+	 * and not 0.10000000149011612. <br>
+	 * <br>
+	 * Same as <code>Double.parseDouble(Float.toString(value))</code> for the
+	 * usual values, but without the String. It looks for the least number of
+	 * decimal places that still give back the same float.
+	 * 
+	 * @param value the float
+	 * @return the double
+	 */
+	public static double toDouble(float value) {
+		if (Float.isNaN(value) || Float.isInfinite(value)) {
+			return value;
+		}
+		for (double power : POWERS_OF_TEN) {
+			double decimal = Math.rint(value * power) / power;
+			if ((float) decimal == value) {
+				return decimal;
+			}
+		}
+		// Too small for a fixed number of decimals, rare enough to pay for the String
+		return Double.parseDouble(Float.toString(value));
+	}
+
+	/**
+	 * Converts any numeric looking object to a double, without going through its
+	 * text if it is a {@link Number}. A {@link java.math.BigDecimal} is rounded
+	 * once, to the nearest double.
+	 * 
+	 * @param value the object, must not be null
+	 * @return the double
+	 * @throws NumberFormatException if it is not a number
+	 */
+	public static double toDouble(Object value) {
+		if (value instanceof Float) {
+			return toDouble(((Float) value).floatValue());
+		} else if (value instanceof Number) {
+			// Integer, Long, BigDecimal and the like
+			return ((Number) value).doubleValue();
+		}
+		return Double.parseDouble(value.toString());
+	}
+
+	/**
+	 * Checks a text the way {@link Double#parseDouble(String)} would read it, but
+	 * without throwing, so that a column of bad values does not cost an exception
+	 * per cell. Hexadecimal numbers are rare enough to be left to the parse
+	 * itself.
+	 * 
+	 * @param text the text, must not be null
+	 * @return true if it can be parsed as a double
+	 */
+	public static boolean isNumber(String text) {
+		// Same as String.trim(), which the parse does as well
+		int start = 0;
+		int end = text.length();
+		while (start < end && text.charAt(start) <= ' ') {
+			start++;
+		}
+		while (end > start && text.charAt(end - 1) <= ' ') {
+			end--;
+		}
+		int i = start;
+		if (i < end && (text.charAt(i) == '+' || text.charAt(i) == '-')) {
+			i++;
+		}
+		if (text.startsWith("NaN", i)) {
+			return i + 3 == end;
+		}
+		if (text.startsWith("Infinity", i)) {
+			return i + 8 == end;
+		}
+		if (i + 1 < end && text.charAt(i) == '0' && (text.charAt(i + 1) == 'x' || text.charAt(i + 1) == 'X')) {
+			try {
+				Double.parseDouble(text);
+				return true;
+			} catch (NumberFormatException e) {
+				return false;
+			}
+		}
+		int digits = 0;
+		while (i < end && isDigit(text.charAt(i))) {
+			i++;
+			digits++;
+		}
+		if (i < end && text.charAt(i) == '.') {
+			i++;
+			while (i < end && isDigit(text.charAt(i))) {
+				i++;
+				digits++;
+			}
+		}
+		if (digits == 0) {
+			return false;
+		}
+		if (i < end && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+			i++;
+			if (i < end && (text.charAt(i) == '+' || text.charAt(i) == '-')) {
+				i++;
+			}
+			int exponent = i;
+			while (i < end && isDigit(text.charAt(i))) {
+				i++;
+			}
+			if (i == exponent) {
+				return false;
+			}
+		}
+		if (i < end && "fFdD".indexOf(text.charAt(i)) >= 0) {
+			i++;
+		}
+		return i == end;
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+}
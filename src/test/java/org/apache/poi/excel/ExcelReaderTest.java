@@ -0,0 +1,340 @@
+package org.apache.poi.excel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.apache.poi.excel.annotation.ExcelCell;
+import org.apache.poi.excel.annotation.ExcelSheet;
+import org.apache.poi.excel.model.DelimitedFormat;
+import org.apache.poi.excel.model.ExcelAnnotated;
+import org.apache.poi.excel.model.ExcelEngine;
+import org.apache.poi.excel.model.ExcelGenerated;
+import org.apache.poi.excel.model.SheetSource;
+import org.apache.poi.excel.model.TempFileStrategy;
+import org.apache.poi.excel.model.WorkbookRows;
+import org.apache.poi.excel.processor.index.RowIndex;
+import org.apache.poi.excel.utility.JsonReader;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.util.TempFile;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ExcelReaderTest {
+
+	private static List<ExcelAnnotated> annontatedPojo;
+	private static List<ExcelGenerated> generatedPojo;
+
+	private static final String scratchPath = "build/output/";
+
+	/**
+	 * Only the code and the level of the Generated sheet, the other way round.
+	 */
+	@ExcelSheet(name = "Generated")
+	static class ExcelProjected {
+		@ExcelCell(index = 1)
+		short level;
+
+		@ExcelCell(index = 2, header = "Code")
+		String code;
+	}
+
+	@BeforeClass
+	public static void onlyOnce() throws IOException {
+		TempFileStrategy strategy = new TempFileStrategy();
+		strategy.createTempDirectory("");
+		TempFile.setTempFileCreationStrategy(strategy);
+		new File(scratchPath).mkdirs();
+	}
+
+	@BeforeClass
+	public static void initMocks() throws FileNotFoundException {
+		annontatedPojo = JsonReader.read("Annotated.json", ExcelAnnotated.class);
+
+		Calendar calendar = Calendar.getInstance();
+		calendar.setTimeInMillis(1583812827000L);
+		generatedPojo = new ArrayList<ExcelGenerated>();
+		for (int i = 0; i < 3000; i++) {
+			generatedPojo.add(new ExcelGenerated("A-" + (i % 7), i, 0.1f * i, 0.25f, i % 2 == 0, 'B', calendar,
+					new java.sql.Date(1583812827000L), LocalDate.of(2020, 3, 9).plusDays(i), "2020-03-09T23:00:27",
+					TimeUnit.values()[i % 7], new BigDecimal("1234.56"), (short) i, LocalDateTime.of(2020, 3, 9, 23, 0, 27),
+					OffsetDateTime.of(2020, 3, 9, 23, 0, 27, 0, ZoneOffset.ofHours(5))));
+		}
+		generatedPojo.add(new ExcelGenerated());
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		// POI and the native engine, each writes its own sheet XML
+		for (ExcelEngine engine : new ExcelEngine[] { ExcelEngine.SXSSF, ExcelEngine.NATIVE }) {
+			ExcelWriter writer = new ExcelWriter();
+			writer.setEngine(engine);
+			writer.setSharedStringsLimit(1024);
+			File file = writer.writeFile(scratchPath, "ReadBack" + engine + ".xlsx", generatedPojo);
+
+			List<ExcelGenerated> rows = ExcelReader.read(file, ExcelGenerated.class);
+			assertEquals(generatedPojo.size(), rows.size());
+			assertEquals("A-3", rows.get(10).getCode());
+			assertEquals(Integer.valueOf(10), rows.get(10).getCount());
+			assertEquals(1f, rows.get(10).getAmount(), 0.00001);
+
+			// Written again, the same cells
+			ByteArrayOutputStream expected = new ByteArrayOutputStream();
+			writer.writeStream(expected, SheetSource.of(generatedPojo));
+			ByteArrayOutputStream actual = new ByteArrayOutputStream();
+			writer.writeStream(actual, SheetSource.of(rows));
+			assertSameCells(expected.toByteArray(), actual.toByteArray());
+		}
+	}
+
+	@Test
+	public void testHeadingAndStream() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ExcelWriter.write(out, annontatedPojo);
+
+		List<ExcelAnnotated> rows;
+		try (Stream<ExcelAnnotated> stream = new ExcelReader().stream(new ByteArrayInputStream(out.toByteArray()),
+				ExcelAnnotated.class)) {
+			rows = stream.collect(Collectors.toList());
+		}
+		assertEquals(annontatedPojo.size(), rows.size());
+		assertEquals(annontatedPojo.get(0).string, rows.get(0).string);
+		assertEquals(annontatedPojo.get(0).integer, rows.get(0).integer);
+		assertEquals(annontatedPojo.get(0).date, rows.get(0).date);
+
+		ByteArrayOutputStream again = new ByteArrayOutputStream();
+		ExcelWriter.write(again, rows);
+		assertSameCells(out.toByteArray(), again.toByteArray());
+	}
+
+	@Test
+	public void testProjection() throws IOException {
+		File file = new ExcelWriter().writeFile(scratchPath, "Projected.xlsx", generatedPojo);
+
+		List<ExcelProjected> rows = ExcelReader.read(file, ExcelProjected.class);
+		assertEquals(generatedPojo.size(), rows.size());
+		assertEquals("A-5", rows.get(12).code);
+		assertEquals(12, rows.get(12).level);
+	}
+
+	@Test
+	public void testNoMatchingColumns() throws IOException {
+		File file = new ExcelWriter().writeFile(scratchPath, "Unmatched.xlsx", annontatedPojo);
+		assertTrue(ExcelReader.read(file, ExcelProjected.class).isEmpty());
+	}
+
+	@Test
+	public void testParallelSheets() throws IOException {
+		File file = new ExcelWriter().writeFile(scratchPath, "ReadSheets.xlsx", generatedPojo, annontatedPojo,
+				generatedPojo, generatedPojo);
+		// The blank count of the last row is written as 0
+		List<Integer> expected = generatedPojo.stream().map(row -> row.getCount() == null ? 0 : row.getCount())
+				.collect(Collectors.toList());
+
+		ExcelReader reader = new ExcelReader();
+		reader.setParallelism(2);
+		try (WorkbookRows<ExcelGenerated> workbook = reader.streamSheets(file, ExcelGenerated.class)) {
+			List<String> names = new ArrayList<String>(workbook.getSheets().keySet());
+			assertEquals(4, names.size());
+			// Backwards, the last sheet before any worker got to it
+			Collections.reverse(names);
+			for (String name : names) {
+				List<Integer> counts = workbook.getSheet(name).map(ExcelGenerated::getCount).collect(Collectors.toList());
+				if (name.equals("Custom Sheet Name")) {
+					assertTrue(counts.isEmpty());
+				} else {
+					assertEquals(expected, counts);
+				}
+			}
+		}
+
+		try (Stream<ExcelGenerated> rows = reader.streamMerged(file, ExcelGenerated.class)) {
+			List<Integer> counts = rows.map(ExcelGenerated::getCount).sorted().collect(Collectors.toList());
+			List<Integer> tripled = new ArrayList<Integer>();
+			for (int i = 0; i < 3; i++) {
+				tripled.addAll(expected);
+			}
+			Collections.sort(tripled);
+			assertEquals(tripled, counts);
+		}
+
+		// Closed half way, the workers let go
+		try (Stream<ExcelGenerated> rows = reader.streamMerged(file, ExcelGenerated.class)) {
+			assertEquals(10, rows.limit(10).count());
+		}
+		try (WorkbookRows<ExcelGenerated> workbook = reader.streamSheets(file, ExcelGenerated.class)) {
+			assertEquals(10, workbook.getSheets().values().iterator().next().limit(10).count());
+		}
+	}
+
+	@Test
+	public void testReadRange() throws IOException {
+		ExcelReader reader = new ExcelReader();
+		reader.setIndexBlockRows(100);
+		// POI and the native engine, each writes its own sheet XML
+		for (ExcelEngine engine : new ExcelEngine[] { ExcelEngine.SXSSF, ExcelEngine.NATIVE }) {
+			ExcelWriter writer = new ExcelWriter();
+			writer.setEngine(engine);
+			writer.setSharedStringsLimit(1024);
+			File file = writer.writeFile(scratchPath, "Range" + engine + ".xlsx", generatedPojo, annontatedPojo);
+			File index = RowIndex.fileOf(file);
+			index.delete();
+
+			List<ExcelGenerated> all = ExcelReader.read(file, ExcelGenerated.class);
+			// Within the first block, across two blocks, at the very end and past it
+			int[][] ranges = { { 0, 5 }, { 2550, 120 }, { 2990, 20 }, { 5000, 10 } };
+			for (int[] range : ranges) {
+				List<ExcelGenerated> expected = all.subList(Math.min(range[0], all.size()),
+						Math.min(range[0] + range[1], all.size()));
+				assertEquals(toText(expected), toText(reader.readRange(file, ExcelGenerated.class, range[0], range[1])));
+				assertTrue(index.isFile());
+			}
+
+			// The second sheet, through the same saved index
+			List<ExcelAnnotated> annotated = reader.readRange(file, ExcelAnnotated.class, 1, 5);
+			assertEquals(annontatedPojo.size() - 1, annotated.size());
+			assertEquals(annontatedPojo.get(1).string, annotated.get(0).string);
+		}
+	}
+
+	@Test
+	public void testConvert() throws IOException {
+		ExcelWriter writer = new ExcelWriter();
+		writer.setEngine(ExcelEngine.NATIVE);
+		writer.setSharedStringsLimit(1024);
+		File file = writer.writeFile(scratchPath, "Convert.xlsx", generatedPojo, annontatedPojo);
+
+		// The typed columns, as the sheet shows them
+		StringWriter tsv = new StringWriter();
+		new ExcelReader().convert(file, "custom sheet name", DelimitedFormat.TSV, tsv);
+		String[] lines = tsv.toString().split("\r\n");
+		DataFormatter formatter = new DataFormatter(Locale.US);
+		try (Workbook workbook = WorkbookFactory.create(file)) {
+			Sheet sheet = workbook.getSheet("Custom Sheet Name");
+			for (int i = 3; i <= sheet.getLastRowNum(); i++) {
+				List<String> cells = new ArrayList<String>();
+				for (Cell cell : sheet.getRow(i)) {
+					cells.add(formatter.formatCellValue(cell));
+				}
+				assertEquals(String.join("\t", cells), lines[i]);
+			}
+		}
+
+		File directory = new File(scratchPath, "csv");
+		directory.mkdirs();
+		List<File> files = new ExcelReader().convert(file, DelimitedFormat.CSV, directory.getPath());
+		assertEquals(2, files.size());
+		List<String> rows = Files.readAllLines(files.get(0).toPath());
+		assertEquals(generatedPojo.size() + 1, rows.size());
+		assertTrue(rows.get(0).startsWith("Code,Count,Amount"));
+		// The currency has a comma of its own
+		assertTrue(rows.get(11).startsWith("A-3,10,1.00,0.25,TRUE,B,"));
+		assertTrue(rows.get(11).contains(",\"1,234.56\","));
+	}
+
+	@Test
+	public void testTextEngine() throws IOException {
+		File file = new ExcelWriter().writeFile(scratchPath, "Text.xlsx", generatedPojo, annontatedPojo);
+		File converted = new File(scratchPath, "converted");
+		converted.mkdirs();
+		List<File> expected = new ExcelReader().convert(file, DelimitedFormat.CSV, converted.getPath());
+
+		ExcelWriter writer = new ExcelWriter();
+		writer.setEngine(ExcelEngine.CSV);
+		File written = new File(scratchPath, "written");
+		written.mkdirs();
+		List<File> files = writer.writeFiles(written.getPath(), SheetSource.of(generatedPojo),
+				SheetSource.of(annontatedPojo));
+		assertEquals(2, files.size());
+		for (int i = 0; i < files.size(); i++) {
+			assertEquals(expected.get(i).getName(), files.get(i).getName());
+			List<String> expectedLines = Files.readAllLines(expected.get(i).toPath());
+			List<String> lines = Files.readAllLines(files.get(i).toPath());
+			// The text has no heading, it starts at the column headers
+			int offset = expectedLines.size() - lines.size();
+			assertTrue(offset >= 0);
+			for (int j = 0; j < lines.size(); j++) {
+				assertEquals(expectedLines.get(j + offset), lines.get(j));
+			}
+		}
+
+		// The same files zipped, from sheets written at the same time
+		writer.setParallelism(2);
+		ByteArrayOutputStream zip = new ByteArrayOutputStream();
+		assertTrue(writer.writeStream(zip, SheetSource.of(generatedPojo), SheetSource.of(annontatedPojo)));
+		try (ZipInputStream entries = new ZipInputStream(new ByteArrayInputStream(zip.toByteArray()))) {
+			for (File expectedFile : files) {
+				ZipEntry entry = entries.getNextEntry();
+				assertEquals(expectedFile.getName(), entry.getName());
+				ByteArrayOutputStream content = new ByteArrayOutputStream();
+				IOUtils.copy(entries, content);
+				assertEquals(new String(Files.readAllBytes(expectedFile.toPath()), StandardCharsets.UTF_8),
+						new String(content.toByteArray(), StandardCharsets.UTF_8));
+			}
+			assertEquals(null, entries.getNextEntry());
+		}
+	}
+
+	private static List<String> toText(List<ExcelGenerated> rows) {
+		return rows.stream().map(row -> row.getCode() + "/" + row.getCount() + "/" + row.getAmount())
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Both workbooks show the same text in every cell, the generated time stamps
+	 * of the headings aside.
+	 */
+	private static void assertSameCells(byte[] expected, byte[] actual) throws IOException {
+		try (Workbook expectedBook = WorkbookFactory.create(new ByteArrayInputStream(expected));
+				Workbook actualBook = WorkbookFactory.create(new ByteArrayInputStream(actual))) {
+			DataFormatter formatter = new DataFormatter();
+			Sheet expectedSheet = expectedBook.getSheetAt(0);
+			Sheet actualSheet = actualBook.getSheetAt(0);
+			assertEquals(expectedSheet.getLastRowNum(), actualSheet.getLastRowNum());
+			for (Row expectedRow : expectedSheet) {
+				if (expectedRow.getRowNum() == 1) {
+					continue;
+				}
+				Row actualRow = actualSheet.getRow(expectedRow.getRowNum());
+				for (Cell expectedCell : expectedRow) {
+					Cell actualCell = actualRow.getCell(expectedCell.getColumnIndex());
+					String message = expectedCell.getAddress().formatAsString();
+					if (actualCell == null) {
+						assertEquals(message, "", formatter.formatCellValue(expectedCell));
+					} else {
+						assertEquals(message, formatter.formatCellValue(expectedCell), formatter.formatCellValue(actualCell));
+					}
+				}
+			}
+		}
+	}
+}
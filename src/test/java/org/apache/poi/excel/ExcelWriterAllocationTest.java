@@ -0,0 +1,75 @@
+package org.apache.poi.excel;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.poi.excel.model.ExcelEngine;
+import org.apache.poi.excel.model.ExcelNumeric;
+import org.apache.poi.excel.model.SheetSource;
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * Checks that the steady state row loop allocates next to nothing. Measured
+ * with the per thread allocation counter of HotSpot, so skipped on other JVMs.
+ */
+public class ExcelWriterAllocationTest {
+
+	/** Generous, a single boxed value per cell would already be 112 bytes a row. */
+	private static final long MAX_BYTES_PER_ROW = 16;
+
+	private static final OutputStream discard = new OutputStream() {
+		@Override
+		public void write(int b) {
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+		}
+	};
+
+	@Test
+	public void testRowLoopAllocations() throws IOException {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+		Assume.assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+
+		List<ExcelNumeric> small = rows(20000);
+		List<ExcelNumeric> large = rows(120000);
+		ExcelWriter writer = new ExcelWriter();
+		writer.setEngine(ExcelEngine.NATIVE);
+
+		// Warm up, so that the JIT has done its escape analysis
+		for (int i = 0; i < 5; i++) {
+			writer.writeStream(discard, SheetSource.of(small));
+		}
+
+		long id = Thread.currentThread().getId();
+		long before = threads.getThreadAllocatedBytes(id);
+		writer.writeStream(discard, SheetSource.of(small));
+		long smallBytes = threads.getThreadAllocatedBytes(id) - before;
+
+		before = threads.getThreadAllocatedBytes(id);
+		writer.writeStream(discard, SheetSource.of(large));
+		long largeBytes = threads.getThreadAllocatedBytes(id) - before;
+
+		// The workbook overhead is the same in both, the difference is the rows alone
+		long perRow = (largeBytes - smallBytes) / (large.size() - small.size());
+		assertTrue("Allocated " + perRow + " bytes per row", perRow <= MAX_BYTES_PER_ROW);
+	}
+
+	private static List<ExcelNumeric> rows(int count) {
+		List<ExcelNumeric> rows = new ArrayList<ExcelNumeric>(count);
+		for (int i = 0; i < count; i++) {
+			rows.add(new ExcelNumeric("Label " + (i % 100), i, i * 1000L, i / 7.0, i / 3f, (short) (i % 300),
+					i % 2 == 0));
+		}
+		return rows;
+	}
+}
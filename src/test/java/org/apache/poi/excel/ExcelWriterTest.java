@@ -2,19 +2,75 @@ package org.apache.poi.excel;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipInputStream;
 
+import org.apache.poi.excel.model.CellError;
+import org.apache.poi.excel.model.CellValueException;
+import org.apache.poi.excel.model.ErrorLimitException;
+import org.apache.poi.excel.model.ErrorPolicy;
+import org.apache.poi.excel.model.ErrorReport;
 import org.apache.poi.excel.model.ExcelAnnotated;
+import org.apache.poi.excel.model.ExcelCellType;
 import org.apache.poi.excel.model.ExcelEdge;
+import org.apache.poi.excel.model.ExcelEngine;
+import org.apache.poi.excel.model.ExcelFaulty;
+import org.apache.poi.excel.model.ExcelGenerated;
+import org.apache.poi.excel.model.ExcelHighlighted;
 import org.apache.poi.excel.model.ExcelNonAnnotated;
+import org.apache.poi.excel.model.ExcelStyled;
+import org.apache.poi.excel.model.SheetErrors;
+import org.apache.poi.excel.model.SheetSource;
 import org.apache.poi.excel.model.TempFileStrategy;
+import org.apache.poi.excel.model.WriteHandle;
+import org.apache.poi.excel.processor.writer.engine.CellCursor;
+import org.apache.poi.excel.processor.writer.engine.PoiSheetEngine;
+import org.apache.poi.excel.processor.writer.engine.PoiWorkbookEngine;
+import org.apache.poi.excel.processor.writer.engine.SheetEngine;
 import org.apache.poi.excel.utility.JsonReader;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.ComparisonOperator;
+import org.apache.poi.ss.usermodel.ConditionFilterType;
+import org.apache.poi.ss.usermodel.ConditionalFormatting;
+import org.apache.poi.ss.usermodel.ConditionalFormattingRule;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.SheetConditionalFormatting;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.util.IOUtils;
 import org.apache.poi.util.TempFile;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
@@ -26,6 +82,8 @@ public class ExcelWriterTest {
 
 	private static final String outPath = "src/test/resources/output/";
 
+	private static final String scratchPath = "build/output/";
+
 	/**
 	 * Creates a temp directory override for Apache POI. Only needed during testing.
 	 * 
@@ -36,6 +94,7 @@ public class ExcelWriterTest {
 		TempFileStrategy strategy = new TempFileStrategy();
 		strategy.createTempDirectory("");
 		TempFile.setTempFileCreationStrategy(strategy);
+		new File(scratchPath).mkdirs();
 	}
 
 	/**
@@ -86,4 +145,575 @@ public class ExcelWriterTest {
 		assertThat(file.length(), greaterThan(0L));
 	}
 
+	@Test
+	public void testConcurrentInstances() throws Exception {
+		ExcelWriter writer = new ExcelWriter();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<File>> files = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				String testFileName = "Concurrent" + i + ".xlsx";
+				files.add(executor.submit(() -> writer.writeFile(scratchPath, testFileName, annontatedPojo,
+						nonAnnontatedPojo, edgePojo)));
+			}
+			for (Future<File> file : files) {
+				assertTrue(file.get().exists());
+				assertThat(file.get().length(), greaterThan(0L));
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testStreamed() {
+		String testFileName = "Streamed.xlsx";
+		File file = new ExcelWriter().writeFile(scratchPath, testFileName,
+				SheetSource.of(ExcelAnnotated.class, annontatedPojo.stream()),
+				SheetSource.of(ExcelNonAnnotated.class, new LinkedList<>(nonAnnontatedPojo)),
+				SheetSource.of(ExcelEdge.class, edgePojo.iterator()));
+		assertTrue(file.exists());
+		assertThat(file.length(), greaterThan(0L));
+	}
+
+	@Test
+	public void testOutputStream() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		assertTrue(ExcelWriter.write(out, annontatedPojo, nonAnnontatedPojo));
+		assertThat(out.size(), greaterThan(0));
+
+		// Still a valid workbook with both sheets
+		try (Workbook workbook = WorkbookFactory.create(new ByteArrayInputStream(out.toByteArray()))) {
+			assertEquals(2, workbook.getNumberOfSheets());
+		}
+	}
+
+	@Test
+	public void testParallelSheets() throws IOException {
+		ExcelWriter writer = new ExcelWriter();
+		writer.setEngine(ExcelEngine.SXSSF);
+		writer.setParallelism(3);
+		File file = writer.writeFile(scratchPath, "ParallelSheets.xlsx", annontatedPojo, nonAnnontatedPojo, edgePojo);
+		assertTrue(file.exists());
+
+		// The sheets keep the order in which they were passed
+		try (Workbook workbook = WorkbookFactory.create(file)) {
+			assertEquals("Custom Sheet Name", workbook.getSheetName(0));
+			assertEquals("Excel Non Annotated", workbook.getSheetName(1));
+			assertEquals("Edge Cases", workbook.getSheetName(2));
+			assertEquals(annontatedPojo.size() + 3, workbook.getSheetAt(0).getLastRowNum());
+		}
+	}
+
+	@Test
+	public void testNativeEngine() throws IOException {
+		ExcelWriter writer = new ExcelWriter();
+		writer.setEngine(ExcelEngine.NATIVE);
+		File file = writer.writeFile(scratchPath, "NativeEngine.xlsx", annontatedPojo, nonAnnontatedPojo, edgePojo);
+		assertTrue(file.exists());
+
+		// Same sheets, values and formats as the POI engine
+		try (Workbook workbook = WorkbookFactory.create(file)) {
+			assertEquals(3, workbook.getNumberOfSheets());
+			assertEquals("Custom Sheet Name", workbook.getSheetName(0));
+			Sheet sheet = workbook.getSheetAt(0);
+			assertEquals("Custom Sheet Heading", sheet.getRow(0).getCell(0).getStringCellValue());
+			assertEquals("Integer Column", sheet.getRow(3).getCell(1).getStringCellValue());
+			assertEquals(annontatedPojo.get(0).integer, sheet.getRow(4).getCell(1).getNumericCellValue(), 0);
+			assertEquals(ExcelCellType.CURRENCY.getFormat(), sheet.getRow(4).getCell(2).getCellStyle().getDataFormatString());
+			assertEquals(4, sheet.getPaneInformation().getHorizontalSplitPosition());
+			assertEquals(2, sheet.getNumMergedRegions());
+		}
+	}
+
+	@Test
+	public void testNativeEngineParallel() throws IOException {
+		ExcelWriter writer = new ExcelWriter();
+		writer.setEngine(ExcelEngine.NATIVE);
+		writer.setParallelism(3);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		assertTrue(writer.writeStream(out, SheetSource.of(annontatedPojo), SheetSource.of(nonAnnontatedPojo),
+				SheetSource.of(edgePojo)));
+
+		try (Workbook workbook = WorkbookFactory.create(new ByteArrayInputStream(out.toByteArray()))) {
+			assertEquals("Edge Cases", workbook.getSheetName(2));
+			assertEquals(nonAnnontatedPojo.size(), workbook.getSheetAt(1).getLastRowNum());
+		}
+	}
+
+	@Test
+	public void testTemplate() throws IOException {
+		File template = new File(scratchPath, "Template.xlsx");
+		try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+			workbook.createSheet("Notes").createRow(0).createCell(0).setCellValue("Read me first");
+			Sheet sheet = workbook.createSheet("Report");
+			Font font = workbook.createFont();
+			font.setBold(true);
+			CellStyle style = workbook.createCellStyle();
+			style.setFont(font);
+			Cell title = sheet.createRow(0).createCell(0);
+			title.setCellValue("ACME Corp");
+			title.setCellStyle(style);
+			sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 3));
+			sheet.setColumnWidth(0, 40 * 256);
+			sheet.createRow(5).createCell(0).setCellValue("Placeholder");
+			try (FileOutputStream out = new FileOutputStream(template)) {
+				workbook.write(out);
+			}
+		}
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		assertTrue(new ExcelWriter().writeTemplate(template, "report", 3, out, SheetSource.of(annontatedPojo)));
+
+		ExcelWriter writer = new ExcelWriter();
+		writer.setEngine(ExcelEngine.NATIVE);
+		ByteArrayOutputStream plain = new ByteArrayOutputStream();
+		writer.writeStream(plain, SheetSource.of(annontatedPojo));
+
+		DataFormatter formatter = new DataFormatter();
+		try (Workbook workbook = WorkbookFactory.create(new ByteArrayInputStream(out.toByteArray()));
+				Workbook expected = WorkbookFactory.create(new ByteArrayInputStream(plain.toByteArray()))) {
+			// The template as it was
+			assertEquals(2, workbook.getNumberOfSheets());
+			assertEquals("Read me first", workbook.getSheet("Notes").getRow(0).getCell(0).getStringCellValue());
+			Sheet sheet = workbook.getSheet("Report");
+			Cell title = sheet.getRow(0).getCell(0);
+			assertEquals("ACME Corp", title.getStringCellValue());
+			assertTrue(workbook.getFontAt(title.getCellStyle().getFontIndexAsInt()).getBold());
+			assertEquals(1, sheet.getNumMergedRegions());
+			assertEquals(40 * 256, sheet.getColumnWidth(0));
+
+			// The rows as a plain export has them, the placeholder gone
+			Sheet expectedSheet = expected.getSheetAt(0);
+			assertEquals(expectedSheet.getLastRowNum(), sheet.getLastRowNum());
+			for (int i = 3; i <= expectedSheet.getLastRowNum(); i++) {
+				for (Cell expectedCell : expectedSheet.getRow(i)) {
+					Cell cell = sheet.getRow(i).getCell(expectedCell.getColumnIndex());
+					assertEquals(formatter.formatCellValue(expectedCell), formatter.formatCellValue(cell));
+					assertEquals(expectedCell.getCellStyle().getDataFormatString(),
+							cell.getCellStyle().getDataFormatString());
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testColumnStyles() throws IOException {
+		List<ExcelStyled> rows = new ArrayList<ExcelStyled>();
+		for (int i = 0; i < 1000; i++) {
+			rows.add(new ExcelStyled("Name " + i, 1234.5 + i, i % 2 == 0, new Date(1583812827000L), i));
+		}
+		for (ExcelEngine engine : new ExcelEngine[] { ExcelEngine.SXSSF, ExcelEngine.NATIVE }) {
+			ExcelWriter writer = new ExcelWriter();
+			writer.setEngine(engine);
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			writer.writeStream(out, SheetSource.of(rows), SheetSource.of(rows));
+
+			try (Workbook workbook = WorkbookFactory.create(new ByteArrayInputStream(out.toByteArray()))) {
+				// A style per look, not per cell nor per sheet
+				assertThat(workbook.getNumCellStyles(), lessThan(30));
+				Row row = workbook.getSheetAt(1).getRow(500);
+				Cell name = row.getCell(0);
+				Font font = workbook.getFontAt(name.getCellStyle().getFontIndexAsInt());
+				assertTrue(engine.name(), font.getBold());
+				assertEquals(IndexedColors.DARK_RED.getIndex(), font.getColor());
+				assertEquals("#,##0.000", row.getCell(1).getCellStyle().getDataFormatString());
+				assertEquals(row.getCell(1).getCellStyle().getIndex(), row.getCell(2).getCellStyle().getIndex());
+				assertEquals(IndexedColors.LIGHT_YELLOW.getIndex(), row.getCell(3).getCellStyle().getFillForegroundColor());
+				assertEquals("dd-mmm-yy", row.getCell(4).getCellStyle().getDataFormatString());
+				assertEquals(ExcelCellType.INTEGER.getFormat(), row.getCell(5).getCellStyle().getDataFormatString());
+				assertEquals("1,733.500", new DataFormatter().formatCellValue(row.getCell(1)));
+			}
+		}
+
+		// Plain text has the formats only
+		ExcelWriter writer = new ExcelWriter();
+		writer.setEngine(ExcelEngine.CSV);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		writer.writeStream(out, SheetSource.of(rows));
+		try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+			zip.getNextEntry();
+			String[] lines = new String(IOUtils.toByteArray(zip), StandardCharsets.UTF_8).split("\r\n");
+			assertTrue(lines[1], lines[1].startsWith("Name 0,\"1,234.500\",\"2,469.000\",TRUE,10-Mar-20,0"));
+		}
+	}
+
+	@Test
+	public void testConditions() throws IOException {
+		List<ExcelHighlighted> rows = new ArrayList<ExcelHighlighted>();
+		for (int i = 0; i < 10; i++) {
+			rows.add(new ExcelHighlighted("Account " + i, 1000 * (i - 3), new Date(1583812827000L)));
+		}
+		for (ExcelEngine engine : new ExcelEngine[] { ExcelEngine.SXSSF, ExcelEngine.NATIVE }) {
+			ExcelWriter writer = new ExcelWriter();
+			writer.setEngine(engine);
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			writer.writeStream(out, SheetSource.of(rows));
+
+			try (Workbook workbook = WorkbookFactory.create(new ByteArrayInputStream(out.toByteArray()))) {
+				SheetConditionalFormatting formatting = workbook.getSheetAt(0).getSheetConditionalFormatting();
+				assertEquals(engine.name(), 4, formatting.getNumConditionalFormattings());
+
+				// Once over all the rows below the headers
+				ConditionalFormatting negative = formatting.getConditionalFormattingAt(0);
+				assertEquals("B2:B11", negative.getFormattingRanges()[0].formatAsString());
+				ConditionalFormattingRule rule = negative.getRule(0);
+				assertEquals(ComparisonOperator.LT, rule.getComparisonOperation());
+				assertEquals("0", rule.getFormula1());
+				assertTrue(rule.getFontFormatting().isBold());
+				assertEquals(IndexedColors.RED.getIndex(), rule.getFontFormatting().getFontColorIndex());
+
+				rule = formatting.getConditionalFormattingAt(1).getRule(0);
+				assertEquals(ComparisonOperator.BETWEEN, rule.getComparisonOperation());
+				assertEquals("5000", rule.getFormula2());
+				assertEquals(IndexedColors.LIGHT_GREEN.getIndex(),
+						rule.getPatternFormatting().getFillBackgroundColor());
+
+				rule = formatting.getConditionalFormattingAt(2).getRule(0);
+				assertEquals(ConditionFilterType.TOP_10, rule.getConditionFilterType());
+				assertEquals(3, rule.getFilterConfiguration().getRank());
+
+				ConditionalFormatting overdue = formatting.getConditionalFormattingAt(3);
+				assertEquals("C2:C11", overdue.getFormattingRanges()[0].formatAsString());
+				assertEquals("TODAY()", overdue.getRule(0).getFormula1());
+				assertTrue(overdue.getRule(0).getFontFormatting().isItalic());
+
+				// The cells themselves keep the styles of their types
+				assertEquals(ExcelCellType.CURRENCY.getFormat(),
+						workbook.getSheetAt(0).getRow(1).getCell(1).getCellStyle().getDataFormatString());
+			}
+		}
+	}
+
+	@Test
+	public void testErrorReport() throws IOException {
+		List<ExcelFaulty> rows = new ArrayList<ExcelFaulty>();
+		for (int i = 0; i < 1000; i++) {
+			rows.add(new ExcelFaulty("Name " + i, i % 2 == 0 ? String.valueOf(i) : "X" + i,
+					i % 4 == 1 ? "Someday" : "03/10/2020"));
+		}
+		ExcelWriter writer = new ExcelWriter();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		WriteHandle handle = new WriteHandle();
+		writer.writeStream(out, handle, SheetSource.of(rows));
+
+		// Counted per column, only the first few kept
+		ErrorReport report = handle.getErrorReport();
+		assertEquals(750, report.getErrorCount());
+		SheetErrors errors = report.getSheets().get(0);
+		assertEquals(0, errors.getErrorCount(0));
+		assertEquals(500, errors.getErrorCount(1));
+		assertEquals(250, errors.getErrorCount(2));
+		assertEquals(10, errors.getSamples().size());
+		CellError first = errors.getSamples().get(0);
+		assertEquals("Faulty!B3 (Code): ", first.toString().substring(0, 18));
+		assertEquals("Not a number: 'X1'", first.getCause().getMessage());
+		assertEquals("Day", errors.getSamples().get(1).getHeader());
+		assertEquals("Not a date: 'Someday'", errors.getSamples().get(1).getCause().getMessage());
+		// Counted without a stack trace
+		assertTrue(first.getCause() instanceof CellValueException);
+		assertEquals(0, first.getCause().getStackTrace().length);
+
+		// Blank by default, left out when skipped
+		try (Workbook workbook = WorkbookFactory.create(new ByteArrayInputStream(out.toByteArray()))) {
+			assertEquals(CellType.BLANK, workbook.getSheetAt(0).getRow(2).getCell(1).getCellType());
+			assertEquals(2.0, workbook.getSheetAt(0).getRow(3).getCell(1).getNumericCellValue(), 0);
+		}
+		writer.setErrorPolicy(ErrorPolicy.SKIP);
+		writer.setErrorSamples(0);
+		out = new ByteArrayOutputStream();
+		handle = new WriteHandle();
+		writer.writeStream(out, handle, SheetSource.of(rows));
+		assertTrue(handle.getErrorReport().getSheets().get(0).getSamples().isEmpty());
+		try (Workbook workbook = WorkbookFactory.create(new ByteArrayInputStream(out.toByteArray()))) {
+			assertEquals(null, workbook.getSheetAt(0).getRow(2).getCell(1));
+		}
+
+		// Given up on past the threshold
+		writer.setErrorPolicy(ErrorPolicy.FAIL);
+		writer.setErrorThreshold(5);
+		try {
+			writer.writeStream(new ByteArrayOutputStream(), SheetSource.of(rows));
+			fail("Expected to give up");
+		} catch (ErrorLimitException e) {
+			assertEquals(6, e.getErrors().getErrorCount());
+		}
+
+		// Also for a file, which is not left half written
+		handle = new WriteHandle();
+		try {
+			writer.writeFile(scratchPath, "Faulty.xlsx", handle, SheetSource.of(rows));
+			fail("Expected to give up");
+		} catch (ErrorLimitException e) {
+			assertEquals(6, e.getErrors().getErrorCount());
+		}
+		assertEquals(6, handle.getErrorReport().getErrorCount());
+		assertTrue(!new File(scratchPath, "Faulty.xlsx").exists());
+	}
+
+	@Test
+	public void testAutoEngine() throws IOException {
+		List<ExcelStyled> rows = new ArrayList<ExcelStyled>();
+		for (int i = 0; i < 100; i++) {
+			rows.add(new ExcelStyled("A rather long name " + i, i, i % 2 == 0, new Date(1583812827000L), i));
+		}
+		ExcelWriter writer = new ExcelWriter();
+		int headerWidth = nameWidth(writer, SheetSource.of(ExcelStyled.class, rows.stream()));
+
+		// Small, so held in memory and sized to fit
+		assertThat(nameWidth(writer, SheetSource.of(rows)), greaterThan(headerWidth));
+		assertThat(nameWidth(writer, SheetSource.of(ExcelStyled.class, rows.stream()).withSize(rows.size())),
+				greaterThan(headerWidth));
+
+		// With a memory budget, streamed whatever the size
+		writer.setMemoryBudget(1024 * 1024);
+		assertEquals(headerWidth, nameWidth(writer, SheetSource.of(rows)));
+		writer.setMemoryBudget(0);
+
+		// Past the crossover, streamed
+		writer.setAutoCellLimit(rows.size() * 6 - 1);
+		assertEquals(headerWidth, nameWidth(writer, SheetSource.of(rows)));
+
+		// The full workbook writes its sheets one by one, however parallel
+		writer.setEngine(ExcelEngine.XSSF);
+		writer.setParallelism(4);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		writer.writeStream(out, SheetSource.of(rows), SheetSource.of(rows), SheetSource.of(rows));
+		try (Workbook workbook = WorkbookFactory.create(new ByteArrayInputStream(out.toByteArray()))) {
+			assertEquals(3, workbook.getNumberOfSheets());
+			for (Sheet sheet : workbook) {
+				assertEquals(rows.size() + 1, sheet.getPhysicalNumberOfRows());
+				assertThat(sheet.getColumnWidth(0), greaterThan(headerWidth));
+			}
+		}
+	}
+
+	private static int nameWidth(ExcelWriter writer, SheetSource<?> source) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		writer.writeStream(out, source);
+		try (Workbook workbook = WorkbookFactory.create(new ByteArrayInputStream(out.toByteArray()))) {
+			return workbook.getSheetAt(0).getColumnWidth(0);
+		}
+	}
+
+	@Test
+	public void testWriteHandle() throws IOException {
+		List<ExcelStyled> rows = new ArrayList<ExcelStyled>();
+		for (int i = 0; i < 25000; i++) {
+			rows.add(new ExcelStyled("Name " + i, i, i % 2 == 0, new Date(1583812827000L), i));
+		}
+
+		// Every interval and once done
+		WriteHandle handle = new WriteHandle();
+		List<long[]> calls = new ArrayList<long[]>();
+		handle.setProgressListener((rowsWritten, bytesWritten) -> calls.add(new long[] { rowsWritten, bytesWritten }));
+		ExcelWriter writer = new ExcelWriter();
+		writer.setEngine(ExcelEngine.NATIVE);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		writer.writeStream(out, handle, SheetSource.of(rows));
+		assertEquals(25000, handle.getRowsWritten());
+		assertThat(calls.size(), greaterThan(2));
+		// Counted a batch at a time
+		assertThat(calls.get(0)[0], lessThan(10000L + WriteHandle.BATCH_SIZE));
+		assertEquals(out.size(), calls.get(calls.size() - 1)[1]);
+
+		// And every so many bytes, once done too
+		WriteHandle byBytes = new WriteHandle();
+		byBytes.setProgressInterval(Long.MAX_VALUE);
+		byBytes.setProgressBytes(16 * 1024);
+		List<long[]> byteCalls = new ArrayList<long[]>();
+		byBytes.setProgressListener(
+				(rowsWritten, bytesWritten) -> byteCalls.add(new long[] { rowsWritten, bytesWritten }));
+		out = new ByteArrayOutputStream();
+		writer.writeStream(out, byBytes, SheetSource.of(rows));
+		assertEquals(out.size() / (16 * 1024) + 1, byteCalls.size());
+		assertThat(byteCalls.get(0)[1], lessThan(out.size() + 0L));
+
+		// Same through a channel
+		WriteHandle channelled = new WriteHandle();
+		ByteArrayOutputStream channelOut = new ByteArrayOutputStream();
+		assertTrue(writer.writeChannel(Channels.newChannel(channelOut), channelled, SheetSource.of(rows)));
+		assertEquals(25000, channelled.getRowsWritten());
+		assertEquals(channelOut.size(), channelled.getBytesWritten());
+
+		// Cancelled midway, without leaving any temp files behind
+		File tempDir = new File(scratchPath, "temp");
+		List<String> tempFiles = Arrays.asList(tempDir.list());
+		WriteHandle cancelled = new WriteHandle();
+		cancelled.setProgressInterval(1000);
+		cancelled.setProgressListener((rowsWritten, bytesWritten) -> cancelled.cancel());
+		ExcelWriter streamed = new ExcelWriter();
+		streamed.setEngine(ExcelEngine.SXSSF);
+		try {
+			streamed.writeStream(new ByteArrayOutputStream(), cancelled, SheetSource.of(rows), SheetSource.of(rows));
+			fail("Expected to be cancelled");
+		} catch (CancellationException e) {
+			assertThat(cancelled.getRowsWritten(), lessThan(2000L));
+		}
+		assertEquals(tempFiles, Arrays.asList(tempDir.list()));
+
+		// Nor any file of a sheet half written
+		File directory = new File(scratchPath, "cancelled");
+		directory.mkdirs();
+		for (File file : directory.listFiles()) {
+			file.delete();
+		}
+		WriteHandle stopped = new WriteHandle();
+		stopped.setProgressInterval(1000);
+		stopped.setProgressListener((rowsWritten, bytesWritten) -> stopped.cancel());
+		ExcelWriter delimited = new ExcelWriter();
+		delimited.setEngine(ExcelEngine.CSV);
+		try {
+			delimited.writeFiles(directory.getPath(), stopped, SheetSource.of(rows), SheetSource.of(rows));
+			fail("Expected to be cancelled");
+		} catch (CancellationException e) {
+			assertTrue(stopped.isCancelled());
+		}
+		assertEquals(0, directory.list().length);
+
+		// Past the deadline, the file is not left half written
+		WriteHandle expired = new WriteHandle();
+		expired.setDeadline(0, TimeUnit.MILLISECONDS);
+		try {
+			new ExcelWriter().writeFile(scratchPath, "Expired.xlsx", expired, SheetSource.of(rows));
+			fail("Expected to expire");
+		} catch (CancellationException e) {
+			assertTrue(expired.isExpired());
+		}
+		assertTrue(!new File(scratchPath, "Expired.xlsx").exists());
+	}
+
+	@Test
+	public void testSharedStrings() throws IOException {
+		List<ExcelGenerated> rows = new ArrayList<ExcelGenerated>();
+		for (int i = 0; i < 3000; i++) {
+			rows.add(new ExcelGenerated("Code " + i, i, null, 0, i % 2 == 0, 'A', null, null, null, null,
+					TimeUnit.values()[i % 3], null, (short) 0, null, null));
+		}
+		ExcelWriter writer = new ExcelWriter();
+		writer.setEngine(ExcelEngine.NATIVE);
+		ByteArrayOutputStream inline = new ByteArrayOutputStream();
+		writer.writeStream(inline, SheetSource.of(rows));
+
+		// Small enough to evict
+		writer.setSharedStringsLimit(4096);
+		ByteArrayOutputStream shared = new ByteArrayOutputStream();
+		writer.writeStream(shared, SheetSource.of(rows));
+
+		try (Workbook expected = WorkbookFactory.create(new ByteArrayInputStream(inline.toByteArray()));
+				Workbook actual = WorkbookFactory.create(new ByteArrayInputStream(shared.toByteArray()))) {
+			DataFormatter formatter = new DataFormatter();
+			Sheet expectedSheet = expected.getSheetAt(0);
+			Sheet actualSheet = actual.getSheetAt(0);
+			for (int r = 0; r <= expectedSheet.getLastRowNum(); r++) {
+				for (int c = 0; c < expectedSheet.getRow(r).getLastCellNum(); c++) {
+					assertEquals(formatter.formatCellValue(expectedSheet.getRow(r).getCell(c)),
+							formatter.formatCellValue(actualSheet.getRow(r).getCell(c)));
+				}
+			}
+			// The enum column went to the table, the distinct codes only till detected
+			assertEquals(CellType.STRING, actualSheet.getRow(5).getCell(10).getCellType());
+			int uniqueCount = ((XSSFWorkbook) actual).getSharedStringSource().getUniqueCount();
+			assertThat(uniqueCount, greaterThan(3));
+			assertThat(uniqueCount, lessThan(1100));
+		}
+	}
+
+	@Test
+	public void testMemoryBudget() throws IOException {
+		ExcelWriter writer = new ExcelWriter();
+		writer.setEngine(ExcelEngine.SXSSF);
+		writer.setMemoryBudget(16 * 1024);
+		writer.setCompressTempFiles(true);
+		writer.setParallelism(3);
+		ByteArrayOutputStream budgeted = new ByteArrayOutputStream();
+		assertTrue(writer.writeStream(budgeted, SheetSource.of(annontatedPojo), SheetSource.of(nonAnnontatedPojo),
+				SheetSource.of(edgePojo)));
+		ExcelWriter plain = new ExcelWriter();
+		plain.setEngine(ExcelEngine.SXSSF);
+		ByteArrayOutputStream windowed = new ByteArrayOutputStream();
+		assertTrue(plain.writeStream(windowed, SheetSource.of(annontatedPojo), SheetSource.of(nonAnnontatedPojo),
+				SheetSource.of(edgePojo)));
+
+		// Flushing early changes nothing in the file
+		try (Workbook expected = WorkbookFactory.create(new ByteArrayInputStream(windowed.toByteArray()));
+				Workbook actual = WorkbookFactory.create(new ByteArrayInputStream(budgeted.toByteArray()))) {
+			DataFormatter formatter = new DataFormatter();
+			for (int s = 0; s < expected.getNumberOfSheets(); s++) {
+				Sheet expectedSheet = expected.getSheetAt(s);
+				Sheet actualSheet = actual.getSheetAt(s);
+				assertEquals(expectedSheet.getLastRowNum(), actualSheet.getLastRowNum());
+				for (Row expectedRow : expectedSheet) {
+					// The sub heading, if any, is the time of the export
+					if (expectedRow.getRowNum() == 1 && expectedSheet.getNumMergedRegions() > 0) {
+						continue;
+					}
+					Row actualRow = actualSheet.getRow(expectedRow.getRowNum());
+					for (Cell expectedCell : expectedRow) {
+						assertEquals(formatter.formatCellValue(expectedCell),
+								formatter.formatCellValue(actualRow.getCell(expectedCell.getColumnIndex())));
+					}
+				}
+			}
+		}
+
+		// The rows held stay near the budget, however many are written
+		PoiWorkbookEngine engine = new PoiWorkbookEngine(new ByteArrayOutputStream(), 16 * 1024, false);
+		try {
+			SheetEngine sheet = engine.createSheet();
+			for (int rowIndex = 0; rowIndex < 1000; rowIndex++) {
+				CellCursor cursor = sheet.startRow(rowIndex);
+				for (int column = 0; column < 20; column++) {
+					cursor.setColumn(column);
+					cursor.setNumber(column, ExcelCellType.DECIMAL);
+				}
+				sheet.endRow();
+			}
+			SXSSFSheet streamed = (SXSSFSheet) ((PoiSheetEngine) sheet).getSheet();
+			assertThat(streamed.getLastFlushedRowNum(), greaterThan(950));
+			sheet.finish();
+			assertEquals(999, streamed.getLastFlushedRowNum());
+		} finally {
+			engine.close();
+		}
+	}
+
+	@Test
+	public void testSharedMemoryBudget() throws Exception {
+		// A wide and a narrow sheet, written in parallel a row each at a time
+		PoiWorkbookEngine engine = new PoiWorkbookEngine(new ByteArrayOutputStream(), 16 * 1024, false);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			PoiSheetEngine wide = (PoiSheetEngine) engine.createSheet();
+			PoiSheetEngine narrow = (PoiSheetEngine) engine.createSheet();
+			CyclicBarrier barrier = new CyclicBarrier(2);
+			List<Future<?>> writes = new ArrayList<>();
+			for (PoiSheetEngine sheet : Arrays.asList(wide, narrow)) {
+				int columns = sheet == wide ? 20 : 1;
+				writes.add(executor.submit(() -> {
+					for (int rowIndex = 0; rowIndex < 1000; rowIndex++) {
+						CellCursor cursor = sheet.startRow(rowIndex);
+						for (int column = 0; column < columns; column++) {
+							cursor.setColumn(column);
+							cursor.setNumber(column, ExcelCellType.DECIMAL);
+						}
+						sheet.endRow();
+						barrier.await();
+					}
+					return null;
+				}));
+			}
+			for (Future<?> write : writes) {
+				write.get();
+			}
+
+			// The wide one holds the most rows most of the time, and flushes the most
+			assertThat(wide.getFlushes(), greaterThan(50));
+			assertThat(narrow.getFlushes(), greaterThan(0));
+			assertThat(narrow.getFlushes(), lessThan(wide.getFlushes() / 4));
+		} finally {
+			executor.shutdown();
+			engine.close();
+		}
+	}
 }
@@ -33,6 +33,12 @@ public class ExcelAnnotated {
 	@ExcelCell(type = ExcelCellType.PERCENT)
 	public float percent;
 
+	/**
+	 * For the ExcelReader
+	 */
+	ExcelAnnotated() {
+	}
+
 	/**
 	 * @param string
 	 * @param integer
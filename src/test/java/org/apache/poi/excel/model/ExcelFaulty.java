@@ -0,0 +1,23 @@
+package org.apache.poi.excel.model;
+
+import org.apache.poi.excel.annotation.ExcelCell;
+import org.apache.poi.excel.annotation.ExcelSheet;
+
+@ExcelSheet(name = "Faulty")
+public class ExcelFaulty {
+
+	@ExcelCell(index = 1)
+	public String name;
+
+	@ExcelCell(index = 2, type = ExcelCellType.INTEGER)
+	public String code;
+
+	@ExcelCell(index = 3, type = ExcelCellType.DATE)
+	public String day;
+
+	public ExcelFaulty(String name, String code, String day) {
+		this.name = name;
+		this.code = code;
+		this.day = day;
+	}
+}
@@ -0,0 +1,94 @@
+package org.apache.poi.excel.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.Calendar;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.poi.excel.annotation.ExcelCell;
+import org.apache.poi.excel.annotation.ExcelSheet;
+
+@ExcelSheet(name = "Generated")
+public class ExcelGenerated {
+
+	@ExcelCell(header = "Code", type = ExcelCellType.GENERAL)
+	private String code;
+
+	@ExcelCell
+	private Integer count;
+
+	@ExcelCell(type = ExcelCellType.CURRENCY)
+	private Float amount;
+
+	@ExcelCell(type = ExcelCellType.DECIMAL)
+	float ratio;
+
+	@ExcelCell
+	protected Boolean active;
+
+	@ExcelCell
+	Character grade;
+
+	@ExcelCell
+	Calendar updated;
+
+	@ExcelCell
+	java.sql.Date created;
+
+	@ExcelCell(type = ExcelCellType.DATE)
+	LocalDate due;
+
+	@ExcelCell(type = ExcelCellType.DATETIME)
+	String stamp;
+
+	@ExcelCell
+	TimeUnit unit;
+
+	@ExcelCell(type = ExcelCellType.CURRENCY)
+	BigDecimal balance;
+
+	@ExcelCell(type = ExcelCellType.INTEGER)
+	short level;
+
+	@ExcelCell
+	LocalDateTime seen;
+
+	@ExcelCell(type = ExcelCellType.DATETIME)
+	OffsetDateTime synced;
+
+	public ExcelGenerated() {
+	}
+
+	public ExcelGenerated(String code, Integer count, Float amount, float ratio, Boolean active, Character grade,
+			Calendar updated, java.sql.Date created, LocalDate due, String stamp, TimeUnit unit, BigDecimal balance, short level, LocalDateTime seen, OffsetDateTime synced) {
+		this.code = code;
+		this.count = count;
+		this.amount = amount;
+		this.ratio = ratio;
+		this.active = active;
+		this.grade = grade;
+		this.updated = updated;
+		this.created = created;
+		this.due = due;
+		this.stamp = stamp;
+		this.unit = unit;
+		this.balance = balance;
+		this.level = level;
+		this.seen = seen;
+		this.synced = synced;
+	}
+
+	public String getCode() {
+		return code;
+	}
+
+	public Integer getCount() {
+		return count;
+	}
+
+	public Float getAmount() {
+		return amount;
+	}
+}
@@ -0,0 +1,32 @@
+package org.apache.poi.excel.model;
+
+import org.apache.poi.excel.annotation.ExcelCell;
+import org.apache.poi.excel.annotation.ExcelCondition;
+import org.apache.poi.excel.annotation.ExcelSheet;
+import org.apache.poi.ss.usermodel.IndexedColors;
+
+@ExcelSheet(name = "Highlighted", conditions = {
+		@ExcelCondition(column = "Due", type = ExcelConditionType.LESS_THAN, value = "=TODAY()", italic = true),
+		@ExcelCondition(column = "missing", type = ExcelConditionType.EQUAL, value = "0", bold = true) })
+public class ExcelHighlighted {
+
+	@ExcelCell(index = 1)
+	public String account;
+
+	@ExcelCell(index = 2, type = ExcelCellType.CURRENCY)
+	@ExcelCondition(type = ExcelConditionType.LESS_THAN, value = "0", color = IndexedColors.RED, bold = true)
+	@ExcelCondition(type = ExcelConditionType.BETWEEN, value = "1000", to = "5000", fill = IndexedColors.LIGHT_GREEN)
+	@ExcelCondition(type = ExcelConditionType.TOP, value = "3", fill = IndexedColors.LIGHT_GREEN)
+	public double balance;
+
+	@ExcelCell(index = 3, header = "Due")
+	@ExcelCondition(type = ExcelConditionType.BOTTOM, value = "two", bold = true)
+	@ExcelCondition(type = ExcelConditionType.GREATER_THAN, value = "0")
+	public java.util.Date dueDate;
+
+	public ExcelHighlighted(String account, double balance, java.util.Date dueDate) {
+		this.account = account;
+		this.balance = balance;
+		this.dueDate = dueDate;
+	}
+}
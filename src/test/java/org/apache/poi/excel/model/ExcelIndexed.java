@@ -0,0 +1,25 @@
+package org.apache.poi.excel.model;
+
+import org.apache.poi.excel.annotation.ExcelCell;
+import org.apache.poi.excel.annotation.ExcelSheet;
+
+@ExcelSheet
+public class ExcelIndexed {
+
+	@ExcelCell(header = "Third", index = 3)
+	public String third;
+
+	@ExcelCell(header = "First", index = 1)
+	public String first;
+
+	public String skipped;
+
+	@ExcelCell(index = 2, type = ExcelCellType.INTEGER)
+	public int secondColumn;
+
+	public ExcelIndexed(String first, int secondColumn, String third) {
+		this.first = first;
+		this.secondColumn = secondColumn;
+		this.third = third;
+	}
+}
@@ -0,0 +1,23 @@
+package org.apache.poi.excel.model;
+
+public class ExcelNumeric {
+
+	public String label;
+	public int count;
+	public long total;
+	public double ratio;
+	public float weight;
+	public short level;
+	public boolean active;
+
+	public ExcelNumeric(String label, int count, long total, double ratio, float weight, short level,
+			boolean active) {
+		this.label = label;
+		this.count = count;
+		this.total = total;
+		this.ratio = ratio;
+		this.weight = weight;
+		this.level = level;
+		this.active = active;
+	}
+}
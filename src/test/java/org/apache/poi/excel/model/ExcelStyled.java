@@ -0,0 +1,36 @@
+package org.apache.poi.excel.model;
+
+import org.apache.poi.excel.annotation.ExcelCell;
+import org.apache.poi.excel.annotation.ExcelSheet;
+import org.apache.poi.ss.usermodel.IndexedColors;
+
+@ExcelSheet(name = "Styled")
+public class ExcelStyled {
+
+	@ExcelCell(index = 1, bold = true, color = IndexedColors.DARK_RED)
+	public String name;
+
+	@ExcelCell(index = 2, type = ExcelCellType.DECIMAL, format = "#,##0.000")
+	public double amount;
+
+	@ExcelCell(index = 3, type = ExcelCellType.DECIMAL, format = "#,##0.000")
+	public double total;
+
+	@ExcelCell(index = 4, fill = IndexedColors.LIGHT_YELLOW, bold = true)
+	public boolean flag;
+
+	@ExcelCell(index = 5, format = "dd-mmm-yy")
+	public java.util.Date day;
+
+	@ExcelCell(index = 6)
+	public int count;
+
+	public ExcelStyled(String name, double amount, boolean flag, java.util.Date day, int count) {
+		this.name = name;
+		this.amount = amount;
+		this.total = amount * 2;
+		this.flag = flag;
+		this.day = day;
+		this.count = count;
+	}
+}
@@ -0,0 +1,83 @@
+package org.apache.poi.excel.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+public class SheetSchemaTest {
+
+	@Test
+	public void testCompiledOnce() {
+		assertSame(SheetSchema.of(ExcelAnnotated.class), SheetSchema.of(ExcelAnnotated.class));
+	}
+
+	@Test
+	public void testNames() {
+		SheetSchema annotated = SheetSchema.of(ExcelAnnotated.class);
+		assertEquals("Custom Sheet Name", annotated.getName());
+		assertEquals("Custom Sheet Heading", annotated.getHeading());
+
+		SheetSchema nonAnnotated = SheetSchema.of(ExcelNonAnnotated.class);
+		assertEquals("Excel Non Annotated", nonAnnotated.getName());
+		assertEquals("", nonAnnotated.getHeading());
+		assertEquals(12, nonAnnotated.getColumns().size());
+	}
+
+	@Test
+	public void testIndexOrdering() {
+		SheetSchema schema = SheetSchema.of(ExcelIndexed.class);
+		assertEquals(Arrays.asList("First", "Second Column", "Third"),
+				schema.getColumns().stream().map(ColumnSchema::getHeader).collect(Collectors.toList()));
+		assertEquals(ExcelCellType.INTEGER, schema.getColumns().get(1).getType());
+	}
+
+	@Test
+	public void testStylePool() {
+		SheetSchema schema = SheetSchema.of(ExcelStyled.class);
+		int[][] styles = schema.getStyles();
+		assertEquals(6, styles.length);
+
+		// Columns that look the same share their styles
+		assertArrayEquals(styles[1], styles[2]);
+		int decimal = styles[1][StylePool.slotOf(ExcelCellType.DECIMAL)];
+		assertEquals("#,##0.000", StylePool.get(decimal).getFormat());
+		assertEquals(decimal, StylePool.intern(new CellFormat("#,##0.000", false, false, null, null)));
+
+		// A look without a format of its own keeps the one of the type
+		CellFormat name = StylePool.get(styles[0][StylePool.slotOf(ExcelCellType.PERCENT)]);
+		assertEquals(ExcelCellType.PERCENT.getFormat(), name.getFormat());
+		assertTrue(name.isBold());
+		assertEquals("", StylePool.get(styles[0][StylePool.slotOf(null)]).getFormat());
+
+		assertNull(styles[5]);
+		assertNull(SheetSchema.of(ExcelIndexed.class).getStyles());
+	}
+
+	@Test
+	public void testConditions() {
+		List<ConditionSchema> conditions = SheetSchema.of(ExcelHighlighted.class).getConditions();
+		// The ones without a rank, a look or a column are skipped
+		assertEquals(4, conditions.size());
+
+		assertEquals(1, conditions.get(0).getColumn());
+		assertEquals(ExcelConditionType.LESS_THAN, conditions.get(0).getType());
+		assertNull(conditions.get(0).getTo());
+		assertEquals("5000", conditions.get(1).getTo());
+		assertEquals(3, conditions.get(2).getRank());
+
+		// Those of the sheet come last, found by the header
+		assertEquals(2, conditions.get(3).getColumn());
+		assertEquals("TODAY()", conditions.get(3).getValue());
+		assertTrue(conditions.get(3).getLook().isItalic());
+
+		assertTrue(SheetSchema.of(ExcelStyled.class).getConditions().isEmpty());
+	}
+}
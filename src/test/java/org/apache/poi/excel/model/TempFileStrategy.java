@@ -25,9 +25,8 @@ public class TempFileStrategy implements TempFileCreationStrategy {
 	 */
 	@Override
 	public File createTempFile(String prefix, String suffix) throws IOException {
-		File file = new File(Paths.get(tempDir, prefix.concat(suffix)).toString());
-		file.createNewFile();
-		return file;
+		// Unique names, as several workbooks may be streaming at the same time
+		return File.createTempFile(prefix, suffix, createTempDirectory(""));
 	}
 
 	/**
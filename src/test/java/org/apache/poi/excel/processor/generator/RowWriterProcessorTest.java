@@ -0,0 +1,107 @@
+package org.apache.poi.excel.processor.generator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.poi.excel.model.ColumnSchema;
+import org.apache.poi.excel.model.ExcelCellType;
+import org.apache.poi.excel.model.ExcelEdge;
+import org.apache.poi.excel.model.ExcelGenerated;
+import org.apache.poi.excel.model.SheetSchema;
+import org.apache.poi.excel.processor.writer.CellWriterFactory;
+import org.apache.poi.excel.processor.writer.RowWriter;
+import org.apache.poi.excel.processor.writer.engine.CellCursor;
+import org.junit.Test;
+
+/**
+ * The test sources are compiled with the {@link RowWriterProcessor}, see the
+ * pom.
+ */
+public class RowWriterProcessorTest {
+
+	/**
+	 * Writes down every call, so that two writers can be compared.
+	 */
+	private static class RecordingCursor implements CellCursor {
+		private final List<String> calls = new ArrayList<String>();
+
+		@Override
+		public void setColumn(int column) {
+			calls.add("column " + column);
+		}
+
+		@Override
+		public void setNumber(double value, ExcelCellType type) {
+			calls.add("number " + value + " " + type);
+		}
+
+		@Override
+		public void setString(String value, ExcelCellType type) {
+			calls.add("string " + value + " " + type);
+		}
+
+		@Override
+		public void setBoolean(boolean value) {
+			calls.add("boolean " + value);
+		}
+
+		@Override
+		public void setDate(Date value, ExcelCellType type) {
+			calls.add("date " + (value == null ? null : value.getTime()) + " " + type);
+		}
+
+		@Override
+		public void setBlank(ExcelCellType type) {
+			calls.add("blank " + type);
+		}
+	}
+
+	@Test
+	public void testGenerated() throws Exception {
+		Class<?> writerClass = Class.forName(ExcelGenerated.class.getName() + RowWriter.SUFFIX);
+		RowWriter<?> rowWriter = (RowWriter<?>) writerClass.getDeclaredConstructor().newInstance();
+		assertArrayEquals(new String[] { "code", "count", "amount", "ratio", "active", "grade", "updated", "created",
+				"due", "stamp", "unit", "balance", "level", "seen", "synced" }, rowWriter.getColumns());
+	}
+
+	@Test(expected = ClassNotFoundException.class)
+	public void testSkippedWithoutGetters() throws Exception {
+		Class.forName(ExcelEdge.class.getName() + RowWriter.SUFFIX);
+	}
+
+	@Test
+	public void testSameAsReflective() {
+		Calendar calendar = Calendar.getInstance();
+		calendar.setTimeInMillis(1583812827000L);
+		List<ExcelGenerated> rows = new ArrayList<ExcelGenerated>();
+		rows.add(new ExcelGenerated("A-1", 42, 0.1f, 0.3f, true, 'B', calendar, new java.sql.Date(1583812827000L),
+				LocalDate.of(2020, 3, 9), "2020-03-09T23:00:27", TimeUnit.DAYS, new BigDecimal("1234.56"), (short) 7, LocalDateTime.of(2020, 3, 9, 23, 0, 27),
+				OffsetDateTime.of(2020, 3, 9, 23, 0, 27, 0, ZoneOffset.ofHours(5))));
+		rows.add(new ExcelGenerated());
+
+		RecordingCursor generated = new RecordingCursor();
+		RecordingCursor reflective = new RecordingCursor();
+		CellWriterFactory writerFactory = new CellWriterFactory();
+		List<ColumnSchema> columns = SheetSchema.of(ExcelGenerated.class).getColumns();
+		for (ExcelGenerated row : rows) {
+			for (int i = 0; i < columns.size(); i++) {
+				generated.setColumn(i);
+				columns.get(i).getWriter().accept(generated, row);
+				reflective.setColumn(i);
+				writerFactory.getAnnotatedFieldWriter(columns.get(i).getField()).accept(reflective, row);
+			}
+		}
+		assertEquals(reflective.calls, generated.calls);
+	}
+}
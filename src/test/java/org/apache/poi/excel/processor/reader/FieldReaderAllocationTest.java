@@ -0,0 +1,80 @@
+package org.apache.poi.excel.processor.reader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * Checks that reading primitive fields allocates nothing, i.e. that the reads
+ * are neither boxed nor dispatched through anything the JIT could not see
+ * through. Measured with the per thread allocation counter of HotSpot, so
+ * skipped on other JVMs.
+ */
+public class FieldReaderAllocationTest {
+
+	private static final int READS = 2_000_000;
+
+	/** Generous, a single boxed value per read would already be 16 bytes. */
+	private static final long MAX_BYTES_PER_READ = 1;
+
+	@SuppressWarnings("unused")
+	private static class Sample {
+		private int count;
+		private long total;
+		private double amount;
+		private float ratio;
+
+		Sample(int i) {
+			this.count = i;
+			this.total = i * 1000L;
+			this.amount = i / 7.0;
+			this.ratio = i / 3f;
+		}
+	}
+
+	@Test
+	public void testReadAllocations() throws Exception {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+		Assume.assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+
+		FieldReader count = new FieldReader(Sample.class.getDeclaredField("count"));
+		FieldReader total = new FieldReader(Sample.class.getDeclaredField("total"));
+		FieldReader amount = new FieldReader(Sample.class.getDeclaredField("amount"));
+		FieldReader ratio = new FieldReader(Sample.class.getDeclaredField("ratio"));
+		Sample[] rows = new Sample[1000];
+		for (int i = 0; i < rows.length; i++) {
+			rows[i] = new Sample(i);
+		}
+
+		// Warm up, so that the reads are compiled
+		double expected = 0;
+		for (int i = 0; i < 10; i++) {
+			expected = sum(rows, count, total, amount, ratio);
+		}
+
+		long id = Thread.currentThread().getId();
+		long before = threads.getThreadAllocatedBytes(id);
+		double sum = sum(rows, count, total, amount, ratio);
+		long bytes = threads.getThreadAllocatedBytes(id) - before;
+
+		assertEquals(expected, sum, 0);
+		long perRead = bytes / READS;
+		assertTrue("Allocated " + bytes + " bytes for " + READS + " reads", perRead <= MAX_BYTES_PER_READ);
+	}
+
+	private static double sum(Sample[] rows, FieldReader count, FieldReader total, FieldReader amount,
+			FieldReader ratio) {
+		double sum = 0;
+		for (int i = 0; i < READS / 4; i++) {
+			Sample row = rows[i % rows.length];
+			sum += count.getInt(row) + total.getLong(row) + amount.getDouble(row) + ratio.getFloat(row);
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,73 @@
+package org.apache.poi.excel.processor.reader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import org.apache.poi.excel.model.CellValueException;
+import org.junit.Test;
+
+public class FieldReaderTest {
+
+	@SuppressWarnings("unused")
+	private static class Sample {
+		private static String label = "static";
+		private int count = 7;
+		private Integer boxed = 42;
+		private Integer missing = null;
+		private long big = 9L;
+		private String text = "text";
+	}
+
+	private static FieldReader reader(String name) throws NoSuchFieldException {
+		return new FieldReader(Sample.class.getDeclaredField(name));
+	}
+
+	@Test
+	public void testPrimitiveAndBoxed() throws Exception {
+		Sample sample = new Sample();
+		assertEquals(7, reader("count").getInt(sample));
+		assertEquals(7.0, reader("count").getDouble(sample), 0);
+		assertEquals(42, reader("boxed").getInt(sample));
+		assertEquals(42L, reader("boxed").getLong(sample));
+		assertEquals(9L, reader("big").getLong(sample));
+		assertEquals("text", reader("text").getObject(sample));
+		assertEquals("static", reader("label").getObject(sample));
+	}
+
+	@Test
+	public void testNullAndUnreadable() throws Exception {
+		Sample sample = new Sample();
+		// A null wrapper reads as 0
+		assertEquals(0, reader("missing").getInt(sample));
+		assertEquals(0.0, reader("missing").getDouble(sample), 0);
+
+		// Narrowing and non numeric reads fail, for the writer to count
+		FieldReader big = reader("big");
+		try {
+			big.getInt(sample);
+			fail("Expected to fail");
+		} catch (CellValueException e) {
+			assertEquals(0, e.getStackTrace().length);
+			// The same one every time
+			try {
+				big.getInt(sample);
+				fail("Expected to fail");
+			} catch (CellValueException again) {
+				assertSame(e, again);
+			}
+		}
+		try {
+			reader("text").getInt(sample);
+			fail("Expected to fail");
+		} catch (CellValueException e) {
+			assertEquals("Unable to read the field as int", e.getReason());
+		}
+		try {
+			reader("text").getObject(null);
+			fail("Expected to fail");
+		} catch (NullPointerException e) {
+			// A null row has no fields to read
+		}
+	}
+}
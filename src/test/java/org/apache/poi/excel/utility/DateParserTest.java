@@ -0,0 +1,50 @@
+package org.apache.poi.excel.utility;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.junit.Test;
+
+public class DateParserTest {
+
+	@Test
+	public void testIso() {
+		DateParser parser = new DateParser();
+		assertEquals(1539891379419L, parser.parse("2018-10-18T14:36:19.419-05:00[UTC-05:00]").getTime());
+		assertEquals(0, parser.getLearned());
+		assertEquals(DateUtil.asDate(LocalDateTime.of(2020, 3, 9, 23, 0, 27)), parser.parse("2020-03-09 23:00:27"));
+	}
+
+	@Test
+	public void testLearnsTheFormat() {
+		DateParser parser = new DateParser();
+		assertEquals(DateUtil.parse("03/09/2020"), parser.parse("03/09/2020"));
+		assertEquals(1, parser.getLearned());
+		// Still understands the others
+		assertEquals(DateUtil.parse("2020-03-09"), parser.parse("2020-03-09"));
+		assertEquals(0, parser.getLearned());
+	}
+
+	@Test
+	public void testUnknown() {
+		DateParser parser = new DateParser();
+		assertNull(parser.parse(""));
+		assertNull(parser.parse("not a date"));
+		assertEquals(-1, parser.getLearned());
+	}
+
+	@Test
+	public void testZone() {
+		ZoneId zone = DateUtil.getZone();
+		try {
+			DateUtil.setZone(ZoneOffset.UTC);
+			assertEquals(0L, DateUtil.parse("1970-01-01").getTime());
+		} finally {
+			DateUtil.setZone(zone);
+		}
+	}
+}
@@ -0,0 +1,63 @@
+package org.apache.poi.excel.utility;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+import org.junit.Test;
+
+public class DateUtilTest {
+
+	/**
+	 * What POI makes of the same wall clock time, through a Date and a Calendar.
+	 */
+	private static double poiSerial(LocalDateTime localDateTime) {
+		return org.apache.poi.ss.usermodel.DateUtil
+				.getExcelDate(Date.from(localDateTime.atZone(ZoneId.systemDefault()).toInstant()));
+	}
+
+	@Test
+	public void testSameAsPoi() {
+		// Only modern times, java.time and java.util disagree on the zone offsets of the
+		// early 1900s
+		LocalDateTime[] times = { LocalDateTime.of(1970, 1, 1, 12, 0),
+				LocalDateTime.of(2020, 3, 9, 23, 0, 27, 123_456_789), LocalDateTime.of(2021, 11, 7, 1, 30),
+				LocalDateTime.of(9999, 12, 31, 23, 59, 59) };
+		for (LocalDateTime time : times) {
+			assertEquals(time.toString(), poiSerial(time), DateUtil.toSerial(time), 0);
+		}
+		for (LocalDateTime time = LocalDateTime.of(1999, 1, 1, 0, 0); time.getYear() < 2001; time = time
+				.plusMinutes(7919)) {
+			// A wall clock time skipped by daylight saving has no Date to compare with
+			if (time.atZone(ZoneId.systemDefault()).toLocalDateTime().equals(time)) {
+				assertEquals(time.toString(), poiSerial(time), DateUtil.toSerial(time), 0);
+			}
+		}
+	}
+
+	@Test
+	public void testSerials() {
+		assertEquals(1, DateUtil.toSerial(LocalDate.of(1900, 1, 1)), 0);
+		assertEquals(59, DateUtil.toSerial(LocalDate.of(1900, 2, 28)), 0);
+		assertEquals(61, DateUtil.toSerial(LocalDate.of(1900, 3, 1)), 0);
+		assertEquals(43899, DateUtil.toSerial(LocalDate.of(2020, 3, 9)), 0);
+		assertEquals(43899.5, DateUtil.toSerial(LocalDateTime.of(2020, 3, 9, 12, 0)), 0);
+		assertEquals(59.999988425925924, DateUtil.toSerial(LocalDateTime.of(1900, 2, 28, 23, 59, 59)), 0);
+		assertEquals(-1, DateUtil.toSerial(LocalDate.of(1899, 12, 31)), 0);
+	}
+
+	@Test
+	public void testInstants() {
+		OffsetDateTime time = OffsetDateTime.of(2020, 3, 9, 23, 0, 27, 0, ZoneOffset.ofHours(5));
+		double expected = poiSerial(LocalDateTime.ofInstant(time.toInstant(), ZoneId.systemDefault()));
+		assertEquals(expected, DateUtil.toSerial(time), 0);
+		assertEquals(expected, DateUtil.toSerial(time.toZonedDateTime()), 0);
+		assertEquals(expected, DateUtil.toSerial(Instant.from(time)), 0);
+	}
+}
@@ -0,0 +1,64 @@
+package org.apache.poi.excel.utility;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import org.junit.Test;
+
+public class NumberUtilTest {
+
+	@Test
+	public void testFloat() {
+		assertEquals(0.1, NumberUtil.toDouble(0.1f), 0);
+		assertEquals(12345.67, NumberUtil.toDouble(12345.67f), 0);
+		assertEquals(-3.0, NumberUtil.toDouble(-3f), 0);
+		assertEquals(1.0e-12, NumberUtil.toDouble(1.0e-12f), 0);
+		assertEquals(Double.NaN, NumberUtil.toDouble(Float.NaN), 0);
+		// Every amount in cents reads the same as through its text
+		for (int cents = -100000; cents <= 100000; cents++) {
+			float value = cents / 100f;
+			assertEquals(Double.parseDouble(Float.toString(value)), NumberUtil.toDouble(value), 0);
+		}
+	}
+
+	@Test
+	public void testObject() {
+		assertEquals(42.0, NumberUtil.toDouble((Object) 42), 0);
+		assertEquals(0.3, NumberUtil.toDouble((Object) 0.3f), 0);
+		assertEquals(1234.56, NumberUtil.toDouble(new BigDecimal("1234.56")), 0);
+		assertEquals(1e20, NumberUtil.toDouble(BigInteger.TEN.pow(20)), 0);
+		assertEquals(7.5, NumberUtil.toDouble("7.5"), 0);
+	}
+
+	@Test(expected = NumberFormatException.class)
+	public void testNotANumber() {
+		NumberUtil.toDouble("seven");
+	}
+
+	@Test
+	public void testIsNumber() {
+		assertTrue(NumberUtil.isNumber("7.5"));
+		assertTrue(NumberUtil.isNumber(" -1e-3 "));
+		assertFalse(NumberUtil.isNumber("seven"));
+		assertFalse(NumberUtil.isNumber(""));
+		// The same answer as the parse itself
+		String[] texts = { "42", "+0.5", ".5", "5.", ".", "-", "1e", "1e+", "1E10", "2.5f", "3d", "1ef", "NaN", "-Infinity",
+				"Infinityx", "0x1p3", "0x1.8p1", "0x1", "0xg", "1,000", "12 34", "\t9\n", "1.2.3", "e5", "00.00" };
+		for (String text : texts) {
+			assertEquals(text, parses(text), NumberUtil.isNumber(text));
+		}
+	}
+
+	private static boolean parses(String text) {
+		try {
+			Double.parseDouble(text);
+			return true;
+		} catch (NumberFormatException e) {
+			return false;
+		}
+	}
+}